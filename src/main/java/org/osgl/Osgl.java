@@ -2352,6 +2352,11 @@ public class Osgl implements Serializable {
 
     /**
      * A Break is used to shortcut a sequence of function executions
+     * <p>
+     * Traversals that only need to stop early should prefer
+     * {@link org.osgl.util.C.Traversable#forEachWhile(Function)},
+     * which signals the stop with the visitor's return value instead
+     * of throwing
      */
     public static class Break extends FastRuntimeException {
         private Object payload;
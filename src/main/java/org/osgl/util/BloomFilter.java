@@ -0,0 +1,229 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * A Bloom filter tells whether an element might have been put into it, or
+ * definitely has not. It uses a fixed number of bits regardless of the
+ * number of elements put into it.
+ *
+ * <p>The bit size and the number of hash functions are derived from the
+ * expected number of insertions and the desired false positive
+ * probability. The bit positions of an element are derived from its
+ * 64 bit hash with double hashing. Strings, byte arrays and integral
+ * numbers are hashed on their content, other objects on their
+ * {@link Object#hashCode()}.</p>
+ *
+ * <p>A filter created with {@link #concurrent(long, double)} can be
+ * updated and queried from many threads. Two filters with the same bit
+ * size and number of hash functions can be {@link #merge(BloomFilter) merged}
+ * and a filter can be serialized with {@link #toByteArray()}.</p>
+ *
+ * @param <T> the element type
+ */
+public class BloomFilter<T> {
+
+    private static final byte FORMAT = 1;
+
+    private final LongCells bits;
+    private final long bitSize;
+    private final int hashCount;
+
+    private BloomFilter(LongCells bits, int hashCount) {
+        this.bits = bits;
+        this.bitSize = (long) bits.length() << 6;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Put an element into the filter
+     *
+     * @param t the element
+     * @return {@code true} if any bit of the filter changed, i.e. the
+     *         element has definitely not been put before
+     */
+    public boolean put(T t) {
+        long hash = OpenHash.hash64(t);
+        long h1 = hash, h2 = OpenHash.mix64(~hash) | 1;
+        boolean changed = false;
+        for (int i = 0; i < hashCount; ++i) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % bitSize;
+            changed |= bits.or((int) (bit >>> 6), 1L << bit);
+        }
+        return changed;
+    }
+
+    /**
+     * Put all elements of an iterable into the filter
+     *
+     * @param iterable the elements
+     * @return this filter
+     */
+    public BloomFilter<T> putAll(Iterable<? extends T> iterable) {
+        for (T t : iterable) {
+            put(t);
+        }
+        return this;
+    }
+
+    /**
+     * Check if an element might have been put into the filter
+     *
+     * @param t the element
+     * @return {@code false} if the element has definitely not been put
+     *         into the filter, or {@code true} if it might have been
+     */
+    public boolean mightContain(T t) {
+        long hash = OpenHash.hash64(t);
+        long h1 = hash, h2 = OpenHash.mix64(~hash) | 1;
+        for (int i = 0; i < hashCount; ++i) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % bitSize;
+            if (0 == (bits.get((int) (bit >>> 6)) & (1L << bit))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Put all elements of another filter into this filter. Both filters
+     * must have the same bit size and number of hash functions
+     *
+     * @param other the other filter
+     * @return this filter
+     * @throws IllegalArgumentException if the filters are not compatible
+     */
+    public BloomFilter<T> merge(BloomFilter<? extends T> other) {
+        E.illegalArgumentIf(other.bitSize != bitSize || other.hashCount != hashCount, "Bloom filters are not compatible");
+        LongCells bits = this.bits, otherBits = other.bits;
+        for (int i = 0, n = bits.length(); i < n; ++i) {
+            bits.or(i, otherBits.get(i));
+        }
+        return this;
+    }
+
+    /**
+     * Returns the probability that {@link #mightContain(Object)} returns
+     * {@code true} for an element that has not been put into the filter,
+     * estimated from the number of bits set
+     *
+     * @return the current false positive probability
+     */
+    public double expectedFpp() {
+        long set = 0;
+        for (int i = 0, n = bits.length(); i < n; ++i) {
+            set += Long.bitCount(bits.get(i));
+        }
+        return Math.pow((double) set / bitSize, hashCount);
+    }
+
+    public long bitSize() {
+        return bitSize;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    public boolean isConcurrent() {
+        return bits.isConcurrent();
+    }
+
+    /**
+     * Returns the filter serialized into a byte array, which could be
+     * read back with {@link #fromByteArray(byte[])}
+     *
+     * @return the serialized filter
+     */
+    public byte[] toByteArray() {
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 4 + 4 + (bits.length() << 3));
+        buffer.put(FORMAT).putInt(hashCount).putInt(bits.length());
+        bits.write(buffer);
+        return buffer.array();
+    }
+
+    public static <T> BloomFilter<T> fromByteArray(byte[] bytes) {
+        return fromByteArray(bytes, false);
+    }
+
+    /**
+     * Read a filter from the bytes written by {@link #toByteArray()}
+     *
+     * @param bytes the serialized filter
+     * @param concurrent whether the filter returned shall be thread safe
+     * @param <T> the element type
+     * @return the filter
+     * @throws IllegalArgumentException if the bytes are not a serialized filter
+     */
+    public static <T> BloomFilter<T> fromByteArray(byte[] bytes, boolean concurrent) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            E.illegalArgumentIf(buffer.get() != FORMAT, "unknown Bloom filter format");
+            int hashCount = buffer.getInt();
+            int words = buffer.getInt();
+            E.illegalArgumentIf(hashCount < 1 || words < 1 || buffer.remaining() != (long) words << 3, "invalid Bloom filter data");
+            return new BloomFilter<T>(LongCells.of(words, concurrent).read(buffer), hashCount);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("invalid Bloom filter data");
+        }
+    }
+
+    /**
+     * Create a filter that is not thread safe
+     *
+     * @param expectedInsertions the number of elements expected to be put
+     * @param fpp the desired false positive probability when the expected
+     *            number of elements have been put
+     * @param <T> the element type
+     * @return the filter
+     */
+    public static <T> BloomFilter<T> create(long expectedInsertions, double fpp) {
+        return create(expectedInsertions, fpp, false);
+    }
+
+    /**
+     * Create a thread safe filter
+     *
+     * @param expectedInsertions the number of elements expected to be put
+     * @param fpp the desired false positive probability when the expected
+     *            number of elements have been put
+     * @param <T> the element type
+     * @return the filter
+     */
+    public static <T> BloomFilter<T> concurrent(long expectedInsertions, double fpp) {
+        return create(expectedInsertions, fpp, true);
+    }
+
+    private static <T> BloomFilter<T> create(long expectedInsertions, double fpp, boolean concurrent) {
+        E.illegalArgumentIf(expectedInsertions < 0, "expected insertions shall not be negative: %s", expectedInsertions);
+        E.illegalArgumentIf(!(fpp > 0.0 && fpp < 1.0), "fpp shall be between 0 and 1: %s", fpp);
+        long n = Math.max(1L, expectedInsertions);
+        double ln2 = Math.log(2);
+        long bitSize = (long) Math.ceil(-n * Math.log(fpp) / (ln2 * ln2));
+        long words = (bitSize + 63) >>> 6;
+        E.illegalArgumentIf(words > Integer.MAX_VALUE, "Bloom filter too large");
+        int hashCount = Math.max(1, (int) Math.round((double) bitSize / n * ln2));
+        return new BloomFilter<T>(LongCells.of((int) words, concurrent), hashCount);
+    }
+}
@@ -353,6 +353,106 @@ public enum C {
          */
         $.Option<T> findOne($.Function<? super T, Boolean> predicate);
 
+        /**
+         * Visit elements of this {@code Traversable} until the visitor
+         * returns {@code false}.
+         *
+         * <p>Unlike breaking out of {@link #forEach(Osgl.Function)} by
+         * throwing {@link Osgl.Break}, the stop signal is the return value
+         * of the visitor, so short circuit traversal does not throw. Search
+         * methods like {@link #findOne(Osgl.Function)} and
+         * {@link #anyMatch(Osgl.Function)} are built on top of this method</p>
+         *
+         * @param visitor the function applied to elements, returns {@code true}
+         *                to continue or {@code false} to stop the traversal
+         * @return {@code true} if all elements have been visited, or
+         *         {@code false} if the visitor stopped the traversal
+         */
+        boolean forEachWhile($.Function<? super T, Boolean> visitor);
+
+        /**
+         * Returns a {@link BloomFilter} with all elements of this
+         * {@code Traversable} put into it. The filter is sized for
+         * the number of elements in this {@code Traversable}
+         *
+         * @param fpp the desired false positive probability
+         * @return a Bloom filter of the elements
+         * @throws UnsupportedOperationException if the size of this
+         *         {@code Traversable} is unknown
+         */
+        BloomFilter<T> toBloomFilter(double fpp);
+
+        /**
+         * Returns the approximate number of distinct elements in this
+         * {@code Traversable}, estimated with a {@link HyperLogLog} of the
+         * {@link HyperLogLog#DEFAULT_PRECISION default precision} in
+         * constant memory
+         *
+         * @return the estimated number of distinct elements
+         */
+        long approxDistinct();
+
+        /**
+         * Group elements of this {@code Traversable} by the key calculated
+         * with the function specified. Groups are kept in the order their
+         * keys are first encountered and elements in a group are kept in
+         * the order they are iterated
+         *
+         * <p>If this {@code Traversable} is a {@link Feature#PARALLEL parallel}
+         * random access list the elements might be grouped in parallel, in
+         * which case the key function must be thread safe</p>
+         *
+         * @param keyFn the function calculates the group key of an element,
+         *              must not return {@code null}
+         * @param <K> the key type
+         * @return an immutable map from keys to lists of elements
+         */
+        <K> java.util.Map<K, List<T>> groupBy($.Function<? super T, ? extends K> keyFn);
+
+        /**
+         * Count elements of this {@code Traversable} by the key calculated
+         * with the function specified. Counts are kept as primitive
+         * {@code int} in the {@link ObjectIntMap} returned
+         *
+         * @param keyFn the function calculates the key of an element,
+         *              must not return {@code null}
+         * @param <K> the key type
+         * @return a map from keys to the number of elements
+         * @see #groupBy(Osgl.Function)
+         */
+        <K> ObjectIntMap<K> countBy($.Function<? super T, ? extends K> keyFn);
+
+        /**
+         * Group elements of this {@code Traversable} by the key calculated
+         * with the function specified and reduce elements in each group
+         * with the combiner function starting from the identity value
+         *
+         * <p>In case the reduction run in parallel partial results of a group
+         * are combined with the same combiner function, thus the combiner
+         * must be associative and {@code identity} must be an identity of
+         * the combiner</p>
+         *
+         * @param keyFn the function calculates the group key of an element,
+         *              must not return {@code null}
+         * @param identity the initial value of each group
+         * @param combiner the function combines a group value and an element
+         * @param <K> the key type
+         * @return an immutable map from keys to the reduced value of each group
+         * @see #groupBy(Osgl.Function)
+         */
+        <K> java.util.Map<K, T> groupingReduce($.Function<? super T, ? extends K> keyFn, T identity, $.Func2<T, T, T> combiner);
+
+        /**
+         * Split elements of this {@code Traversable} into two lists by the
+         * predicate specified
+         *
+         * @param predicate the function tests an element
+         * @return a pair of lists, the first contains elements matches the
+         *         predicate and the second contains the rest elements
+         * @see #groupBy(Osgl.Function)
+         */
+        $.T2<List<T>, List<T>> partition($.Function<? super T, Boolean> predicate);
+
         /**
          * Iterate this {@code Traversable} with a visitor function. This method
          * does not specify the approach to iterate through this structure. The
@@ -481,6 +581,250 @@ public enum C {
          */
         Sequence<T> take(int n);
 
+        /**
+         * Returns an immutable list of the first {@code k} elements of this
+         * {@code Sequence} in the natural order of the elements.
+         *
+         * @param k the number of elements to be returned
+         * @return the {@code k} smallest elements in order
+         * @throws IllegalArgumentException if {@code k} is negative
+         * @see #topK(int, Comparator)
+         */
+        List<T> topK(int k);
+
+        /**
+         * Returns an immutable list of the first {@code k} elements of this
+         * {@code Sequence} in the order specified by the comparator.
+         *
+         * <p>The result is the same as sorting the sequence and then taking
+         * the first {@code k} elements, except the order of elements that
+         * are equal as per the comparator is not specified. Instead of a full
+         * sort the elements are collected into a heap of size {@code k},
+         * which takes {@code O(n log k)} time and {@code O(k)} memory. If
+         * {@link C.Feature#PARALLEL} is set, the heaps are collected on
+         * chunks of the sequence in parallel and merged</p>
+         *
+         * <p>To get the {@code k} greatest elements, pass in a reversed
+         * comparator</p>
+         *
+         * @param k the number of elements to be returned
+         * @param comparator specify the order of elements
+         * @return the first {@code k} elements in the order of the comparator
+         * @throws IllegalArgumentException if {@code k} is negative
+         */
+        List<T> topK(int k, Comparator<? super T> comparator);
+
+        /**
+         * Returns the element at index {@code n} in the natural order of
+         * the elements.
+         *
+         * @param n the index of the element in the sorted order
+         * @return the {@code n}-th smallest element
+         * @throws IndexOutOfBoundsException if {@code n} is negative or not
+         *         less than the number of elements in the sequence
+         * @see #nthElement(int, Comparator)
+         */
+        T nthElement(int n);
+
+        /**
+         * Returns the element that would be at index {@code n} if this
+         * {@code Sequence} were sorted by the comparator. The element is found
+         * with an introselect in {@code O(n)} time on a copy of the elements,
+         * this sequence is not changed.
+         *
+         * @param n the index of the element in the sorted order
+         * @param comparator specify the order of elements
+         * @return the {@code n}-th element in the order of the comparator
+         * @throws IndexOutOfBoundsException if {@code n} is negative or not
+         *         less than the number of elements in the sequence
+         */
+        T nthElement(int n, Comparator<? super T> comparator);
+
+        /**
+         * Returns a lazy sequence of consecutive chunks of {@code size}
+         * elements of this {@code Sequence}. The last chunk contains the
+         * remaining elements and could be smaller than {@code size}.
+         *
+         * <pre>
+         *     C.list(1, 2, 3, 4, 5).batch(2) // [[1, 2], [3, 4], [5]]
+         * </pre>
+         *
+         * <p>The chunks are immutable lists backed by arrays</p>
+         *
+         * @param size the number of elements in a chunk
+         * @return a sequence of chunks
+         * @throws IllegalArgumentException if {@code size} is not positive
+         */
+        Sequence<List<T>> batch(int size);
+
+        /**
+         * Returns a lazy sequence of windows of {@code size} elements of this
+         * {@code Sequence}. The first window starts at the first element and
+         * each following window starts {@code step} elements after the
+         * previous one. Windows that would have less than {@code size}
+         * elements at the end of the sequence are not returned.
+         *
+         * <pre>
+         *     C.list(1, 2, 3, 4, 5).window(3, 1) // [[1, 2, 3], [2, 3, 4], [3, 4, 5]]
+         *     C.list(1, 2, 3, 4, 5).window(2, 2) // [[1, 2], [3, 4]]
+         *     C.list(1, 2, 3, 4, 5).window(1, 2) // [[1], [3], [5]]
+         * </pre>
+         *
+         * <p>The windows are immutable lists. Overlapping windows are views
+         * of a shared array thus do not copy the elements for each window</p>
+         *
+         * @param size the number of elements in a window
+         * @param step the distance between the start of two windows
+         * @return a sequence of windows
+         * @throws IllegalArgumentException if {@code size} or {@code step} is
+         *         not positive
+         */
+        Sequence<List<T>> window(int size, int step);
+
+        /**
+         * Returns a lazy sequence of chunks of consecutive elements of this
+         * {@code Sequence} that are mapped to equal values by the classifier.
+         * A new chunk starts whenever the classifier result changes.
+         *
+         * <pre>
+         *     C.list(1, 3, 2, 4, 5).chunkBy(isOdd) // [[1, 3], [2, 4], [5]]
+         * </pre>
+         *
+         * @param classifier the function maps an element to the value
+         *                   that identifies its chunk, e.g. a predicate
+         * @return a sequence of chunks
+         */
+        Sequence<List<T>> chunkBy($.Function<? super T, ?> classifier);
+
+        /**
+         * Returns a lazy inner join of this {@code Sequence} and the
+         * {@code other} iterable on the keys calculated with the key
+         * functions specified. Each pair of elements with equal keys is
+         * returned as a {@link Osgl.T2 T2} of this element and the other
+         * element.
+         *
+         * <pre>
+         *     C.Sequence&lt;$.T2&lt;Order, Customer&gt;&gt; orderCustomers =
+         *             orders.join(customers, Order.CUSTOMER_ID, Customer.ID);
+         * </pre>
+         *
+         * <p>The smaller side is loaded into a hash table the first time the
+         * result is iterated and the larger side is streamed through it, so
+         * the join takes {@code O(n + m)} time. If the size of either side is
+         * unknown, the {@code other} side is loaded. Results come in the
+         * order of the streamed side. {@code null} keys never match</p>
+         *
+         * @param other the other iterable
+         * @param keyFn the function calculates the key of an element in this sequence
+         * @param otherKeyFn the function calculates the key of an element in the other iterable
+         * @param <U> the element type of the other iterable
+         * @param <K> the key type
+         * @return a sequence of joined pairs
+         * @see #mergeJoin(Iterable, Osgl.Function, Osgl.Function, Comparator)
+         */
+        <U, K> Sequence<$.T2<T, U>> join(Iterable<? extends U> other, $.Function<? super T, ? extends K> keyFn, $.Function<? super U, ? extends K> otherKeyFn);
+
+        /**
+         * Returns a lazy inner join of this {@code Sequence} and the
+         * {@code other} iterable. Each pair of elements with equal keys is
+         * combined with the combiner function specified
+         *
+         * @param other the other iterable
+         * @param keyFn the function calculates the key of an element in this sequence
+         * @param otherKeyFn the function calculates the key of an element in the other iterable
+         * @param combiner the function combines an element of this sequence and
+         *                 a matching element of the other iterable
+         * @param <U> the element type of the other iterable
+         * @param <K> the key type
+         * @param <R> the result type
+         * @return a sequence of combined results
+         * @see #join(Iterable, Osgl.Function, Osgl.Function)
+         */
+        <U, K, R> Sequence<R> join(Iterable<? extends U> other, $.Function<? super T, ? extends K> keyFn, $.Function<? super U, ? extends K> otherKeyFn, $.Func2<? super T, ? super U, ? extends R> combiner);
+
+        /**
+         * Returns a lazy left outer join of this {@code Sequence} and the
+         * {@code other} iterable. Elements of this sequence without a match
+         * are paired with {@code null}. The {@code other} side is loaded into
+         * a hash table and results come in the order of this sequence
+         *
+         * @param other the other iterable
+         * @param keyFn the function calculates the key of an element in this sequence
+         * @param otherKeyFn the function calculates the key of an element in the other iterable
+         * @param <U> the element type of the other iterable
+         * @param <K> the key type
+         * @return a sequence of joined pairs
+         * @see #join(Iterable, Osgl.Function, Osgl.Function)
+         */
+        <U, K> Sequence<$.T2<T, U>> leftJoin(Iterable<? extends U> other, $.Function<? super T, ? extends K> keyFn, $.Function<? super U, ? extends K> otherKeyFn);
+
+        /**
+         * Returns a lazy left outer join of this {@code Sequence} and the
+         * {@code other} iterable with results built by the combiner function.
+         * Elements of this sequence without a match are combined with {@code null}
+         *
+         * @param other the other iterable
+         * @param keyFn the function calculates the key of an element in this sequence
+         * @param otherKeyFn the function calculates the key of an element in the other iterable
+         * @param combiner the function combines an element of this sequence and
+         *                 a matching element of the other iterable or {@code null}
+         * @param <U> the element type of the other iterable
+         * @param <K> the key type
+         * @param <R> the result type
+         * @return a sequence of combined results
+         * @see #leftJoin(Iterable, Osgl.Function, Osgl.Function)
+         */
+        <U, K, R> Sequence<R> leftJoin(Iterable<? extends U> other, $.Function<? super T, ? extends K> keyFn, $.Function<? super U, ? extends K> otherKeyFn, $.Func2<? super T, ? super U, ? extends R> combiner);
+
+        /**
+         * Returns a lazy sequence of elements of this {@code Sequence} that
+         * have at least one element with an equal key in the {@code other}
+         * iterable. Only the distinct keys of the other side are kept in memory
+         *
+         * @param other the other iterable
+         * @param keyFn the function calculates the key of an element in this sequence
+         * @param otherKeyFn the function calculates the key of an element in the other iterable
+         * @param <U> the element type of the other iterable
+         * @param <K> the key type
+         * @return a sequence of elements with matches
+         */
+        <U, K> Sequence<T> semiJoin(Iterable<? extends U> other, $.Function<? super T, ? extends K> keyFn, $.Function<? super U, ? extends K> otherKeyFn);
+
+        /**
+         * Returns a lazy inner sort-merge join of this {@code Sequence} and the
+         * {@code other} iterable. Both sides must be sorted by their keys in
+         * the order of the comparator. Only the run of elements sharing the
+         * same key on the other side is kept in memory
+         *
+         * @param other the other iterable sorted by key
+         * @param keyFn the function calculates the key of an element in this sequence
+         * @param otherKeyFn the function calculates the key of an element in the other iterable
+         * @param keyComparator the comparator of keys, {@code null} for natural ordering
+         * @param <U> the element type of the other iterable
+         * @param <K> the key type
+         * @return a sequence of joined pairs in the order of keys
+         * @see #join(Iterable, Osgl.Function, Osgl.Function)
+         */
+        <U, K> Sequence<$.T2<T, U>> mergeJoin(Iterable<? extends U> other, $.Function<? super T, ? extends K> keyFn, $.Function<? super U, ? extends K> otherKeyFn, Comparator<? super K> keyComparator);
+
+        /**
+         * Returns a lazy inner sort-merge join of this {@code Sequence} and the
+         * {@code other} iterable with results built by the combiner function
+         *
+         * @param other the other iterable sorted by key
+         * @param keyFn the function calculates the key of an element in this sequence
+         * @param otherKeyFn the function calculates the key of an element in the other iterable
+         * @param keyComparator the comparator of keys, {@code null} for natural ordering
+         * @param combiner the function combines an element of this sequence and
+         *                 a matching element of the other iterable
+         * @param <U> the element type of the other iterable
+         * @param <K> the key type
+         * @param <R> the result type
+         * @return a sequence of combined results in the order of keys
+         * @see #mergeJoin(Iterable, Osgl.Function, Osgl.Function, Comparator)
+         */
+        <U, K, R> Sequence<R> mergeJoin(Iterable<? extends U> other, $.Function<? super T, ? extends K> keyFn, $.Function<? super U, ? extends K> otherKeyFn, Comparator<? super K> keyComparator, $.Func2<? super T, ? super U, ? extends R> combiner);
+
         /**
          * Returns an new {@code Sequence} that takes the head of this {@code Sequence} until the predicate
          * evaluate to {@code false}:
@@ -1654,6 +1998,32 @@ public enum C {
          */
         List<T> sorted(Comparator<? super T> comparator);
 
+        /**
+         * Returns a mutable copy of this list in which the first {@code k}
+         * elements are the smallest elements in order and the order of the
+         * remaining elements is not specified.
+         *
+         * @param k the number of elements to be sorted
+         * @return a partially sorted copy of this list
+         * @throws IllegalArgumentException if {@code k} is negative
+         * @see #partialSorted(int, Comparator)
+         */
+        List<T> partialSorted(int k);
+
+        /**
+         * Returns a mutable copy of this list in which the first {@code k}
+         * elements are the same as in {@link #sorted(Comparator)} and the
+         * order of the remaining elements is not specified. It takes
+         * {@code O(n + k log k)} time instead of {@code O(n log n)} for
+         * a full sort
+         *
+         * @param k the number of elements to be sorted
+         * @param comparator specify the order of elements
+         * @return a partially sorted copy of this list
+         * @throws IllegalArgumentException if {@code k} is negative
+         */
+        List<T> partialSorted(int k, Comparator<? super T> comparator);
+
         @Override
         List<T> subList(int fromIndex, int toIndex);
 
@@ -2043,25 +2413,6 @@ public enum C {
         Sequence<$.T2<T, Integer>> zipWithIndex();
     }
 
-//    /**
-//     * The osgl Set interface is a mixture of {@link java.util.Set} and osgl {@link Traversable}
-//     *
-//     * @param <T> the element type of the {@code Set}
-//     * @since 0.2
-//     */
-//    public static interface Set<T> extends java.util.Set<T>, Traversable<T> {
-//    }
-//
-//    /**
-//     * The osgl sorted Set interface is a mixture of {@link java.util.Set} and osgl {@link Sequence}
-//     *
-//     * @param <T> the element type of the {@code SortedSet}
-//     * @since 0.2
-//     */
-//    public static interface SortedSet<T> extends java.util.SortedSet<T>, ReversibleSequence<T> {
-//    }
-//
-
     public static class Map<K, V> implements java.util.Map<K, V>, Serializable {
         public static class Entry<K, V> extends $.T2<K, V> implements java.util.Map.Entry<K, V> {
             public Entry(K _1, V _2) {
@@ -2094,6 +2445,11 @@ public enum C {
 
         @SuppressWarnings("unchecked")
         protected Map(boolean readOnly, Object... args) {
+            ro = readOnly;
+            if (readOnly) {
+                _m = ImmutableMap.of(args);
+                return;
+            }
             HashMap<K, V> map = new HashMap<K, V>();
             int len = args.length;
             for (int i = 0; i < len; i += 2) {
@@ -2104,17 +2460,23 @@ public enum C {
                 }
                 map.put(k, v);
             }
-            ro = readOnly;
-            if (readOnly) {
-                _m = Collections.unmodifiableMap(map);
-            } else {
-                _m = map;
-            }
+            _m = map;
         }
 
         protected Map(boolean readOnly, java.util.Map<? extends K, ? extends V> map) {
             E.NPE(map);
-            boolean sorted = map instanceof SortedMap;
+            boolean sorted = map instanceof java.util.SortedMap;
+            if (readOnly) {
+                ro = true;
+                if (sorted) {
+                    @SuppressWarnings("unchecked")
+                    Comparator<? super K> order = ((java.util.SortedMap<K, ?>) map).comparator();
+                    _m = ImmutableSortedMap.of(map, order);
+                } else {
+                    _m = ImmutableMap.of(map);
+                }
+                return;
+            }
             java.util.Map<K, V> m = sorted ? new TreeMap<K, V>() : new HashMap<K, V>();
             for (K k : map.keySet()) {
                 V v = map.get(k);
@@ -2371,7 +2733,80 @@ public enum C {
 
     }
 
+    /**
+     * The osgl sorted Set interface is a mixture of {@link java.util.SortedSet}
+     * and osgl {@link Set}. Range views returned by {@link #headSet(Object)},
+     * {@link #tailSet(Object)} and {@link #subSet(Object, Object)} are
+     * osgl sorted sets as well
+     *
+     * @param <T> the element type of the {@code SortedSet}
+     */
+    public interface SortedSet<T> extends java.util.SortedSet<T>, Set<T> {
+
+        @Override
+        SortedSet<T> subSet(T fromElement, T toElement);
+
+        @Override
+        SortedSet<T> headSet(T toElement);
+
+        @Override
+        SortedSet<T> tailSet(T fromElement);
+
+        /**
+         * Returns a sorted set contains all elements in this set and
+         * the {@code other} sorted set specified. The result is ordered
+         * by the {@link #comparator() comparator} of this set
+         *
+         * @param other the other sorted set
+         * @return the union of this set and the other set
+         */
+        SortedSet<T> union(java.util.SortedSet<? extends T> other);
+
+        /**
+         * Returns a sorted set contains elements in both this set and
+         * the {@code other} sorted set specified. The result is ordered
+         * by the {@link #comparator() comparator} of this set
+         *
+         * @param other the other sorted set
+         * @return the intersection of this set and the other set
+         */
+        SortedSet<T> intersection(java.util.SortedSet<? extends T> other);
+    }
+
+    /**
+     * A {@link java.util.SortedMap} whose range views and key set are
+     * osgl sorted types
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     */
+    public interface SortedMap<K, V> extends java.util.SortedMap<K, V> {
+
+        @Override
+        SortedMap<K, V> subMap(K fromKey, K toKey);
+
+        @Override
+        SortedMap<K, V> headMap(K toKey);
+
+        @Override
+        SortedMap<K, V> tailMap(K fromKey);
+
+        @Override
+        SortedSet<K> keySet();
+    }
+
     public interface ListOrSet<T> extends List<T>, Set<T> {
+        /**
+         * Resolves the spliterator inherited from both {@link java.util.List}
+         * and {@link java.util.Set}
+         *
+         * @return an ordered and distinct spliterator of this collection
+         */
+        @Override
+        default Spliterator<T> spliterator() {
+            return Spliterators.spliterator(this, Spliterator.ORDERED | Spliterator.DISTINCT);
+        }
+
         @Override
         ListOrSet<T> parallel();
 
@@ -3055,6 +3490,53 @@ public enum C {
         return IteratorSeq.of(new EnumerationIterator<T>(enumeration));
     }
 
+    /**
+     * Returns a lazy {@link Sequence} of the elements provided by the iterator.
+     *
+     * <p>Elements are pulled from the iterator in chunks of 32 and memoised,
+     * thus the sequence can be traversed many times and {@link Sequence#tail()}
+     * does not allocate per element. Note the elements are retained as long
+     * as the sequence is referenced. Use {@link #streamingSeq(Iterator)} to
+     * walk through huge or infinite iterators</p>
+     *
+     * @param iterator the iterator provides the elements
+     * @param <T> the element type
+     * @return a memoising lazy sequence
+     */
+    public static <T> Sequence<T> lazySeq(Iterator<? extends T> iterator) {
+        return ChunkedSeq.of(iterator);
+    }
+
+    /**
+     * Returns a lazy {@link Sequence} of the elements provided by the
+     * iterable. See {@link #lazySeq(Iterator)}
+     *
+     * @param iterable the iterable provides the elements
+     * @param <T> the element type
+     * @return a memoising lazy sequence
+     */
+    public static <T> Sequence<T> lazySeq(Iterable<? extends T> iterable) {
+        return ChunkedSeq.of(iterable.iterator());
+    }
+
+    /**
+     * Returns a lazy {@link Sequence} of the elements provided by the iterator
+     * that does not memoise the elements.
+     *
+     * <p>Elements are pulled from the iterator in chunks of 32 and the chunks
+     * are only referenced by the iterator walking through them, so they
+     * can be garbage collected once visited even if the sequence is still
+     * referenced. The sequence can be traversed only once, traversing it
+     * again causes an {@link IllegalStateException}</p>
+     *
+     * @param iterator the iterator provides the elements
+     * @param <T> the element type
+     * @return a streaming lazy sequence
+     */
+    public static <T> Sequence<T> streamingSeq(Iterator<? extends T> iterator) {
+        return ChunkedSeq.streaming(iterator);
+    }
+
     public static <T, R> Sequence<R> map(Sequence<T> seq, $.Function<? super T, ? extends R> mapper) {
         if (seq instanceof ReversibleSequence) {
             return map((ReversibleSequence<T>) seq, mapper);
@@ -3134,9 +3616,7 @@ public enum C {
      * @return the set that contains only specified element
      */
     public static <T> Set<T> set(T element) {
-        java.util.Set<T> set = new HashSet<T>();
-        set.add(element);
-        return ImmutableSet.of(set);
+        return ImmutableSet.of(new Object[]{element});
     }
 
     /**
@@ -3147,10 +3627,11 @@ public enum C {
      * @return a set that contains all elements specified
      */
     public static <T> Set<T> set(T t1, T... ta) {
-        java.util.Set<T> set = new HashSet<T>();
-        set.add(t1);
-        Collections.addAll(set, ta);
-        return ImmutableSet.of(set);
+        int len = ta.length;
+        Object[] data = new Object[len + 1];
+        data[0] = t1;
+        System.arraycopy(ta, 0, data, 1, len);
+        return ImmutableSet.of(data);
     }
 
     /**
@@ -3161,9 +3642,9 @@ public enum C {
      * @return the set contains all elements in the array
      */
     public static <T> Set<T> setOf(T... ta) {
-        java.util.Set<T> set = new HashSet<T>();
-        Collections.addAll(set, ta);
-        return ImmutableSet.of(set);
+        Object[] data = new Object[ta.length];
+        System.arraycopy(ta, 0, data, 0, ta.length);
+        return ImmutableSet.of(data);
     }
 
     /**
@@ -3189,9 +3670,9 @@ public enum C {
         if (itr instanceof Collection) {
             return set((Collection<T>) itr);
         }
-        java.util.Set<T> set = new HashSet<T>();
-        for (T t : itr) set.add(t);
-        return ImmutableSet.of(set);
+        ListBuilder<T> lb = new ListBuilder<T>();
+        lb.append(itr);
+        return lb.toSet();
     }
 
     /**
@@ -3216,6 +3697,85 @@ public enum C {
         return new DelegatingSet<T>(col);
     }
 
+    /**
+     * Create an immutable sorted set of the elements specified in natural order.
+     * Duplicate elements are dropped
+     *
+     * @param ta the elements
+     * @param <T> the element type
+     * @return an immutable sorted set of the elements
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Comparable<? super T>> SortedSet<T> sortedSetOf(T... ta) {
+        Object[] data = new Object[ta.length];
+        System.arraycopy(ta, 0, data, 0, ta.length);
+        return ImmutableSortedSet.of(data, null);
+    }
+
+    /**
+     * Create an immutable sorted set of all elements contained in the collection
+     * specified. If the collection is a {@link java.util.SortedSet} the result
+     * set keeps its comparator, otherwise elements are sorted in natural order
+     *
+     * @param col the collection from which elements will be added into the
+     *            result set
+     * @param <T> the element type
+     * @return an immutable sorted set of the elements
+     */
+    public static <T> SortedSet<T> sortedSet(Collection<? extends T> col) {
+        Comparator<? super T> comparator = null;
+        if (col instanceof java.util.SortedSet) {
+            comparator = $.cast(((java.util.SortedSet) col).comparator());
+        }
+        return ImmutableSortedSet.of(col, comparator);
+    }
+
+    /**
+     * Create an immutable sorted set of all elements contained in the collection
+     * specified ordered by the comparator specified
+     *
+     * @param col the collection from which elements will be added into the
+     *            result set
+     * @param comparator the comparator, {@code null} for natural ordering
+     * @param <T> the element type
+     * @return an immutable sorted set of the elements
+     */
+    public static <T> SortedSet<T> sortedSet(Collection<? extends T> col, Comparator<? super T> comparator) {
+        return ImmutableSortedSet.of(col, comparator);
+    }
+
+    /**
+     * Create an immutable sorted map of all entries contained in the map
+     * specified. If the map is a {@link java.util.SortedMap} the result
+     * map keeps its comparator, otherwise keys are sorted in natural order
+     *
+     * @param map the map from which entries will be added into the result map
+     * @param <K> the key type
+     * @param <V> the value type
+     * @return an immutable sorted map of the entries
+     */
+    public static <K, V> SortedMap<K, V> sortedMap(java.util.Map<? extends K, ? extends V> map) {
+        Comparator<? super K> comparator = null;
+        if (map instanceof java.util.SortedMap) {
+            comparator = $.cast(((java.util.SortedMap) map).comparator());
+        }
+        return ImmutableSortedMap.of(map, comparator);
+    }
+
+    /**
+     * Create an immutable sorted map of all entries contained in the map
+     * specified with keys ordered by the comparator specified
+     *
+     * @param map the map from which entries will be added into the result map
+     * @param comparator the key comparator, {@code null} for natural ordering
+     * @param <K> the key type
+     * @param <V> the value type
+     * @return an immutable sorted map of the entries
+     */
+    public static <K, V> SortedMap<K, V> sortedMap(java.util.Map<? extends K, ? extends V> map, Comparator<? super K> comparator) {
+        return ImmutableSortedMap.of(map, comparator);
+    }
+
     /**
      * Create a immutable {@link java.util.Map} from elements specified in an array.
      * <p>Example</p>
@@ -3309,6 +3869,45 @@ public enum C {
         return new Map(false, map);
     }
 
+    /**
+     * Create an new {@link IntMap} that maps int keys to object values
+     * @param expectedSize the number of entries expected
+     * @param <V> the value type
+     * @return a map that can hold {@code expectedSize} entries without rehashing
+     */
+    public static <V> IntMap<V> newIntMap(int expectedSize) {
+        return new IntMap<V>(expectedSize);
+    }
+
+    /**
+     * Create an new {@link LongMap} that maps long keys to object values
+     * @param expectedSize the number of entries expected
+     * @param <V> the value type
+     * @return a map that can hold {@code expectedSize} entries without rehashing
+     */
+    public static <V> LongMap<V> newLongMap(int expectedSize) {
+        return new LongMap<V>(expectedSize);
+    }
+
+    /**
+     * Create an new {@link ObjectIntMap} that maps object keys to int values
+     * @param expectedSize the number of entries expected
+     * @param <K> the key type
+     * @return a map that can hold {@code expectedSize} entries without rehashing
+     */
+    public static <K> ObjectIntMap<K> newObjectIntMap(int expectedSize) {
+        return new ObjectIntMap<K>(expectedSize);
+    }
+
+    /**
+     * Create an new {@link IntIntMap} that maps int keys to int values
+     * @param expectedSize the number of entries expected
+     * @return a map that can hold {@code expectedSize} entries without rehashing
+     */
+    public static IntIntMap newIntIntMap(int expectedSize) {
+        return new IntIntMap(expectedSize);
+    }
+
     /**
      * Convert a {@link Enumeration} to an {@link Iterable}
      * @param e the enumeration
@@ -0,0 +1,346 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.$;
+import org.osgl.exception.NotAppliedException;
+
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A lazy {@link C.Sequence} that pulls elements from a source iterator in
+ * chunks of {@link #CHUNK_SIZE} elements.
+ *
+ * <p>Unlike {@link LazySeq}, which allocates a sequence node and a tail
+ * function per element, this sequence allocates one array per chunk. The
+ * sequence works in one of two modes:</p>
+ * <ul>
+ *     <li>memoising: chunks are linked to each other once pulled, so the
+ *     sequence can be traversed many times and {@link #tail()} is a cheap
+ *     view of the same chunks. All elements reachable from a sequence
+ *     are retained as long as the sequence is referenced</li>
+ *     <li>streaming: chunks are only referenced by the iterator walking
+ *     through them, so a huge or infinite source can be traversed without
+ *     being retained. The sequence can be traversed only once</li>
+ * </ul>
+ */
+class ChunkedSeq<T> extends SequenceBase<T> implements C.Sequence<T> {
+
+    /**
+     * The number of elements pulled from the source at a time
+     */
+    static final int CHUNK_SIZE = 32;
+
+    private static final Object[] NO_ELEMENTS = new Object[0];
+
+    /**
+     * A block of elements pulled from the source
+     */
+    static final class Chunk {
+        final Object[] data;
+        final int size;
+        // the source of the following chunks, null once the next chunk
+        // has been pulled or the source is exhausted
+        private Iterator<?> source;
+        private volatile Chunk next;
+
+        Chunk(Object[] data, int size, Iterator<?> source) {
+            this.data = data;
+            this.size = size;
+            this.source = source;
+        }
+
+        /**
+         * Returns the next chunk or {@code null} if there is no more element
+         */
+        Chunk next() {
+            Chunk n = next;
+            if (null != n) {
+                return n;
+            }
+            synchronized (this) {
+                if (null == next && null != source) {
+                    next = pull(source);
+                    source = null;
+                }
+                return next;
+            }
+        }
+
+        private static Chunk pull(Iterator<?> source) {
+            if (!source.hasNext()) {
+                return null;
+            }
+            Object[] data = new Object[CHUNK_SIZE];
+            int n = 0;
+            do {
+                data[n++] = source.next();
+            } while (n < CHUNK_SIZE && source.hasNext());
+            return new Chunk(data, n, n < CHUNK_SIZE ? null : source);
+        }
+    }
+
+    // memoising mode: the chunk that contains the first element
+    private final Chunk chunk;
+    private final int offset;
+
+    // streaming mode: the source, null once it has been traversed
+    private Iterator<? extends T> source;
+
+    private ChunkedSeq(Chunk chunk, int offset) {
+        this.chunk = chunk;
+        this.offset = offset;
+    }
+
+    private ChunkedSeq(Iterator<? extends T> source) {
+        this.chunk = null;
+        this.offset = 0;
+        this.source = source;
+    }
+
+    @Override
+    protected EnumSet<C.Feature> initFeatures() {
+        if (isStreaming()) {
+            return EnumSet.of(C.Feature.LAZY, C.Feature.READONLY, C.Feature.ORDERED);
+        }
+        return EnumSet.of(C.Feature.IMMUTABLE, C.Feature.LAZY, C.Feature.READONLY, C.Feature.ORDERED);
+    }
+
+    private boolean isStreaming() {
+        return null == chunk;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        if (isStreaming()) {
+            return !source().hasNext();
+        }
+        return offset >= chunk.size && null == chunk.next();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T first() throws NoSuchElementException {
+        if (isStreaming()) {
+            return super.first();
+        }
+        if (offset < chunk.size) {
+            return (T) chunk.data[offset];
+        }
+        Chunk next = chunk.next();
+        if (null == next) {
+            throw new NoSuchElementException();
+        }
+        return (T) next.data[0];
+    }
+
+    @Override
+    public C.Sequence<T> tail() throws UnsupportedOperationException {
+        if (isStreaming()) {
+            return super.tail();
+        }
+        Chunk c = chunk;
+        int i = offset;
+        if (i >= c.size) {
+            c = c.next();
+            if (null == c) {
+                throw new UnsupportedOperationException();
+            }
+            i = 0;
+        }
+        return new ChunkedSeq<T>(c, i + 1);
+    }
+
+    /**
+     * Returns a sequence that stops after {@code n} elements, so that it
+     * works with infinite sources
+     */
+    @Override
+    public C.Sequence<T> head(int n) {
+        if (n <= 0) {
+            return super.head(n);
+        }
+        Iterator<T> limited = new LimitIterator<T>(iterator(), n);
+        return isStreaming() ? streaming(limited) : of(limited);
+    }
+
+    @Override
+    public int size() throws UnsupportedOperationException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        if (!isStreaming()) {
+            return new ChunkIterator<T>(chunk, offset);
+        }
+        Iterator<? extends T> source;
+        synchronized (this) {
+            source = source();
+            this.source = null;
+        }
+        return new ChunkIterator<T>(head(source), 0);
+    }
+
+    private synchronized Iterator<? extends T> source() {
+        E.illegalStateIf(null == source, "streaming sequence has already been traversed");
+        return source;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ChunkedSeq<T> accept($.Function<? super T, ?> visitor) {
+        ChunkIterator<T> itr = (ChunkIterator<T>) iterator();
+        for (Chunk c = itr.chunk; null != c; c = c.next()) {
+            Object[] data = c.data;
+            for (int i = c == itr.chunk ? itr.cursor : 0, n = c.size; i < n; ++i) {
+                try {
+                    visitor.apply((T) data[i]);
+                } catch (NotAppliedException e) {
+                    // ignore
+                }
+            }
+        }
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean forEachWhile($.Function<? super T, Boolean> visitor) {
+        ChunkIterator<T> itr = (ChunkIterator<T>) iterator();
+        for (Chunk c = itr.chunk; null != c; c = c.next()) {
+            Object[] data = c.data;
+            for (int i = c == itr.chunk ? itr.cursor : 0, n = c.size; i < n; ++i) {
+                try {
+                    if (!visitor.apply((T) data[i])) {
+                        return false;
+                    }
+                } catch (NotAppliedException e) {
+                    // ignore
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public ChunkedSeq<T> forEach($.Function<? super T, ?> visitor) {
+        return accept(visitor);
+    }
+
+    @Override
+    public ChunkedSeq<T> each($.Function<? super T, ?> visitor) {
+        return accept(visitor);
+    }
+
+    private static final class ChunkIterator<T> implements Iterator<T> {
+        private Chunk chunk;
+        private int cursor;
+
+        ChunkIterator(Chunk chunk, int cursor) {
+            this.chunk = chunk;
+            this.cursor = cursor;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (cursor < chunk.size) {
+                return true;
+            }
+            Chunk next = chunk.next();
+            if (null == next) {
+                return false;
+            }
+            chunk = next;
+            cursor = 0;
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return (T) chunk.data[cursor++];
+        }
+
+        @Override
+        public void remove() {
+            throw E.unsupport();
+        }
+    }
+
+    private static final class LimitIterator<T> implements Iterator<T> {
+        private final Iterator<T> itr;
+        private int remaining;
+
+        LimitIterator(Iterator<T> itr, int limit) {
+            this.itr = itr;
+            this.remaining = limit;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0 && itr.hasNext();
+        }
+
+        @Override
+        public T next() {
+            if (remaining <= 0) {
+                throw new NoSuchElementException();
+            }
+            remaining--;
+            return itr.next();
+        }
+
+        @Override
+        public void remove() {
+            throw E.unsupport();
+        }
+    }
+
+    /**
+     * Returns an empty chunk that pulls the elements from the source
+     * when its next chunk is requested
+     */
+    private static Chunk head(Iterator<?> source) {
+        return new Chunk(NO_ELEMENTS, 0, source);
+    }
+
+    /**
+     * Returns a memoising sequence of the elements from the iterator
+     */
+    static <T> C.Sequence<T> of(Iterator<? extends T> source) {
+        E.NPE(source);
+        return new ChunkedSeq<T>(head(source), 0);
+    }
+
+    /**
+     * Returns a streaming sequence of the elements from the iterator
+     */
+    static <T> C.Sequence<T> streaming(Iterator<? extends T> source) {
+        E.NPE(source);
+        return new ChunkedSeq<T>(source);
+    }
+}
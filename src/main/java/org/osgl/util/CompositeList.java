@@ -20,6 +20,8 @@ package org.osgl.util;
  * #L%
  */
 
+import org.osgl.$;
+
 import java.io.Serializable;
 import java.util.EnumSet;
 import java.util.ListIterator;
@@ -105,4 +107,48 @@ public class CompositeList<T> extends ListBase<T> implements C.List<T>, Serializ
     public int size() {
         return left.size() + right.size();
     }
+
+    @Override
+    protected void forEachLeft(int from, int to, $.Function<? super T, ?> visitor) throws $.Break {
+        int ls = left.size();
+        if (from < ls) {
+            forEachLeft(left, from, Math.min(to, ls), visitor);
+        }
+        if (to > ls) {
+            forEachLeft(right, Math.max(from - ls, 0), to - ls, visitor);
+        }
+    }
+
+    @Override
+    protected void forEachRight(int from, int to, $.Function<? super T, ?> visitor) throws $.Break {
+        int ls = left.size();
+        if (to > ls) {
+            forEachRight(right, Math.max(from - ls, 0), to - ls, visitor);
+        }
+        if (from < ls) {
+            forEachRight(left, from, Math.min(to, ls), visitor);
+        }
+    }
+
+    @Override
+    protected boolean forEachLeftWhile(int from, int to, $.Function<? super T, Boolean> visitor) {
+        int ls = left.size();
+        if (from < ls && !forEachLeftWhile(left, from, Math.min(to, ls), visitor)) {
+            return false;
+        }
+        return to <= ls || forEachLeftWhile(right, Math.max(from - ls, 0), to - ls, visitor);
+    }
+
+    @Override
+    protected void copyTo(int from, int to, Object[] dest, int destPos) {
+        int ls = left.size();
+        if (from < ls) {
+            int end = Math.min(to, ls);
+            copyTo(left, from, end, dest, destPos);
+            destPos += end - from;
+        }
+        if (to > ls) {
+            copyTo(right, Math.max(from - ls, 0), to - ls, dest, destPos);
+        }
+    }
 }
@@ -0,0 +1,180 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A builder that collects elements from many threads into an immutable
+ * {@link C.List}.
+ *
+ * <p>Elements are appended to {@link ListBuilder segments} that are each
+ * owned by a single thread, so appending does not lock or contend:</p>
+ * <ul>
+ *     <li>{@link #add(Object)} appends to the segment of the calling
+ *     thread. The order of elements added by different threads is not
+ *     specified</li>
+ *     <li>{@link #newSegment()} returns a new segment that shall be filled by
+ *     one thread. Segments keep the order they are created in, thus a task
+ *     that splits its input creates the segments in the input order to keep
+ *     the encounter order</li>
+ * </ul>
+ *
+ * <p>{@link #toList()} concatenates the segments in creation order. It
+ * shall be called after all producers have completed, e.g. after joining
+ * the tasks. If there is only one non empty segment, its buffer becomes
+ * the backing array of the list without copying when it has no spare
+ * capacity. After calling {@link #toList()} the builder and its segments
+ * are consumed and cannot be used anymore.</p>
+ */
+public class ConcurrentListBuilder<T> {
+
+    private final List<ListBuilder<T>> segments = new ArrayList<ListBuilder<T>>();
+
+    // the segment of each thread calling add, dropped by toList so that no
+    // thread keeps a reference to the elements after the builder is done
+    private final ConcurrentMap<Thread, ListBuilder<T>> owned = new ConcurrentHashMap<Thread, ListBuilder<T>>();
+
+    private boolean consumed;
+
+    /**
+     * Append an element to the segment of the calling thread
+     *
+     * @param t the element
+     * @return this builder
+     */
+    public ConcurrentListBuilder<T> add(T t) {
+        ownSegment().add(t);
+        return this;
+    }
+
+    /**
+     * Append all elements of an iterable to the segment of the calling thread
+     *
+     * @param iterable the elements
+     * @return this builder
+     */
+    public ConcurrentListBuilder<T> addAll(Iterable<? extends T> iterable) {
+        ownSegment().append(iterable);
+        return this;
+    }
+
+    /**
+     * Returns a new segment after all segments created before. The segment
+     * is not thread safe and shall be filled by one thread at a time
+     *
+     * @return a new segment of this builder
+     */
+    public ListBuilder<T> newSegment() {
+        ListBuilder<T> segment = new ListBuilder<T>(10);
+        synchronized (segments) {
+            E.illegalStateIf(consumed, "ConcurrentListBuilder is consumed");
+            segments.add(segment);
+        }
+        return segment;
+    }
+
+    /**
+     * Returns the number of elements in all segments. The result is
+     * accurate only if no producer is running
+     *
+     * @return the number of elements collected
+     */
+    public int size() {
+        synchronized (segments) {
+            E.illegalStateIf(consumed, "ConcurrentListBuilder is consumed");
+            int size = 0;
+            for (ListBuilder<T> segment : segments) {
+                size += segment.size;
+            }
+            return size;
+        }
+    }
+
+    /**
+     * Returns an immutable list of the elements of all segments in the
+     * order the segments were created
+     *
+     * @return the list of all elements collected
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public C.List<T> toList() {
+        ListBuilder<T>[] segments;
+        synchronized (this.segments) {
+            E.illegalStateIf(consumed, "ConcurrentListBuilder is consumed");
+            consumed = true;
+            segments = this.segments.toArray(new ListBuilder[this.segments.size()]);
+            this.segments.clear();
+            owned.clear();
+        }
+        int size = 0;
+        ListBuilder<T> single = null;
+        for (ListBuilder<T> segment : segments) {
+            if (segment.size > 0) {
+                size += segment.size;
+                single = null == single && size == segment.size ? segment : null;
+            }
+        }
+        if (null != single) {
+            C.List<T> list = single.toList();
+            consume(segments);
+            return list;
+        }
+        Object[] data = new Object[size];
+        int pos = 0;
+        for (ListBuilder<T> segment : segments) {
+            int n = segment.size;
+            if (n > 0) {
+                System.arraycopy(segment.buf, 0, data, pos, n);
+                pos += n;
+            }
+        }
+        consume(segments);
+        return ImmutableList.of((T[]) data);
+    }
+
+    /**
+     * Returns the number of threads that hold a segment of this builder
+     */
+    int threadSegments() {
+        return owned.size();
+    }
+
+    // only the current thread puts its own key, thus get then put is safe
+    private ListBuilder<T> ownSegment() {
+        Thread thread = Thread.currentThread();
+        ListBuilder<T> segment = owned.get(thread);
+        if (null == segment) {
+            segment = newSegment();
+            owned.put(thread, segment);
+        }
+        return segment;
+    }
+
+    private static void consume(ListBuilder<?>[] segments) {
+        for (ListBuilder<?> segment : segments) {
+            segment.buf = null;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * A Count-Min sketch estimates how many times an element has been added
+ * using a fixed size table of counters.
+ *
+ * <p>The table has {@code depth} rows of {@code width} counters. Adding an
+ * element increments one counter in each row and the estimate of an
+ * element is the minimum of its counters. The estimate is never less
+ * than the real count, and with probability {@code confidence} it exceeds
+ * the real count by at most {@code epsilon} times the total count.</p>
+ *
+ * <p>A sketch created with {@link #concurrent(double, double)} can be
+ * updated and queried from many threads. Two sketches with the same
+ * dimensions can be {@link #merge(CountMinSketch) merged} and a sketch
+ * can be serialized with {@link #toByteArray()}.</p>
+ *
+ * @param <T> the element type
+ */
+public class CountMinSketch<T> {
+
+    private static final byte FORMAT = 1;
+
+    // depth * width counters followed by the total count
+    private final LongCells cells;
+    private final int depth;
+    private final int width;
+
+    private CountMinSketch(LongCells cells, int depth, int width) {
+        this.cells = cells;
+        this.depth = depth;
+        this.width = width;
+    }
+
+    public void add(T t) {
+        add(t, 1L);
+    }
+
+    /**
+     * Add an element a number of times
+     *
+     * @param t the element
+     * @param count the number of times
+     * @throws IllegalArgumentException if {@code count} is negative
+     */
+    public void add(T t, long count) {
+        E.illegalArgumentIf(count < 0, "count shall not be negative: %s", count);
+        long hash = OpenHash.hash64(t);
+        long h1 = hash, h2 = OpenHash.mix64(~hash) | 1;
+        LongCells cells = this.cells;
+        int width = this.width;
+        for (int i = 0, base = 0; i < depth; ++i, base += width) {
+            cells.addAndGet(base + (int) (((h1 + i * h2) & Long.MAX_VALUE) % width), count);
+        }
+        cells.addAndGet(cells.length() - 1, count);
+    }
+
+    /**
+     * Returns the estimated number of times an element has been added
+     *
+     * @param t the element
+     * @return the estimated count, which is never less than the real count
+     */
+    public long estimate(T t) {
+        long hash = OpenHash.hash64(t);
+        long h1 = hash, h2 = OpenHash.mix64(~hash) | 1;
+        LongCells cells = this.cells;
+        int width = this.width;
+        long min = Long.MAX_VALUE;
+        for (int i = 0, base = 0; i < depth; ++i, base += width) {
+            min = Math.min(min, cells.get(base + (int) (((h1 + i * h2) & Long.MAX_VALUE) % width)));
+        }
+        return min;
+    }
+
+    /**
+     * Returns the total count of all elements added
+     *
+     * @return the total count
+     */
+    public long size() {
+        return cells.get(cells.length() - 1);
+    }
+
+    /**
+     * Add the counts of another sketch to this sketch. Both sketches must
+     * have the same depth and width
+     *
+     * @param other the other sketch
+     * @return this sketch
+     * @throws IllegalArgumentException if the sketches are not compatible
+     */
+    public CountMinSketch<T> merge(CountMinSketch<? extends T> other) {
+        E.illegalArgumentIf(other.depth != depth || other.width != width, "Count-Min sketches are not compatible");
+        LongCells cells = this.cells, otherCells = other.cells;
+        for (int i = 0, n = cells.length(); i < n; ++i) {
+            cells.addAndGet(i, otherCells.get(i));
+        }
+        return this;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public boolean isConcurrent() {
+        return cells.isConcurrent();
+    }
+
+    /**
+     * Returns the sketch serialized into a byte array, which could be
+     * read back with {@link #fromByteArray(byte[])}
+     *
+     * @return the serialized sketch
+     */
+    public byte[] toByteArray() {
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 4 + 4 + (cells.length() << 3));
+        buffer.put(FORMAT).putInt(depth).putInt(width);
+        cells.write(buffer);
+        return buffer.array();
+    }
+
+    public static <T> CountMinSketch<T> fromByteArray(byte[] bytes) {
+        return fromByteArray(bytes, false);
+    }
+
+    /**
+     * Read a sketch from the bytes written by {@link #toByteArray()}
+     *
+     * @param bytes the serialized sketch
+     * @param concurrent whether the sketch returned shall be thread safe
+     * @param <T> the element type
+     * @return the sketch
+     * @throws IllegalArgumentException if the bytes are not a serialized sketch
+     */
+    public static <T> CountMinSketch<T> fromByteArray(byte[] bytes, boolean concurrent) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            E.illegalArgumentIf(buffer.get() != FORMAT, "unknown Count-Min sketch format");
+            int depth = buffer.getInt();
+            int width = buffer.getInt();
+            long cells = (long) depth * width + 1;
+            E.illegalArgumentIf(depth < 1 || width < 1 || buffer.remaining() != cells << 3, "invalid Count-Min sketch data");
+            return new CountMinSketch<T>(LongCells.of((int) cells, concurrent).read(buffer), depth, width);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("invalid Count-Min sketch data");
+        }
+    }
+
+    /**
+     * Create a sketch that is not thread safe
+     *
+     * @param epsilon the maximum overestimate as a fraction of the total count
+     * @param confidence the probability that an estimate is within the error bound
+     * @param <T> the element type
+     * @return the sketch
+     */
+    public static <T> CountMinSketch<T> create(double epsilon, double confidence) {
+        return create(epsilon, confidence, false);
+    }
+
+    /**
+     * Create a thread safe sketch
+     *
+     * @param epsilon the maximum overestimate as a fraction of the total count
+     * @param confidence the probability that an estimate is within the error bound
+     * @param <T> the element type
+     * @return the sketch
+     */
+    public static <T> CountMinSketch<T> concurrent(double epsilon, double confidence) {
+        return create(epsilon, confidence, true);
+    }
+
+    private static <T> CountMinSketch<T> create(double epsilon, double confidence, boolean concurrent) {
+        E.illegalArgumentIf(!(epsilon > 0.0 && epsilon < 1.0), "epsilon shall be between 0 and 1: %s", epsilon);
+        E.illegalArgumentIf(!(confidence > 0.0 && confidence < 1.0), "confidence shall be between 0 and 1: %s", confidence);
+        int width = (int) Math.ceil(Math.E / epsilon);
+        int depth = Math.max(1, (int) Math.ceil(-Math.log(1 - confidence)));
+        E.illegalArgumentIf((long) depth * width >= Integer.MAX_VALUE, "Count-Min sketch too large");
+        return new CountMinSketch<T>(LongCells.of(depth * width + 1, concurrent), depth, width);
+    }
+}
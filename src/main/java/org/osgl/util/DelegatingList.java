@@ -20,6 +20,8 @@ package org.osgl.util;
  * #L%
  */
 
+import org.osgl.$;
+
 import java.io.Serializable;
 import java.util.*;
 
@@ -116,6 +118,26 @@ class DelegatingList<T> extends ListBase<T> implements C.List<T>, Serializable {
         return data.get(index);
     }
 
+    @Override
+    protected void forEachLeft(int from, int to, $.Function<? super T, ?> visitor) throws $.Break {
+        forEachLeft(data, from, to, visitor);
+    }
+
+    @Override
+    protected void forEachRight(int from, int to, $.Function<? super T, ?> visitor) throws $.Break {
+        forEachRight(data, from, to, visitor);
+    }
+
+    @Override
+    protected void copyTo(int from, int to, Object[] dest, int destPos) {
+        copyTo(data, from, to, dest, destPos);
+    }
+
+    @Override
+    protected boolean forEachLeftWhile(int from, int to, $.Function<? super T, Boolean> visitor) {
+        return forEachLeftWhile(data, from, to, visitor);
+    }
+
     @Override
     public T set(int index, T element) {
         if (isMutable()) {
@@ -0,0 +1,352 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.math.BigInteger;
+
+/**
+ * Writes the shortest decimal that rounds back to a given {@code double}
+ * or {@code float} directly into a char array.
+ *
+ * <p>The digits are computed with the Schubfach algorithm by Raffaello
+ * Giulietti ("The Schubfach way to render doubles"), which takes a fixed
+ * number of 64 bits multiplications and no allocation. The layout follows
+ * {@link Double#toString(double)}: plain notation for magnitudes within
+ * {@code [10^-3, 10^7)}, computerized scientific notation otherwise, and
+ * at least one digit after the decimal point.</p>
+ */
+enum DoubleFormat {
+    ;
+
+    /**
+     * The maximum number of chars written for a double or a float,
+     * e.g. {@code -2.2250738585072014E-308}
+     */
+    static final int MAX_CHARS = 24;
+
+    private static final int D_P = 53;
+    private static final int D_Q_MIN = -1074;
+    private static final long D_C_MIN = 1L << (D_P - 1);
+    private static final int D_C_TINY = 3;
+
+    private static final int F_P = 24;
+    private static final int F_Q_MIN = -149;
+    private static final long F_C_MIN = 1L << (F_P - 1);
+    private static final int F_C_TINY = 8;
+
+    private static final long MASK_63 = (1L << 63) - 1;
+
+    // range of the decimal exponent k for which g is needed
+    private static final int K_MIN = -324;
+    private static final int K_MAX = 292;
+
+    /*
+     * G[2 (k - K_MIN)] and G[2 (k - K_MIN) + 1] hold g1 and g0 where
+     * g1 2^63 + g0 = floor(10^-k 2^(125 - flog2pow10(-k))) + 1
+     */
+    private static final long[] G = new long[2 * (K_MAX - K_MIN + 1)];
+
+    private static final long[] POW10 = new long[19];
+
+    static {
+        BigInteger mask63 = BigInteger.valueOf(MASK_63);
+        for (int k = K_MIN; k <= K_MAX; ++k) {
+            int e = -k;
+            int r = 125 - flog2pow10(e);
+            BigInteger g;
+            if (e >= 0) {
+                BigInteger p = BigInteger.TEN.pow(e);
+                g = r >= 0 ? p.shiftLeft(r) : p.shiftRight(-r);
+            } else {
+                g = BigInteger.ONE.shiftLeft(r).divide(BigInteger.TEN.pow(-e));
+            }
+            g = g.add(BigInteger.ONE);
+            int i = 2 * (k - K_MIN);
+            G[i] = g.shiftRight(63).longValue();
+            G[i + 1] = g.and(mask63).longValue();
+        }
+        long p = 1;
+        for (int i = 0; i < POW10.length; ++i) {
+            POW10[i] = p;
+            p *= 10;
+        }
+    }
+
+    /**
+     * Writes the shortest decimal of {@code v} into {@code buf} starting at
+     * {@code pos}. The buffer must have at least {@link #MAX_CHARS} chars
+     * available
+     *
+     * @param v the value
+     * @param buf the target buffer
+     * @param pos the start position
+     * @return the position after the last char written
+     */
+    static int write(double v, char[] buf, int pos) {
+        long bits = Double.doubleToRawLongBits(v);
+        long t = bits & (D_C_MIN - 1);
+        int bq = (int) (bits >>> (D_P - 1)) & 0x7FF;
+        if (bq == 0x7FF) {
+            return special(t != 0, bits < 0, buf, pos);
+        }
+        if (bits < 0) {
+            buf[pos++] = '-';
+        }
+        if (bq != 0) {
+            // normal value, mq = -q
+            int mq = -D_Q_MIN + 1 - bq;
+            long c = D_C_MIN | t;
+            if (0 < mq && mq < D_P) {
+                // integral value
+                long f = c >> mq;
+                if (f << mq == c) {
+                    return layout(f, 0, buf, pos);
+                }
+            }
+            return toDecimal(-mq, c, 0, D_C_MIN, D_Q_MIN, buf, pos);
+        }
+        if (t != 0) {
+            // subnormal value
+            return t < D_C_TINY
+                    ? toDecimal(D_Q_MIN, 10 * t, -1, D_C_MIN, D_Q_MIN, buf, pos)
+                    : toDecimal(D_Q_MIN, t, 0, D_C_MIN, D_Q_MIN, buf, pos);
+        }
+        return zero(buf, pos);
+    }
+
+    /**
+     * Writes the shortest decimal of {@code v} into {@code buf} starting at
+     * {@code pos}. The buffer must have at least {@link #MAX_CHARS} chars
+     * available
+     *
+     * @param v the value
+     * @param buf the target buffer
+     * @param pos the start position
+     * @return the position after the last char written
+     */
+    static int write(float v, char[] buf, int pos) {
+        int bits = Float.floatToRawIntBits(v);
+        long t = bits & (F_C_MIN - 1);
+        int bq = (bits >>> (F_P - 1)) & 0xFF;
+        if (bq == 0xFF) {
+            return special(t != 0, bits < 0, buf, pos);
+        }
+        if (bits < 0) {
+            buf[pos++] = '-';
+        }
+        if (bq != 0) {
+            int mq = -F_Q_MIN + 1 - bq;
+            long c = F_C_MIN | t;
+            if (0 < mq && mq < F_P) {
+                long f = c >> mq;
+                if (f << mq == c) {
+                    return layout(f, 0, buf, pos);
+                }
+            }
+            return toDecimal(-mq, c, 0, F_C_MIN, F_Q_MIN, buf, pos);
+        }
+        if (t != 0) {
+            return t < F_C_TINY
+                    ? toDecimal(F_Q_MIN, 10 * t, -1, F_C_MIN, F_Q_MIN, buf, pos)
+                    : toDecimal(F_Q_MIN, t, 0, F_C_MIN, F_Q_MIN, buf, pos);
+        }
+        return zero(buf, pos);
+    }
+
+    /*
+     * Finds the shortest decimal in the rounding interval of c 2^q and, if
+     * there are several, the closest one to c 2^q. See figure 7 of the paper.
+     */
+    private static int toDecimal(int q, long c, int dk, long cMin, int qMin, char[] buf, int pos) {
+        int out = (int) c & 0x1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != cMin || q == qMin) {
+            // regular spacing
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            // irregular spacing
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 2;
+        int i = 2 * (k - K_MIN);
+        long g1 = G[i];
+        long g0 = G[i + 1];
+
+        long vb = rop(g1, g0, cb << h);
+        long vbl = rop(g1, g0, cbl << h);
+        long vbr = rop(g1, g0, cbr << h);
+
+        long s = vb >> 2;
+        if (s >= 100) {
+            // sp10 = 10 floor(s / 10)
+            long sp10 = 10 * multiplyHigh(s, 115292150460684698L << 4);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return layout(upin ? sp10 : tp10, k, buf, pos);
+            }
+        }
+        long t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            return layout(uin ? s : t, k + dk, buf, pos);
+        }
+        // both s and t are in the interval, pick the closest, or the even one on a tie
+        long cmp = vb - ((s + t) << 1);
+        return layout(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk, buf, pos);
+    }
+
+    /*
+     * Computes rop(cp g 2^-127), where g = g1 2^63 + g0, i.e. the product
+     * rounded to odd. See section 9.9 of the paper.
+     */
+    private static long rop(long g1, long g0, long cp) {
+        long x1 = multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | ((z & MASK_63) + MASK_63) >>> 63;
+    }
+
+    /*
+     * Writes f 10^e in the layout of Double.toString
+     */
+    private static int layout(long f, int e, char[] buf, int pos) {
+        while (f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+        int len = 1;
+        while (len < POW10.length && f >= POW10[len]) {
+            len++;
+        }
+        // the exponent of the scientific notation
+        int exp = e + len - 1;
+        if (exp >= 0 && exp < 7) {
+            if (len <= exp + 1) {
+                pos = digits(f, len, 0, len, buf, pos);
+                for (int i = len; i <= exp; ++i) {
+                    buf[pos++] = '0';
+                }
+                buf[pos++] = '.';
+                buf[pos++] = '0';
+            } else {
+                pos = digits(f, len, 0, exp + 1, buf, pos);
+                buf[pos++] = '.';
+                pos = digits(f, len, exp + 1, len, buf, pos);
+            }
+            return pos;
+        }
+        if (exp < 0 && exp >= -3) {
+            buf[pos++] = '0';
+            buf[pos++] = '.';
+            for (int i = exp + 1; i < 0; ++i) {
+                buf[pos++] = '0';
+            }
+            return digits(f, len, 0, len, buf, pos);
+        }
+        pos = digits(f, len, 0, 1, buf, pos);
+        buf[pos++] = '.';
+        if (len == 1) {
+            buf[pos++] = '0';
+        } else {
+            pos = digits(f, len, 1, len, buf, pos);
+        }
+        buf[pos++] = 'E';
+        if (exp < 0) {
+            buf[pos++] = '-';
+            exp = -exp;
+        }
+        if (exp >= 100) {
+            buf[pos++] = (char) ('0' + exp / 100);
+            exp %= 100;
+            buf[pos++] = (char) ('0' + exp / 10);
+        } else if (exp >= 10) {
+            buf[pos++] = (char) ('0' + exp / 10);
+        }
+        buf[pos++] = (char) ('0' + exp % 10);
+        return pos;
+    }
+
+    /*
+     * Writes the digits of f, which has len digits, from index
+     * start (inclusive) to end (exclusive), counted from the most
+     * significant digit
+     */
+    private static int digits(long f, int len, int start, int end, char[] buf, int pos) {
+        for (int i = start; i < end; ++i) {
+            buf[pos++] = (char) ('0' + f / POW10[len - 1 - i] % 10);
+        }
+        return pos;
+    }
+
+    private static int special(boolean nan, boolean negative, char[] buf, int pos) {
+        String s = nan ? "NaN" : negative ? "-Infinity" : "Infinity";
+        s.getChars(0, s.length(), buf, pos);
+        return pos + s.length();
+    }
+
+    private static int zero(char[] buf, int pos) {
+        buf[pos++] = '0';
+        buf[pos++] = '.';
+        buf[pos++] = '0';
+        return pos;
+    }
+
+    // floor(log10(2^e))
+    private static int flog10pow2(int e) {
+        return (int) (e * 661971961083L >> 41);
+    }
+
+    // floor(log10(3/4 2^e))
+    private static int flog10threeQuartersPow2(int e) {
+        return (int) (e * 661971961083L + (-274743187321L) >> 41);
+    }
+
+    // floor(log2(10^e))
+    private static int flog2pow10(int e) {
+        return (int) (e * 913124641741L >> 38);
+    }
+
+    // the high 64 bits of the 128 bits product of x and y, see Math.multiplyHigh of Java 9
+    private static long multiplyHigh(long x, long y) {
+        long x1 = x >> 32;
+        long x2 = x & 0xFFFFFFFFL;
+        long y1 = y >> 32;
+        long y2 = y & 0xFFFFFFFFL;
+        long z2 = x2 * y2;
+        long t = x1 * y2 + (z2 >>> 32);
+        long z1 = t & 0xFFFFFFFFL;
+        long z0 = t >> 32;
+        z1 += x2 * y1;
+        return x1 * y1 + z0 + (z1 >> 32);
+    }
+
+}
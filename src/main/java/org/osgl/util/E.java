@@ -39,6 +39,7 @@ package org.osgl.util;
  * #L%
  */
 
+import org.osgl.$;
 import org.osgl.exception.*;
 
 import java.io.IOException;
@@ -48,6 +49,16 @@ import java.io.UnsupportedEncodingException;
 
 /**
  * Utility class to throw common exceptions
+ * <p>
+ * The {@code xxIf} validators come with overloads taking a message
+ * supplier, which is called only when the validation fails, e.g.
+ * <pre>
+ *     E.illegalArgumentIf(n &lt; 0, new $.F0&lt;String&gt;() {
+ *         public String apply() {
+ *             return "negative size: " + n;
+ *         }
+ *     });
+ * </pre>
  */
 public class E {
 
@@ -71,6 +82,12 @@ public class E {
         }
     }
 
+    public static void invalidStateIf(boolean tester, $.Func0<String> message) {
+        if (tester) {
+            throw new InvalidStateException(message.apply());
+        }
+    }
+
     public static void NPE(Object o1) {
         if (null == o1) {
             throw new NullPointerException();
@@ -130,6 +147,12 @@ public class E {
         }
     }
 
+    public static void unexpectedIf(boolean tester, $.Func0<String> message) {
+        if (tester) {
+            throw new UnexpectedException(message.apply());
+        }
+    }
+
 
     public static UnexpectedIOException ioException(IOException cause) {
         throw new UnexpectedIOException(cause);
@@ -156,6 +179,12 @@ public class E {
             invalidConfiguration(msg, args);
         }
     }
+
+    public static void invalidConfigurationIf(boolean tester, $.Func0<String> message) {
+        if (tester) {
+            throw new ConfigurationException(message.apply());
+        }
+    }
     
     public static UnsupportedException tbd() {
         throw new UnsupportedException("to be implemented");
@@ -193,6 +222,12 @@ public class E {
         }
     }
 
+    public static void invalidArgIf(boolean test, $.Func0<String> message) {
+        if (test) {
+            throw new InvalidArgException(message.apply());
+        }
+    }
+
     public static InvalidRangeException invalidRange() {
         throw new InvalidRangeException();
     }
@@ -213,6 +248,12 @@ public class E {
         }
     }
 
+    public static void invalidRangeIf(boolean test, $.Func0<String> message) {
+        if (test) {
+            throw new InvalidRangeException(message.apply());
+        }
+    }
+
     public static void npeIf(boolean test) {
         if (test) {
             throw new NullPointerException();
@@ -232,6 +273,12 @@ public class E {
         }
     }
 
+    public static void unsupportedIf(boolean test, $.Func0<String> message) {
+        if (test) {
+            throw new UnsupportedException(message.apply());
+        }
+    }
+
     public static void illegalArgumentIf(boolean test) {
         if (test) {
             throw new IllegalArgumentException();
@@ -250,6 +297,12 @@ public class E {
         }
     }
 
+    public static void illegalArgumentIf(boolean test, $.Func0<String> message) {
+        if (test) {
+            throw new IllegalArgumentException(message.apply());
+        }
+    }
+
     public static void illegalStateIf(boolean test) {
         if (test) {
             throw new IllegalStateException();
@@ -268,6 +321,12 @@ public class E {
         }
     }
 
+    public static void illegalStateIf(boolean test, $.Func0<String> message) {
+        if (test) {
+            throw new IllegalStateException(message.apply());
+        }
+    }
+
     public static String stackTrace(Throwable t) {
         StringWriter sw = new StringWriter();
         PrintWriter pw = new PrintWriter(sw, true);
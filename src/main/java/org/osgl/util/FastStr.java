@@ -22,6 +22,7 @@ package org.osgl.util;
 
 import org.osgl.$;
 
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
@@ -40,6 +41,10 @@ import static java.lang.Character.*;
  * 2. when unsafeOf(char[]) is called, it use the char array passed in directly without
  * copy operation
  * 3. subList and substring works at O(1) because it will NOT copy the internal char array
+ * 4. When all chars are in the Latin-1 range, copying factories and operations that
+ * create new content store the chars in a byte array, one byte per char. Slices keep
+ * sharing that compact array, and operations only widen to UTF-16 when a result
+ * contains a char outside Latin-1
  * Note, this class shall be used with caution as it might prevent a very large char array
  * from been garbage collected when the char array is passed to a FastStr or substr of
  * the fast string
@@ -53,6 +58,23 @@ public class FastStr extends StrBase<FastStr>
         }
     };
 
+    /**
+     * "osgl.str_pool.size", the property key to configure the capacity of the
+     * pool used by {@link #dedup()}, {@link Str#dedup()} and {@link Keyword#dedup()},
+     * and of the parsed keyword cache used by {@link Keyword#of(CharSequence)}.
+     * Default value: {@code 16384}
+     */
+    public static final String CONF_STR_POOL_SIZE = "osgl.str_pool.size";
+
+    static final int STR_POOL_SIZE = Integer.getInteger(CONF_STR_POOL_SIZE, 1 << 14);
+
+    private static final Interner<FastStr> POOL = new Interner<FastStr>(STR_POOL_SIZE, new $.F1<FastStr, FastStr>() {
+        @Override
+        public FastStr apply(FastStr fs) {
+            return fs.owned();
+        }
+    });
+
     @Override
     protected Class<FastStr> _impl() {
         return FastStr.class;
@@ -63,8 +85,12 @@ public class FastStr extends StrBase<FastStr>
         return EMPTY_STR;
     }
 
+    // UTF-16 storage, null when the chars are stored in lbuf
     private final char[] buf;
 
+    // Latin-1 compact storage, one byte per char, null when the chars are stored in buf
+    private final byte[] lbuf;
+
     // low end point inclusive
     private final int begin;
 
@@ -75,6 +101,7 @@ public class FastStr extends StrBase<FastStr>
 
     private FastStr() {
         buf = new char[0];
+        lbuf = null;
         begin = 0;
         end = 0;
     }
@@ -85,10 +112,26 @@ public class FastStr extends StrBase<FastStr>
 
     private FastStr(char[] buf, int start, int end) {
         this.buf = buf;
+        this.lbuf = null;
         this.begin = start;
         this.end = end;
     }
 
+    private FastStr(byte[] lbuf, int start, int end) {
+        this.buf = null;
+        this.lbuf = lbuf;
+        this.begin = start;
+        this.end = end;
+    }
+
+    /**
+     * Check if this FastStr is stored in the Latin-1 compact form
+     * @return {@code true} if chars are stored one byte per char
+     */
+    boolean isLatin1() {
+        return null != lbuf;
+    }
+
     @Override
     public int length() {
         return end - begin;
@@ -96,7 +139,7 @@ public class FastStr extends StrBase<FastStr>
 
     @Override
     public boolean isEmpty() {
-        return EMPTY_STR == this || buf.length == 0 || end <= begin ;
+        return EMPTY_STR == this || end <= begin;
     }
 
     @Override
@@ -105,7 +148,7 @@ public class FastStr extends StrBase<FastStr>
             return true;
         }
         for (int i = begin; i < end; ++i) {
-            char c = buf[i];
+            char c = at(i);
             if (c > ' ') {
                 return false;
             }
@@ -131,7 +174,7 @@ public class FastStr extends StrBase<FastStr>
         }
         int newFrom = toInternalId(fromIndex);
         int newTo = toInternalId(toIndex);
-        return new FastStr(buf, newFrom, newTo);
+        return slice(newFrom, newTo);
     }
 
     @Override
@@ -145,7 +188,7 @@ public class FastStr extends StrBase<FastStr>
             e = toInternalId(i);
             if (!predicate.apply(c)) break;
         }
-        return unsafeOf(buf, b, e);
+        return slice(b, e);
     }
 
     @Override
@@ -158,7 +201,7 @@ public class FastStr extends StrBase<FastStr>
             b = toInternalId(i);
             if (!predicate.apply(c)) break;
         }
-        return unsafeOf(buf, b, e);
+        return slice(b, e);
     }
 
     @Override
@@ -174,7 +217,7 @@ public class FastStr extends StrBase<FastStr>
                 if (null == newBuf) {
                     removed = true;
                     newBuf = new char[sz];
-                    System.arraycopy(buf, 0, newBuf, 0, i);
+                    copyTo(begin, begin + i, newBuf, 0);
                 }
             } else {
                 if (null != newBuf) {
@@ -187,7 +230,7 @@ public class FastStr extends StrBase<FastStr>
             // nothing removed
             return this;
         }
-        return unsafeOf(newBuf, 0, curNew);
+        return compact(newBuf, curNew);
     }
 
     @Override
@@ -202,13 +245,13 @@ public class FastStr extends StrBase<FastStr>
         }
         char[] newBuf = new char[len + 1];
         if (index > 0) {
-            System.arraycopy(buf, begin, newBuf, 0, index);
+            copyTo(begin, begin + index, newBuf, 0);
         }
         if (index < len) {
-            System.arraycopy(buf, begin + index, newBuf, index + 1, len - index);
+            copyTo(begin + index, end, newBuf, index + 1);
         }
         newBuf[index] = character;
-        return unsafeOf(newBuf, 0, len + 1);
+        return compact(newBuf, len + 1);
     }
 
     @Override
@@ -223,13 +266,13 @@ public class FastStr extends StrBase<FastStr>
         }
         char[] newBuf = new char[len + 1];
         if (index > 0) {
-            System.arraycopy(buf, begin, newBuf, 0, index);
+            copyTo(begin, begin + index, newBuf, 0);
         }
         if (index < len) {
-            System.arraycopy(buf, begin + index, newBuf, index + 1, len - index);
+            copyTo(begin + index, end, newBuf, index + 1);
         }
         newBuf[index] = character;
-        return unsafeOf(newBuf, 0, len + 1);
+        return compact(newBuf, len + 1);
     }
 
     @Override
@@ -257,13 +300,13 @@ public class FastStr extends StrBase<FastStr>
         }
         char[] newBuf = new char[len + delta];
         if (index > 0) {
-            System.arraycopy(buf, begin, newBuf, 0, index);
+            copyTo(begin, begin + index, newBuf, 0);
         }
         System.arraycopy(ca, 0,  newBuf, index, delta);
         if (index < len) {
-            System.arraycopy(buf, begin + index, newBuf, index + delta, len - index);
+            copyTo(begin + index, end, newBuf, index + delta);
         }
-        return unsafeOf(newBuf, 0, len + delta);
+        return compact(newBuf, len + delta);
     }
 
     @Override
@@ -274,6 +317,13 @@ public class FastStr extends StrBase<FastStr>
     @Override
     public FastStr reverse() {
         int sz = size();
+        if (null != lbuf) {
+            byte[] newBuf = new byte[sz];
+            for (int i = begin, j = sz - 1; j >= 0; ) {
+                newBuf[j--] = lbuf[i++];
+            }
+            return new FastStr(newBuf, 0, sz);
+        }
         char[] newBuf = new char[sz];
         for (int i = 0, j = sz - 1; i < sz; ) {
             newBuf[j--] = buf[toInternalId(i++)];
@@ -295,7 +345,7 @@ public class FastStr extends StrBase<FastStr>
             char c = itr.next();
             newBuf[i++] = c;
         }
-        return new FastStr(newBuf, 0, sz + sz2);
+        return compact(newBuf, sz + sz2);
     }
 
     @Override
@@ -308,7 +358,7 @@ public class FastStr extends StrBase<FastStr>
         for (int i = 0; i < sz2; ++i) {
             newBuf[sz + i] = list.get(i);
         }
-        return new FastStr(newBuf, 0, sz + sz2);
+        return compact(newBuf, sz + sz2);
     }
 
     @Override
@@ -326,7 +376,7 @@ public class FastStr extends StrBase<FastStr>
         for (int i = 0; i < sz2; ++i) {
             newBuf[sz + i] = array[i];
         }
-        return new FastStr(newBuf, 0, sz + sz2);
+        return compact(newBuf, sz + sz2);
     }
 
     @Override
@@ -335,7 +385,7 @@ public class FastStr extends StrBase<FastStr>
         char[] newBuf = new char[sz + 1];
         copyTo(newBuf, 0);
         newBuf[sz] = character;
-        return new FastStr(newBuf, 0, sz + 1);
+        return compact(newBuf, sz + 1);
     }
 
     public FastStr append(FastStr s) {
@@ -343,10 +393,16 @@ public class FastStr extends StrBase<FastStr>
         if (sz == 0) return s;
         if (sz2 == 0) return this;
         int newSz = sz + sz2;
+        if (null != lbuf && null != s.lbuf) {
+            byte[] newBuf = new byte[newSz];
+            System.arraycopy(lbuf, begin, newBuf, 0, sz);
+            System.arraycopy(s.lbuf, s.begin, newBuf, sz, sz2);
+            return new FastStr(newBuf, 0, newSz);
+        }
         char[] newBuf = new char[newSz];
         copyTo(newBuf, 0);
         s.copyTo(newBuf, sz);
-        return new FastStr(newBuf, 0, newSz);
+        return compact(newBuf, newSz);
     }
 
     public FastStr append(String s) {
@@ -371,7 +427,7 @@ public class FastStr extends StrBase<FastStr>
                 newBuf[sz + i] = s.charAt(i);
             }
         }
-        return new FastStr(newBuf, 0, newSz);
+        return compact(newBuf, newSz);
     }
 
     @Override
@@ -387,7 +443,7 @@ public class FastStr extends StrBase<FastStr>
             newBuf[i++] = itr.next();
         }
         copyTo(newBuf, sz2);
-        return new FastStr(newBuf, 0, newSz);
+        return compact(newBuf, newSz);
     }
 
     @Override
@@ -405,7 +461,7 @@ public class FastStr extends StrBase<FastStr>
             newBuf[i] = list.get(i);
         }
         copyTo(newBuf, sz2);
-        return new FastStr(newBuf, 0, newSz);
+        return compact(newBuf, newSz);
     }
 
     @Override
@@ -423,22 +479,22 @@ public class FastStr extends StrBase<FastStr>
             newBuf[i] = chars[i];
         }
         copyTo(newBuf, sz2);
-        return new FastStr(newBuf, 0, newSz);
+        return compact(newBuf, newSz);
     }
 
     @Override
     public FastStr prepend(Character character) {
         // check if I can back begin pointer for one step
         if (begin > 0) {
-            if (buf[begin - 1] == character) {
-                return FastStr.unsafeOf(buf, begin - 1, end);
+            if (at(begin - 1) == character) {
+                return slice(begin - 1, end);
             }
         }
         int sz = size();
         char[] newBuf = new char[++sz];
         newBuf[0] = character;
         copyTo(newBuf, 1);
-        return new FastStr(newBuf, 0, sz);
+        return compact(newBuf, sz);
     }
 
 
@@ -474,7 +530,7 @@ public class FastStr extends StrBase<FastStr>
             }
         }
         copyTo(newBuf, sz2);
-        return new FastStr(newBuf, 0, newSz);
+        return compact(newBuf, newSz);
     }
 
     @Override
@@ -523,7 +579,7 @@ public class FastStr extends StrBase<FastStr>
 
     @Override
     public char charAt(int index) {
-        return buf[toInternalId(index)];
+        return at(toInternalId(index));
     }
 
     @Override
@@ -534,6 +590,9 @@ public class FastStr extends StrBase<FastStr>
     @Override
     public FastStr copy() {
         if (EMPTY_STR == this) return this;
+        if (null != lbuf) {
+            return new FastStr(Arrays.copyOfRange(lbuf, begin, end), 0, size());
+        }
         return unsafeOf(charArray(), 0, size());
     }
 
@@ -544,6 +603,13 @@ public class FastStr extends StrBase<FastStr>
         int sz = size();
         if (0 == sz) return this;
         int newSz = sz * n;
+        if (null != lbuf) {
+            byte[] newBuf = new byte[newSz];
+            for (int i = 0; i < n; ++i) {
+                System.arraycopy(lbuf, begin, newBuf, i * sz, sz);
+            }
+            return new FastStr(newBuf, 0, newSz);
+        }
         char[] newBuf = new char[newSz];
         for (int i = 0; i < n; ++i) {
             copyTo(newBuf, i * sz);
@@ -554,6 +620,9 @@ public class FastStr extends StrBase<FastStr>
     public FastStr canonical() {
         if (EMPTY_STR == this) return this;
         if (begin == 0) return this;
+        if (null != lbuf) {
+            return new FastStr(Arrays.copyOfRange(lbuf, begin, end), 0, size());
+        }
         return unsafeOf(unsafeChars(), 0, size());
     }
 
@@ -562,13 +631,11 @@ public class FastStr extends StrBase<FastStr>
         int len1 = size();
         int len2 = o.size();
         int lim = Math.min(len1, len2);
-        char v1[] = buf;
-        char v2[] = o.buf;
 
         int k = 0;
         while (k < lim) {
-            char c1 = v1[toInternalId(k)];
-            char c2 = v2[o.toInternalId(k)];
+            char c1 = at(toInternalId(k));
+            char c2 = o.at(o.toInternalId(k));
             if (c1 != c2) {
                 return c1 - c2;
             }
@@ -579,7 +646,10 @@ public class FastStr extends StrBase<FastStr>
 
     @Override
     public String toString() {
-        char[] newBuf = charArray();
+        if (null != lbuf) {
+            return new String(lbuf, begin, size(), Charsets.ISO_8859_1);
+        }
+        char[] newBuf = begin == 0 && end == buf.length ? buf : charArray();
         try {
             return Unsafe.stringOf(newBuf);
         } catch (Exception e) {
@@ -609,8 +679,16 @@ public class FastStr extends StrBase<FastStr>
         if (isEmpty()) return 0;
         int h = hash;
         if (h == 0) {
-            for (int i = begin; i < end; ++i) {
-                h = 31 * h + buf[i];
+            byte[] lbuf = this.lbuf;
+            if (null != lbuf) {
+                for (int i = begin; i < end; ++i) {
+                    h = 31 * h + (lbuf[i] & 0xFF);
+                }
+            } else {
+                char[] buf = this.buf;
+                for (int i = begin; i < end; ++i) {
+                    h = 31 * h + buf[i];
+                }
             }
             hash = h;
         }
@@ -630,7 +708,7 @@ public class FastStr extends StrBase<FastStr>
         if (srcEnd > sz) {
             throw new StringIndexOutOfBoundsException(srcEnd);
         }
-        System.arraycopy(buf, toInternalId(srcBegin), dst, dstBegin, srcEnd - srcBegin);
+        copyTo(toInternalId(srcBegin), toInternalId(srcEnd), dst, dstBegin);
     }
 
     public byte[] getBytes() {
@@ -664,6 +742,10 @@ public class FastStr extends StrBase<FastStr>
         if (sz == 0) {
             return new byte[0];
         }
+        if (null != lbuf) {
+            byte[] bytes = asciiBytes();
+            return null != bytes ? bytes : toString().getBytes(Charsets.US_ASCII);
+        }
         try {
             char[] chars;
             if (sz == buf.length && begin == 0) {
@@ -680,21 +762,61 @@ public class FastStr extends StrBase<FastStr>
 
     @Override
     public byte[] getBytesUTF8() {
-        int sz = size();
-        if (sz == 0) {
+        if (isEmpty()) {
             return new byte[0];
         }
-        try {
-            char[] chars;
-            if (sz == buf.length && begin == 0) {
-                chars = buf;
-            } else {
-                chars = new char[sz];
-                System.arraycopy(buf, begin, chars, 0, sz);
-            }
-            return Unsafe.stringOf(chars).getBytes(Charsets.UTF_8);
-        } catch (Exception e) {
-            return toString().getBytes(Charsets.UTF_8);
+        byte[] bytes = new byte[utf8Length()];
+        writeUtf8(bytes, 0);
+        return bytes;
+    }
+
+    /**
+     * Returns the number of bytes of the UTF-8 encoding of this str
+     *
+     * @return the UTF-8 encoded length
+     */
+    public int utf8Length() {
+        return null != lbuf ? Utf8.encodedLengthLatin1(lbuf, begin, end) : Utf8.encodedLength(buf, begin, end);
+    }
+
+    /**
+     * Writes the UTF-8 encoding of this str into a byte array starting
+     * at {@code pos}. The array must have {@link #utf8Length()} bytes of
+     * room
+     *
+     * @param dst the target byte array
+     * @param pos the start position
+     * @return the position after the last byte written
+     */
+    public int writeUtf8(byte[] dst, int pos) {
+        return null != lbuf ? Utf8.encodeLatin1(lbuf, begin, end, dst, pos) : Utf8.encode(buf, begin, end, dst, pos);
+    }
+
+    /**
+     * Writes the UTF-8 encoding of this str into a byte buffer at its
+     * current position
+     *
+     * @param dst the target buffer
+     * @throws java.nio.BufferOverflowException if there is not enough room in {@code dst}
+     */
+    public void writeUtf8(ByteBuffer dst) {
+        if (null != lbuf) {
+            Utf8.encodeLatin1(lbuf, begin, end, dst);
+        } else {
+            Utf8.encode(buf, begin, end, dst);
+        }
+    }
+
+    /**
+     * Writes the UTF-8 encoding of this str to an output stream
+     *
+     * @param os the output stream
+     */
+    public void writeUtf8(OutputStream os) {
+        if (null != lbuf) {
+            Utf8.encodeLatin1(lbuf, begin, end, os);
+        } else {
+            Utf8.encode(buf, begin, end, os);
         }
     }
 
@@ -710,7 +832,7 @@ public class FastStr extends StrBase<FastStr>
         int sz = size(), sz2 = x.length();
         if (sz != sz2) return false;
         for (int i = 0; i < sz; ++i) {
-            char c = buf[toInternalId(i)];
+            char c = at(toInternalId(i));
             char c1 = x.charAt(i);
             if (c != c1) return false;
         }
@@ -722,8 +844,20 @@ public class FastStr extends StrBase<FastStr>
         if (null == x) return false;
         int sz = size(), sz2 = x.size();
         if (sz != sz2) return false;
-        for (int i = begin, j = x.begin; i < end; ) {
-            if (buf[i++] != x.buf[j++]) return false;
+        byte[] lbuf = this.lbuf, xlbuf = x.lbuf;
+        if (null != lbuf && null != xlbuf) {
+            for (int i = begin, j = x.begin; i < end; ) {
+                if (lbuf[i++] != xlbuf[j++]) return false;
+            }
+        } else if (null == lbuf && null == xlbuf) {
+            char[] buf = this.buf, xbuf = x.buf;
+            for (int i = begin, j = x.begin; i < end; ) {
+                if (buf[i++] != xbuf[j++]) return false;
+            }
+        } else {
+            for (int i = begin, j = x.begin; i < end; ) {
+                if (at(i++) != x.at(j++)) return false;
+            }
         }
         return true;
     }
@@ -746,19 +880,18 @@ public class FastStr extends StrBase<FastStr>
     public boolean equalsIgnoreCase(FastStr x) {
         if (x == this) return true;
         if (null == x || size() != x.size()) return false;
-        return regionMatches(true, 0, x.buf, 0, size());
+        return regionMatches(true, 0, x, 0, size());
     }
 
     public int compareTo(CharSequence x) {
         int len1 = size();
         int len2 = x.length();
         int lim = Math.min(len1, len2);
-        char v1[] = buf;
         try {
             char v2[] = Unsafe.bufOf(x);
             int k = 0;
             while (k < lim) {
-                char c1 = v1[toInternalId(k)];
+                char c1 = at(toInternalId(k));
                 char c2 = v2[k];
                 if (c1 != c2) {
                     return c1 - c2;
@@ -768,7 +901,7 @@ public class FastStr extends StrBase<FastStr>
         } catch (RuntimeException e) {
             int k = 0;
             while (k < lim) {
-                char c1 = v1[toInternalId(k)];
+                char c1 = at(toInternalId(k));
                 char c2 = x.charAt(k);
                 if (c1 != c2) {
                     return c1 - c2;
@@ -783,13 +916,11 @@ public class FastStr extends StrBase<FastStr>
         int len1 = size();
         int len2 = o.size();
         int lim = Math.min(len1, len2);
-        char v1[] = buf;
-        char v2[] = o.buf;
 
         int k = 0;
         while (k < lim) {
-            char c1 = v1[toInternalId(k)];
-            char c2 = v2[o.toInternalId(k)];
+            char c1 = at(toInternalId(k));
+            char c2 = o.at(o.toInternalId(k));
             if (c1 != c2) {
                 c1 = Character.toUpperCase(c1);
                 c2 = Character.toUpperCase(c2);
@@ -810,13 +941,12 @@ public class FastStr extends StrBase<FastStr>
         int len1 = size();
         int len2 = o.length();
         int lim = Math.min(len1, len2);
-        char v1[] = buf;
         int k = 0;
 
         try {
             char v2[] = Unsafe.bufOf(o);
             while (k < lim) {
-                char c1 = v1[toInternalId(k)];
+                char c1 = at(toInternalId(k));
                 char c2 = v2[k];
                 if (c1 != c2) {
                     c1 = Character.toUpperCase(c1);
@@ -833,7 +963,7 @@ public class FastStr extends StrBase<FastStr>
             }
         } catch (RuntimeException e) {
             while (k < lim) {
-                char c1 = v1[toInternalId(k)];
+                char c1 = at(toInternalId(k));
                 char c2 = o.charAt(k);
                 if (c1 != c2) {
                     c1 = Character.toUpperCase(c1);
@@ -859,7 +989,6 @@ public class FastStr extends StrBase<FastStr>
     }
 
     private boolean regionMatches(boolean ignoreCase, int toffset, char[] other, int ooffset, int len) {
-        char ta[] = buf;
         int to = toInternalId(toffset);
         char pa[] = other;
         int po = ooffset;
@@ -870,7 +999,7 @@ public class FastStr extends StrBase<FastStr>
             return false;
         }
         while (len-- > 0) {
-            char c1 = ta[to++];
+            char c1 = at(to++);
             char c2 = pa[po++];
             if (c1 == c2) {
                 continue;
@@ -912,9 +1041,8 @@ public class FastStr extends StrBase<FastStr>
             return false;
         }
         int po = 0, pc = sz2, to = toffset;
-        char[] buf1 = buf, buf2 = prefix.buf;
         while (--pc >= 0) {
-            if (buf1[toInternalId(to++)] != buf2[prefix.toInternalId(po++)]) {
+            if (at(toInternalId(to++)) != prefix.at(prefix.toInternalId(po++))) {
                 return false;
             }
         }
@@ -928,18 +1056,17 @@ public class FastStr extends StrBase<FastStr>
             return false;
         }
         int po = 0, pc = sz2, to = toffset;
-        char[] buf1 = buf;
         try {
             char[] buf2 = Unsafe.bufOf(suffix);
             while (--pc >= 0) {
-                if (buf1[toInternalId(to++)] != buf2[po++]) {
+                if (at(toInternalId(to++)) != buf2[po++]) {
                     return false;
                 }
             }
             return true;
         } catch (RuntimeException e) {
             while (--pc >= 0) {
-                if (buf1[toInternalId(to++)] != suffix.charAt(po++)) {
+                if (at(toInternalId(to++)) != suffix.charAt(po++)) {
                     return false;
                 }
             }
@@ -958,7 +1085,7 @@ public class FastStr extends StrBase<FastStr>
             return false;
         }
         for (int i = toInternalId(matchStart - 1), j = prefixSz - 1; j >= 0; --i, --j) {
-            char c0 = buf[i];
+            char c0 = at(i);
             char c1 = suffix.charAt(j);
             if (c0 != c1) {
                 return false;
@@ -979,10 +1106,9 @@ public class FastStr extends StrBase<FastStr>
         if (matchStart < prefixSz) {
             return false;
         }
-        char[] prefixBuf = prefix.buf;
         for (int i = toInternalId(matchStart - 1), j = prefix.toInternalId(prefixSz - 1); j >= prefix.begin; --i, --j) {
-            char c0 = buf[i];
-            char c1 = prefixBuf[j];
+            char c0 = at(i);
+            char c1 = prefix.at(j);
             if (c0 != c1) {
                 return false;
             }
@@ -998,6 +1124,19 @@ public class FastStr extends StrBase<FastStr>
             return -1;
         }
         fromIndex = toInternalId(fromIndex);
+        if (null != lbuf) {
+            if (ch < 0 || ch > 0xFF) {
+                return -1;
+            }
+            final byte[] lbuf = this.lbuf;
+            final byte b = (byte) ch;
+            for (int i = fromIndex; i < end; ++i) {
+                if (lbuf[i] == b) {
+                    return toExternalId(i);
+                }
+            }
+            return -1;
+        }
         if (ch < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
             // handle most cases here (ch is a BMP code point or a
             // negative value (invalid code point))
@@ -1015,6 +1154,19 @@ public class FastStr extends StrBase<FastStr>
 
     public int lastIndexOf(int ch, int fromIndex) {
         fromIndex = toInternalId(fromIndex);
+        if (null != lbuf) {
+            if (ch < 0 || ch > 0xFF) {
+                return -1;
+            }
+            final byte[] lbuf = this.lbuf;
+            final byte b = (byte) ch;
+            for (int i = Math.min(fromIndex, end - 1); i >= begin; i--) {
+                if (lbuf[i] == b) {
+                    return toExternalId(i);
+                }
+            }
+            return -1;
+        }
         if (ch < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
             // handle most cases here (ch is a BMP code point or a
             // negative value (invalid code point))
@@ -1033,27 +1185,44 @@ public class FastStr extends StrBase<FastStr>
 
     @Override
     public int indexOf(CharSequence str, int fromIndex) {
+        if (str instanceof FastStr) {
+            return indexOf((FastStr) str, fromIndex);
+        }
         char[] strBuf = bufOf(str);
-        return S.indexOf(buf, begin, size(), strBuf, 0, strBuf.length, fromIndex);
+        return indexOf(strBuf, 0, strBuf.length, fromIndex);
     }
 
     @Override
     public int indexOf(FastStr str, int fromIndex) {
-        char[] buf = str.buf;
-        return S.indexOf(this.buf, this.begin, this.size(), buf, str.begin, str.size(), fromIndex);
+        if (null == str.lbuf) {
+            return indexOf(str.buf, str.begin, str.size(), fromIndex);
+        }
+        if (null != lbuf) {
+            return S.indexOf(lbuf, begin, size(), str.lbuf, str.begin, str.size(), fromIndex);
+        }
+        char[] strBuf = str.charArray();
+        return S.indexOf(buf, begin, size(), strBuf, 0, strBuf.length, fromIndex);
     }
 
     @Override
     public int lastIndexOf(CharSequence str, int fromIndex) {
+        if (str instanceof FastStr) {
+            return lastIndexOf((FastStr) str, fromIndex);
+        }
         char[] strBuf = bufOf(str);
-        int sz = size();
-        return S.lastIndexOf(buf, begin, sz, strBuf, 0, strBuf.length, fromIndex);
+        return lastIndexOf(strBuf, 0, strBuf.length, fromIndex);
     }
 
     @Override
     public int lastIndexOf(FastStr str, int fromIndex) {
-        int sz = size();
-        return S.lastIndexOf(buf, begin, sz, str.buf, str.begin, str.size(), fromIndex);
+        if (null == str.lbuf) {
+            return lastIndexOf(str.buf, str.begin, str.size(), fromIndex);
+        }
+        if (null != lbuf) {
+            return S.lastIndexOf(lbuf, begin, size(), str.lbuf, str.begin, str.size(), fromIndex);
+        }
+        char[] strBuf = str.charArray();
+        return S.lastIndexOf(buf, begin, size(), strBuf, 0, strBuf.length, fromIndex);
     }
 
     /**
@@ -1070,7 +1239,7 @@ public class FastStr extends StrBase<FastStr>
         if (subLen < 0) {
             throw new StringIndexOutOfBoundsException(subLen);
         }
-        return (beginIndex == 0) ? toString() : new String(buf, toInternalId(beginIndex), subLen);
+        return (beginIndex == 0) ? toString() : string(toInternalId(beginIndex), subLen);
     }
 
     /**
@@ -1085,8 +1254,7 @@ public class FastStr extends StrBase<FastStr>
         if (beginIndex < 0) {
             throw new StringIndexOutOfBoundsException(beginIndex);
         }
-        char[] buf = this.buf;
-        int sz = buf.length;
+        int sz = size();
         if (endIndex > sz) {
             throw new StringIndexOutOfBoundsException(endIndex);
         }
@@ -1095,7 +1263,7 @@ public class FastStr extends StrBase<FastStr>
             throw new StringIndexOutOfBoundsException(subLen);
         }
         return ((beginIndex == 0) && (endIndex == sz)) ? toString()
-                : new String(buf, toInternalId(beginIndex), subLen);
+                : string(toInternalId(beginIndex), subLen);
     }
 
     /**
@@ -1107,6 +1275,20 @@ public class FastStr extends StrBase<FastStr>
      */
     @Override
     public FastStr replace(char oldChar, char newChar) {
+        if (null != lbuf) {
+            int pos = oldChar == newChar ? -1 : indexOf(oldChar);
+            if (pos < 0) {
+                return this;
+            }
+            int len = length();
+            char[] newBuf = charArray();
+            for (int i = pos; i < len; ++i) {
+                if (newBuf[i] == oldChar) {
+                    newBuf[i] = newChar;
+                }
+            }
+            return compact(newBuf, len);
+        }
         if (oldChar != newChar) {
             char[] val = this.buf; /* avoid getfield opcode */
             int len = length();
@@ -1231,8 +1413,8 @@ public class FastStr extends StrBase<FastStr>
                     off = next + 1;
                 } else {    // last one
                     //assert (list.size() == limit - 1);
-                    list.add(substr(off, buf.length));
-                    off = buf.length;
+                    list.add(substr(off, size()));
+                    off = size();
                     break;
                 }
             }
@@ -1243,7 +1425,7 @@ public class FastStr extends StrBase<FastStr>
 
             // Add remaining segment
             if (!limited || list.size() < limit) {
-                list.add(substr(off, buf.length));
+                list.add(substr(off, size()));
             }
 
             // Construct result
@@ -1265,6 +1447,28 @@ public class FastStr extends StrBase<FastStr>
     }
 
 
+    /**
+     * Returns a lazy sequence of the tokens of this FastStr separated by the char
+     * specified. The tokens are views of this FastStr. See {@link Tokenizer}
+     *
+     * @param separator the separator char
+     * @return the sequence of tokens
+     */
+    public C.Sequence<FastStr> tokens(char separator) {
+        return Tokenizer.of(this, separator).seq();
+    }
+
+    /**
+     * Returns a lazy sequence of the tokens of this FastStr separated by the string
+     * literal specified. The tokens are views of this FastStr. See {@link Tokenizer}
+     *
+     * @param separator the separator literal
+     * @return the sequence of tokens
+     */
+    public C.Sequence<FastStr> tokens(String separator) {
+        return Tokenizer.of(this, separator).seq();
+    }
+
     /**
      * Wrapper of {@link String#toLowerCase(java.util.Locale)} but return FastStr type instance
      *
@@ -1298,18 +1502,16 @@ public class FastStr extends StrBase<FastStr>
      */
     @Override
     public FastStr trim() {
-        char[] value = this.buf;
         int len = end;
         int st = begin;
-        char[] val = value;    /* avoid getfield opcode */
 
-        while ((st < len) && (val[st] <= ' ')) {
+        while ((st < len) && (at(st) <= ' ')) {
             st++;
         }
-        while ((st < len) && (val[len - 1] <= ' ')) {
+        while ((st < len) && (at(len - 1) <= ' ')) {
             len--;
         }
-        return ((st > begin) || (len < size())) ? new FastStr(value, st, len) : this;
+        return ((st > begin) || (len < end)) ? slice(st, len) : this;
     }
 
     /**
@@ -1330,7 +1532,7 @@ public class FastStr extends StrBase<FastStr>
      * @return the char array buf of this FastStr
      */
     public char[] unsafeChars() {
-        if (begin == 0) return buf;
+        if (null != buf && begin == 0 && end == buf.length) return buf;
         char[] newBuf = new char[size()];
         copyTo(newBuf, 0);
         return newBuf;
@@ -1346,6 +1548,22 @@ public class FastStr extends StrBase<FastStr>
         return toString().intern();
     }
 
+    /**
+     * Returns a FastStr equal to this one from a shared pool. Equal FastStr
+     * instances deduplicated by this method are likely to be the same
+     * object, and the pooled instance does not hold the larger buffer
+     * this FastStr might be sliced from.
+     * <p>
+     * Unlike {@link #intern()} this method does not create a String. The
+     * pool is bounded and drops instances no longer in use, see {@link Interner}
+     *
+     * @return the pooled FastStr equal to this FastStr
+     */
+    public FastStr dedup() {
+        if (isEmpty()) return EMPTY_STR;
+        return POOL.intern(this);
+    }
+
     // -- extensions
     @Override
     public FastStr afterFirst(String s) {
@@ -1434,32 +1652,17 @@ public class FastStr extends StrBase<FastStr>
     }
 
     public FastStr urlEncode() {
-        String s;
-        try {
-            s = Unsafe.stringOf(buf);
-        } catch (Exception e) {
-            s = toString();
-        }
+        String s = toString();
         return unsafeOf(S.urlEncode(s));
     }
 
     public FastStr decodeBASE64() {
-        String s;
-        try {
-            s = Unsafe.stringOf(buf);
-        } catch (Exception e) {
-            s = toString();
-        }
+        String s = toString();
         return unsafeOf(S.decodeBASE64(s));
     }
 
     public FastStr encodeBASE64() {
-        String s;
-        try {
-            s = Unsafe.stringOf(buf);
-        } catch (Exception e) {
-            s = toString();
-        }
+        String s = toString();
         return unsafeOf(S.encodeBASE64(s));
     }
 
@@ -1467,6 +1670,15 @@ public class FastStr extends StrBase<FastStr>
     public FastStr capFirst() {
         if (isEmpty()) return this;
         int sz = size();
+        if (null != lbuf) {
+            char c = at(begin);
+            if (Character.isUpperCase(c)) {
+                return this;
+            }
+            char[] newBuf = charArray();
+            newBuf[0] = Character.toUpperCase(c);
+            return compact(newBuf, sz);
+        }
         char[] buf = this.buf;
         char[] newBuf = S.unsafeCapFirst(buf, begin, sz);
         if (buf == newBuf) return this;
@@ -1481,7 +1693,11 @@ public class FastStr extends StrBase<FastStr>
 
     @Override
     public int count(FastStr search, boolean overlap) {
-        return count(search.buf, search.begin, search.size(), overlap);
+        if (null == search.lbuf) {
+            return count(search.buf, search.begin, search.size(), overlap);
+        }
+        char[] searchBuf = search.charArray();
+        return count(searchBuf, 0, searchBuf.length, overlap);
     }
 
     private int toInternalId(int index) {
@@ -1492,8 +1708,68 @@ public class FastStr extends StrBase<FastStr>
         return index - begin;
     }
 
+    // Returns a FastStr equal to this one that does not share a larger buffer
+    private FastStr owned() {
+        if (null != lbuf) {
+            return begin == 0 && end == lbuf.length ? this : new FastStr(Arrays.copyOfRange(lbuf, begin, end), 0, size());
+        }
+        return compact(charArray(), size());
+    }
+
+    private char at(int internalId) {
+        byte[] lbuf = this.lbuf;
+        return null != lbuf ? (char) (lbuf[internalId] & 0xFF) : buf[internalId];
+    }
+
+    // Returns a FastStr sharing the storage of this FastStr
+    private FastStr slice(int from, int to) {
+        if (to <= from) return EMPTY_STR;
+        return null != lbuf ? new FastStr(lbuf, from, to) : new FastStr(buf, from, to);
+    }
+
+    private String string(int from, int len) {
+        return null != lbuf ? new String(lbuf, from, len, Charsets.ISO_8859_1) : new String(buf, from, len);
+    }
+
+    private byte[] asciiBytes() {
+        byte[] lbuf = this.lbuf;
+        for (int i = begin; i < end; ++i) {
+            if (lbuf[i] < 0) {
+                return null;
+            }
+        }
+        return Arrays.copyOfRange(lbuf, begin, end);
+    }
+
     private void copyTo(char[] buf, int begin) {
-        System.arraycopy(this.buf, this.begin, buf, begin, size());
+        copyTo(this.begin, this.end, buf, begin);
+    }
+
+    private void copyTo(int from, int to, char[] dest, int destPos) {
+        byte[] lbuf = this.lbuf;
+        if (null == lbuf) {
+            System.arraycopy(buf, from, dest, destPos, to - from);
+            return;
+        }
+        for (int i = from; i < to; ) {
+            dest[destPos++] = (char) (lbuf[i++] & 0xFF);
+        }
+    }
+
+    private int indexOf(char[] target, int targetOffset, int targetCount, int fromIndex) {
+        if (null == lbuf) {
+            return S.indexOf(buf, begin, size(), target, targetOffset, targetCount, fromIndex);
+        }
+        byte[] latin1 = latin1(target, targetOffset, targetCount);
+        return null == latin1 ? -1 : S.indexOf(lbuf, begin, size(), latin1, 0, targetCount, fromIndex);
+    }
+
+    private int lastIndexOf(char[] target, int targetOffset, int targetCount, int fromIndex) {
+        if (null == lbuf) {
+            return S.lastIndexOf(buf, begin, size(), target, targetOffset, targetCount, fromIndex);
+        }
+        byte[] latin1 = latin1(target, targetOffset, targetCount);
+        return null == latin1 ? -1 : S.lastIndexOf(lbuf, begin, size(), latin1, 0, targetCount, fromIndex);
     }
 
     private int indexOfSupplementary(int ch, int fromIndex) {
@@ -1528,7 +1804,50 @@ public class FastStr extends StrBase<FastStr>
 
     private int count(char[] search, int searchOffset, int searchCount, boolean overlap) {
         if (isEmpty()) return 0;
-        return S.count(buf, begin, size(), search, searchOffset, searchCount, overlap);
+        if (null == lbuf) {
+            return S.count(buf, begin, size(), search, searchOffset, searchCount, overlap);
+        }
+        byte[] latin1 = latin1(search, searchOffset, searchCount);
+        return null == latin1 ? 0 : S.count(lbuf, begin, size(), latin1, 0, searchCount, overlap);
+    }
+
+    /**
+     * Returns a FastStr owning the chars specified. The chars are stored
+     * in the Latin-1 compact form if possible
+     */
+    private static FastStr compact(char[] buf, int len) {
+        if (0 == len) return EMPTY_STR;
+        byte[] lbuf = latin1(buf, 0, len);
+        return null != lbuf ? new FastStr(lbuf, 0, len) : new FastStr(buf, 0, len);
+    }
+
+    /**
+     * Returns the Latin-1 bytes of the chars specified, or {@code null} if any
+     * of the chars is out of the Latin-1 range
+     */
+    private static byte[] latin1(char[] buf, int offset, int len) {
+        byte[] lbuf = new byte[len];
+        for (int i = 0; i < len; ++i) {
+            char c = buf[offset + i];
+            if (c > 0xFF) {
+                return null;
+            }
+            lbuf[i] = (byte) c;
+        }
+        return lbuf;
+    }
+
+    private static byte[] latin1(CharSequence chars) {
+        int len = chars.length();
+        byte[] lbuf = new byte[len];
+        for (int i = 0; i < len; ++i) {
+            char c = chars.charAt(i);
+            if (c > 0xFF) {
+                return null;
+            }
+            lbuf[i] = (byte) c;
+        }
+        return lbuf;
     }
 
 
@@ -1540,10 +1859,10 @@ public class FastStr extends StrBase<FastStr>
      * @return a FastStr
      */
     public static FastStr of(char[] ca) {
-        if (ca.length == 0) return EMPTY_STR;
-        char[] newArray = new char[ca.length];
-        System.arraycopy(ca, 0, newArray, 0, ca.length);
-        return new FastStr(ca);
+        int len = ca.length;
+        if (len == 0) return EMPTY_STR;
+        byte[] lbuf = latin1(ca, 0, len);
+        return null != lbuf ? new FastStr(lbuf, 0, len) : new FastStr(Arrays.copyOf(ca, len));
     }
 
     /**
@@ -1566,8 +1885,8 @@ public class FastStr extends StrBase<FastStr>
     public static FastStr of(String s) {
         int sz = s.length();
         if (sz == 0) return EMPTY_STR;
-        char[] buf = s.toCharArray();
-        return new FastStr(buf, 0, sz);
+        byte[] lbuf = latin1(s);
+        return null != lbuf ? new FastStr(lbuf, 0, sz) : new FastStr(s.toCharArray(), 0, sz);
     }
 
     /**
@@ -1578,10 +1897,10 @@ public class FastStr extends StrBase<FastStr>
     public static FastStr of(StringBuilder sb) {
         int sz = sb.length();
         if (0 == sz) return EMPTY_STR;
+        byte[] lbuf = latin1(sb);
+        if (null != lbuf) return new FastStr(lbuf, 0, sz);
         char[] buf = new char[sz];
-        for (int i = 0; i < sz; ++i) {
-            buf[i] = sb.charAt(i);
-        }
+        sb.getChars(0, sz, buf, 0);
         return new FastStr(buf, 0, sz);
     }
 
@@ -1593,10 +1912,10 @@ public class FastStr extends StrBase<FastStr>
     public static FastStr of(StringBuffer sb) {
         int sz = sb.length();
         if (0 == sz) return EMPTY_STR;
+        byte[] lbuf = latin1(sb);
+        if (null != lbuf) return new FastStr(lbuf, 0, sz);
         char[] buf = new char[sz];
-        for (int i = 0; i < sz; ++i) {
-            buf[i] = sb.charAt(i);
-        }
+        sb.getChars(0, sz, buf, 0);
         return new FastStr(buf, 0, sz);
     }
 
@@ -1627,7 +1946,7 @@ public class FastStr extends StrBase<FastStr>
         while (itr.hasNext()) {
             buf[i++] = itr.next();
         }
-        return new FastStr(buf, 0, sz);
+        return compact(buf, sz);
     }
 
     /**
@@ -1644,6 +1963,13 @@ public class FastStr extends StrBase<FastStr>
     }
 
     public static FastStr of(byte[] bytes, String encoding) {
+        if (isLatin1(bytes, encoding)) {
+            int len = bytes.length;
+            if (0 == len) return EMPTY_STR;
+            byte[] lbuf = Arrays.copyOf(bytes, len);
+            Arrays.fill(bytes, (byte) 0); // clear sensitive data
+            return new FastStr(lbuf, 0, len);
+        }
         ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
         CharBuffer charBuffer = Charset.forName(encoding).decode(byteBuffer);
         char[] chars = Arrays.copyOfRange(charBuffer.array(), charBuffer.position(), charBuffer.limit());
@@ -1652,6 +1978,69 @@ public class FastStr extends StrBase<FastStr>
         return FastStr.of(chars);
     }
 
+    public static FastStr ofUtf8(byte[] bytes) {
+        return ofUtf8(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Construct a FastStr by decoding UTF-8 bytes from {@code from}
+     * (inclusive) to {@code to} (exclusive). ASCII bytes are copied
+     * as they are into the compact storage
+     *
+     * @param bytes the UTF-8 bytes
+     * @param from the start index
+     * @param to the end index
+     * @return a FastStr of the decoded chars
+     */
+    public static FastStr ofUtf8(byte[] bytes, int from, int to) {
+        E.illegalArgumentIf(from < 0 || to > bytes.length || from > to);
+        int len = to - from;
+        if (0 == len) return EMPTY_STR;
+        int i = from;
+        while (i < to && bytes[i] >= 0) {
+            i++;
+        }
+        if (i == to) {
+            return new FastStr(Arrays.copyOfRange(bytes, from, to), 0, len);
+        }
+        char[] chars = new char[len];
+        return compact(chars, Utf8.decode(bytes, from, to, chars, 0));
+    }
+
+    /**
+     * Construct a FastStr by decoding the remaining UTF-8 bytes of a
+     * byte buffer. On return the position of the buffer is its limit
+     *
+     * @param bytes the byte buffer
+     * @return a FastStr of the decoded chars
+     */
+    public static FastStr ofUtf8(ByteBuffer bytes) {
+        if (bytes.hasArray()) {
+            int offset = bytes.arrayOffset();
+            FastStr s = ofUtf8(bytes.array(), offset + bytes.position(), offset + bytes.limit());
+            bytes.position(bytes.limit());
+            return s;
+        }
+        char[] chars = new char[bytes.remaining()];
+        return compact(chars, Utf8.decode(bytes, chars, 0));
+    }
+
+    // check if the bytes in the encoding map to chars one to one
+    private static boolean isLatin1(byte[] bytes, String encoding) {
+        if (Charsets.ISO_8859_1.name().equalsIgnoreCase(encoding)) {
+            return true;
+        }
+        if (!Charsets.US_ASCII.name().equalsIgnoreCase(encoding)) {
+            return false;
+        }
+        for (byte b : bytes) {
+            if (b < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Construct a FastStr instance from a String instance.
      * The FastStr instance will share the char array buf with
@@ -0,0 +1,374 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.$;
+import org.osgl.exception.NotAppliedException;
+
+import java.util.*;
+
+/**
+ * A lazy sequence backed by a source iterable and a pipeline of stateless
+ * map, filter and flatMap stages.
+ *
+ * <p>Instead of wrapping one {@link MappedSeq}/{@link FilteredSeq} on top of
+ * another, chained {@link #map(Osgl.Function) map}, {@link #filter(Osgl.Function) filter}
+ * and {@link #flatMap(Osgl.Function) flatMap} calls append a stage to the
+ * pipeline. When the sequence is consumed all stages are applied to each
+ * source element in a single loop: {@link #forEach(Osgl.Function)},
+ * {@link #reduce(Object, Osgl.Func2)} and {@link #collect(ListBuilder)}
+ * push elements through the stages, while {@link #iterator()} returns one
+ * iterator for the whole pipeline instead of one iterator per stage.</p>
+ *
+ * @param <T> the element type of the sequence after all stages applied
+ */
+class FusedSeq<T> extends SequenceBase<T> implements C.Sequence<T> {
+
+    static final byte MAP = 0;
+    static final byte FILTER = 1;
+    static final byte FLAT_MAP = 2;
+
+    private static final class Stage {
+        final byte kind;
+        final $.Function<Object, ?> fn;
+
+        Stage(byte kind, $.Function<?, ?> fn) {
+            this.kind = kind;
+            this.fn = $.cast(fn);
+        }
+    }
+
+    /**
+     * The end of a pipeline when it is pushed through. Returns
+     * {@code false} from {@link #accept(Object)} to stop pushing
+     */
+    private static abstract class Sink {
+        abstract boolean accept(Object o);
+    }
+
+    private final Iterable<?> source;
+    private final Stage[] stages;
+    private final int flatMaps;
+    private final boolean sizePreserving;
+
+    private FusedSeq(Iterable<?> source, Stage[] stages) {
+        this.source = source;
+        this.stages = stages;
+        int n = 0;
+        boolean preserving = true;
+        for (Stage stage : stages) {
+            if (FLAT_MAP == stage.kind) {
+                n++;
+            }
+            if (MAP != stage.kind) {
+                preserving = false;
+            }
+        }
+        this.flatMaps = n;
+        this.sizePreserving = preserving;
+    }
+
+    @Override
+    public int size() throws UnsupportedOperationException {
+        int sourceSize = sourceSize();
+        if (sizePreserving) {
+            return sourceSize;
+        }
+        final int[] counter = {0};
+        push(new Sink() {
+            @Override
+            boolean accept(Object o) {
+                counter[0]++;
+                return true;
+            }
+        });
+        return counter[0];
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new FusedIterator();
+    }
+
+    @Override
+    public <R> C.Sequence<R> map($.Function<? super T, ? extends R> mapper) {
+        return this.<R>append(MAP, mapper);
+    }
+
+    @Override
+    public C.Sequence<T> filter($.Function<? super T, Boolean> predicate) {
+        return this.<T>append(FILTER, predicate);
+    }
+
+    @Override
+    public <R> C.Sequence<R> flatMap($.Function<? super T, ? extends Iterable<? extends R>> mapper) {
+        return this.<R>append(FLAT_MAP, mapper);
+    }
+
+    @Override
+    public FusedSeq<T> accept(final $.Function<? super T, ?> visitor) {
+        push(new Sink() {
+            @Override
+            @SuppressWarnings("unchecked")
+            boolean accept(Object o) {
+                try {
+                    visitor.apply((T) o);
+                } catch (NotAppliedException e) {
+                    // ignore
+                }
+                return true;
+            }
+        });
+        return this;
+    }
+
+    @Override
+    public boolean forEachWhile(final $.Function<? super T, Boolean> visitor) {
+        return push(new Sink() {
+            @Override
+            @SuppressWarnings("unchecked")
+            boolean accept(Object o) {
+                try {
+                    return visitor.apply((T) o);
+                } catch (NotAppliedException e) {
+                    return true;
+                }
+            }
+        });
+    }
+
+    @Override
+    public <R> R reduce(R identity, final $.Func2<R, T, R> accumulator) {
+        final Object[] result = {identity};
+        push(new Sink() {
+            @Override
+            @SuppressWarnings("unchecked")
+            boolean accept(Object o) {
+                result[0] = accumulator.apply((R) result[0], (T) o);
+                return true;
+            }
+        });
+        return $.cast(result[0]);
+    }
+
+    @Override
+    public $.Option<T> reduce(final $.Func2<T, T, T> accumulator) {
+        final Object[] result = {null};
+        final boolean[] found = {false};
+        push(new Sink() {
+            @Override
+            @SuppressWarnings("unchecked")
+            boolean accept(Object o) {
+                if (found[0]) {
+                    result[0] = accumulator.apply((T) result[0], (T) o);
+                } else {
+                    found[0] = true;
+                    result[0] = o;
+                }
+                return true;
+            }
+        });
+        if (!found[0]) {
+            return $.none();
+        }
+        T t = $.cast(result[0]);
+        return $.some(t);
+    }
+
+    /**
+     * Push all elements of this sequence into the list builder specified
+     *
+     * @param lb the list builder
+     * @return the list builder
+     */
+    ListBuilder<T> collect(final ListBuilder<T> lb) {
+        push(new Sink() {
+            @Override
+            @SuppressWarnings("unchecked")
+            boolean accept(Object o) {
+                lb.add((T) o);
+                return true;
+            }
+        });
+        return lb;
+    }
+
+    C.List<T> toList() {
+        int initialCapacity = 10;
+        if (sizePreserving && source instanceof Collection) {
+            initialCapacity = ((Collection<?>) source).size();
+        }
+        return collect(new ListBuilder<T>(initialCapacity)).toList();
+    }
+
+    private int sourceSize() throws UnsupportedOperationException {
+        if (source instanceof Collection) {
+            return ((Collection<?>) source).size();
+        }
+        if (source instanceof C.Traversable) {
+            return ((C.Traversable<?>) source).size();
+        }
+        throw new UnsupportedOperationException();
+    }
+
+    private <R> FusedSeq<R> append(byte kind, $.Function<?, ?> fn) {
+        E.NPE(fn);
+        int len = stages.length;
+        Stage[] newStages = new Stage[len + 1];
+        System.arraycopy(stages, 0, newStages, 0, len);
+        newStages[len] = new Stage(kind, fn);
+        return new FusedSeq<R>(source, newStages);
+    }
+
+    /**
+     * Push elements through the pipeline into the sink until the sink
+     * stops it
+     *
+     * @return {@code false} if the sink stopped pushing
+     */
+    private boolean push(Sink sink) {
+        Iterable<?> src = source;
+        if (src instanceof RandomAccess && src instanceof List) {
+            List<?> list = (List<?>) src;
+            for (int i = 0, sz = list.size(); i < sz; ++i) {
+                if (!push(list.get(i), 0, sink)) {
+                    return false;
+                }
+            }
+        } else {
+            for (Object o : src) {
+                if (!push(o, 0, sink)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean push(Object o, int from, Sink sink) {
+        Stage[] stages = this.stages;
+        for (int i = from, n = stages.length; i < n; ++i) {
+            Stage stage = stages[i];
+            switch (stage.kind) {
+                case MAP:
+                    o = stage.fn.apply(o);
+                    break;
+                case FILTER:
+                    if (!(Boolean) stage.fn.apply(o)) {
+                        return true;
+                    }
+                    break;
+                default:
+                    Iterable<?> iterable = (Iterable<?>) stage.fn.apply(o);
+                    if (null != iterable) {
+                        for (Object o2 : iterable) {
+                            if (!push(o2, i + 1, sink)) {
+                                return false;
+                            }
+                        }
+                    }
+                    return true;
+            }
+        }
+        return sink.accept(o);
+    }
+
+    /**
+     * Iterate through the pipeline. One iterator is kept for the
+     * source and one for each flatMap stage currently being expanded
+     */
+    private class FusedIterator extends ReadOnlyIterator<T> {
+        private final Iterator<?>[] iterators = new Iterator<?>[flatMaps + 1];
+        private final int[] resumeAt = new int[flatMaps + 1];
+        private int depth;
+        private Object next;
+        private boolean ready;
+
+        FusedIterator() {
+            iterators[0] = source.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return ready || advance();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!ready && !advance()) {
+                throw new NoSuchElementException();
+            }
+            ready = false;
+            Object o = next;
+            next = null;
+            return (T) o;
+        }
+
+        @SuppressWarnings("unchecked")
+        private boolean advance() {
+            Stage[] stages = FusedSeq.this.stages;
+            int n = stages.length;
+            while (depth >= 0) {
+                Iterator<?> itr = iterators[depth];
+                if (!itr.hasNext()) {
+                    iterators[depth--] = null;
+                    continue;
+                }
+                Object o = itr.next();
+                boolean passed = true;
+                for (int i = resumeAt[depth]; i < n; ++i) {
+                    Stage stage = stages[i];
+                    if (MAP == stage.kind) {
+                        o = stage.fn.apply(o);
+                    } else if (FILTER == stage.kind) {
+                        if (!(Boolean) stage.fn.apply(o)) {
+                            passed = false;
+                            break;
+                        }
+                    } else {
+                        passed = false;
+                        Iterable<?> iterable = (Iterable<?>) stage.fn.apply(o);
+                        if (null != iterable) {
+                            depth++;
+                            iterators[depth] = iterable.iterator();
+                            resumeAt[depth] = i + 1;
+                        }
+                        break;
+                    }
+                }
+                if (passed) {
+                    next = o;
+                    ready = true;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    static <T> FusedSeq<T> of(Iterable<?> source, byte kind, $.Function<?, ?> fn) {
+        E.NPE(source, fn);
+        return new FusedSeq<T>(source, new Stage[]{new Stage(kind, fn)});
+    }
+
+}
@@ -0,0 +1,316 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import org.osgl.$;
+import org.osgl.util.algo.ForkJoin;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The hash based keyed aggregation behind {@link C.Traversable#groupBy(Osgl.Function)},
+ * {@link C.Traversable#countBy(Osgl.Function)},
+ * {@link C.Traversable#groupingReduce(Osgl.Function, Object, Osgl.Func2)} and
+ * {@link C.Traversable#partition(Osgl.Function)}.
+ *
+ * <p>Keys are mapped to dense group numbers with an {@link ObjectIntMap}
+ * pre-sized from the source size. The accumulator of each group is kept
+ * in a flat array indexed by the group number, so adding an element to
+ * an existing group costs one probe and no allocation. Groups are kept in
+ * the order their keys are first encountered.</p>
+ *
+ * <p>When the source is a {@link RandomAccess random access} list that is
+ * {@link C.Feature#PARALLEL parallel} and contains no less than
+ * {@link #MIN_PARALLEL_SIZE} elements, the list is split into ranges that
+ * are aggregated into partial tables by fork/join tasks. Partial tables are
+ * merged from left to right so the result is the same as the sequential
+ * one. The key and aggregation functions must be thread safe in that
+ * case.</p>
+ */
+enum Grouping {
+    ;
+
+    /**
+     * Parallel sources smaller than this number are aggregated sequentially
+     */
+    static final int MIN_PARALLEL_SIZE = 1 << 13;
+
+    private static final int MIN_LEAF_SIZE = 1 << 10;
+
+    /**
+     * The upper limit of the number of groups a table is pre-sized for
+     */
+    private static final int MAX_PRESIZED_GROUPS = 1 << 10;
+
+    static <T, K> Map<K, C.List<T>> groupBy(Iterable<? extends T> source, boolean parallel, $.Function<? super T, ? extends K> keyFn) {
+        Grouper<T, K> grouper = new Grouper<T, K>(keyFn) {
+            @Override
+            Object newAcc() {
+                return new ListBuilder<T>();
+            }
+
+            @Override
+            Object accumulate(Object acc, T t) {
+                return $.<ListBuilder<T>>cast(acc).append(t);
+            }
+
+            @Override
+            Object combine(Object acc, Object other) {
+                ListBuilder<T> lb = $.cast(acc);
+                lb.addAll($.<ListBuilder<T>>cast(other));
+                return lb;
+            }
+
+            @Override
+            Object finish(Object acc) {
+                return $.<ListBuilder<T>>cast(acc).toList();
+            }
+        };
+        return grouper.toMap(aggregate(source, parallel, grouper));
+    }
+
+    static <T, K> Map<K, T> groupingReduce(Iterable<? extends T> source, boolean parallel, $.Function<? super T, ? extends K> keyFn, final T identity, final $.Func2<T, T, T> combiner) {
+        Grouper<T, K> grouper = new Grouper<T, K>(keyFn) {
+            @Override
+            Object newAcc() {
+                return identity;
+            }
+
+            @Override
+            Object accumulate(Object acc, T t) {
+                return combiner.apply($.<T>cast(acc), t);
+            }
+
+            @Override
+            Object combine(Object acc, Object other) {
+                return combiner.apply($.<T>cast(acc), $.<T>cast(other));
+            }
+
+            @Override
+            Object finish(Object acc) {
+                return acc;
+            }
+        };
+        return grouper.toMap(aggregate(source, parallel, grouper));
+    }
+
+    static <T, K> ObjectIntMap<K> countBy(Iterable<? extends T> source, boolean parallel, final $.Function<? super T, ? extends K> keyFn) {
+        return aggregate(source, parallel, new Aggregator<T, ObjectIntMap<K>>() {
+            @Override
+            ObjectIntMap<K> newPartial(int expectedSize) {
+                return new ObjectIntMap<K>(Math.min(expectedSize, MAX_PRESIZED_GROUPS));
+            }
+
+            @Override
+            void add(ObjectIntMap<K> partial, T t) {
+                partial.addTo(keyFn.apply(t), 1);
+            }
+
+            @Override
+            ObjectIntMap<K> merge(ObjectIntMap<K> left, ObjectIntMap<K> right) {
+                ObjectIntMap.Cursor<K> cursor = right.cursor();
+                while (cursor.next()) {
+                    left.addTo(cursor.key(), cursor.value());
+                }
+                return left;
+            }
+        });
+    }
+
+    static <T> $.T2<C.List<T>, C.List<T>> partition(Iterable<? extends T> source, boolean parallel, final $.Function<? super T, Boolean> predicate) {
+        ListBuilder<T>[] result = aggregate(source, parallel, new Aggregator<T, ListBuilder<T>[]>() {
+            @Override
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            ListBuilder<T>[] newPartial(int expectedSize) {
+                int initialCapacity = Math.max(10, expectedSize >> 1);
+                return new ListBuilder[]{new ListBuilder<T>(initialCapacity), new ListBuilder<T>(initialCapacity)};
+            }
+
+            @Override
+            void add(ListBuilder<T>[] partial, T t) {
+                partial[predicate.apply(t) ? 0 : 1].add(t);
+            }
+
+            @Override
+            ListBuilder<T>[] merge(ListBuilder<T>[] left, ListBuilder<T>[] right) {
+                left[0].addAll(right[0]);
+                left[1].addAll(right[1]);
+                return left;
+            }
+        });
+        return $.T2(result[0].toList(), result[1].toList());
+    }
+
+    private static <T, R> R aggregate(Iterable<? extends T> source, boolean parallel, Aggregator<T, R> aggregator) {
+        int size = source instanceof Collection ? ((Collection) source).size() : OpenHash.DEFAULT_EXPECTED_SIZE;
+        if (parallel && size >= MIN_PARALLEL_SIZE && source instanceof List && source instanceof RandomAccess) {
+            List<? extends T> list = $.cast(source);
+            int leafSize = Math.max(MIN_LEAF_SIZE, size / (ForkJoin.parallelism() << 2));
+            return ForkJoin.invoke(new AggregateTask<T, R>(aggregator, list, 0, size, leafSize));
+        }
+        R partial = aggregator.newPartial(size);
+        for (T t : source) {
+            aggregator.add(partial, t);
+        }
+        return partial;
+    }
+
+    /**
+     * Accumulate elements into a partial result and merge partial
+     * results of adjacent ranges
+     */
+    private abstract static class Aggregator<T, R> {
+        abstract R newPartial(int expectedSize);
+
+        abstract void add(R partial, T t);
+
+        /**
+         * Merge the partial result of the right range into the partial
+         * result of the left range
+         */
+        abstract R merge(R left, R right);
+    }
+
+    /**
+     * Accumulate elements into a {@link Table} of groups. Subclasses define
+     * how elements are accumulated into a group
+     */
+    private abstract static class Grouper<T, K> extends Aggregator<T, Table<K>> {
+        private final $.Function<? super T, ? extends K> keyFn;
+
+        Grouper($.Function<? super T, ? extends K> keyFn) {
+            this.keyFn = keyFn;
+        }
+
+        abstract Object newAcc();
+
+        abstract Object accumulate(Object acc, T t);
+
+        abstract Object combine(Object acc, Object other);
+
+        abstract Object finish(Object acc);
+
+        @Override
+        Table<K> newPartial(int expectedSize) {
+            return new Table<K>(Math.min(expectedSize, MAX_PRESIZED_GROUPS));
+        }
+
+        @Override
+        void add(Table<K> partial, T t) {
+            int group = partial.group(keyFn.apply(t), this);
+            partial.accs[group] = accumulate(partial.accs[group], t);
+        }
+
+        @Override
+        Table<K> merge(Table<K> left, Table<K> right) {
+            Object[] keys = right.keys, accs = right.accs;
+            for (int i = 0, n = right.size; i < n; ++i) {
+                int group = left.group($.<K>cast(keys[i]), this);
+                left.accs[group] = combine(left.accs[group], accs[i]);
+            }
+            return left;
+        }
+
+        <V> Map<K, V> toMap(Table<K> table) {
+            int size = table.size;
+            Object[] keys = table.keys, accs = table.accs;
+            Object[] data = new Object[size << 1];
+            for (int i = 0, j = 0; i < size; ++i) {
+                data[j++] = keys[i];
+                data[j++] = finish(accs[i]);
+            }
+            return ImmutableMap.build(data, size);
+        }
+    }
+
+    /**
+     * Groups in the order their keys are first encountered. The
+     * number of a group is its position in {@link #keys}
+     */
+    private static final class Table<K> {
+        private final ObjectIntMap<K> index;
+        private Object[] keys;
+        private Object[] accs;
+        private int size;
+
+        Table(int expectedGroups) {
+            index = new ObjectIntMap<K>(expectedGroups);
+            keys = new Object[Math.max(4, expectedGroups)];
+            accs = new Object[keys.length];
+        }
+
+        int group(K key, Grouper<?, K> grouper) {
+            int group = index.get(key, -1);
+            if (group < 0) {
+                group = size++;
+                index.put(key, group);
+                if (group == keys.length) {
+                    int newCapacity = group + (group >> 1);
+                    keys = Arrays.copyOf(keys, newCapacity);
+                    accs = Arrays.copyOf(accs, newCapacity);
+                }
+                keys[group] = key;
+                accs[group] = grouper.newAcc();
+            }
+            return group;
+        }
+    }
+
+    private static final class AggregateTask<T, R> extends RecursiveTask<R> {
+        private final Aggregator<T, R> aggregator;
+        private final List<? extends T> list;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+
+        AggregateTask(Aggregator<T, R> aggregator, List<? extends T> list, int from, int to, int leafSize) {
+            this.aggregator = aggregator;
+            this.list = list;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected R compute() {
+            if (to - from <= leafSize) {
+                R partial = aggregator.newPartial(to - from);
+                for (int i = from; i < to; ++i) {
+                    aggregator.add(partial, list.get(i));
+                }
+                return partial;
+            }
+            int mid = (from + to) >>> 1;
+            AggregateTask<T, R> left = new AggregateTask<T, R>(aggregator, list, from, mid, leafSize);
+            left.fork();
+            R right = new AggregateTask<T, R>(aggregator, list, mid, to, leafSize).compute();
+            return aggregator.merge(left.join(), right);
+        }
+
+        private static final long serialVersionUID = -2318061754893127095L;
+    }
+}
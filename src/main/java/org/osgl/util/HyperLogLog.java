@@ -0,0 +1,269 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * HyperLogLog estimates the number of distinct elements added to it using
+ * {@code 2^precision} small registers.
+ *
+ * <p>The relative standard error of the estimate is about
+ * {@code 1.04 / sqrt(2^precision)}, e.g. 0.8% with the
+ * {@link #DEFAULT_PRECISION default precision} of 14, which takes 16KB.
+ * Small cardinalities are estimated with linear counting. Elements are
+ * hashed to 64 bits, see {@link BloomFilter} for how elements are
+ * hashed.</p>
+ *
+ * <p>An estimator created with {@link #concurrent(int)} can be updated and
+ * queried from many threads. Two estimators with the same precision can
+ * be {@link #merge(HyperLogLog) merged}, which estimates the cardinality
+ * of the union, and an estimator can be serialized with
+ * {@link #toByteArray()}.</p>
+ *
+ * @param <T> the element type
+ */
+public class HyperLogLog<T> {
+
+    public static final int MIN_PRECISION = 4;
+
+    public static final int MAX_PRECISION = 18;
+
+    public static final int DEFAULT_PRECISION = 14;
+
+    private static final byte FORMAT = 1;
+
+    // one byte register per 8 bits, 8 registers per cell
+    private final LongCells registers;
+    private final int precision;
+
+    private HyperLogLog(LongCells registers, int precision) {
+        this.registers = registers;
+        this.precision = precision;
+    }
+
+    /**
+     * Add an element
+     *
+     * @param t the element
+     * @return {@code true} if the estimate might have changed
+     */
+    public boolean add(T t) {
+        long hash = OpenHash.hash64(t);
+        int p = precision;
+        int index = (int) (hash >>> (64 - p));
+        int rank = Long.numberOfLeadingZeros((hash << p) | (1L << (p - 1))) + 1;
+        int cell = index >>> 3, shift = (index & 7) << 3;
+        LongCells registers = this.registers;
+        for (;;) {
+            long cur = registers.get(cell);
+            if (((cur >>> shift) & 0xFF) >= rank) {
+                return false;
+            }
+            long update = (cur & ~(0xFFL << shift)) | ((long) rank << shift);
+            if (registers.compareAndSet(cell, cur, update)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Add all elements of an iterable
+     *
+     * @param iterable the elements
+     * @return this estimator
+     */
+    public HyperLogLog<T> addAll(Iterable<? extends T> iterable) {
+        for (T t : iterable) {
+            add(t);
+        }
+        return this;
+    }
+
+    /**
+     * Returns the estimated number of distinct elements added
+     *
+     * @return the estimated cardinality
+     */
+    public long cardinality() {
+        int m = 1 << precision;
+        double sum = 0;
+        int zeros = 0;
+        LongCells registers = this.registers;
+        for (int i = 0, n = registers.length(); i < n; ++i) {
+            long cell = registers.get(i);
+            for (int shift = 0; shift < 64; shift += 8) {
+                int r = (int) ((cell >>> shift) & 0xFF);
+                if (0 == r) {
+                    zeros++;
+                }
+                sum += Double.longBitsToDouble((1023L - r) << 52);
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Merge another estimator into this one, after which this estimator
+     * estimates the cardinality of the union of both. Both estimators
+     * must have the same precision
+     *
+     * @param other the other estimator
+     * @return this estimator
+     * @throws IllegalArgumentException if the precisions are different
+     */
+    public HyperLogLog<T> merge(HyperLogLog<? extends T> other) {
+        E.illegalArgumentIf(other.precision != precision, "HyperLogLog precisions are different");
+        LongCells registers = this.registers, otherRegisters = other.registers;
+        for (int i = 0, n = registers.length(); i < n; ++i) {
+            long theirs = otherRegisters.get(i);
+            for (;;) {
+                long cur = registers.get(i);
+                long update = 0;
+                for (int shift = 0; shift < 64; shift += 8) {
+                    update |= Math.max((cur >>> shift) & 0xFF, (theirs >>> shift) & 0xFF) << shift;
+                }
+                if (update == cur || registers.compareAndSet(i, cur, update)) {
+                    break;
+                }
+            }
+        }
+        return this;
+    }
+
+    public int precision() {
+        return precision;
+    }
+
+    /**
+     * Returns the relative standard error of the estimate
+     *
+     * @return the relative standard error
+     */
+    public double relativeError() {
+        return 1.04 / Math.sqrt(1 << precision);
+    }
+
+    public boolean isConcurrent() {
+        return registers.isConcurrent();
+    }
+
+    /**
+     * Returns the estimator serialized into a byte array, which could be
+     * read back with {@link #fromByteArray(byte[])}
+     *
+     * @return the serialized estimator
+     */
+    public byte[] toByteArray() {
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 1 + (registers.length() << 3));
+        buffer.put(FORMAT).put((byte) precision);
+        registers.write(buffer);
+        return buffer.array();
+    }
+
+    public static <T> HyperLogLog<T> fromByteArray(byte[] bytes) {
+        return fromByteArray(bytes, false);
+    }
+
+    /**
+     * Read an estimator from the bytes written by {@link #toByteArray()}
+     *
+     * @param bytes the serialized estimator
+     * @param concurrent whether the estimator returned shall be thread safe
+     * @param <T> the element type
+     * @return the estimator
+     * @throws IllegalArgumentException if the bytes are not a serialized estimator
+     */
+    public static <T> HyperLogLog<T> fromByteArray(byte[] bytes, boolean concurrent) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            E.illegalArgumentIf(buffer.get() != FORMAT, "unknown HyperLogLog format");
+            int precision = buffer.get();
+            E.illegalArgumentIf(precision < MIN_PRECISION || precision > MAX_PRECISION
+                    || buffer.remaining() != (1 << precision), "invalid HyperLogLog data");
+            return new HyperLogLog<T>(LongCells.of(cells(precision), concurrent).read(buffer), precision);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("invalid HyperLogLog data");
+        }
+    }
+
+    public static <T> HyperLogLog<T> create() {
+        return create(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Create an estimator that is not thread safe
+     *
+     * @param precision the number of bits used to select a register
+     * @param <T> the element type
+     * @return the estimator
+     * @throws IllegalArgumentException if the precision is not between
+     *         {@link #MIN_PRECISION} and {@link #MAX_PRECISION}
+     */
+    public static <T> HyperLogLog<T> create(int precision) {
+        return create(precision, false);
+    }
+
+    public static <T> HyperLogLog<T> concurrent() {
+        return concurrent(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Create a thread safe estimator
+     *
+     * @param precision the number of bits used to select a register
+     * @param <T> the element type
+     * @return the estimator
+     * @throws IllegalArgumentException if the precision is not between
+     *         {@link #MIN_PRECISION} and {@link #MAX_PRECISION}
+     */
+    public static <T> HyperLogLog<T> concurrent(int precision) {
+        return create(precision, true);
+    }
+
+    private static <T> HyperLogLog<T> create(int precision, boolean concurrent) {
+        E.illegalArgumentIf(precision < MIN_PRECISION || precision > MAX_PRECISION,
+                "precision shall be between %s and %s: %s", MIN_PRECISION, MAX_PRECISION, precision);
+        return new HyperLogLog<T>(LongCells.of(cells(precision), concurrent), precision);
+    }
+
+    private static int cells(int precision) {
+        return 1 << (precision - 3);
+    }
+
+    private static double alpha(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+}
@@ -23,6 +23,7 @@ package org.osgl.util;
 import org.osgl.$;
 import org.osgl.exception.NotAppliedException;
 import org.osgl.util.algo.Algorithms;
+import org.osgl.util.algo.ArrayTopK;
 
 import java.io.Serializable;
 import java.util.*;
@@ -221,6 +222,11 @@ implements C.List<T>, RandomAccess, Serializable {
         return new Itr();
     }
 
+    @Override
+    public Spliterator<T> spliterator() {
+        return Streams.spliterator(data_, 0, data_.length, this);
+    }
+
     private class LstItr extends Itr implements ListIterator<T> {
 
         LstItr() {this(0);}
@@ -904,6 +910,16 @@ implements C.List<T>, RandomAccess, Serializable {
         return subList(0, n);
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public C.List<T> topK(int k, Comparator<? super T> comparator) {
+        E.illegalArgumentIf(k < 0, "k shall not be negative: %s", k);
+        T[] data = data_;
+        ArrayTopK topK = Algorithms.ARRAY_TOP_K;
+        Object[] a = is(C.Feature.PARALLEL) ? topK.parallelTopK(data, 0, data.length, k, comparator) : topK.topK(data, 0, data.length, k, comparator);
+        return of((T[]) a);
+    }
+
     @Override
     protected void forEachLeft($.Function<? super T, ?> visitor) throws $.Break {
         int sz = size();
@@ -932,6 +948,50 @@ implements C.List<T>, RandomAccess, Serializable {
         }
     }
 
+    @Override
+    protected void forEachLeft(int from, int to, $.Function<? super T, ?> visitor) throws $.Break {
+        T[] data = data_;
+        for (int i = from; i < to; ++i) {
+            try {
+                visitor.apply(data[i]);
+            } catch (NotAppliedException e) {
+                // ignore
+            }
+        }
+    }
+
+    @Override
+    protected void forEachRight(int from, int to, $.Function<? super T, ?> visitor) throws $.Break {
+        T[] data = data_;
+        for (int i = to - 1; i >= from; --i) {
+            try {
+                visitor.apply(data[i]);
+            } catch (NotAppliedException e) {
+                // ignore
+            }
+        }
+    }
+
+    @Override
+    protected void copyTo(int from, int to, Object[] dest, int destPos) {
+        System.arraycopy(data_, from, dest, destPos, to - from);
+    }
+
+    @Override
+    protected boolean forEachLeftWhile(int from, int to, $.Function<? super T, Boolean> visitor) {
+        T[] data = data_;
+        for (int i = from; i < to; ++i) {
+            try {
+                if (!visitor.apply(data[i])) {
+                    return false;
+                }
+            } catch (NotAppliedException e) {
+                // ignore
+            }
+        }
+        return true;
+    }
+
     @Override
     public $.Option<T> findOne($.Function<? super T, Boolean> predicate) {
         //todo parallel finding
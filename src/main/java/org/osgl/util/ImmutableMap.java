@@ -0,0 +1,262 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.$;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * An immutable {@link java.util.Map} backed by a flat array with keys
+ * and values interleaved.
+ *
+ * <p>Maps with no more than {@link OpenHash#LINEAR_SCAN_THRESHOLD} entries
+ * look up keys with a linear scan; larger maps build an open addressing
+ * index of {@code int} positions into the entry array at construction
+ * time. No entry object is kept in the map.</p>
+ */
+class ImmutableMap<K, V> extends AbstractMap<K, V> implements Serializable {
+
+    private final Object[] data;
+    private final int size;
+    // slots depend on key hash codes, which may differ between JVMs
+    private transient int[] index;
+
+    private transient Set<Map.Entry<K, V>> entrySet;
+
+    private ImmutableMap(Object[] data, int size, int[] index) {
+        this.data = data;
+        this.size = size;
+        this.index = index;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return 0 == size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return OpenHash.find(data, 2, size, index, key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        Object[] data = this.data;
+        for (int i = 1, end = size << 1; i < end; i += 2) {
+            if ($.eq(value, data[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int pos = OpenHash.find(data, 2, size, index, key);
+        return pos < 0 ? null : (V) data[(pos << 1) + 1];
+    }
+
+    @Override
+    public V put(K key, V value) {
+        throw E.unsupport();
+    }
+
+    @Override
+    public V remove(Object key) {
+        throw E.unsupport();
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        throw E.unsupport();
+    }
+
+    @Override
+    public void clear() {
+        throw E.unsupport();
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 0;
+        Object[] data = this.data;
+        for (int i = 0, end = size << 1; i < end; i += 2) {
+            Object k = data[i], v = data[i + 1];
+            h += (null == k ? 0 : k.hashCode()) ^ (null == v ? 0 : v.hashCode());
+        }
+        return h;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        if (null == entrySet) {
+            entrySet = new AbstractSet<Map.Entry<K, V>>() {
+                @Override
+                public Iterator<Map.Entry<K, V>> iterator() {
+                    return new Itr<Map.Entry<K, V>>() {
+                        @Override
+                        @SuppressWarnings("unchecked")
+                        Map.Entry<K, V> get(int pos) {
+                            return C.Map.Entry.valueOf((K) data[pos], (V) data[pos + 1]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return new AbstractSet<K>() {
+            @Override
+            public Iterator<K> iterator() {
+                return new Itr<K>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    K get(int pos) {
+                        return (K) data[pos];
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new Itr<V>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    V get(int pos) {
+                        return (V) data[pos + 1];
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Iterate through entry positions in {@link #data}
+     */
+    private abstract class Itr<R> extends ReadOnlyIterator<R> {
+        private int cursor;
+
+        abstract R get(int pos);
+
+        @Override
+        public boolean hasNext() {
+            return cursor < size;
+        }
+
+        @Override
+        public R next() {
+            if (cursor >= size) {
+                throw new NoSuchElementException();
+            }
+            return get((cursor++) << 1);
+        }
+    }
+
+    /**
+     * Create an immutable map from an array of key/value pairs. If the
+     * array size is odd the value of the last key is {@code null}
+     *
+     * @param args the keys and values
+     * @param <K> the key type
+     * @param <V> the value type
+     * @return an immutable map of the entries
+     */
+    static <K, V> ImmutableMap<K, V> of(Object... args) {
+        int len = args.length;
+        int n = (len + 1) >> 1;
+        Object[] data = new Object[n << 1];
+        System.arraycopy(args, 0, data, 0, len);
+        return build(data, n);
+    }
+
+    /**
+     * Create an immutable map that contains all entries of the map specified
+     *
+     * @param map the map
+     * @param <K> the key type
+     * @param <V> the value type
+     * @return an immutable map of the entries
+     */
+    static <K, V> ImmutableMap<K, V> of(Map<? extends K, ? extends V> map) {
+        int n = map.size();
+        Object[] data = new Object[n << 1];
+        int i = 0;
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            data[i++] = entry.getKey();
+            data[i++] = entry.getValue();
+        }
+        return build(data, n);
+    }
+
+    static <K, V> ImmutableMap<K, V> build(Object[] data, int n) {
+        int[] index = OpenHash.newIndex(n);
+        int unique = OpenHash.dedup(data, 2, n, index);
+        if (unique < n) {
+            data = Arrays.copyOf(data, unique << 1);
+        }
+        return new ImmutableMap<K, V>(data, unique, index);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        index = OpenHash.rebuildIndex(data, 2, size);
+    }
+
+    private static final long serialVersionUID = 6040375187934591093L;
+}
@@ -21,16 +21,110 @@ package org.osgl.util;
  */
 
 import org.osgl.$;
+import org.osgl.exception.NotAppliedException;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
- * Created by luog on 2/02/14.
+ * An immutable set backed by a flat array of elements.
+ *
+ * <p>Elements are kept in a dense array in the order they are first
+ * added. Sets with no more than {@link OpenHash#LINEAR_SCAN_THRESHOLD}
+ * elements look up elements with a linear scan; larger sets build an
+ * open addressing index of {@code int} positions into the element
+ * array at construction time.</p>
  */
-class ImmutableSet<T> extends DelegatingSet<T> {
-    ImmutableSet(Collection<? extends T> collection) {
-        super(collection, true);
+class ImmutableSet<T> extends SetBase<T> implements C.Set<T>, Serializable {
+
+    private final Object[] data;
+    // slots depend on element hash codes, which may differ between JVMs
+    private transient int[] index;
+
+    /**
+     * Construct the set with an array of distinct elements and the
+     * index built from them. No data copy happen
+     */
+    ImmutableSet(Object[] data, int[] index) {
+        this.data = data;
+        this.index = index;
+    }
+
+    @Override
+    public int size() {
+        return data.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return 0 == data.length;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return OpenHash.find(data, 1, data.length, index, o) >= 0;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new ReadOnlyIterator<T>() {
+            private int cursor;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < data.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (cursor >= data.length) {
+                    throw new NoSuchElementException();
+                }
+                return (T) data[cursor++];
+            }
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ImmutableSet<T> forEach($.Function<? super T, ?> visitor) throws $.Break {
+        Object[] data = this.data;
+        for (int i = 0, n = data.length; i < n; ++i) {
+            try {
+                visitor.apply((T) data[i]);
+            } catch (NotAppliedException e) {
+                // ignore
+            }
+        }
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean forEachWhile($.Function<? super T, Boolean> visitor) {
+        Object[] data = this.data;
+        for (int i = 0, n = data.length; i < n; ++i) {
+            try {
+                if (!visitor.apply((T) data[i])) {
+                    return false;
+                }
+            } catch (NotAppliedException e) {
+                // ignore
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Object[] toArray() {
+        return Arrays.copyOf(data, data.length);
     }
 
     @Override
@@ -65,32 +159,49 @@ class ImmutableSet<T> extends DelegatingSet<T> {
 
     @Override
     protected EnumSet<C.Feature> initFeatures() {
-        EnumSet<C.Feature> fs = super.initFeatures();
-        fs.add(C.Feature.IMMUTABLE);
-        fs.add(C.Feature.READONLY);
-        return fs;
+        return EnumSet.of(C.Feature.LIMITED, C.Feature.IMMUTABLE, C.Feature.READONLY);
     }
 
-    static <T> C.Set<T> of(T[] data) {
+    /**
+     * Create an immutable set from an array of elements. The array
+     * will be used directly as the backing data of the set if there
+     * are no duplicate elements in it
+     *
+     * @param data the element array
+     * @param <T> the element type
+     * @return an immutable set of the elements
+     */
+    @SuppressWarnings("unchecked")
+    static <T> C.Set<T> of(Object[] data) {
         E.NPE(data);
         int len = data.length;
         if (len == 0) {
             return Nil.set();
         } else if (len == 1) {
-            return $.val(data[0]);
-        } else {
-            return new ImmutableSet<T>(C.listOf(data));
+            return $.val((T) data[0]);
+        }
+        int[] index = OpenHash.newIndex(len);
+        int unique = OpenHash.dedup(data, 1, len, index);
+        if (unique < len) {
+            data = Arrays.copyOf(data, unique);
         }
+        return new ImmutableSet<T>(data, index);
     }
 
     static <T> C.Set<T> of(Collection<? extends T> data) {
         if (data instanceof C.Set) {
-            C.Set<T> set = (C.Set<T>)data;
+            C.Set<T> set = $.cast(data);
             if (set.is(C.Feature.IMMUTABLE)) {
                 return set;
             }
         }
-        return new ImmutableSet<T>(data);
+        return of(data.toArray());
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        index = OpenHash.rebuildIndex(data, 1, data.length);
     }
 
+    private static final long serialVersionUID = -3383622462012458651L;
 }
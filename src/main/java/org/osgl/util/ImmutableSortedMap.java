@@ -0,0 +1,243 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import org.osgl.$;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * An immutable {@link C.SortedMap} backed by a sorted key array and a
+ * parallel value array.
+ *
+ * <p>Keys are looked up with a binary search. The range views returned
+ * by {@link #headMap(Object)}, {@link #tailMap(Object)} and
+ * {@link #subMap(Object, Object)} as well as {@link #keySet()} and
+ * {@link #values()} share the backing arrays with this map. No entry
+ * object is kept in the map.</p>
+ */
+class ImmutableSortedMap<K, V> extends AbstractMap<K, V> implements C.SortedMap<K, V>, Serializable {
+
+    private final ImmutableSortedSet<K> keys;
+    private final Object[] values;
+
+    private transient Set<Map.Entry<K, V>> entrySet;
+
+    private ImmutableSortedMap(ImmutableSortedSet<K> keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    @Override
+    public int size() {
+        return keys.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return keys.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return keys.contains(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        Object[] values = this.values;
+        for (int i = keys.from(), end = keys.to(); i < end; ++i) {
+            if ($.eq(value, values[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (null == key || keys.isEmpty()) {
+            return null;
+        }
+        try {
+            int pos = keys.indexOf(key);
+            return pos < 0 ? null : (V) values[pos];
+        } catch (ClassCastException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public V put(K key, V value) {
+        throw E.unsupport();
+    }
+
+    @Override
+    public V remove(Object key) {
+        throw E.unsupport();
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        throw E.unsupport();
+    }
+
+    @Override
+    public void clear() {
+        throw E.unsupport();
+    }
+
+    @Override
+    public Comparator<? super K> comparator() {
+        return keys.comparator();
+    }
+
+    @Override
+    public K firstKey() {
+        return keys.first();
+    }
+
+    @Override
+    public K lastKey() {
+        return keys.last();
+    }
+
+    @Override
+    public C.SortedMap<K, V> subMap(K fromKey, K toKey) {
+        return view(keys.subSet(fromKey, toKey));
+    }
+
+    @Override
+    public C.SortedMap<K, V> headMap(K toKey) {
+        return view(keys.headSet(toKey));
+    }
+
+    @Override
+    public C.SortedMap<K, V> tailMap(K fromKey) {
+        return view(keys.tailSet(fromKey));
+    }
+
+    @Override
+    public C.SortedSet<K> keySet() {
+        return keys;
+    }
+
+    @Override
+    public C.List<V> values() {
+        C.List<V> list = ImmutableList.of($.<V[]>cast(values));
+        int from = keys.from(), to = keys.to();
+        return from == 0 && to == values.length ? list : list.subList(from, to);
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        if (null == entrySet) {
+            entrySet = new AbstractSet<Map.Entry<K, V>>() {
+                @Override
+                public Iterator<Map.Entry<K, V>> iterator() {
+                    final Object[] keyData = keys.data();
+                    return new ReadOnlyIterator<Map.Entry<K, V>>() {
+                        private int cursor = keys.from();
+                        private int end = keys.to();
+
+                        @Override
+                        public boolean hasNext() {
+                            return cursor < end;
+                        }
+
+                        @Override
+                        @SuppressWarnings("unchecked")
+                        public Map.Entry<K, V> next() {
+                            if (cursor >= end) {
+                                throw new NoSuchElementException();
+                            }
+                            int pos = cursor++;
+                            return C.Map.Entry.valueOf((K) keyData[pos], (V) values[pos]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return keys.size();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    private ImmutableSortedMap<K, V> view(C.SortedSet<K> range) {
+        return range == keys ? this : new ImmutableSortedMap<K, V>((ImmutableSortedSet<K>) range, values);
+    }
+
+    /**
+     * Create an immutable sorted map that contains all entries of the
+     * map specified
+     *
+     * @param map the map
+     * @param comparator the key comparator, {@code null} for natural ordering
+     * @param <K> the key type
+     * @param <V> the value type
+     * @return an immutable sorted map of the entries
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> ImmutableSortedMap<K, V> of(Map<? extends K, ? extends V> map, Comparator<? super K> comparator) {
+        if (map instanceof ImmutableSortedMap && $.eq(comparator, ((ImmutableSortedMap) map).comparator())) {
+            return (ImmutableSortedMap<K, V>) map;
+        }
+        int n = map.size();
+        Object[] entries = new Object[n];
+        int i = 0;
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            E.NPE(entry.getKey());
+            entries[i++] = entry;
+        }
+        final Comparator<Object> order = null == comparator ? (Comparator<Object>) $.F.NATURAL_ORDER : (Comparator<Object>) comparator;
+        if (!(map instanceof SortedMap && $.eq(comparator, ((SortedMap) map).comparator()))) {
+            Arrays.sort(entries, 0, i, new Comparator<Object>() {
+                @Override
+                public int compare(Object o1, Object o2) {
+                    return order.compare(((Map.Entry) o1).getKey(), ((Map.Entry) o2).getKey());
+                }
+            });
+        }
+        Object[] keyData = new Object[i];
+        Object[] valueData = new Object[i];
+        int m = 0;
+        for (int j = 0; j < i; ++j) {
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) entries[j];
+            Object key = entry.getKey();
+            if (m > 0 && order.compare(keyData[m - 1], key) == 0) {
+                // the last one wins as it does with Map.put
+                valueData[m - 1] = entry.getValue();
+            } else {
+                keyData[m] = key;
+                valueData[m++] = entry.getValue();
+            }
+        }
+        return new ImmutableSortedMap<K, V>(new ImmutableSortedSet<K>(keyData, 0, m, comparator), valueData);
+    }
+
+    private static final long serialVersionUID = -2419731466402563018L;
+}
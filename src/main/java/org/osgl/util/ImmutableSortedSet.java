@@ -0,0 +1,385 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import org.osgl.$;
+import org.osgl.exception.NotAppliedException;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * An immutable {@link C.SortedSet} backed by a sorted array of distinct
+ * elements.
+ *
+ * <p>Lookup is a binary search over the array. The range views returned
+ * by {@link #headSet(Object)}, {@link #tailSet(Object)} and
+ * {@link #subSet(Object, Object)} share the backing array with this set
+ * and only narrow the {@code [from, to)} bounds, so taking a view is
+ * {@code O(log n)} and allocates no element storage.</p>
+ *
+ * <p>{@link #union(java.util.SortedSet)} and
+ * {@link #intersection(java.util.SortedSet)} walk both sets in order
+ * with a linear merge when the other set shares the ordering of this
+ * set.</p>
+ */
+class ImmutableSortedSet<T> extends SetBase<T> implements C.SortedSet<T>, Serializable {
+
+    private final Object[] data;
+    private final int from;
+    private final int to;
+    // null means natural ordering as required by java.util.SortedSet
+    private final Comparator<? super T> comparator;
+
+    /**
+     * Construct the set with a sorted array of distinct elements. No
+     * data copy happen
+     */
+    ImmutableSortedSet(Object[] data, int from, int to, Comparator<? super T> comparator) {
+        this.data = data;
+        this.from = from;
+        this.to = to;
+        this.comparator = comparator;
+    }
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return from == to;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (null == o) {
+            return false;
+        }
+        try {
+            return indexOf(o) >= 0;
+        } catch (ClassCastException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new ReadOnlyIterator<T>() {
+            private int cursor = from;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < to;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (cursor >= to) {
+                    throw new NoSuchElementException();
+                }
+                return (T) data[cursor++];
+            }
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ImmutableSortedSet<T> forEach($.Function<? super T, ?> visitor) throws $.Break {
+        Object[] data = this.data;
+        for (int i = from, n = to; i < n; ++i) {
+            try {
+                visitor.apply((T) data[i]);
+            } catch (NotAppliedException e) {
+                // ignore
+            }
+        }
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean forEachWhile($.Function<? super T, Boolean> visitor) {
+        Object[] data = this.data;
+        for (int i = from, n = to; i < n; ++i) {
+            try {
+                if (!visitor.apply((T) data[i])) {
+                    return false;
+                }
+            } catch (NotAppliedException e) {
+                // ignore
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Object[] toArray() {
+        return Arrays.copyOfRange(data, from, to);
+    }
+
+    @Override
+    public Comparator<? super T> comparator() {
+        return comparator;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T first() {
+        if (from == to) {
+            throw new NoSuchElementException();
+        }
+        return (T) data[from];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T last() {
+        if (from == to) {
+            throw new NoSuchElementException();
+        }
+        return (T) data[to - 1];
+    }
+
+    @Override
+    public C.SortedSet<T> subSet(T fromElement, T toElement) {
+        E.illegalArgumentIf(compare(fromElement, toElement) > 0, "fromElement is greater than toElement");
+        int lo = lowerBound(fromElement);
+        return view(lo, Math.max(lo, lowerBound(toElement)));
+    }
+
+    @Override
+    public C.SortedSet<T> headSet(T toElement) {
+        return view(from, lowerBound(toElement));
+    }
+
+    @Override
+    public C.SortedSet<T> tailSet(T fromElement) {
+        return view(lowerBound(fromElement), to);
+    }
+
+    @Override
+    public C.SortedSet<T> union(java.util.SortedSet<? extends T> other) {
+        if (other.isEmpty()) {
+            return this;
+        }
+        if (!sameOrder(other)) {
+            List<Object> list = new ArrayList<Object>(size() + other.size());
+            list.addAll(this);
+            list.addAll(other);
+            return of(list.toArray(), comparator);
+        }
+        Object[] merged = new Object[size() + other.size()];
+        int n = 0, i = from;
+        Object[] data = this.data;
+        for (T t : other) {
+            while (i < to && compare(data[i], t) < 0) {
+                merged[n++] = data[i++];
+            }
+            if (i < to && compare(data[i], t) == 0) {
+                merged[n++] = data[i++];
+            } else {
+                merged[n++] = t;
+            }
+        }
+        while (i < to) {
+            merged[n++] = data[i++];
+        }
+        return new ImmutableSortedSet<T>(merged, 0, n, comparator);
+    }
+
+    @Override
+    public C.SortedSet<T> intersection(java.util.SortedSet<? extends T> other) {
+        if (other.isEmpty() || isEmpty()) {
+            return view(from, from);
+        }
+        Object[] common = new Object[Math.min(size(), other.size())];
+        int n = 0;
+        if (sameOrder(other)) {
+            int i = from;
+            Object[] data = this.data;
+            for (T t : other) {
+                while (i < to && compare(data[i], t) < 0) {
+                    i++;
+                }
+                if (i == to) {
+                    break;
+                }
+                if (compare(data[i], t) == 0) {
+                    common[n++] = data[i++];
+                }
+            }
+        } else {
+            for (int i = from; i < to; ++i) {
+                if (other.contains(data[i])) {
+                    common[n++] = data[i];
+                }
+            }
+        }
+        return new ImmutableSortedSet<T>(common, 0, n, comparator);
+    }
+
+    @Override
+    public boolean add(T t) {
+        throw E.unsupport();
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        throw E.unsupport();
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        throw E.unsupport();
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        throw E.unsupport();
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        throw E.unsupport();
+    }
+
+    @Override
+    public void clear() {
+        throw E.unsupport();
+    }
+
+    @Override
+    protected EnumSet<C.Feature> initFeatures() {
+        return EnumSet.of(C.Feature.LIMITED, C.Feature.IMMUTABLE, C.Feature.READONLY,
+                C.Feature.ORDERED, C.Feature.SORTED);
+    }
+
+    private ImmutableSortedSet<T> view(int from, int to) {
+        return from == this.from && to == this.to ? this : new ImmutableSortedSet<T>(data, from, to, comparator);
+    }
+
+    private boolean sameOrder(java.util.SortedSet<?> other) {
+        return $.eq(comparator, other.comparator());
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(Object a, Object b) {
+        return null == comparator ? ((Comparable<Object>) a).compareTo(b) : comparator.compare((T) a, (T) b);
+    }
+
+    /**
+     * Returns the position of the element in the backing array or
+     * {@code -(insertionPoint + 1)} if it is not in this set
+     */
+    int indexOf(Object o) {
+        int lo = from, hi = to - 1;
+        Object[] data = this.data;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int c = compare(data[mid], o);
+            if (c < 0) {
+                lo = mid + 1;
+            } else if (c > 0) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+
+    /**
+     * Returns the position of the first element not less than the key
+     */
+    int lowerBound(Object key) {
+        int pos = indexOf(key);
+        return pos < 0 ? -(pos + 1) : pos;
+    }
+
+    Object[] data() {
+        return data;
+    }
+
+    int from() {
+        return from;
+    }
+
+    int to() {
+        return to;
+    }
+
+    /**
+     * Create an immutable sorted set from an array of elements. The
+     * array is sorted in place and used directly as the backing data
+     * of the set; duplicate elements are compacted to the head of
+     * the array
+     *
+     * @param data the element array
+     * @param comparator the comparator, {@code null} for natural ordering
+     * @param <T> the element type
+     * @return an immutable sorted set of the elements
+     */
+    @SuppressWarnings("unchecked")
+    static <T> ImmutableSortedSet<T> of(Object[] data, Comparator<? super T> comparator) {
+        E.NPE(data);
+        int len = data.length;
+        Comparator<Object> order = null == comparator ? (Comparator<Object>) $.F.NATURAL_ORDER : (Comparator<Object>) comparator;
+        Arrays.sort(data, order);
+        int n = 0;
+        for (int i = 0; i < len; ++i) {
+            Object o = data[i];
+            E.NPE(o);
+            if (n == 0 || order.compare(data[n - 1], o) != 0) {
+                data[n++] = o;
+            }
+        }
+        return new ImmutableSortedSet<T>(data, 0, n, comparator);
+    }
+
+    /**
+     * Create an immutable sorted set that contains all elements of the
+     * collection specified. If the collection is already an immutable
+     * sorted set with the same ordering it is returned directly
+     *
+     * @param data the collection
+     * @param comparator the comparator, {@code null} for natural ordering
+     * @param <T> the element type
+     * @return an immutable sorted set of the elements
+     */
+    static <T> ImmutableSortedSet<T> of(Collection<? extends T> data, Comparator<? super T> comparator) {
+        if (data instanceof ImmutableSortedSet) {
+            ImmutableSortedSet<T> set = $.cast(data);
+            if ($.eq(comparator, set.comparator)) {
+                return set;
+            }
+        } else if (data instanceof java.util.SortedSet && $.eq(comparator, ((java.util.SortedSet) data).comparator())) {
+            Object[] array = data.toArray();
+            return new ImmutableSortedSet<T>(array, 0, array.length, comparator);
+        }
+        return of(data.toArray(), comparator);
+    }
+
+    private static final long serialVersionUID = 6329516468711257421L;
+}
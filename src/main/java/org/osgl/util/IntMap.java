@@ -0,0 +1,457 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import org.osgl.$;
+import org.osgl.exception.NotAppliedException;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * A map from primitive {@code int} keys to object values.
+ *
+ * <p>Unlike {@link C.Map} which is backed by a {@link java.util.HashMap},
+ * this map stores keys and values in two parallel arrays and resolves
+ * collisions with linear probing. Keys are never boxed and no entry
+ * object is allocated on {@link #put(int, Object) put}. Iteration via
+ * {@link #forEach(Visitor)} or {@link #cursor()} does not allocate
+ * per entry either.</p>
+ *
+ * <p>The map is not thread safe. Modifying the map while iterating
+ * through it leads to undefined behavior.</p>
+ *
+ * @param <V> the value type
+ */
+public class IntMap<V> implements Serializable {
+
+    /**
+     * Visit an {@code (int, value)} entry of an {@link IntMap}
+     *
+     * @param <V> the value type
+     */
+    public interface Visitor<V> {
+        void visit(int key, V value) throws NotAppliedException;
+    }
+
+    /**
+     * Iterate through entries of an {@link IntMap}. Call {@link #next()}
+     * to move to the next entry and then read the key/value of the current
+     * entry with {@link #key()} and {@link #value()}
+     *
+     * @param <V> the value type
+     */
+    public static final class Cursor<V> {
+        private final IntMap<V> map;
+        private int pos;
+        private int key;
+        private V value;
+
+        private Cursor(IntMap<V> map) {
+            this.map = map;
+            this.pos = map.hasZeroKey ? -1 : 0;
+        }
+
+        /**
+         * Move to the next entry
+         *
+         * @return {@code true} if there is an entry, or {@code false} if
+         *         all entries have been iterated
+         */
+        @SuppressWarnings("unchecked")
+        public boolean next() {
+            if (pos < 0) {
+                pos = 0;
+                key = 0;
+                value = map.zeroValue;
+                return true;
+            }
+            int[] keys = map.keys;
+            for (int i = pos, n = keys.length; i < n; ++i) {
+                int k = keys[i];
+                if (0 != k) {
+                    pos = i + 1;
+                    key = k;
+                    value = (V) map.values[i];
+                    return true;
+                }
+            }
+            pos = keys.length;
+            return false;
+        }
+
+        public int key() {
+            return key;
+        }
+
+        public V value() {
+            return value;
+        }
+    }
+
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+    private int assigned;
+    private int maxFill;
+    private boolean hasZeroKey;
+    private V zeroValue;
+    private final float loadFactor;
+
+    public IntMap() {
+        this(OpenHash.DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Construct a map that can hold {@code expectedSize} entries
+     * without rehashing
+     *
+     * @param expectedSize the number of entries expected
+     */
+    public IntMap(int expectedSize) {
+        this(expectedSize, OpenHash.DEFAULT_LOAD_FACTOR);
+    }
+
+    public IntMap(int expectedSize, float loadFactor) {
+        E.illegalArgumentIf(loadFactor <= 0 || loadFactor >= 1, "load factor shall be in (0, 1): %s", loadFactor);
+        this.loadFactor = loadFactor;
+        allocate(OpenHash.capacity(expectedSize, loadFactor));
+    }
+
+    public int size() {
+        return hasZeroKey ? assigned + 1 : assigned;
+    }
+
+    public boolean isEmpty() {
+        return 0 == size();
+    }
+
+    public boolean containsKey(int key) {
+        if (0 == key) {
+            return hasZeroKey;
+        }
+        return slot(key) >= 0;
+    }
+
+    /**
+     * Returns the value mapped to the key, or {@code null} if
+     * the key is not found
+     *
+     * @param key the key
+     * @return the value mapped to the key
+     */
+    public V get(int key) {
+        return get(key, null);
+    }
+
+    /**
+     * Returns the value mapped to the key, or the default value
+     * specified if the key is not found
+     *
+     * @param key the key
+     * @param defaultValue the value returned when key not found
+     * @return the value mapped to the key or the default value
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key, V defaultValue) {
+        if (0 == key) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int pos = slot(key);
+        return pos < 0 ? defaultValue : (V) values[pos];
+    }
+
+    /**
+     * Map the value to the key
+     *
+     * @param key the key
+     * @param value the value
+     * @return the value previously mapped to the key or {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (0 == key) {
+            V old = zeroValue;
+            hasZeroKey = true;
+            zeroValue = value;
+            return old;
+        }
+        int[] keys = this.keys;
+        int mask = this.mask;
+        int pos = OpenHash.mix(key) & mask;
+        int k;
+        while (0 != (k = keys[pos])) {
+            if (k == key) {
+                V old = (V) values[pos];
+                values[pos] = value;
+                return old;
+            }
+            pos = (pos + 1) & mask;
+        }
+        keys[pos] = key;
+        values[pos] = value;
+        if (++assigned >= maxFill) {
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * Remove the mapping of the key
+     *
+     * @param key the key
+     * @return the value previously mapped to the key or {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        if (0 == key) {
+            V old = zeroValue;
+            hasZeroKey = false;
+            zeroValue = null;
+            return old;
+        }
+        int pos = slot(key);
+        if (pos < 0) {
+            return null;
+        }
+        V old = (V) values[pos];
+        assigned--;
+        shiftKeys(pos);
+        return old;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        assigned = 0;
+        hasZeroKey = false;
+        zeroValue = null;
+    }
+
+    /**
+     * Returns all keys in this map in an array
+     *
+     * @return the keys
+     */
+    public int[] keys() {
+        int[] ret = new int[size()];
+        int i = 0;
+        if (hasZeroKey) {
+            ret[i++] = 0;
+        }
+        for (int k : keys) {
+            if (0 != k) {
+                ret[i++] = k;
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Returns a {@link Cursor} to iterate through the entries of this map
+     *
+     * @return a cursor of this map
+     */
+    public Cursor<V> cursor() {
+        return new Cursor<V>(this);
+    }
+
+    /**
+     * Loop through this map on each key/value pair, apply them to the visitor specified
+     *
+     * @param visitor the function that takes argument of (key, value) pair
+     * @return this map
+     */
+    @SuppressWarnings("unchecked")
+    public IntMap<V> forEach(Visitor<? super V> visitor) {
+        if (hasZeroKey) {
+            visit(visitor, 0, zeroValue);
+        }
+        int[] keys = this.keys;
+        Object[] values = this.values;
+        for (int i = 0, n = keys.length; i < n; ++i) {
+            int k = keys[i];
+            if (0 != k) {
+                visit(visitor, k, (V) values[i]);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Alias of {@link #forEach(Visitor)}
+     *
+     * @param visitor the visitor that can be applied on Key/Value pair stored in this Map
+     * @return this map
+     */
+    public IntMap<V> each(Visitor<? super V> visitor) {
+        return forEach(visitor);
+    }
+
+    /**
+     * Alias of {@link #forEach(Visitor)}
+     *
+     * @param visitor the visitor that can be applied on Key/Value pair stored in this Map
+     * @return this map
+     */
+    public IntMap<V> accept(Visitor<? super V> visitor) {
+        return forEach(visitor);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hasZeroKey ? $.hc(zeroValue) : 0;
+        int[] keys = this.keys;
+        Object[] values = this.values;
+        for (int i = 0, n = keys.length; i < n; ++i) {
+            int k = keys[i];
+            if (0 != k) {
+                h += k ^ $.hc(values[i]);
+            }
+        }
+        return h;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof IntMap)) {
+            return false;
+        }
+        IntMap<?> that = (IntMap<?>) obj;
+        if (that.size() != size()) {
+            return false;
+        }
+        if (hasZeroKey && (!that.hasZeroKey || !$.eq(zeroValue, that.zeroValue))) {
+            return false;
+        }
+        int[] keys = this.keys;
+        Object[] values = this.values;
+        for (int i = 0, n = keys.length; i < n; ++i) {
+            int k = keys[i];
+            if (0 != k) {
+                int pos = that.slot(k);
+                if (pos < 0 || !$.eq(values[i], that.values[pos])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = S.builder("{");
+        forEach(new Visitor<V>() {
+            @Override
+            public void visit(int key, V value) {
+                if (sb.length() > 1) {
+                    sb.append(", ");
+                }
+                sb.append(key).append("=").append(value);
+            }
+        });
+        return sb.append("}").toString();
+    }
+
+    private void visit(Visitor<? super V> visitor, int key, V value) {
+        try {
+            visitor.visit(key, value);
+        } catch (NotAppliedException e) {
+            // ignore
+        }
+    }
+
+    private int slot(int key) {
+        int[] keys = this.keys;
+        int mask = this.mask;
+        int pos = OpenHash.mix(key) & mask;
+        int k;
+        while (0 != (k = keys[pos])) {
+            if (k == key) {
+                return pos;
+            }
+            pos = (pos + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        maxFill = OpenHash.maxFill(capacity, loadFactor);
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        int[] keys = this.keys;
+        Object[] values = this.values;
+        int mask = this.mask;
+        for (int i = oldKeys.length - 1; i >= 0; --i) {
+            int k = oldKeys[i];
+            if (0 != k) {
+                int pos = OpenHash.mix(k) & mask;
+                while (0 != keys[pos]) {
+                    pos = (pos + 1) & mask;
+                }
+                keys[pos] = k;
+                values[pos] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Close the gap left at {@code pos} by shifting back the entries
+     * in the same probe chain, so no tombstone is needed
+     */
+    private void shiftKeys(int pos) {
+        int[] keys = this.keys;
+        Object[] values = this.values;
+        int mask = this.mask;
+        int last, slot, k;
+        for (;;) {
+            pos = ((last = pos) + 1) & mask;
+            for (;;) {
+                if (0 == (k = keys[pos])) {
+                    keys[last] = 0;
+                    values[last] = null;
+                    return;
+                }
+                slot = OpenHash.mix(k) & mask;
+                if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) {
+                    break;
+                }
+                pos = (pos + 1) & mask;
+            }
+            keys[last] = k;
+            values[last] = values[pos];
+        }
+    }
+
+    private static final long serialVersionUID = -2905624829390126398L;
+}
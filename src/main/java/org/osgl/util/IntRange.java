@@ -20,6 +20,8 @@ package org.osgl.util;
  * #L%
  */
 
+import java.util.Spliterator;
+
 public class IntRange extends LazyRange<Integer> {
 
     public IntRange(int from, int to) {
@@ -44,6 +46,11 @@ public class IntRange extends LazyRange<Integer> {
         }
     }
 
+    @Override
+    public Spliterator<Integer> spliterator() {
+        return Streams.spliterator(this);
+    }
+
     public static IntRange of(int from, int to) {
         return new IntRange(from, to);
     }
@@ -0,0 +1,153 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import org.osgl.$;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, concurrent pool that deduplicates equal instances.
+ *
+ * <p>{@link #intern(Object)} returns the instance already pooled that
+ * equals to the one passed in, or pools and returns the passed in
+ * instance when there is no such one. Instances are looked up on their
+ * {@link Object#hashCode()} and {@link Object#equals(Object)}, e.g.
+ * a {@link FastStr} is found on its chars without creating a
+ * {@link String}.</p>
+ *
+ * <p>The pool is a fixed size, two way set associative table of weak
+ * references. It never grows: when both slots of a set are taken, a new
+ * instance evicts one of them, and pooled instances that are not used
+ * elsewhere are reclaimed by the garbage collector. Thus interning is
+ * lossy: two equal instances interned at different times might not be
+ * the same object, so a reference check can be used as a fast path
+ * before {@code equals}, but not instead of it.</p>
+ *
+ * <p>Lookup is lock free and can be called from many threads.</p>
+ *
+ * @param <T> the element type
+ */
+public final class Interner<T> {
+
+    private final AtomicReferenceArray<WeakReference<T>> table;
+    private final int mask;
+    private final $.Function<? super T, ? extends T> canonicalizer;
+
+    /**
+     * Construct a pool with capacity specified
+     *
+     * @param capacity the max number of instances in the pool, rounded up
+     *                 to a power of two
+     */
+    public Interner(int capacity) {
+        this(capacity, null);
+    }
+
+    /**
+     * Construct a pool with capacity and a canonicalizer function. The
+     * canonicalizer is applied to an instance before it is pooled, e.g.
+     * to copy a substring out of its large backing buffer
+     *
+     * @param capacity      the max number of instances in the pool, rounded
+     *                      up to a power of two
+     * @param canonicalizer the function that returns an equal instance
+     *                      to be pooled, or {@code null} to pool the
+     *                      instance as it is
+     */
+    public Interner(int capacity, $.Function<? super T, ? extends T> canonicalizer) {
+        E.illegalArgumentIf(capacity < 2, "capacity must be at least 2");
+        int n = Integer.highestOneBit(capacity - 1) << 1;
+        this.table = new AtomicReferenceArray<WeakReference<T>>(n);
+        this.mask = n - 2;
+        this.canonicalizer = canonicalizer;
+    }
+
+    /**
+     * Returns the pooled instance that equals to the one specified. If
+     * there is no such instance then the instance specified, or the result
+     * of the canonicalizer on it, is put into the pool and returned
+     *
+     * @param t the instance
+     * @return the pooled instance equal to {@code t} or {@code null} if
+     *         {@code t} is {@code null}
+     */
+    public T intern(T t) {
+        if (null == t) {
+            return null;
+        }
+        int hash = OpenHash.hash(t);
+        int set = hash & mask;
+        T canonical = null;
+        while (true) {
+            WeakReference<T> r0 = table.get(set), r1 = table.get(set + 1);
+            T v0 = null == r0 ? null : r0.get();
+            if (null != v0 && (v0 == t || v0.equals(t))) {
+                return v0;
+            }
+            T v1 = null == r1 ? null : r1.get();
+            if (null != v1 && (v1 == t || v1.equals(t))) {
+                return v1;
+            }
+            if (null == canonical) {
+                canonical = null == canonicalizer ? t : canonicalizer.apply(t);
+            }
+            // take the free slot, or evict the slot picked by the hash
+            int slot;
+            WeakReference<T> expected;
+            if (null == v0) {
+                slot = set;
+                expected = r0;
+            } else if (null == v1 || hash < 0) {
+                slot = set + 1;
+                expected = r1;
+            } else {
+                slot = set;
+                expected = r0;
+            }
+            if (table.compareAndSet(slot, expected, new WeakReference<T>(canonical))) {
+                return canonical;
+            }
+            // another thread updated the set, look it up again
+        }
+    }
+
+    /**
+     * Remove all instances from the pool
+     */
+    public void clear() {
+        for (int i = 0, n = table.length(); i < n; ++i) {
+            table.set(i, null);
+        }
+    }
+
+    /**
+     * Returns the max number of instances the pool can hold
+     *
+     * @return the capacity of the pool
+     */
+    public int capacity() {
+        return table.length();
+    }
+
+}
@@ -0,0 +1,451 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import org.osgl.$;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A lazy sequence of the results of joining two sources on keys.
+ * Implements {@link C.Sequence#join(Iterable, Osgl.Function, Osgl.Function, Osgl.Func2)},
+ * {@link C.Sequence#leftJoin(Iterable, Osgl.Function, Osgl.Function, Osgl.Func2)},
+ * {@link C.Sequence#semiJoin(Iterable, Osgl.Function, Osgl.Function)} and
+ * {@link C.Sequence#mergeJoin(Iterable, Osgl.Function, Osgl.Function, Comparator, Osgl.Func2)}.
+ *
+ * <p>Hash joins load one side into a {@link Table} the first time the
+ * sequence is iterated and then stream the other side through it. The
+ * table maps each key to a chain of values kept in flat arrays, so no
+ * object is allocated per value. Merge joins keep only the run of equal
+ * keys of the right side in memory.</p>
+ *
+ * <p>{@code null} keys never match.</p>
+ */
+abstract class JoinSeq<L, U, K, R> extends SequenceBase<R> {
+
+    final Iterable<? extends L> left;
+    final Iterable<? extends U> right;
+    final $.Function<? super L, ? extends K> leftKey;
+    final $.Function<? super U, ? extends K> rightKey;
+    final $.Func2<? super L, ? super U, ? extends R> combiner;
+
+    JoinSeq(Iterable<? extends L> left, Iterable<? extends U> right,
+            $.Function<? super L, ? extends K> leftKey, $.Function<? super U, ? extends K> rightKey,
+            $.Func2<? super L, ? super U, ? extends R> combiner) {
+        E.NPE(left, right, leftKey, rightKey);
+        this.left = left;
+        this.right = right;
+        this.leftKey = leftKey;
+        this.rightKey = rightKey;
+        this.combiner = combiner;
+    }
+
+    @Override
+    protected EnumSet<C.Feature> initFeatures() {
+        return EnumSet.of(C.Feature.LAZY, C.Feature.READONLY, C.Feature.ORDERED);
+    }
+
+    @Override
+    public int size() throws UnsupportedOperationException {
+        // make sure both sources are limited
+        sourceSize(left);
+        sourceSize(right);
+        int n = 0;
+        for (Iterator<?> itr = iterator(); itr.hasNext(); itr.next()) {
+            n++;
+        }
+        return n;
+    }
+
+    private static int sourceSize(Iterable<?> source) throws UnsupportedOperationException {
+        if (source instanceof Collection) {
+            return ((Collection<?>) source).size();
+        }
+        if (source instanceof C.Traversable) {
+            return ((C.Traversable<?>) source).size();
+        }
+        throw new UnsupportedOperationException();
+    }
+
+    private static boolean smaller(Iterable<?> a, Iterable<?> b) {
+        return a instanceof Collection && b instanceof Collection && ((Collection<?>) a).size() < ((Collection<?>) b).size();
+    }
+
+    /**
+     * Returns an inner hash join. The table is built on the smaller side if
+     * both sides are collections, otherwise on the right side. Results come
+     * in the order of the side being streamed
+     */
+    static <L, U, K, R> C.Sequence<R> join(
+            Iterable<? extends L> left, Iterable<? extends U> right,
+            $.Function<? super L, ? extends K> leftKey, $.Function<? super U, ? extends K> rightKey,
+            $.Func2<? super L, ? super U, ? extends R> combiner
+    ) {
+        E.NPE(combiner);
+        if (smaller(left, right)) {
+            return new HashJoin<L, U, K, R>(left, right, leftKey, rightKey, combiner, true, false);
+        }
+        return new HashJoin<L, U, K, R>(left, right, leftKey, rightKey, combiner, false, false);
+    }
+
+    /**
+     * Returns a left outer hash join. The table is always built on the right
+     * side. Left elements without a match are combined with {@code null}
+     */
+    static <L, U, K, R> C.Sequence<R> leftJoin(
+            Iterable<? extends L> left, Iterable<? extends U> right,
+            $.Function<? super L, ? extends K> leftKey, $.Function<? super U, ? extends K> rightKey,
+            $.Func2<? super L, ? super U, ? extends R> combiner
+    ) {
+        E.NPE(combiner);
+        return new HashJoin<L, U, K, R>(left, right, leftKey, rightKey, combiner, false, true);
+    }
+
+    /**
+     * Returns a semi join: left elements that have at least one match
+     * on the right side. Only the keys of the right side are kept in memory
+     */
+    static <L, U, K> C.Sequence<L> semiJoin(
+            Iterable<? extends L> left, Iterable<? extends U> right,
+            $.Function<? super L, ? extends K> leftKey, $.Function<? super U, ? extends K> rightKey
+    ) {
+        return new HashJoin<L, U, K, L>(left, right, leftKey, rightKey, null, false, false);
+    }
+
+    /**
+     * Returns an inner sort-merge join of two sides both sorted by key
+     * in the order of the comparator
+     */
+    static <L, U, K, R> C.Sequence<R> mergeJoin(
+            Iterable<? extends L> left, Iterable<? extends U> right,
+            $.Function<? super L, ? extends K> leftKey, $.Function<? super U, ? extends K> rightKey,
+            Comparator<? super K> comparator, $.Func2<? super L, ? super U, ? extends R> combiner
+    ) {
+        E.NPE(combiner);
+        return new MergeJoin<L, U, K, R>(left, right, leftKey, rightKey, comparator, combiner);
+    }
+
+    /**
+     * Returns a function that pairs its arguments into a {@link Osgl.T2 T2}
+     */
+    static <L, U> $.Func2<L, U, $.T2<L, U>> pair() {
+        return $.cast(PAIR);
+    }
+
+    private static final $.Func2<Object, Object, $.T2<Object, Object>> PAIR = new $.Func2<Object, Object, $.T2<Object, Object>>() {
+        @Override
+        public $.T2<Object, Object> apply(Object o1, Object o2) {
+            return $.T2(o1, o2);
+        }
+    };
+
+    /**
+     * A multi map from keys to chains of values. Values of a key are
+     * kept in the order they are added
+     */
+    static final class Table<K> {
+        private final ObjectIntMap<K> index;
+        // the first and last value position of each key
+        private int[] heads;
+        private int[] tails;
+        private Object[] values;
+        // the position of the next value with the same key, -1 for none
+        private int[] next;
+        private int keys;
+        private int size;
+
+        Table(int expectedSize) {
+            index = new ObjectIntMap<K>(expectedSize);
+            int capacity = Math.max(4, expectedSize);
+            heads = new int[capacity];
+            tails = new int[capacity];
+            values = new Object[capacity];
+            next = new int[capacity];
+        }
+
+        /**
+         * Add a value to the chain of the key. When {@code distinct} is set
+         * only the first value of a key is kept
+         */
+        void add(K key, Object value, boolean distinct) {
+            int k = index.get(key, -1);
+            if (k >= 0 && distinct) {
+                return;
+            }
+            int pos = size++;
+            if (pos == values.length) {
+                int newCapacity = pos + (pos >> 1);
+                values = Arrays.copyOf(values, newCapacity);
+                next = Arrays.copyOf(next, newCapacity);
+            }
+            values[pos] = value;
+            next[pos] = -1;
+            if (k < 0) {
+                k = keys++;
+                index.put(key, k);
+                if (k == heads.length) {
+                    int newCapacity = k + (k >> 1);
+                    heads = Arrays.copyOf(heads, newCapacity);
+                    tails = Arrays.copyOf(tails, newCapacity);
+                }
+                heads[k] = pos;
+            } else {
+                next[tails[k]] = pos;
+            }
+            tails[k] = pos;
+        }
+
+        /**
+         * Returns the position of the first value of the key or {@code -1}
+         */
+        int first(Object key) {
+            if (null == key) {
+                return -1;
+            }
+            int k = index.get(key, -1);
+            return k < 0 ? -1 : heads[k];
+        }
+
+        int next(int pos) {
+            return next[pos];
+        }
+
+        Object value(int pos) {
+            return values[pos];
+        }
+    }
+
+    private static final class HashJoin<L, U, K, R> extends JoinSeq<L, U, K, R> {
+        // build the table on the left side and stream the right side
+        private final boolean buildLeft;
+        private final boolean outer;
+        private volatile Table<K> table;
+
+        HashJoin(Iterable<? extends L> left, Iterable<? extends U> right,
+                 $.Function<? super L, ? extends K> leftKey, $.Function<? super U, ? extends K> rightKey,
+                 $.Func2<? super L, ? super U, ? extends R> combiner, boolean buildLeft, boolean outer) {
+            super(left, right, leftKey, rightKey, combiner);
+            this.buildLeft = buildLeft;
+            this.outer = outer;
+        }
+
+        private Table<K> table() {
+            Table<K> t = table;
+            if (null == t) {
+                synchronized (this) {
+                    t = table;
+                    if (null == t) {
+                        t = buildLeft ? build(left, leftKey) : build(right, rightKey);
+                        table = t;
+                    }
+                }
+            }
+            return t;
+        }
+
+        private <E> Table<K> build(Iterable<? extends E> source, $.Function<? super E, ? extends K> keyFn) {
+            int expectedSize = source instanceof Collection ? ((Collection<?>) source).size() : OpenHash.DEFAULT_EXPECTED_SIZE;
+            Table<K> t = new Table<K>(expectedSize);
+            // semi join only needs to know whether a key exists
+            boolean distinct = null == combiner;
+            for (E e : source) {
+                K key = keyFn.apply(e);
+                if (null != key) {
+                    t.add(key, e, distinct);
+                }
+            }
+            return t;
+        }
+
+        @Override
+        public Iterator<R> iterator() {
+            return buildLeft ? new Probe<U>(right.iterator(), rightKey) : new Probe<L>(left.iterator(), leftKey);
+        }
+
+        /**
+         * Stream one side and look up matches in the table
+         */
+        private final class Probe<E> extends ReadOnlyIterator<R> {
+            private final Table<K> lookup = table();
+            private final Iterator<? extends E> source;
+            private final $.Function<? super E, ? extends K> keyFn;
+            private E current;
+            // position of the next match of current in the table, -1 for none
+            private int pos = -1;
+            private R next;
+            private boolean ready;
+
+            Probe(Iterator<? extends E> source, $.Function<? super E, ? extends K> keyFn) {
+                this.source = source;
+                this.keyFn = keyFn;
+            }
+
+            @Override
+            public boolean hasNext() {
+                if (ready) {
+                    return true;
+                }
+                while (pos < 0) {
+                    if (!source.hasNext()) {
+                        return false;
+                    }
+                    current = source.next();
+                    pos = lookup.first(keyFn.apply(current));
+                    if (pos < 0 && outer) {
+                        next = combine(current, null);
+                        ready = true;
+                        return true;
+                    }
+                    if (null == combiner && pos >= 0) {
+                        next = $.cast(current);
+                        pos = -1;
+                        ready = true;
+                        return true;
+                    }
+                }
+                next = combine(current, lookup.value(pos));
+                pos = lookup.next(pos);
+                ready = true;
+                return true;
+            }
+
+            @Override
+            public R next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ready = false;
+                R r = next;
+                next = null;
+                return r;
+            }
+
+            private R combine(Object streamed, Object matched) {
+                if (buildLeft) {
+                    return combiner.apply($.<L>cast(matched), $.<U>cast(streamed));
+                }
+                return combiner.apply($.<L>cast(streamed), $.<U>cast(matched));
+            }
+        }
+    }
+
+    private static final class MergeJoin<L, U, K, R> extends JoinSeq<L, U, K, R> {
+        private final Comparator<? super K> comparator;
+
+        MergeJoin(Iterable<? extends L> left, Iterable<? extends U> right,
+                  $.Function<? super L, ? extends K> leftKey, $.Function<? super U, ? extends K> rightKey,
+                  Comparator<? super K> comparator, $.Func2<? super L, ? super U, ? extends R> combiner) {
+            super(left, right, leftKey, rightKey, combiner);
+            if (null == comparator) {
+                Comparator<K> natural = $.cast($.F.NATURAL_ORDER);
+                comparator = natural;
+            }
+            this.comparator = comparator;
+        }
+
+        @Override
+        public Iterator<R> iterator() {
+            return new ReadOnlyIterator<R>() {
+                private final Iterator<? extends L> leftItr = left.iterator();
+                private final Iterator<? extends U> rightItr = right.iterator();
+                // the run of right elements sharing runKey
+                private final ListBuilder<U> run = new ListBuilder<U>();
+                private K runKey;
+                // the right element read ahead after the run
+                private U pending;
+                private K pendingKey;
+                private boolean hasPending;
+                private L current;
+                private boolean started;
+                // position in run for current, run.size() when current is done
+                private int cursor;
+
+                @Override
+                public boolean hasNext() {
+                    while (!started || cursor >= run.size()) {
+                        if (!leftItr.hasNext()) {
+                            return false;
+                        }
+                        started = true;
+                        current = leftItr.next();
+                        cursor = 0;
+                        K key = leftKey.apply(current);
+                        if (null == key) {
+                            cursor = run.size();
+                            continue;
+                        }
+                        if (null != runKey && comparator.compare(runKey, key) == 0) {
+                            continue;
+                        }
+                        loadRun(key);
+                    }
+                    return true;
+                }
+
+                @Override
+                public R next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return combiner.apply(current, run.get(cursor++));
+                }
+
+                /**
+                 * Skip right elements with keys less than the key and load
+                 * the run of right elements with key equal to the key
+                 */
+                private void loadRun(K key) {
+                    run.clear();
+                    runKey = null;
+                    for (;;) {
+                        if (!hasPending) {
+                            if (!rightItr.hasNext()) {
+                                break;
+                            }
+                            pending = rightItr.next();
+                            pendingKey = rightKey.apply(pending);
+                            hasPending = true;
+                        }
+                        if (null == pendingKey) {
+                            hasPending = false;
+                            continue;
+                        }
+                        int c = comparator.compare(pendingKey, key);
+                        if (c > 0) {
+                            break;
+                        }
+                        if (c == 0) {
+                            runKey = key;
+                            run.add(pending);
+                        }
+                        hasPending = false;
+                    }
+                }
+            };
+        }
+    }
+}
@@ -23,8 +23,8 @@ package org.osgl.util;
 import org.osgl.$;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * A `Keyword` can be presented in the different ways:
@@ -67,10 +67,36 @@ public final class Keyword implements Comparable<Keyword> {
             SEP_SLASH
     };
 
+    // separator lookup table indexed by ASCII char
+    private static final boolean[] IS_SEP = new boolean[128];
+
     static {
-        Arrays.sort(SEPS);
+        for (char c : SEPS) {
+            IS_SEP[c] = true;
+        }
+    }
+
+    /**
+     * A parsed keyword cached by {@link #of(CharSequence)} along with
+     * the chars it is parsed from
+     */
+    private static final class Parsed {
+        final String source;
+        final int hash;
+        final Keyword keyword;
+
+        Parsed(String source, int hash, Keyword keyword) {
+            this.source = source;
+            this.hash = hash;
+            this.keyword = keyword;
+        }
     }
 
+    // direct mapped cache of parsed keywords, an entry is replaced by
+    // the next source hashed to the same slot
+    private static final AtomicReferenceArray<Parsed> CACHE =
+            new AtomicReferenceArray<Parsed>(Integer.highestOneBit(Math.max(FastStr.STR_POOL_SIZE, 1)));
+
     public static enum Style {
         /**
          * `CamelCaseStyle`
@@ -166,6 +192,17 @@ public final class Keyword implements Comparable<Keyword> {
         }
 
         public String toString(Keyword keyword) {
+            String[] rendered = keyword.rendered;
+            int i = ordinal();
+            String s = rendered[i];
+            if (null == s) {
+                s = render(keyword);
+                rendered[i] = s;
+            }
+            return s;
+        }
+
+        private String render(Keyword keyword) {
             S.Buffer sb = S.buffer();
             int sz = keyword.list.size();
             for (int i = 0; i < sz; i++) {
@@ -183,8 +220,29 @@ public final class Keyword implements Comparable<Keyword> {
         }
     }
 
+    private static final Interner<Keyword> POOL = new Interner<Keyword>(FastStr.STR_POOL_SIZE, new $.F1<Keyword, Keyword>() {
+        @Override
+        public Keyword apply(Keyword keyword) {
+            Keyword pooled = new Keyword();
+            for (FastStr token : keyword.list) {
+                pooled.list.add(token.dedup());
+            }
+            return pooled;
+        }
+    });
+
+    private static final int STYLES = Style.values().length;
+
     private C.List<FastStr> list = C.newList();
 
+    // memoised renderings indexed by style ordinal
+    private final String[] rendered = new String[STYLES];
+
+    private int hash;
+
+    private Keyword() {
+    }
+
     public Keyword(CharSequence chars) {
         init(chars);
     }
@@ -235,7 +293,12 @@ public final class Keyword implements Comparable<Keyword> {
 
     @Override
     public int hashCode() {
-        return $.hc(list);
+        int h = hash;
+        if (0 == h) {
+            h = $.hc(list);
+            hash = h;
+        }
+        return h;
     }
 
     @Override
@@ -244,7 +307,8 @@ public final class Keyword implements Comparable<Keyword> {
             return true;
         }
         if (obj instanceof Keyword) {
-            return ((Keyword) obj).list.equals(list);
+            Keyword that = (Keyword) obj;
+            return that.hashCode() == hashCode() && that.list.equals(list);
         }
         return false;
     }
@@ -273,8 +337,46 @@ public final class Keyword implements Comparable<Keyword> {
         return camelCase().compareTo(o.camelCase());
     }
 
+    /**
+     * Returns a keyword equal to this one from a shared pool. The tokens
+     * of the pooled keyword are deduplicated with {@link FastStr#dedup()}.
+     * See {@link Interner} for the pooling policy
+     *
+     * @return the pooled keyword equal to this keyword
+     */
+    public Keyword dedup() {
+        return POOL.intern(this);
+    }
+
+    /**
+     * Returns a keyword parsed from the chars specified. Keywords parsed
+     * recently are cached and returned without parsing the chars again
+     *
+     * @param chars the chars to be parsed
+     * @return the keyword
+     */
     public static Keyword of(CharSequence chars) {
-        return new Keyword(chars);
+        int hash = hash(chars);
+        int slot = OpenHash.mix(hash) & (CACHE.length() - 1);
+        Parsed parsed = CACHE.get(slot);
+        if (null != parsed && parsed.hash == hash && parsed.source.contentEquals(chars)) {
+            return parsed.keyword;
+        }
+        Keyword keyword = new Keyword(chars);
+        CACHE.lazySet(slot, new Parsed(chars.toString(), hash, keyword));
+        return keyword;
+    }
+
+    // hash of the chars, same as the String hash code
+    private static int hash(CharSequence chars) {
+        if (chars instanceof String || chars instanceof StrBase) {
+            return chars.hashCode();
+        }
+        int h = 0;
+        for (int i = 0, sz = chars.length(); i < sz; ++i) {
+            h = 31 * h + chars.charAt(i);
+        }
+        return h;
     }
 
     private void init(CharSequence chars) {
@@ -353,7 +455,7 @@ public final class Keyword implements Comparable<Keyword> {
     }
 
     private static boolean isSeparator(char ch) {
-        return Arrays.binarySearch(SEPS, ch) >= 0;
+        return ch < 128 && IS_SEP[ch];
     }
 
     private static boolean isUpperCase(char ch) {
@@ -30,6 +30,7 @@ import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * Implement {@link C.Range} using {@link LazySeq}.
@@ -238,6 +239,41 @@ implements C.Range<ELEMENT>, Serializable {
         return of(prev.apply(to), prev.apply(from()));
     }
 
+    /**
+     * Returns an iterator that steps through the elements directly instead
+     * of creating a range instance for each element
+     *
+     * @return an iterator of this range
+     */
+    @Override
+    public Iterator<ELEMENT> iterator() {
+        return new Iterator<ELEMENT>() {
+            private ELEMENT cursor = from();
+            private boolean end;
+
+            @Override
+            public boolean hasNext() {
+                return !end;
+            }
+
+            @Override
+            public ELEMENT next() {
+                if (end) {
+                    throw new NoSuchElementException();
+                }
+                ELEMENT t = cursor;
+                cursor = next.apply(t);
+                end = $.eq(cursor, to);
+                return t;
+            }
+
+            @Override
+            public void remove() {
+                throw E.unsupport();
+            }
+        };
+    }
+
     @Override
     public Iterator<ELEMENT> reverseIterator() {
         return reverse().iterator();
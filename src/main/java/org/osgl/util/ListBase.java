@@ -23,6 +23,9 @@ package org.osgl.util;
 import org.osgl.$;
 import org.osgl.Osgl;
 import org.osgl.exception.NotAppliedException;
+import org.osgl.util.algo.Algorithms;
+import org.osgl.util.algo.ArraySort;
+import org.osgl.util.algo.BoundedHeap;
 
 import java.util.*;
 
@@ -50,11 +53,255 @@ public abstract class ListBase<T> extends AbstractList<T> implements C.List<T> {
     }
 
     protected void forEachLeft($.Function<? super T, ?> visitor) throws $.Break {
-        for (T t : this) {
-            try {
-                visitor.apply(t);
-            } catch (NotAppliedException e) {
-                // ignore
+        forEachLeft(0, size(), visitor);
+    }
+
+    /**
+     * Apply the visitor to elements in the index range {@code [from, to)}
+     * from left to right.
+     *
+     * <p>The default implementation reads elements with {@link #get(int)}
+     * if this list is random access, otherwise with a list iterator. Views
+     * shall override this method to loop through their backing store
+     * directly, see {@link #forEachLeft(List, int, int, Osgl.Function)}</p>
+     *
+     * @param from the index of the first element, inclusive
+     * @param to the index of the last element, exclusive
+     * @param visitor the visitor function
+     * @throws $.Break if the visitor breaks the iteration
+     */
+    protected void forEachLeft(int from, int to, $.Function<? super T, ?> visitor) throws $.Break {
+        if (isRandomAccess()) {
+            for (int i = from; i < to; ++i) {
+                try {
+                    visitor.apply(get(i));
+                } catch (NotAppliedException e) {
+                    // ignore
+                }
+            }
+        } else {
+            ListIterator<T> itr = listIterator(from);
+            for (int i = from; i < to; ++i) {
+                try {
+                    visitor.apply(itr.next());
+                } catch (NotAppliedException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    /**
+     * Apply the visitor to elements in the index range {@code [from, to)}
+     * from right to left
+     *
+     * @param from the index of the first element, inclusive
+     * @param to the index of the last element, exclusive
+     * @param visitor the visitor function
+     * @throws $.Break if the visitor breaks the iteration
+     * @see #forEachLeft(int, int, Osgl.Function)
+     */
+    protected void forEachRight(int from, int to, $.Function<? super T, ?> visitor) throws $.Break {
+        if (isRandomAccess()) {
+            for (int i = to - 1; i >= from; --i) {
+                try {
+                    visitor.apply(get(i));
+                } catch (NotAppliedException e) {
+                    // ignore
+                }
+            }
+        } else {
+            ListIterator<T> itr = listIterator(to);
+            for (int i = to - 1; i >= from; --i) {
+                try {
+                    visitor.apply(itr.previous());
+                } catch (NotAppliedException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    /**
+     * Copy elements in the index range {@code [from, to)} into the
+     * array specified. This is the bulk form of iterating through the
+     * range and it does not create an iterator for views that override
+     * it.
+     *
+     * @param from the index of the first element, inclusive
+     * @param to the index of the last element, exclusive
+     * @param dest the destination array
+     * @param destPos the position in the destination array where the
+     *                first element is copied to
+     */
+    protected void copyTo(int from, int to, Object[] dest, int destPos) {
+        if (isRandomAccess()) {
+            for (int i = from; i < to; ++i) {
+                dest[destPos++] = get(i);
+            }
+        } else {
+            ListIterator<T> itr = listIterator(from);
+            for (int i = from; i < to; ++i) {
+                dest[destPos++] = itr.next();
+            }
+        }
+    }
+
+    /**
+     * Apply the visitor to elements in the index range {@code [from, to)}
+     * from left to right until the visitor returns {@code false}
+     *
+     * @param from the index of the first element, inclusive
+     * @param to the index of the last element, exclusive
+     * @param visitor the visitor function
+     * @return {@code false} if the visitor stopped the iteration, or
+     *         {@code true} otherwise
+     * @see C.Traversable#forEachWhile(Osgl.Function)
+     */
+    protected boolean forEachLeftWhile(int from, int to, $.Function<? super T, Boolean> visitor) {
+        if (isRandomAccess()) {
+            for (int i = from; i < to; ++i) {
+                try {
+                    if (!visitor.apply(get(i))) {
+                        return false;
+                    }
+                } catch (NotAppliedException e) {
+                    // ignore
+                }
+            }
+        } else {
+            ListIterator<T> itr = listIterator(from);
+            for (int i = from; i < to; ++i) {
+                try {
+                    if (!visitor.apply(itr.next())) {
+                        return false;
+                    }
+                } catch (NotAppliedException e) {
+                    // ignore
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean isRandomAccess() {
+        return this instanceof RandomAccess || is(C.Feature.RANDOM_ACCESS);
+    }
+
+    /**
+     * Apply the visitor to elements of a list in the index range
+     * {@code [from, to)} from left to right. Dispatch to
+     * {@link #forEachLeft(int, int, Osgl.Function)} if the list is a
+     * {@code ListBase}
+     */
+    static <T> void forEachLeft(List<? extends T> list, int from, int to, $.Function<? super T, ?> visitor) throws $.Break {
+        if (list instanceof ListBase) {
+            ListBase<? extends T> lb = (ListBase<? extends T>) list;
+            lb.forEachLeft(from, to, visitor);
+        } else if (list instanceof RandomAccess) {
+            for (int i = from; i < to; ++i) {
+                try {
+                    visitor.apply(list.get(i));
+                } catch (NotAppliedException e) {
+                    // ignore
+                }
+            }
+        } else {
+            ListIterator<? extends T> itr = list.listIterator(from);
+            for (int i = from; i < to; ++i) {
+                try {
+                    visitor.apply(itr.next());
+                } catch (NotAppliedException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    /**
+     * Apply the visitor to elements of a list in the index range
+     * {@code [from, to)} from right to left
+     *
+     * @see #forEachLeft(List, int, int, Osgl.Function)
+     */
+    static <T> void forEachRight(List<? extends T> list, int from, int to, $.Function<? super T, ?> visitor) throws $.Break {
+        if (list instanceof ListBase) {
+            ListBase<? extends T> lb = (ListBase<? extends T>) list;
+            lb.forEachRight(from, to, visitor);
+        } else if (list instanceof RandomAccess) {
+            for (int i = to - 1; i >= from; --i) {
+                try {
+                    visitor.apply(list.get(i));
+                } catch (NotAppliedException e) {
+                    // ignore
+                }
+            }
+        } else {
+            ListIterator<? extends T> itr = list.listIterator(to);
+            for (int i = to - 1; i >= from; --i) {
+                try {
+                    visitor.apply(itr.previous());
+                } catch (NotAppliedException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    /**
+     * Apply the visitor to elements of a list in the index range
+     * {@code [from, to)} from left to right until the visitor returns
+     * {@code false}
+     *
+     * @see #forEachLeftWhile(int, int, Osgl.Function)
+     */
+    static <T> boolean forEachLeftWhile(List<? extends T> list, int from, int to, $.Function<? super T, Boolean> visitor) {
+        if (list instanceof ListBase) {
+            ListBase<? extends T> lb = (ListBase<? extends T>) list;
+            return lb.forEachLeftWhile(from, to, visitor);
+        }
+        if (list instanceof RandomAccess) {
+            for (int i = from; i < to; ++i) {
+                try {
+                    if (!visitor.apply(list.get(i))) {
+                        return false;
+                    }
+                } catch (NotAppliedException e) {
+                    // ignore
+                }
+            }
+        } else {
+            ListIterator<? extends T> itr = list.listIterator(from);
+            for (int i = from; i < to; ++i) {
+                try {
+                    if (!visitor.apply(itr.next())) {
+                        return false;
+                    }
+                } catch (NotAppliedException e) {
+                    // ignore
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copy elements of a list in the index range {@code [from, to)} into
+     * the array specified
+     *
+     * @see #copyTo(int, int, Object[], int)
+     */
+    static void copyTo(List<?> list, int from, int to, Object[] dest, int destPos) {
+        if (list instanceof ListBase) {
+            ((ListBase<?>) list).copyTo(from, to, dest, destPos);
+        } else if (list instanceof RandomAccess) {
+            for (int i = from; i < to; ++i) {
+                dest[destPos++] = list.get(i);
+            }
+        } else {
+            ListIterator<?> itr = list.listIterator(from);
+            for (int i = from; i < to; ++i) {
+                dest[destPos++] = itr.next();
             }
         }
     }
@@ -70,14 +317,7 @@ public abstract class ListBase<T> extends AbstractList<T> implements C.List<T> {
     }
 
     protected void forEachRight($.Function<? super T, ?> visitor) throws $.Break {
-        Iterator<T> itr = reverseIterator();
-        while (itr.hasNext()) {
-            try {
-                visitor.apply(itr.next());
-            } catch (NotAppliedException e) {
-                // ignore
-            }
-        }
+        forEachRight(0, size(), visitor);
     }
 
     protected void forEachRight($.Func2<Integer, ? super T, ?> indexedVisitor) throws $.Break {
@@ -136,6 +376,7 @@ public abstract class ListBase<T> extends AbstractList<T> implements C.List<T> {
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public C.List<T> sorted() {
         if (size() == 0) return C.newList();
         T t = get(0);
@@ -143,13 +384,7 @@ public abstract class ListBase<T> extends AbstractList<T> implements C.List<T> {
         if (!(t instanceof Comparable)) {
             return l;
         }
-        Object[] a = l.toArray();
-       	Arrays.sort(a);
-       	ListIterator<T> i = l.listIterator();
-       	for (int j=0; j<a.length; j++) {
-       	    i.next();
-       	    i.set((T)a[j]);
-       	}
+        sort(l, $.F.NATURAL_ORDER);
         ((ListBase)l).setFeature(SORTED);
         sorted = true;
         return l;
@@ -158,11 +393,141 @@ public abstract class ListBase<T> extends AbstractList<T> implements C.List<T> {
     @Override
     public C.List<T> sorted(Comparator<? super T> comparator) {
         C.List<T> l = copy();
-        Collections.sort(l, comparator);
+        sort(l, comparator);
         ((ListBase)l).setFeature(SORTED);
         return l;
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public C.List<T> partialSorted(int k) {
+        return partialSorted(k, $.F.NATURAL_ORDER);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public C.List<T> partialSorted(int k, Comparator<? super T> comparator) {
+        Object[] a = toArray();
+        Comparator<Object> comp = $.cast(comparator);
+        Algorithms.ARRAY_INTRO_SELECT.partialSort(a, 0, a.length, k, comp);
+        return C.newListOf((T[]) a);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public C.List<T> topK(int k) {
+        return topK(k, $.F.NATURAL_ORDER);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public C.List<T> topK(int k, Comparator<? super T> comparator) {
+        E.illegalArgumentIf(k < 0, "k shall not be negative: %s", k);
+        int sz = size();
+        if (0 == k || 0 == sz) {
+            return Nil.list();
+        }
+        if (is(C.Feature.PARALLEL)) {
+            Object[] a = toArray();
+            Comparator<Object> comp = $.cast(comparator);
+            return ImmutableList.of((T[]) Algorithms.ARRAY_TOP_K.parallelTopK(a, 0, sz, k, comp));
+        }
+        BoundedHeap<T> heap = new BoundedHeap<T>(Math.min(k, sz), comparator);
+        for (T t : this) {
+            heap.offer(t);
+        }
+        return ImmutableList.of((T[]) heap.toSortedArray());
+    }
+
+    @Override
+    public T nthElement(int n) {
+        Comparator<T> comp = $.cast($.F.NATURAL_ORDER);
+        return nthElement(n, comp);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T nthElement(int n, Comparator<? super T> comparator) {
+        int sz = size();
+        if (n < 0 || n >= sz) {
+            throw new IndexOutOfBoundsException();
+        }
+        Object[] a = toArray();
+        Comparator<Object> comp = $.cast(comparator);
+        return (T) Algorithms.ARRAY_INTRO_SELECT.select(a, 0, a.length, n, comp);
+    }
+
+    @Override
+    public C.Sequence<C.List<T>> batch(int size) {
+        return WindowedSeq.batch(this, size);
+    }
+
+    @Override
+    public C.Sequence<C.List<T>> window(int size, int step) {
+        return WindowedSeq.window(this, size, step);
+    }
+
+    @Override
+    public C.Sequence<C.List<T>> chunkBy($.Function<? super T, ?> classifier) {
+        return WindowedSeq.chunkBy(this, classifier);
+    }
+
+    @Override
+    public <U, K> C.Sequence<$.T2<T, U>> join(Iterable<? extends U> other, $.Function<? super T, ? extends K> keyFn, $.Function<? super U, ? extends K> otherKeyFn) {
+        return JoinSeq.join(this, other, keyFn, otherKeyFn, JoinSeq.<T, U>pair());
+    }
+
+    @Override
+    public <U, K, R> C.Sequence<R> join(Iterable<? extends U> other, $.Function<? super T, ? extends K> keyFn, $.Function<? super U, ? extends K> otherKeyFn, $.Func2<? super T, ? super U, ? extends R> combiner) {
+        return JoinSeq.join(this, other, keyFn, otherKeyFn, combiner);
+    }
+
+    @Override
+    public <U, K> C.Sequence<$.T2<T, U>> leftJoin(Iterable<? extends U> other, $.Function<? super T, ? extends K> keyFn, $.Function<? super U, ? extends K> otherKeyFn) {
+        return JoinSeq.leftJoin(this, other, keyFn, otherKeyFn, JoinSeq.<T, U>pair());
+    }
+
+    @Override
+    public <U, K, R> C.Sequence<R> leftJoin(Iterable<? extends U> other, $.Function<? super T, ? extends K> keyFn, $.Function<? super U, ? extends K> otherKeyFn, $.Func2<? super T, ? super U, ? extends R> combiner) {
+        return JoinSeq.leftJoin(this, other, keyFn, otherKeyFn, combiner);
+    }
+
+    @Override
+    public <U, K> C.Sequence<T> semiJoin(Iterable<? extends U> other, $.Function<? super T, ? extends K> keyFn, $.Function<? super U, ? extends K> otherKeyFn) {
+        return JoinSeq.semiJoin(this, other, keyFn, otherKeyFn);
+    }
+
+    @Override
+    public <U, K> C.Sequence<$.T2<T, U>> mergeJoin(Iterable<? extends U> other, $.Function<? super T, ? extends K> keyFn, $.Function<? super U, ? extends K> otherKeyFn, Comparator<? super K> keyComparator) {
+        return JoinSeq.mergeJoin(this, other, keyFn, otherKeyFn, keyComparator, JoinSeq.<T, U>pair());
+    }
+
+    @Override
+    public <U, K, R> C.Sequence<R> mergeJoin(Iterable<? extends U> other, $.Function<? super T, ? extends K> keyFn, $.Function<? super U, ? extends K> otherKeyFn, Comparator<? super K> keyComparator, $.Func2<? super T, ? super U, ? extends R> combiner) {
+        return JoinSeq.mergeJoin(this, other, keyFn, otherKeyFn, keyComparator, combiner);
+    }
+
+    /**
+     * Sort the list specified with a stable sort. If this list is
+     * {@link C.Feature#PARALLEL parallel} then the sort is done
+     * in parallel
+     *
+     * @param l the list to be sorted
+     * @param comparator the comparator
+     */
+    @SuppressWarnings("unchecked")
+    private void sort(C.List<T> l, Comparator<? super T> comparator) {
+        Object[] a = l.toArray();
+        ArraySort<Object> sort = is(C.Feature.PARALLEL) ? Algorithms.arrayParallelMergeSortInplace() : Algorithms.arrayTimSortInplace();
+        Comparator<Object> comp = $.cast(comparator);
+        sort.sort(a, 0, a.length, comp);
+        ListIterator<T> i = l.listIterator();
+        for (int j = 0; j < a.length; j++) {
+            i.next();
+            i.set((T) a[j]);
+        }
+    }
+
     @Override
     public C.List<T> unique() {
         Set<T> set = C.newSet();
@@ -313,12 +678,12 @@ public abstract class ListBase<T> extends AbstractList<T> implements C.List<T> {
 
     @Override
     public boolean allMatch($.Function<? super T, Boolean> predicate) {
-        return !anyMatch($.F.negate(predicate));
+        return forEachWhile(predicate);
     }
 
     @Override
     public boolean anyMatch($.Function<? super T, Boolean> predicate) {
-        return findOne(predicate).isDefined();
+        return !forEachWhile(new TraversableBase.Finder<T>(predicate));
     }
 
     @Override
@@ -328,20 +693,44 @@ public abstract class ListBase<T> extends AbstractList<T> implements C.List<T> {
 
     @Override
     public $.Option<T> findOne(final $.Function<? super T, Boolean> predicate) {
-        try {
-            forEach(new $.Visitor<T>() {
-                @Override
-                public void visit(T t) throws $.Break {
-                    if (predicate.apply(t)) {
-                        throw new $.Break(t);
-                    }
-                }
-            });
-            return $.none();
-        } catch ($.Break b) {
-            T t = b.get();
-            return $.some(t);
-        }
+        TraversableBase.Finder<T> finder = new TraversableBase.Finder<T>(predicate);
+        forEachWhile(finder);
+        return finder.result();
+    }
+
+    @Override
+    public boolean forEachWhile($.Function<? super T, Boolean> visitor) {
+        return forEachLeftWhile(0, size(), visitor);
+    }
+
+    @Override
+    public BloomFilter<T> toBloomFilter(double fpp) {
+        return BloomFilter.<T>create(size(), fpp).putAll(this);
+    }
+
+    @Override
+    public long approxDistinct() {
+        return HyperLogLog.<T>create().addAll(this).cardinality();
+    }
+
+    @Override
+    public <K> Map<K, C.List<T>> groupBy($.Function<? super T, ? extends K> keyFn) {
+        return Grouping.groupBy(this, is(C.Feature.PARALLEL), keyFn);
+    }
+
+    @Override
+    public <K> ObjectIntMap<K> countBy($.Function<? super T, ? extends K> keyFn) {
+        return Grouping.countBy(this, is(C.Feature.PARALLEL), keyFn);
+    }
+
+    @Override
+    public <K> Map<K, T> groupingReduce($.Function<? super T, ? extends K> keyFn, T identity, $.Func2<T, T, T> combiner) {
+        return Grouping.groupingReduce(this, is(C.Feature.PARALLEL), keyFn, identity, combiner);
+    }
+
+    @Override
+    public $.T2<C.List<T>, C.List<T>> partition($.Function<? super T, Boolean> predicate) {
+        return Grouping.partition(this, is(C.Feature.PARALLEL), predicate);
     }
 
     // --- eof Traversal methods
@@ -352,6 +741,25 @@ public abstract class ListBase<T> extends AbstractList<T> implements C.List<T> {
         return listIterator();
     }
 
+    @Override
+    public Object[] toArray() {
+        int sz = size();
+        Object[] a = new Object[sz];
+        copyTo(0, sz, a, 0);
+        return a;
+    }
+
+    /**
+     * Returns a {@link Spliterator} that splits a {@link RandomAccess random access}
+     * list by index.
+     *
+     * @return a spliterator of this list
+     * @see Streams
+     */
+    public Spliterator<T> spliterator() {
+        return Streams.spliterator(this);
+    }
+
     public abstract ListIterator<T> listIterator(int index);
 
     @Override
@@ -1532,6 +1940,30 @@ class SubList<E> extends ListBase<E> implements C.List<E> {
                     ",Size: " + size);
     }
 
+    @Override
+    protected void forEachLeft(int from, int to, $.Function<? super E, ?> visitor) throws $.Break {
+        checkForComodification();
+        l.forEachLeft(from + offset, to + offset, visitor);
+    }
+
+    @Override
+    protected void forEachRight(int from, int to, $.Function<? super E, ?> visitor) throws $.Break {
+        checkForComodification();
+        l.forEachRight(from + offset, to + offset, visitor);
+    }
+
+    @Override
+    protected void copyTo(int from, int to, Object[] dest, int destPos) {
+        checkForComodification();
+        l.copyTo(from + offset, to + offset, dest, destPos);
+    }
+
+    @Override
+    protected boolean forEachLeftWhile(int from, int to, $.Function<? super E, Boolean> visitor) {
+        checkForComodification();
+        return l.forEachLeftWhile(from + offset, to + offset, visitor);
+    }
+
     protected void checkForComodification() {
         if (l.modCount() != expectedModCount)
             throw new ConcurrentModificationException();
@@ -31,7 +31,8 @@ import java.util.*;
  *
  * <p>Notes:</p>
  * <ul>
- * <li>This class is NOT thread safe. Don't use it in multiple thread context</li>
+ * <li>This class is NOT thread safe. Don't use it in multiple thread context, use
+ *     {@link ConcurrentListBuilder} to collect elements from many threads</li>
  * <li>{@link List#remove(int) removeX} methods are not supported</li>
  * <li>After running {@link #toList()} the builder is obsolete and cannot be used anymore</li>
  * <li>{@link #clear()} method can be called to reset the builder before calling {@link #toList()}</li>
@@ -170,6 +171,11 @@ implements RandomAccess, Serializable {
         }
         size += cSz;
         ensureCapacity(size);
+        if (c instanceof ListBase) {
+            // copy straight into the buffer without the intermediate array
+            ListBase.copyTo((ListBase<?>) c, 0, cSz, buf, oldSz);
+            return true;
+        }
         Object[] newData = c.toArray();
         System.arraycopy(newData, 0, buf, oldSz, cSz);
         return true;
@@ -403,7 +409,11 @@ implements RandomAccess, Serializable {
     public ListBuilder<T> append(Iterable<? extends T> iterable) {
         checkState();
         if (iterable instanceof Collection) {
-            append((Collection<? extends T>) iterable);
+            return append((Collection<? extends T>) iterable);
+        }
+        if (iterable instanceof FusedSeq) {
+            ((FusedSeq<T>) iterable).collect(this);
+            return this;
         }
         Iterator<? extends T> e = iterable.iterator();
         while (e.hasNext()) {
@@ -428,6 +438,16 @@ implements RandomAccess, Serializable {
         return this;
     }
 
+    /**
+     * Returns a {@link Spliterator} over the elements appended to this
+     * builder so far
+     *
+     * @return a spliterator of this builder
+     */
+    public Spliterator<T> spliterator() {
+        return Streams.spliterator(this);
+    }
+
     /**
      * Return an immutable list contains all element of this list builder
      * and then release references to the internal buffer. The list builder
@@ -458,10 +478,14 @@ implements RandomAccess, Serializable {
      * @param <T> the element type
      * @return an immutable list contains all elements from the iterable
      */
+    @SuppressWarnings("unchecked")
     public static <T> C.List<T> toList(Iterable<? extends T> iterable) {
         if (iterable instanceof Collection) {
             return toList((Collection<T>) iterable);
         }
+        if (iterable instanceof FusedSeq) {
+            return ((FusedSeq<T>) iterable).toList();
+        }
         ListBuilder<T> lb = new ListBuilder<T>(10);
         for (T t : iterable) {
             lb.add(t);
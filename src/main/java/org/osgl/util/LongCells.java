@@ -0,0 +1,164 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed length array of {@code long} cells backing the probabilistic
+ * structures {@link BloomFilter}, {@link CountMinSketch} and
+ * {@link HyperLogLog}.
+ *
+ * <p>The plain implementation is backed by a {@code long[]} and is not
+ * thread safe. The concurrent implementation is backed by an
+ * {@link AtomicLongArray} so that updates from many threads are not
+ * lost.</p>
+ */
+abstract class LongCells {
+
+    abstract int length();
+
+    abstract long get(int i);
+
+    abstract void set(int i, long value);
+
+    abstract boolean compareAndSet(int i, long expect, long update);
+
+    abstract long addAndGet(int i, long delta);
+
+    abstract boolean isConcurrent();
+
+    /**
+     * Set the bits of the mask in cell {@code i}
+     *
+     * @return {@code true} if any bit was not set before
+     */
+    final boolean or(int i, long mask) {
+        for (;;) {
+            long cur = get(i);
+            long update = cur | mask;
+            if (update == cur) {
+                return false;
+            }
+            if (compareAndSet(i, cur, update)) {
+                return true;
+            }
+        }
+    }
+
+    final void write(ByteBuffer buffer) {
+        for (int i = 0, n = length(); i < n; ++i) {
+            buffer.putLong(get(i));
+        }
+    }
+
+    final LongCells read(ByteBuffer buffer) {
+        for (int i = 0, n = length(); i < n; ++i) {
+            set(i, buffer.getLong());
+        }
+        return this;
+    }
+
+    static LongCells of(int length, boolean concurrent) {
+        return concurrent ? new Atomic(length) : new Plain(length);
+    }
+
+    private static final class Plain extends LongCells {
+        private final long[] cells;
+
+        Plain(int length) {
+            cells = new long[length];
+        }
+
+        @Override
+        int length() {
+            return cells.length;
+        }
+
+        @Override
+        long get(int i) {
+            return cells[i];
+        }
+
+        @Override
+        void set(int i, long value) {
+            cells[i] = value;
+        }
+
+        @Override
+        boolean compareAndSet(int i, long expect, long update) {
+            if (cells[i] != expect) {
+                return false;
+            }
+            cells[i] = update;
+            return true;
+        }
+
+        @Override
+        long addAndGet(int i, long delta) {
+            return cells[i] += delta;
+        }
+
+        @Override
+        boolean isConcurrent() {
+            return false;
+        }
+    }
+
+    private static final class Atomic extends LongCells {
+        private final AtomicLongArray cells;
+
+        Atomic(int length) {
+            cells = new AtomicLongArray(length);
+        }
+
+        @Override
+        int length() {
+            return cells.length();
+        }
+
+        @Override
+        long get(int i) {
+            return cells.get(i);
+        }
+
+        @Override
+        void set(int i, long value) {
+            cells.set(i, value);
+        }
+
+        @Override
+        boolean compareAndSet(int i, long expect, long update) {
+            return cells.compareAndSet(i, expect, update);
+        }
+
+        @Override
+        long addAndGet(int i, long delta) {
+            return cells.addAndGet(i, delta);
+        }
+
+        @Override
+        boolean isConcurrent() {
+            return true;
+        }
+    }
+}
@@ -64,6 +64,46 @@ class MappedList<T, R> extends ReadOnlyListBase<R> implements C.List<R> {
         return m_.apply(t);
     }
 
+    @Override
+    protected void forEachLeft(int from, int to, final $.Function<? super R, ?> visitor) throws $.Break {
+        forEachLeft(l_, from, to, new $.Visitor<T>() {
+            @Override
+            public void visit(T t) throws $.Break {
+                visitor.apply(m_.apply(t));
+            }
+        });
+    }
+
+    @Override
+    protected void forEachRight(int from, int to, final $.Function<? super R, ?> visitor) throws $.Break {
+        forEachRight(l_, from, to, new $.Visitor<T>() {
+            @Override
+            public void visit(T t) throws $.Break {
+                visitor.apply(m_.apply(t));
+            }
+        });
+    }
+
+    @Override
+    protected boolean forEachLeftWhile(int from, int to, final $.Function<? super R, Boolean> visitor) {
+        return forEachLeftWhile(l_, from, to, new $.F1<T, Boolean>() {
+            @Override
+            public Boolean apply(T t) {
+                return visitor.apply(m_.apply(t));
+            }
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void copyTo(int from, int to, Object[] dest, int destPos) {
+        copyTo(l_, from, to, dest, destPos);
+        $.Function<? super T, ? extends R> mapper = m_;
+        for (int i = destPos, j = destPos + to - from; i < j; ++i) {
+            dest[i] = mapper.apply((T) dest[i]);
+        }
+    }
+
     public static <T, R> MappedList<T, R>
     of(C.List<? extends T> data, $.Function<? super T, ? extends R> mapper) {
         return new MappedList<T, R>(data, mapper);
@@ -0,0 +1,235 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import org.osgl.$;
+
+import java.util.Formattable;
+import java.util.MissingFormatArgumentException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A message template compiled from a {@link String#format(String, Object...)}
+ * format string.
+ *
+ * <p>The format string is parsed once into an array of segments: literal
+ * text, plain {@code %s} conversions and other conversion specifiers.
+ * Rendering appends the literal text and the {@code %s} arguments straight
+ * into an {@link S.Buffer}. Other specifiers, e.g. {@code %5d} or
+ * {@code %.2f}, are formatted one at a time with {@link String#format(String, Object...)}.
+ * Format strings with explicit argument indices, e.g. {@code %1$s} or
+ * {@code %<s}, are rendered with {@code String.format} as a whole.</p>
+ *
+ * <p>{@link #of(String)} caches compiled templates in a bounded table
+ * shared by all threads.</p>
+ */
+public final class MessageTemplate {
+
+    private static final byte LITERAL = 0;
+    private static final byte STRING = 1;
+    private static final byte SPEC = 2;
+
+    private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+
+    // direct mapped cache of compiled templates
+    private static final AtomicReferenceArray<MessageTemplate> CACHE = new AtomicReferenceArray<MessageTemplate>(1 << 10);
+
+    private final String source;
+
+    // literal text of a LITERAL segment, or the specifier of a SPEC segment
+    private final String[] texts;
+    private final byte[] kinds;
+
+    // true if the template is rendered with String.format as a whole
+    private final boolean fallback;
+
+    private MessageTemplate(String source, String[] texts, byte[] kinds, boolean fallback) {
+        this.source = source;
+        this.texts = texts;
+        this.kinds = kinds;
+        this.fallback = fallback;
+    }
+
+    /**
+     * Render the template with the arguments specified
+     *
+     * @param args the arguments
+     * @return the rendered message, same as {@code String.format(template, args)}
+     */
+    public String render(Object... args) {
+        if (fallback) {
+            return String.format(source, args);
+        }
+        if (kinds.length == 1 && kinds[0] == LITERAL) {
+            return texts[0];
+        }
+        return appendTo(S.buffer(), args).toString();
+    }
+
+    /**
+     * Render the template with the arguments specified into a buffer
+     *
+     * @param buffer the buffer to which the message is appended
+     * @param args   the arguments
+     * @return the buffer
+     */
+    public S.Buffer appendTo(S.Buffer buffer, Object... args) {
+        if (fallback) {
+            return buffer.append(String.format(source, args));
+        }
+        String[] texts = this.texts;
+        byte[] kinds = this.kinds;
+        int argIdx = 0;
+        for (int i = 0, n = kinds.length; i < n; ++i) {
+            switch (kinds[i]) {
+                case LITERAL:
+                    buffer.append(texts[i]);
+                    break;
+                case STRING:
+                    if (argIdx >= args.length) {
+                        throw new MissingFormatArgumentException("%s");
+                    }
+                    Object arg = args[argIdx++];
+                    buffer.append(arg instanceof Formattable ? String.format("%s", arg) : String.valueOf(arg));
+                    break;
+                default:
+                    if (argIdx >= args.length) {
+                        throw new MissingFormatArgumentException(texts[i]);
+                    }
+                    buffer.append(String.format(texts[i], args[argIdx++]));
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Returns the format string of this template
+     *
+     * @return the format string
+     */
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    /**
+     * Returns the compiled template of a format string. Templates are cached
+     * and a cached template is returned if the same format string is
+     * compiled recently
+     *
+     * @param template the format string
+     * @return the compiled template
+     */
+    public static MessageTemplate of(String template) {
+        int slot = OpenHash.mix(template.hashCode()) & (CACHE.length() - 1);
+        MessageTemplate compiled = CACHE.get(slot);
+        if (null != compiled && template.equals(compiled.source)) {
+            return compiled;
+        }
+        compiled = compile(template);
+        CACHE.lazySet(slot, compiled);
+        return compiled;
+    }
+
+    /**
+     * Compile a format string into a template without caching it
+     *
+     * @param template the format string
+     * @return the compiled template
+     */
+    public static MessageTemplate compile(String template) {
+        int n = template.length();
+        C.List<String> texts = C.newList();
+        ListBuilder<Byte> kinds = ListBuilder.create();
+        S.Buffer literal = S.newBuffer();
+        int i = 0;
+        while (i < n) {
+            char c = template.charAt(i);
+            if (c != '%') {
+                literal.append(c);
+                i++;
+                continue;
+            }
+            int j = i + 1;
+            while (j < n && isSpecChar(template.charAt(j))) {
+                j++;
+            }
+            if (j < n && (template.charAt(j) == 't' || template.charAt(j) == 'T')) {
+                j++;
+            }
+            if (j >= n || !isConversion(template.charAt(j))) {
+                // invalid specifier, let String.format report it
+                return fallback(template);
+            }
+            String spec = template.substring(i, j + 1);
+            if (spec.indexOf('$') > 0 || spec.indexOf('<') > 0) {
+                return fallback(template);
+            }
+            char conversion = template.charAt(j);
+            if ("%s".equals(spec)) {
+                flush(literal, texts, kinds);
+                texts.add(null);
+                kinds.add(STRING);
+            } else if ("%%".equals(spec)) {
+                literal.append('%');
+            } else if ("%n".equals(spec)) {
+                literal.append(LINE_SEPARATOR);
+            } else if (conversion == '%' || conversion == 'n') {
+                literal.append(String.format(spec));
+            } else {
+                flush(literal, texts, kinds);
+                texts.add(spec);
+                kinds.add(SPEC);
+            }
+            i = j + 1;
+        }
+        flush(literal, texts, kinds);
+        if (texts.isEmpty()) {
+            texts.add("");
+            kinds.add(LITERAL);
+        }
+        return new MessageTemplate(template, texts.toArray(new String[texts.size()]),
+                $.asPrimitive(kinds.toArray(new Byte[kinds.size()])), false);
+    }
+
+    private static MessageTemplate fallback(String template) {
+        return new MessageTemplate(template, null, null, true);
+    }
+
+    private static void flush(S.Buffer literal, C.List<String> texts, ListBuilder<Byte> kinds) {
+        if (literal.length() > 0) {
+            texts.add(literal.toString());
+            kinds.add(LITERAL);
+            literal.setLength(0);
+        }
+    }
+
+    // flags, width, precision and argument index chars of a specifier
+    private static boolean isSpecChar(char c) {
+        return (c >= '0' && c <= '9') || "-#+ ,(<.$".indexOf(c) >= 0;
+    }
+
+    private static boolean isConversion(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '%';
+    }
+
+}
@@ -738,7 +738,7 @@ abstract class Nil<T> extends SequenceBase<T> implements C.Traversable<T>, Colle
         private static final EmptySet<?> INSTANCE = new EmptySet();
 
         private EmptySet() {
-            super(Collections.EMPTY_SET);
+            super(new Object[0], null);
         }
 
         @SuppressWarnings("unchecked")
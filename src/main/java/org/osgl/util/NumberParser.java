@@ -0,0 +1,440 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+/**
+ * Parses {@code int}, {@code long} and {@code double} values directly out of
+ * a range of a {@link CharSequence}, a {@code char[]} or an ASCII encoded
+ * {@code byte[]}, without creating a substring and without boxing.
+ *
+ * <p>A malformed input does not raise an exception: the parse method returns
+ * {@code 0} and the parser records an {@link Error} together with the index
+ * of the offending char, which could be checked with {@link #failed()},
+ * {@link #error()} and {@link #errorIndex()}. The state is reset by every
+ * parse call, thus a parser instance could be reused for any number of
+ * values, but it must not be shared between threads.</p>
+ *
+ * <pre>
+ *     NumberParser parser = new NumberParser();
+ *     for (FastStr cell : Tokenizer.of(line, ',')) {
+ *         long l = parser.parseLong(cell);
+ *         if (parser.failed()) {
+ *             ...
+ *         }
+ *     }
+ * </pre>
+ *
+ * <p>Integers are accepted in the form of an optional {@code +} or {@code -}
+ * sign followed by decimal digits. Doubles are accepted in the form of an
+ * optional sign, decimal digits with an optional decimal point, and an
+ * optional exponent, e.g. {@code -12.5e-3}, or as {@code NaN} or
+ * {@code Infinity} with an optional sign. Leading and trailing whitespaces
+ * are not accepted.</p>
+ */
+public final class NumberParser {
+
+    /**
+     * Reports the result of the last parse call
+     */
+    public enum Error {
+        /**
+         * the last parse succeeded
+         */
+        NONE,
+        /**
+         * the range is empty or contains only a sign
+         */
+        EMPTY,
+        /**
+         * the range contains a char not allowed at the position
+         */
+        INVALID_CHAR,
+        /**
+         * the value does not fit into the target type
+         */
+        OVERFLOW
+    }
+
+    // The decimal digits that a double's 53 bits significand holds exactly
+    private static final int EXACT_DIGITS = 15;
+
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20,
+            1e21, 1e22
+    };
+
+    private Error error = Error.NONE;
+    private int errorIndex = -1;
+
+    // exactly one of the source fields is set during a parse call
+    private CharSequence seq;
+    private char[] chars;
+    private byte[] bytes;
+
+    /**
+     * Returns {@code true} if the last parse call failed
+     *
+     * @return whether the last parse call failed
+     */
+    public boolean failed() {
+        return error != Error.NONE;
+    }
+
+    /**
+     * Returns the error of the last parse call, or {@link Error#NONE}
+     * if it succeeded
+     *
+     * @return the error of the last parse call
+     */
+    public Error error() {
+        return error;
+    }
+
+    /**
+     * Returns the index, in the source, of the char that caused the last
+     * parse call to fail, or {@code -1} if it succeeded
+     *
+     * @return the index of the offending char
+     */
+    public int errorIndex() {
+        return errorIndex;
+    }
+
+    public int parseInt(CharSequence s) {
+        return parseInt(s, 0, s.length());
+    }
+
+    /**
+     * Parses the chars of {@code s} from {@code from} (inclusive) to
+     * {@code to} (exclusive) as a decimal {@code int}
+     *
+     * @param s the source
+     * @param from the start index
+     * @param to the end index
+     * @return the value parsed, or {@code 0} if failed
+     */
+    public int parseInt(CharSequence s, int from, int to) {
+        checkRange(from, to, s.length());
+        seq = s;
+        try {
+            return (int) parseIntegral(from, to, Integer.MIN_VALUE);
+        } finally {
+            seq = null;
+        }
+    }
+
+    public int parseInt(char[] buf, int from, int to) {
+        checkRange(from, to, buf.length);
+        chars = buf;
+        try {
+            return (int) parseIntegral(from, to, Integer.MIN_VALUE);
+        } finally {
+            chars = null;
+        }
+    }
+
+    public int parseInt(byte[] buf, int from, int to) {
+        checkRange(from, to, buf.length);
+        bytes = buf;
+        try {
+            return (int) parseIntegral(from, to, Integer.MIN_VALUE);
+        } finally {
+            bytes = null;
+        }
+    }
+
+    public long parseLong(CharSequence s) {
+        return parseLong(s, 0, s.length());
+    }
+
+    /**
+     * Parses the chars of {@code s} from {@code from} (inclusive) to
+     * {@code to} (exclusive) as a decimal {@code long}
+     *
+     * @param s the source
+     * @param from the start index
+     * @param to the end index
+     * @return the value parsed, or {@code 0} if failed
+     */
+    public long parseLong(CharSequence s, int from, int to) {
+        checkRange(from, to, s.length());
+        seq = s;
+        try {
+            return parseIntegral(from, to, Long.MIN_VALUE);
+        } finally {
+            seq = null;
+        }
+    }
+
+    public long parseLong(char[] buf, int from, int to) {
+        checkRange(from, to, buf.length);
+        chars = buf;
+        try {
+            return parseIntegral(from, to, Long.MIN_VALUE);
+        } finally {
+            chars = null;
+        }
+    }
+
+    public long parseLong(byte[] buf, int from, int to) {
+        checkRange(from, to, buf.length);
+        bytes = buf;
+        try {
+            return parseIntegral(from, to, Long.MIN_VALUE);
+        } finally {
+            bytes = null;
+        }
+    }
+
+    public double parseDouble(CharSequence s) {
+        return parseDouble(s, 0, s.length());
+    }
+
+    /**
+     * Parses the chars of {@code s} from {@code from} (inclusive) to
+     * {@code to} (exclusive) as a {@code double}.
+     *
+     * <p>Values with up to 15 significant digits and a decimal exponent
+     * within {@code [-22, 22]}, which covers most of the numbers found in
+     * logs and CSV files, are converted without allocation. Other values
+     * are delegated to {@link Double#parseDouble(String)} after they have
+     * been validated, so the result is always correctly rounded.</p>
+     *
+     * @param s the source
+     * @param from the start index
+     * @param to the end index
+     * @return the value parsed, or {@code 0} if failed
+     */
+    public double parseDouble(CharSequence s, int from, int to) {
+        checkRange(from, to, s.length());
+        seq = s;
+        try {
+            return parseFloating(from, to);
+        } finally {
+            seq = null;
+        }
+    }
+
+    public double parseDouble(char[] buf, int from, int to) {
+        checkRange(from, to, buf.length);
+        chars = buf;
+        try {
+            return parseFloating(from, to);
+        } finally {
+            chars = null;
+        }
+    }
+
+    public double parseDouble(byte[] buf, int from, int to) {
+        checkRange(from, to, buf.length);
+        bytes = buf;
+        try {
+            return parseFloating(from, to);
+        } finally {
+            bytes = null;
+        }
+    }
+
+    private char at(int i) {
+        if (null != chars) {
+            return chars[i];
+        }
+        if (null != bytes) {
+            return (char) (bytes[i] & 0xFF);
+        }
+        return seq.charAt(i);
+    }
+
+    private String string(int from, int to) {
+        if (null != chars) {
+            return new String(chars, from, to - from);
+        }
+        if (null != bytes) {
+            return new String(bytes, from, to - from, Charsets.ISO_8859_1);
+        }
+        return seq.subSequence(from, to).toString();
+    }
+
+    private void reset() {
+        error = Error.NONE;
+        errorIndex = -1;
+    }
+
+    private long fail(Error error, int index) {
+        this.error = error;
+        this.errorIndex = index;
+        return 0L;
+    }
+
+    /*
+     * Accumulates the value negatively so that the magnitude of min
+     * does not overflow, see Long.parseLong
+     */
+    private long parseIntegral(int from, int to, long min) {
+        reset();
+        if (from == to) {
+            return fail(Error.EMPTY, from);
+        }
+        int i = from;
+        boolean negative = false;
+        char c = at(i);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            if (++i == to) {
+                return fail(Error.EMPTY, from);
+            }
+        }
+        long limit = negative ? min : min + 1;
+        long multmin = limit / 10;
+        long result = 0;
+        for (; i < to; ++i) {
+            int digit = at(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return fail(Error.INVALID_CHAR, i);
+            }
+            if (result < multmin) {
+                return fail(Error.OVERFLOW, i);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return fail(Error.OVERFLOW, i);
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    private double parseFloating(int from, int to) {
+        reset();
+        if (from == to) {
+            return fail(Error.EMPTY, from);
+        }
+        int i = from;
+        boolean negative = false;
+        char c = at(i);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            if (++i == to) {
+                return fail(Error.EMPTY, from);
+            }
+            c = at(i);
+        }
+        if (c == 'N' || c == 'I') {
+            String literal = c == 'N' ? "NaN" : "Infinity";
+            int len = literal.length();
+            for (int j = 0; j < len; ++j) {
+                if (i + j == to || at(i + j) != literal.charAt(j)) {
+                    return fail(Error.INVALID_CHAR, i + j);
+                }
+            }
+            if (i + len < to) {
+                return fail(Error.INVALID_CHAR, i + len);
+            }
+            if (c == 'N') {
+                return Double.NaN;
+            }
+            return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        }
+        long mantissa = 0;
+        int digits = 0; // significant digits in mantissa
+        int exp10 = 0;
+        boolean truncated = false;
+        boolean seenDigit = false;
+        boolean seenPoint = false;
+        for (; i < to; ++i) {
+            c = at(i);
+            if (c >= '0' && c <= '9') {
+                seenDigit = true;
+                if (digits < 18) {
+                    if (digits > 0 || c != '0') {
+                        mantissa = mantissa * 10 + (c - '0');
+                        digits++;
+                    }
+                    if (seenPoint) {
+                        exp10--;
+                    }
+                } else {
+                    truncated |= c != '0';
+                    if (!seenPoint) {
+                        exp10++;
+                    }
+                }
+            } else if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                break;
+            }
+        }
+        if (!seenDigit) {
+            return fail(Error.INVALID_CHAR, i == to ? to - 1 : i);
+        }
+        if (i < to) {
+            if (c != 'e' && c != 'E') {
+                return fail(Error.INVALID_CHAR, i);
+            }
+            if (++i == to) {
+                return fail(Error.INVALID_CHAR, i);
+            }
+            c = at(i);
+            boolean negativeExp = false;
+            if (c == '-' || c == '+') {
+                negativeExp = c == '-';
+                if (++i == to) {
+                    return fail(Error.INVALID_CHAR, i);
+                }
+            }
+            int exp = 0;
+            for (; i < to; ++i) {
+                int digit = at(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    return fail(Error.INVALID_CHAR, i);
+                }
+                if (exp < 100000) {
+                    exp = exp * 10 + digit;
+                }
+            }
+            exp10 += negativeExp ? -exp : exp;
+        }
+        if (mantissa == 0) {
+            return negative ? -0.0d : 0.0d;
+        }
+        if (!truncated && digits <= EXACT_DIGITS && exp10 >= -22 && exp10 <= 22) {
+            // both operands are exact, so is the correctly rounded single operation
+            double d = (double) mantissa;
+            d = exp10 < 0 ? d / POW10[-exp10] : d * POW10[exp10];
+            return negative ? -d : d;
+        }
+        double d = Double.parseDouble(string(from, to));
+        if (Double.isInfinite(d)) {
+            return fail(Error.OVERFLOW, from);
+        }
+        return d;
+    }
+
+    private static void checkRange(int from, int to, int len) {
+        if (from < 0 || to > len || from > to) {
+            throw E.invalidRange("invalid range [%s, %s) of length %s", from, to, len);
+        }
+    }
+
+}
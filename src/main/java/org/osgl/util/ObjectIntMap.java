@@ -0,0 +1,468 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import org.osgl.$;
+import org.osgl.exception.NotAppliedException;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * A map from object keys to primitive {@code int} values.
+ *
+ * <p>Keys and values are stored in two parallel arrays and collisions
+ * are resolved with linear probing. Values are never boxed and no entry
+ * object is allocated on {@link #put(Object, int) put}. Iteration via
+ * {@link #forEach(Visitor)} or {@link #cursor()} does not allocate
+ * per entry either.</p>
+ *
+ * <p>{@code null} key is not supported. The map is not thread safe.
+ * Modifying the map while iterating through it leads to undefined
+ * behavior.</p>
+ *
+ * @param <K> the key type
+ */
+public class ObjectIntMap<K> implements Serializable {
+
+    /**
+     * Visit an {@code (key, int)} entry of an {@link ObjectIntMap}
+     *
+     * @param <K> the key type
+     */
+    public interface Visitor<K> {
+        void visit(K key, int value) throws NotAppliedException;
+    }
+
+    /**
+     * Iterate through entries of an {@link ObjectIntMap}. Call {@link #next()}
+     * to move to the next entry and then read the key/value of the current
+     * entry with {@link #key()} and {@link #value()}
+     *
+     * @param <K> the key type
+     */
+    public static final class Cursor<K> {
+        private final ObjectIntMap<K> map;
+        private int pos;
+        private K key;
+        private int value;
+
+        private Cursor(ObjectIntMap<K> map) {
+            this.map = map;
+        }
+
+        /**
+         * Move to the next entry
+         *
+         * @return {@code true} if there is an entry, or {@code false} if
+         *         all entries have been iterated
+         */
+        @SuppressWarnings("unchecked")
+        public boolean next() {
+            Object[] keys = map.keys;
+            for (int i = pos, n = keys.length; i < n; ++i) {
+                Object k = keys[i];
+                if (null != k) {
+                    pos = i + 1;
+                    key = (K) k;
+                    value = map.values[i];
+                    return true;
+                }
+            }
+            pos = keys.length;
+            key = null;
+            return false;
+        }
+
+        public K key() {
+            return key;
+        }
+
+        public int value() {
+            return value;
+        }
+    }
+
+    // slots depend on key hash codes, which may differ between JVMs,
+    // thus the table is serialized as key/value pairs
+    private transient Object[] keys;
+    private transient int[] values;
+    private transient int mask;
+    private int size;
+    private transient int maxFill;
+    private final float loadFactor;
+
+    public ObjectIntMap() {
+        this(OpenHash.DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Construct a map that can hold {@code expectedSize} entries
+     * without rehashing
+     *
+     * @param expectedSize the number of entries expected
+     */
+    public ObjectIntMap(int expectedSize) {
+        this(expectedSize, OpenHash.DEFAULT_LOAD_FACTOR);
+    }
+
+    public ObjectIntMap(int expectedSize, float loadFactor) {
+        E.illegalArgumentIf(loadFactor <= 0 || loadFactor >= 1, "load factor shall be in (0, 1): %s", loadFactor);
+        this.loadFactor = loadFactor;
+        allocate(OpenHash.capacity(expectedSize, loadFactor));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return 0 == size;
+    }
+
+    public boolean containsKey(Object key) {
+        return null != key && slot(key) >= 0;
+    }
+
+    /**
+     * Returns the value mapped to the key, or {@code 0} if
+     * the key is not found
+     *
+     * @param key the key
+     * @return the value mapped to the key
+     */
+    public int get(Object key) {
+        return get(key, 0);
+    }
+
+    /**
+     * Returns the value mapped to the key, or the default value
+     * specified if the key is not found
+     *
+     * @param key the key
+     * @param defaultValue the value returned when key not found
+     * @return the value mapped to the key or the default value
+     */
+    public int get(Object key, int defaultValue) {
+        if (null == key) {
+            return defaultValue;
+        }
+        int pos = slot(key);
+        return pos < 0 ? defaultValue : values[pos];
+    }
+
+    /**
+     * Map the value to the key
+     *
+     * @param key the key
+     * @param value the value
+     * @return the value previously mapped to the key or {@code 0}
+     */
+    public int put(K key, int value) {
+        E.NPE(key);
+        int pos = insertionSlot(key);
+        if (pos < 0) {
+            pos = -pos - 1;
+            int old = values[pos];
+            values[pos] = value;
+            return old;
+        }
+        keys[pos] = key;
+        values[pos] = value;
+        if (++size >= maxFill) {
+            rehash(keys.length << 1);
+        }
+        return 0;
+    }
+
+    /**
+     * Add {@code delta} to the value mapped to the key. If the key
+     * is not found then {@code delta} is mapped to the key
+     *
+     * @param key the key
+     * @param delta the number to be added
+     * @return the value mapped to the key after the addition
+     */
+    public int addTo(K key, int delta) {
+        E.NPE(key);
+        int pos = insertionSlot(key);
+        if (pos < 0) {
+            return values[-pos - 1] += delta;
+        }
+        keys[pos] = key;
+        values[pos] = delta;
+        if (++size >= maxFill) {
+            rehash(keys.length << 1);
+        }
+        return delta;
+    }
+
+    /**
+     * Remove the mapping of the key
+     *
+     * @param key the key
+     * @return the value previously mapped to the key or {@code 0}
+     */
+    public int remove(Object key) {
+        if (null == key) {
+            return 0;
+        }
+        int pos = slot(key);
+        if (pos < 0) {
+            return 0;
+        }
+        int old = values[pos];
+        size--;
+        shiftKeys(pos);
+        return old;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(values, 0);
+        size = 0;
+    }
+
+    /**
+     * Returns a {@link Cursor} to iterate through the entries of this map
+     *
+     * @return a cursor of this map
+     */
+    public Cursor<K> cursor() {
+        return new Cursor<K>(this);
+    }
+
+    /**
+     * Loop through this map on each key/value pair, apply them to the visitor specified
+     *
+     * @param visitor the function that takes argument of (key, value) pair
+     * @return this map
+     */
+    @SuppressWarnings("unchecked")
+    public ObjectIntMap<K> forEach(Visitor<? super K> visitor) {
+        Object[] keys = this.keys;
+        int[] values = this.values;
+        for (int i = 0, n = keys.length; i < n; ++i) {
+            Object k = keys[i];
+            if (null != k) {
+                try {
+                    visitor.visit((K) k, values[i]);
+                } catch (NotAppliedException e) {
+                    // ignore
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Alias of {@link #forEach(Visitor)}
+     *
+     * @param visitor the visitor that can be applied on Key/Value pair stored in this Map
+     * @return this map
+     */
+    public ObjectIntMap<K> each(Visitor<? super K> visitor) {
+        return forEach(visitor);
+    }
+
+    /**
+     * Alias of {@link #forEach(Visitor)}
+     *
+     * @param visitor the visitor that can be applied on Key/Value pair stored in this Map
+     * @return this map
+     */
+    public ObjectIntMap<K> accept(Visitor<? super K> visitor) {
+        return forEach(visitor);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 0;
+        Object[] keys = this.keys;
+        int[] values = this.values;
+        for (int i = 0, n = keys.length; i < n; ++i) {
+            Object k = keys[i];
+            if (null != k) {
+                h += k.hashCode() ^ values[i];
+            }
+        }
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof ObjectIntMap)) {
+            return false;
+        }
+        ObjectIntMap<?> that = (ObjectIntMap<?>) obj;
+        if (that.size != size) {
+            return false;
+        }
+        Object[] keys = this.keys;
+        int[] values = this.values;
+        for (int i = 0, n = keys.length; i < n; ++i) {
+            Object k = keys[i];
+            if (null != k) {
+                int pos = that.slot(k);
+                if (pos < 0 || values[i] != that.values[pos]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = S.builder("{");
+        forEach(new Visitor<K>() {
+            @Override
+            public void visit(K key, int value) {
+                if (sb.length() > 1) {
+                    sb.append(", ");
+                }
+                sb.append(key).append("=").append(value);
+            }
+        });
+        return sb.append("}").toString();
+    }
+
+    private int slot(Object key) {
+        Object[] keys = this.keys;
+        int mask = this.mask;
+        int pos = OpenHash.mix(key.hashCode()) & mask;
+        Object k;
+        while (null != (k = keys[pos])) {
+            if ($.eq(k, key)) {
+                return pos;
+            }
+            pos = (pos + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the free slot where the key shall be inserted, or
+     * {@code -(pos + 1)} if the key is found at {@code pos}
+     */
+    private int insertionSlot(Object key) {
+        Object[] keys = this.keys;
+        int mask = this.mask;
+        int pos = OpenHash.mix(key.hashCode()) & mask;
+        Object k;
+        while (null != (k = keys[pos])) {
+            if ($.eq(k, key)) {
+                return -pos - 1;
+            }
+            pos = (pos + 1) & mask;
+        }
+        return pos;
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        maxFill = OpenHash.maxFill(capacity, loadFactor);
+    }
+
+    private void rehash(int capacity) {
+        Object[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        Object[] keys = this.keys;
+        int[] values = this.values;
+        int mask = this.mask;
+        for (int i = oldKeys.length - 1; i >= 0; --i) {
+            Object k = oldKeys[i];
+            if (null != k) {
+                int pos = OpenHash.mix(k.hashCode()) & mask;
+                while (null != keys[pos]) {
+                    pos = (pos + 1) & mask;
+                }
+                keys[pos] = k;
+                values[pos] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Close the gap left at {@code pos} by shifting back the entries
+     * in the same probe chain, so no tombstone is needed
+     */
+    private void shiftKeys(int pos) {
+        Object[] keys = this.keys;
+        int[] values = this.values;
+        int mask = this.mask;
+        int last, slot;
+        Object k;
+        for (;;) {
+            pos = ((last = pos) + 1) & mask;
+            for (;;) {
+                if (null == (k = keys[pos])) {
+                    keys[last] = null;
+                    values[last] = 0;
+                    return;
+                }
+                slot = OpenHash.mix(k.hashCode()) & mask;
+                if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) {
+                    break;
+                }
+                pos = (pos + 1) & mask;
+            }
+            keys[last] = k;
+            values[last] = values[pos];
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        Object[] keys = this.keys;
+        int[] values = this.values;
+        for (int i = 0, n = keys.length; i < n; ++i) {
+            Object k = keys[i];
+            if (null != k) {
+                out.writeObject(k);
+                out.writeInt(values[i]);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int n = size;
+        size = 0;
+        allocate(OpenHash.capacity(n, loadFactor));
+        for (int i = 0; i < n; ++i) {
+            put((K) in.readObject(), in.readInt());
+        }
+    }
+
+    private static final long serialVersionUID = 7419356307615024719L;
+}
@@ -0,0 +1,298 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.$;
+
+/**
+ * Helper functions shared by the open addressing hash structures,
+ * e.g. {@link IntMap}, {@link LongMap}, {@link ObjectIntMap},
+ * {@link IntIntMap}, {@link ImmutableSet} and {@link ImmutableMap}.
+ *
+ * <p>Tables are power of two sized and use linear probing. The hash
+ * of a key is scrambled with {@link #mix(int)} before it is masked
+ * to a slot index so that keys with regular patterns (e.g. sequential
+ * IDs) are spread across the table.</p>
+ *
+ * <p>{@link #hash64(Object)} provides the 64 bit hash used by the
+ * probabilistic structures, e.g. {@link BloomFilter}.</p>
+ */
+enum OpenHash {
+    ;
+
+    /**
+     * Immutable structures with no more entries than this number do not
+     * build a hash index and look up keys with linear scan instead
+     */
+    static final int LINEAR_SCAN_THRESHOLD = 8;
+
+    static final float DEFAULT_LOAD_FACTOR = .75f;
+
+    static final int DEFAULT_EXPECTED_SIZE = 16;
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private static final int INT_PHI = 0x9E3779B9;
+
+    private static final long LONG_PHI = 0x9E3779B97F4A7C15L;
+
+    static int hash(Object o) {
+        return null == o ? 0 : mix(o.hashCode());
+    }
+
+    static int mix(int x) {
+        int h = x * INT_PHI;
+        return h ^ (h >>> 16);
+    }
+
+    static int mix(long x) {
+        long h = x * LONG_PHI;
+        h ^= (h >>> 32);
+        return (int) (h ^ (h >>> 16));
+    }
+
+    /**
+     * The 64 bit finalizer of MurmurHash3. Every bit of the input affects
+     * every bit of the output
+     *
+     * @param x the value to be mixed
+     * @return the mixed value
+     */
+    static long mix64(long x) {
+        x = (x ^ (x >>> 33)) * 0xFF51AFD7ED558CCDL;
+        x = (x ^ (x >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return x ^ (x >>> 33);
+    }
+
+    /**
+     * Returns a 64 bit hash of an object. Char sequences, byte arrays
+     * and integral numbers are hashed on their content with 64 bits of
+     * state, other objects are hashed on their {@link Object#hashCode()}
+     *
+     * @param o the object
+     * @return the 64 bit hash
+     */
+    static long hash64(Object o) {
+        if (null == o) {
+            return 0L;
+        }
+        if (o instanceof CharSequence) {
+            return hash64((CharSequence) o);
+        }
+        if (o instanceof byte[]) {
+            return hash64((byte[]) o);
+        }
+        if (o instanceof Long || o instanceof Integer || o instanceof Short || o instanceof Byte) {
+            return mix64(((Number) o).longValue() * LONG_PHI);
+        }
+        if (o instanceof Double) {
+            return mix64(Double.doubleToLongBits((Double) o) * LONG_PHI);
+        }
+        return mix64(o.hashCode() * LONG_PHI);
+    }
+
+    static long hash64(CharSequence s) {
+        int len = s.length();
+        long h = LONG_PHI ^ len;
+        int i = 0;
+        for (int n = len - 3; i < n; i += 4) {
+            long w = s.charAt(i) | (long) s.charAt(i + 1) << 16 | (long) s.charAt(i + 2) << 32 | (long) s.charAt(i + 3) << 48;
+            h = Long.rotateLeft(h ^ mix64(w), 27) * 5 + 0x52DCE729;
+        }
+        long w = 0;
+        for (int shift = 0; i < len; ++i, shift += 16) {
+            w |= (long) s.charAt(i) << shift;
+        }
+        return mix64(h ^ mix64(w));
+    }
+
+    static long hash64(byte[] a) {
+        int len = a.length;
+        long h = LONG_PHI ^ len;
+        int i = 0;
+        for (int n = len - 7; i < n; i += 8) {
+            long w = 0;
+            for (int j = 0; j < 8; ++j) {
+                w |= (a[i + j] & 0xFFL) << (j << 3);
+            }
+            h = Long.rotateLeft(h ^ mix64(w), 27) * 5 + 0x52DCE729;
+        }
+        long w = 0;
+        for (int shift = 0; i < len; ++i, shift += 8) {
+            w |= (a[i] & 0xFFL) << shift;
+        }
+        return mix64(h ^ mix64(w));
+    }
+
+    /**
+     * Returns the table capacity needed to hold {@code expectedSize}
+     * entries without exceeding the load factor
+     *
+     * @param expectedSize the number of entries expected
+     * @param loadFactor the load factor
+     * @return a power of two capacity
+     */
+    static int capacity(int expectedSize, float loadFactor) {
+        E.illegalArgumentIf(expectedSize < 0, "expected size shall not be negative: %s", expectedSize);
+        long needed = (long) Math.ceil(expectedSize / loadFactor);
+        if (needed > MAX_CAPACITY) {
+            return MAX_CAPACITY;
+        }
+        int n = Math.max(4, (int) needed);
+        return Integer.highestOneBit(n - 1) << 1;
+    }
+
+    /**
+     * Returns the maximum number of entries a table of capacity
+     * {@code n} can hold before it needs to be rehashed
+     *
+     * @param n the table capacity
+     * @param loadFactor the load factor
+     * @return the max fill of the table
+     */
+    static int maxFill(int n, float loadFactor) {
+        return Math.min((int) Math.ceil(n * loadFactor), n - 1);
+    }
+
+    /**
+     * Build the hash index for an immutable structure.
+     *
+     * <p>The first {@code n} entries of {@code data} are stored in a flat
+     * layout, each of which occupies {@code stride} slots with the key at
+     * the first slot. E.g. a set use stride {@code 1} and a map use stride
+     * {@code 2} with keys and values interleaved.</p>
+     *
+     * <p>Entries with duplicate keys are removed in place. The first occurrence
+     * keeps its position while the rest of the entry slots, e.g. the value
+     * of a map, are taken from the last occurrence.</p>
+     *
+     * @param data the flat entry array
+     * @param stride the number of slots per entry
+     * @param n the number of entries
+     * @param index the hash index to be filled in, or {@code null} if
+     *              lookup shall use linear scan
+     * @return the number of distinct entries
+     */
+    static int dedup(Object[] data, int stride, int n, int[] index) {
+        int unique = 0;
+        for (int i = 0; i < n; ++i) {
+            int from = i * stride;
+            Object key = data[from];
+            int found = null == index ? scan(data, stride, unique, key) : probe(data, stride, index, key, unique);
+            if (found < 0) {
+                if (unique != i) {
+                    System.arraycopy(data, from, data, unique * stride, stride);
+                }
+                unique++;
+            } else if (stride > 1) {
+                System.arraycopy(data, from + 1, data, found * stride + 1, stride - 1);
+            }
+        }
+        return unique;
+    }
+
+    /**
+     * Find the entry position of the key in an immutable structure built
+     * with {@link #dedup(Object[], int, int, int[])}
+     *
+     * @param data the flat entry array
+     * @param stride the number of slots per entry
+     * @param n the number of entries
+     * @param index the hash index or {@code null}
+     * @param key the key to be found
+     * @return the entry position or {@code -1} if not found
+     */
+    static int find(Object[] data, int stride, int n, int[] index, Object key) {
+        if (null == index) {
+            return scan(data, stride, n, key);
+        }
+        int mask = index.length - 1;
+        int pos = hash(key) & mask;
+        int j;
+        while (0 != (j = index[pos])) {
+            if ($.eq(key, data[(j - 1) * stride])) {
+                return j - 1;
+            }
+            pos = (pos + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the hash index for {@code n} entries, or {@code null} if
+     * entries shall be looked up with linear scan
+     *
+     * @param n the number of entries
+     * @return the index array
+     */
+    static int[] newIndex(int n) {
+        return n <= LINEAR_SCAN_THRESHOLD ? null : new int[capacity(n, DEFAULT_LOAD_FACTOR)];
+    }
+
+    /**
+     * Rebuild the hash index of {@code n} distinct entries, e.g. after
+     * deserialization where the hash codes of the keys might differ from
+     * those the index was built with
+     *
+     * @param data the flat entry array
+     * @param stride the number of slots per entry
+     * @param n the number of entries
+     * @return the index array or {@code null} if entries shall be looked up
+     *         with linear scan
+     */
+    static int[] rebuildIndex(Object[] data, int stride, int n) {
+        int[] index = newIndex(n);
+        if (null != index) {
+            for (int i = 0; i < n; ++i) {
+                probe(data, stride, index, data[i * stride], i);
+            }
+        }
+        return index;
+    }
+
+    private static int scan(Object[] data, int stride, int n, Object key) {
+        for (int i = 0, end = n * stride; i < end; i += stride) {
+            if ($.eq(key, data[i])) {
+                return i / stride;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Find the key in the index, or record the entry position {@code next}
+     * in the free slot where the key shall be inserted
+     */
+    private static int probe(Object[] data, int stride, int[] index, Object key, int next) {
+        int mask = index.length - 1;
+        int pos = hash(key) & mask;
+        int j;
+        while (0 != (j = index[pos])) {
+            if ($.eq(key, data[(j - 1) * stride])) {
+                return j - 1;
+            }
+            pos = (pos + 1) & mask;
+        }
+        index[pos] = next + 1;
+        return -1;
+    }
+
+}
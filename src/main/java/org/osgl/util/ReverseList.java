@@ -21,6 +21,7 @@ package org.osgl.util;
  */
 
 import org.osgl.$;
+import org.osgl.exception.NotAppliedException;
 
 import java.util.EnumSet;
 import java.util.Iterator;
@@ -72,6 +73,57 @@ class ReverseList<T> extends DelegatingList<T> implements C.List<T> {
         data().acceptLeft(visitor);
     }
 
+    @Override
+    protected void forEachLeft(int from, int to, $.Function<? super T, ?> visitor) throws $.Break {
+        int sz = size();
+        forEachRight(data, sz - to, sz - from, visitor);
+    }
+
+    @Override
+    protected void forEachRight(int from, int to, $.Function<? super T, ?> visitor) throws $.Break {
+        int sz = size();
+        forEachLeft(data, sz - to, sz - from, visitor);
+    }
+
+    @Override
+    protected boolean forEachLeftWhile(int from, int to, $.Function<? super T, Boolean> visitor) {
+        int sz = size();
+        if (is(C.Feature.RANDOM_ACCESS)) {
+            for (int i = sz - from - 1, end = sz - to; i >= end; --i) {
+                try {
+                    if (!visitor.apply(data.get(i))) {
+                        return false;
+                    }
+                } catch (NotAppliedException e) {
+                    // ignore
+                }
+            }
+        } else {
+            ListIterator<T> itr = data.listIterator(sz - from);
+            for (int i = from; i < to; ++i) {
+                try {
+                    if (!visitor.apply(itr.previous())) {
+                        return false;
+                    }
+                } catch (NotAppliedException e) {
+                    // ignore
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void copyTo(int from, int to, Object[] dest, int destPos) {
+        int sz = size();
+        copyTo(data, sz - to, sz - from, dest, destPos);
+        for (int i = destPos, j = destPos + to - from - 1; i < j; ++i, --j) {
+            Object o = dest[i];
+            dest[i] = dest[j];
+            dest[j] = o;
+        }
+    }
+
     @Override
     public <R> R reduceLeft(R identity, $.Func2<R, T, R> accumulator) {
         return data().reduceRight(identity, accumulator);
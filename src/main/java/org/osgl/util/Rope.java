@@ -0,0 +1,463 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * An immutable char sequence made of a balanced binary tree of
+ * {@link FastStr} pieces.
+ *
+ * <p>Concatenation, {@link #subSequence(int, int) sub sequence} and
+ * {@link #charAt(int)} take {@code O(log n)} time, where {@code n}
+ * is the number of pieces, and never copy the pieces already in a rope
+ * except for merging short ones. This makes a rope suitable for assembling a large document
+ * piece by piece, where repeated {@link FastStr#append(FastStr)} or
+ * {@link S#concat(String, String)} copy the whole content every time.
+ * The tree is kept balanced the way an AVL tree is.</p>
+ *
+ * <pre>
+ *     Rope doc = Rope.EMPTY;
+ *     for (Section section : report.sections()) {
+ *         doc = doc.concat(renderHeader(section)).concat(renderBody(section));
+ *     }
+ *     doc.writeTo(writer);
+ * </pre>
+ *
+ * <p>The content is flattened into a single {@link FastStr} only when
+ * {@link #toFastStr()} or {@link #toString()} is called, and the flattened
+ * content is kept for subsequent calls. {@link #appendTo(S.Buffer)} and
+ * {@link #writeTo(Writer)} write the pieces directly without flattening.</p>
+ */
+public abstract class Rope implements CharSequence {
+
+    /**
+     * Pieces up to this number of chars are merged by copy when concatenated
+     */
+    static final int SHORT = 128;
+
+    /**
+     * The empty rope
+     */
+    public static final Rope EMPTY = new Leaf(FastStr.EMPTY_STR);
+
+    private final int length;
+    private final int depth;
+
+    // the hash code, computed lazily
+    private int hash;
+
+    private Rope(int length, int depth) {
+        this.length = length;
+        this.depth = depth;
+    }
+
+    /**
+     * Returns a rope of a char sequence. The chars of a {@link FastStr} are
+     * shared, a {@link String} is copied once, in the compact Latin-1 form
+     * when all of its chars fit, and a mutable char sequence is copied
+     *
+     * @param s the char sequence
+     * @return a rope of {@code s}
+     */
+    public static Rope of(CharSequence s) {
+        if (s instanceof Rope) {
+            return (Rope) s;
+        }
+        if (0 == s.length()) {
+            return EMPTY;
+        }
+        if (s instanceof FastStr) {
+            return new Leaf((FastStr) s);
+        }
+        if (s instanceof S.Buffer) {
+            S.Buffer buffer = (S.Buffer) s;
+            return new Leaf(FastStr.unsafeOf(Arrays.copyOf(buffer.getValue(), buffer.length())));
+        }
+        return new Leaf(FastStr.of(s.toString()));
+    }
+
+    /**
+     * Returns a rope of this content followed by the content of {@code s}
+     *
+     * @param s the char sequence to be appended
+     * @return the concatenated rope
+     */
+    public Rope concat(CharSequence s) {
+        Rope that = of(s);
+        if (that.length == 0) {
+            return this;
+        }
+        if (length == 0) {
+            return that;
+        }
+        return join(this, that);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    public boolean isEmpty() {
+        return 0 == length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new StringIndexOutOfBoundsException(index);
+        }
+        Rope rope = this;
+        while (rope instanceof Concat) {
+            Concat concat = (Concat) rope;
+            if (null != concat.flat) {
+                return concat.flat.charAt(index);
+            }
+            int leftLength = concat.left.length;
+            if (index < leftLength) {
+                rope = concat.left;
+            } else {
+                index -= leftLength;
+                rope = concat.right;
+            }
+        }
+        return ((Leaf) rope).str.charAt(index);
+    }
+
+    /**
+     * Returns a rope of the chars from {@code start} (inclusive) to
+     * {@code end} (exclusive). The pieces are shared with this rope
+     *
+     * @param start the start index
+     * @param end the end index
+     * @return the sub rope
+     */
+    @Override
+    public Rope subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new StringIndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+        }
+        if (start == end) {
+            return EMPTY;
+        }
+        return sub(start, end);
+    }
+
+    /**
+     * Returns the content as a {@link FastStr}. The content is copied into
+     * a single char array on the first call, which is then shared by
+     * subsequent calls and by {@link #charAt(int)} and
+     * {@link #subSequence(int, int)}
+     *
+     * @return the flattened content
+     */
+    public abstract FastStr toFastStr();
+
+    @Override
+    public String toString() {
+        return toFastStr().toString();
+    }
+
+    /**
+     * Appends the content to a buffer piece by piece
+     *
+     * @param buffer the buffer
+     * @return the buffer
+     */
+    public abstract S.Buffer appendTo(S.Buffer buffer);
+
+    /**
+     * Writes the content to a writer piece by piece
+     *
+     * @param writer the writer
+     */
+    public void writeTo(Writer writer) {
+        char[] scratch = new char[Math.min(length, 4096)];
+        try {
+            writeTo(writer, scratch);
+        } catch (IOException e) {
+            throw E.ioException(e);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (0 == h && length > 0) {
+            h = hash(0);
+            hash = h;
+        }
+        return h;
+    }
+
+    /**
+     * A rope equals to another rope with the same content, regardless
+     * of how the pieces are laid out
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj instanceof Rope) {
+            Rope that = (Rope) obj;
+            return length == that.length && hashCode() == that.hashCode()
+                    && toFastStr().contentEquals(that.toFastStr());
+        }
+        return false;
+    }
+
+    /**
+     * Returns the depth of the tree, a single piece is of depth 0
+     */
+    int depth() {
+        return depth;
+    }
+
+    abstract Rope sub(int start, int end);
+
+    abstract void copyTo(char[] dst, int pos);
+
+    abstract void writeTo(Writer writer, char[] scratch) throws IOException;
+
+    // the String hash of the content, continued from h
+    abstract int hash(int h);
+
+    private static final class Leaf extends Rope {
+        private final FastStr str;
+
+        Leaf(FastStr str) {
+            super(str.length(), 0);
+            this.str = str;
+        }
+
+        @Override
+        Rope sub(int start, int end) {
+            return start == 0 && end == str.length() ? this : new Leaf(str.subSequence(start, end));
+        }
+
+        @Override
+        public FastStr toFastStr() {
+            return str;
+        }
+
+        @Override
+        public S.Buffer appendTo(S.Buffer buffer) {
+            return buffer.append(str);
+        }
+
+        @Override
+        void copyTo(char[] dst, int pos) {
+            str.getChars(0, str.length(), dst, pos);
+        }
+
+        @Override
+        void writeTo(Writer writer, char[] scratch) throws IOException {
+            int len = str.length();
+            for (int i = 0; i < len; i += scratch.length) {
+                int end = Math.min(len, i + scratch.length);
+                str.getChars(i, end, scratch, 0);
+                writer.write(scratch, 0, end - i);
+            }
+        }
+
+        @Override
+        int hash(int h) {
+            FastStr str = this.str;
+            for (int i = 0, len = str.length(); i < len; ++i) {
+                h = 31 * h + str.charAt(i);
+            }
+            return h;
+        }
+    }
+
+    private static final class Concat extends Rope {
+        private final Rope left;
+        private final Rope right;
+
+        // the flattened content, set by toFastStr()
+        private FastStr flat;
+
+        Concat(Rope left, Rope right) {
+            super(left.length + right.length, Math.max(left.depth, right.depth) + 1);
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Rope sub(int start, int end) {
+            if (start == 0 && end == length()) {
+                return this;
+            }
+            FastStr flat = this.flat;
+            if (null != flat) {
+                return new Leaf(flat.subSequence(start, end));
+            }
+            int leftLength = left.length;
+            if (end <= leftLength) {
+                return left.sub(start, end);
+            }
+            if (start >= leftLength) {
+                return right.sub(start - leftLength, end - leftLength);
+            }
+            return join(left.sub(start, leftLength), right.sub(0, end - leftLength));
+        }
+
+        @Override
+        public FastStr toFastStr() {
+            FastStr flat = this.flat;
+            if (null == flat) {
+                char[] chars = new char[length()];
+                copyTo(chars, 0);
+                flat = FastStr.unsafeOf(chars);
+                this.flat = flat;
+            }
+            return flat;
+        }
+
+        @Override
+        public S.Buffer appendTo(S.Buffer buffer) {
+            if (null != flat) {
+                return buffer.append(flat);
+            }
+            left.appendTo(buffer);
+            return right.appendTo(buffer);
+        }
+
+        @Override
+        void copyTo(char[] dst, int pos) {
+            if (null != flat) {
+                flat.getChars(0, flat.length(), dst, pos);
+                return;
+            }
+            left.copyTo(dst, pos);
+            right.copyTo(dst, pos + left.length);
+        }
+
+        @Override
+        void writeTo(Writer writer, char[] scratch) throws IOException {
+            left.writeTo(writer, scratch);
+            right.writeTo(writer, scratch);
+        }
+
+        @Override
+        int hash(int h) {
+            return right.hash(left.hash(h));
+        }
+    }
+
+    /*
+     * Concatenates two non-empty ropes. Short pieces are merged by copy,
+     * otherwise the ropes are joined as AVL trees, see "Just Join for
+     * Parallel Ordered Sets" by Blelloch, Ferizovic and Sun
+     */
+    private static Rope join(Rope a, Rope b) {
+        if (a.length + b.length <= SHORT) {
+            return merge(a, b);
+        }
+        if (a instanceof Concat && b.length + edge(a, false).length <= SHORT) {
+            Concat concat = (Concat) a;
+            return join(concat.left, join(concat.right, b));
+        }
+        if (b instanceof Concat && a.length + edge(b, true).length <= SHORT) {
+            Concat concat = (Concat) b;
+            return join(join(a, concat.left), concat.right);
+        }
+        if (a.depth > b.depth + 1) {
+            return joinRight((Concat) a, b);
+        }
+        if (b.depth > a.depth + 1) {
+            return joinLeft(a, (Concat) b);
+        }
+        return new Concat(a, b);
+    }
+
+    // the leftmost or the rightmost piece of a rope
+    private static Rope edge(Rope rope, boolean leftmost) {
+        while (rope instanceof Concat) {
+            Concat concat = (Concat) rope;
+            rope = leftmost ? concat.left : concat.right;
+        }
+        return rope;
+    }
+
+    private static Rope merge(Rope a, Rope b) {
+        char[] chars = new char[a.length + b.length];
+        a.copyTo(chars, 0);
+        b.copyTo(chars, a.length);
+        return new Leaf(FastStr.of(chars));
+    }
+
+    // a is deeper than b by more than one level
+    private static Rope joinRight(Concat a, Rope b) {
+        Rope l = a.left;
+        Rope c = a.right;
+        if (c.depth <= b.depth + 1) {
+            Concat t = new Concat(c, b);
+            if (t.depth() <= l.depth + 1) {
+                return new Concat(l, t);
+            }
+            return rotateLeft(new Concat(l, rotateRight(t)));
+        }
+        Rope t = joinRight((Concat) c, b);
+        Concat t2 = new Concat(l, t);
+        if (t.depth <= l.depth + 1) {
+            return t2;
+        }
+        return rotateLeft(t2);
+    }
+
+    // b is deeper than a by more than one level
+    private static Rope joinLeft(Rope a, Concat b) {
+        Rope r = b.right;
+        Rope c = b.left;
+        if (c.depth <= a.depth + 1) {
+            Concat t = new Concat(a, c);
+            if (t.depth() <= r.depth + 1) {
+                return new Concat(t, r);
+            }
+            return rotateRight(new Concat(rotateLeft(t), r));
+        }
+        Rope t = joinLeft(a, (Concat) c);
+        Concat t2 = new Concat(t, r);
+        if (t.depth <= r.depth + 1) {
+            return t2;
+        }
+        return rotateRight(t2);
+    }
+
+    // (a, (b, c)) to ((a, b), c)
+    private static Concat rotateLeft(Concat node) {
+        Concat right = (Concat) node.right;
+        return new Concat(new Concat(node.left, right.left), right.right);
+    }
+
+    // ((a, b), c) to (a, (b, c))
+    private static Concat rotateRight(Concat node) {
+        Concat left = (Concat) node.left;
+        return new Concat(left.left, new Concat(left.right, node.right));
+    }
+
+}
@@ -24,8 +24,10 @@ import org.osgl.$;
 import org.osgl.Osgl;
 import org.osgl.exception.NotAppliedException;
 
+import java.io.OutputStream;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
+import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
 
@@ -61,7 +63,8 @@ public class S {
     }
 
     /**
-     * A handy alias for {@link String#format(String, Object...)}
+     * A handy alias for {@link String#format(String, Object...)}. The template
+     * is compiled into a {@link MessageTemplate} and cached
      *
      * @param tmpl the message template
      * @param args the message arguments
@@ -69,7 +72,7 @@ public class S {
      */
     public final static String fmt(String tmpl, Object... args) {
         if (0 == args.length) return tmpl;
-        return String.format(tmpl, args);
+        return MessageTemplate.of(tmpl).render(args);
     }
 
     /**
@@ -1489,29 +1492,86 @@ public class S {
         return newBuffer().append(s);
     }
 
-    private static final ThreadLocal<Buffer> _buf = new ThreadLocal<Buffer>() {
+    /**
+     * A per thread stack of reusable buffers. A buffer is taken from the
+     * stack by {@link #buffer()} and given back when it is consumed, i.e.
+     * its {@link Buffer#toString()} is called. Nested use, e.g. a
+     * {@code toString()} method calling {@code S.buffer()} while
+     * the caller is building its own string, takes the next level of the
+     * stack.
+     */
+    private static final class BufferPool {
+
+        // max nesting level with pooled buffers
+        static final int MAX_DEPTH = 8;
+
+        // buffers grown larger than this number of chars are shrunk when reused
+        static final int MAX_POOLED_CAPACITY = 8192;
+
+        private final Buffer[] buffers = new Buffer[MAX_DEPTH];
+
+        // the next slot to replace when all pooled buffers are in use
+        private int victim;
+
+        Buffer acquire() {
+            Buffer[] buffers = this.buffers;
+            for (int i = 0; i < MAX_DEPTH; ++i) {
+                Buffer sb = buffers[i];
+                if (null == sb) {
+                    sb = new Buffer();
+                    buffers[i] = sb;
+                    return sb.reset();
+                }
+                if (sb.consumed) {
+                    if (sb.value.length > MAX_POOLED_CAPACITY) {
+                        sb.value = new char[16];
+                    }
+                    return sb.reset();
+                }
+            }
+            // all pooled buffers are in use or have been abandoned without
+            // being consumed, replace one of them
+            Buffer sb = new Buffer();
+            buffers[victim] = sb;
+            victim = (victim + 1) % MAX_DEPTH;
+            return sb.reset();
+        }
+
+        int depth() {
+            int n = 0;
+            for (Buffer sb : buffers) {
+                if (null != sb && !sb.consumed) {
+                    n++;
+                }
+            }
+            return n;
+        }
+    }
+
+    private static final ThreadLocal<BufferPool> _bufPool = new ThreadLocal<BufferPool>() {
         @Override
-        protected Buffer initialValue() {
-            return new Buffer();
+        protected BufferPool initialValue() {
+            return new BufferPool();
         }
     };
 
     /**
-     * Returns a {@link Buffer} instance. If the thread local instance is consumed already
-     * then return it. Otherwise, return an new `Buffer` instance and set the new instance
-     * to thread local storage
+     * Returns a {@link Buffer} instance from the thread local buffer stack.
+     * The buffer returns to the stack once it is consumed, i.e. its
+     * `toString()` method is called. If all buffers in the stack are in use
+     * then an new `Buffer` instance is returned
      *
      * @return a `Buffer` instance as described above
      */
     public static Buffer buffer() {
-        Buffer sb = _buf.get();
-        if (sb.consumed) {
-            sb.reset();
-        } else {
-            sb = new Buffer();
-            _buf.set(sb);
-        }
-        return sb;
+        return _bufPool.get().acquire();
+    }
+
+    /**
+     * Returns the number of thread local buffers in use by the current thread
+     */
+    static int bufferDepth() {
+        return _bufPool.get().depth();
     }
 
     public static Buffer buffer(boolean o) {
@@ -1726,22 +1786,17 @@ public class S {
 
     static int count(char[] source, int sourceOffset, int sourceCount,
                      char[] search, int searchOffset, int searchCount, boolean overlap) {
-        int n = 0;
+        int n = 0, from = 0;
         while (true) {
-            int i = indexOf(source, sourceOffset, sourceCount, search, searchOffset, searchCount, 0);
+            int i = indexOf(source, sourceOffset, sourceCount, search, searchOffset, searchCount, from);
             if (i < 0) {
                 return n;
             }
             n++;
-            if (overlap) {
-                sourceOffset += 1;
-            } else {
-                sourceOffset += searchCount;
-            }
+            from = i + (overlap ? 1 : Math.max(1, searchCount));
         }
     }
 
-
     /**
      * Search string pattern in another string. Copied from JDK String
      * The source is the character array being searched, and the target
@@ -1802,6 +1857,109 @@ public class S {
         }
     }
 
+    /**
+     * Latin-1 version of {@link #indexOf(char[], int, int, char[], int, int, int)}
+     * where each byte in the arrays represents a char
+     */
+    static int indexOf(byte[] source, int sourceOffset, int sourceCount,
+                       byte[] target, int targetOffset, int targetCount,
+                       int fromIndex) {
+        if (fromIndex >= sourceCount) {
+            return (targetCount == 0 ? sourceCount : -1);
+        }
+        if (fromIndex < 0) {
+            fromIndex = 0;
+        }
+        if (targetCount == 0) {
+            return fromIndex;
+        }
+
+        byte first = target[targetOffset];
+        int max = sourceOffset + (sourceCount - targetCount);
+
+        for (int i = sourceOffset + fromIndex; i <= max; i++) {
+            /* Look for first character. */
+            if (source[i] != first) {
+                while (++i <= max && source[i] != first) ;
+            }
+
+            /* Found first character, now look at the rest of v2 */
+            if (i <= max) {
+                int j = i + 1;
+                int end = j + targetCount - 1;
+                for (int k = targetOffset + 1; j < end && source[j]
+                        == target[k]; j++, k++)
+                    ;
+
+                if (j == end) {
+                    /* Found whole string. */
+                    return i - sourceOffset;
+                }
+            }
+        }
+        return -1;
+    }
+
+    static int count(byte[] source, int sourceOffset, int sourceCount,
+                     byte[] search, int searchOffset, int searchCount, boolean overlap) {
+        int n = 0, from = 0;
+        while (true) {
+            int i = indexOf(source, sourceOffset, sourceCount, search, searchOffset, searchCount, from);
+            if (i < 0) {
+                return n;
+            }
+            n++;
+            from = i + (overlap ? 1 : Math.max(1, searchCount));
+        }
+    }
+
+    /**
+     * Latin-1 version of {@link #lastIndexOf(char[], int, int, char[], int, int, int)}
+     * where each byte in the arrays represents a char
+     */
+    static int lastIndexOf(byte[] source, int sourceOffset, int sourceCount,
+                           byte[] target, int targetOffset, int targetCount,
+                           int fromIndex
+    ) {
+        int rightIndex = sourceCount - targetCount;
+        if (fromIndex < 0) {
+            return -1;
+        }
+        if (fromIndex > rightIndex) {
+            fromIndex = rightIndex;
+        }
+        /* Empty string always matches. */
+        if (targetCount == 0) {
+            return fromIndex;
+        }
+
+        int strLastIndex = targetOffset + targetCount - 1;
+        byte strLastChar = target[strLastIndex];
+        int min = sourceOffset + targetCount - 1;
+        int i = min + fromIndex;
+
+        startSearchForLastChar:
+        while (true) {
+            while (i >= min && source[i] != strLastChar) {
+                i--;
+            }
+            if (i < min) {
+                return -1;
+            }
+            int j = i - 1;
+            int start = j - (targetCount - 1);
+            int k = strLastIndex - 1;
+
+            while (j > start) {
+                if (source[j--] != target[k--]) {
+                    i--;
+                    continue startSearchForLastChar;
+                }
+            }
+            return start - sourceOffset + 1;
+        }
+    }
+
     static char[] bufOf(String s) {
         try {
             return Unsafe.bufOf(s);
@@ -2016,8 +2174,6 @@ public class S {
          */
         private boolean consumed;
 
-        private String id = S.random();
-
         /**
          * The count is the number of characters used.
          */
@@ -2044,7 +2200,7 @@ public class S {
         }
 
         String debug() {
-            return id + ":" + (consumed ? "consumed":"new");
+            return id() + ":" + (consumed ? "consumed":"new");
         }
 
         String debug(Object key) {
@@ -2052,7 +2208,7 @@ public class S {
         }
 
         String id() {
-            return id;
+            return Integer.toHexString(System.identityHashCode(this));
         }
 
         public boolean consumed() {
@@ -2626,6 +2782,15 @@ public class S {
                 return this.append((String) s);
             if (s instanceof Buffer)
                 return this.append((Buffer) s);
+            if (s instanceof FastStr) {
+                int len = s.length();
+                ensureCapacityInternal(count + len);
+                ((FastStr) s).getChars(0, len, value, count);
+                count += len;
+                return this;
+            }
+            if (s instanceof Rope)
+                return ((Rope) s).appendTo(this);
 
             return this.append(s, 0, s.length());
         }
@@ -2892,6 +3057,7 @@ public class S {
             ensureCapacityInternal(count + 1);
             System.arraycopy(value, 0, value, 1, count);
             value[0] = c;
+            count++;
             return this;
         }
 
@@ -3021,16 +3187,18 @@ public class S {
          * Appends the string representation of the {@code float}
          * argument to this sequence.
          * <p>
-         * The overall effect is exactly as if the argument were converted
-         * to a string by the method {@link String#valueOf(float)},
-         * and the characters of that string were then
-         * {@link #append(String) appended} to this character sequence.
+         * The chars are laid out the same way as {@link String#valueOf(float)}
+         * does, with the shortest digits that convert back to the argument,
+         * which on some values is shorter than the {@code String.valueOf}
+         * output of Java 8. No intermediate string is created.
          *
          * @param f a {@code float}.
          * @return a reference to this object.
          */
         public Buffer append(float f) {
-            return this.append(String.valueOf(f));
+            ensureCapacityInternal(count + DoubleFormat.MAX_CHARS);
+            count = DoubleFormat.write(f, value, count);
+            return this;
         }
 
         /**
@@ -3041,7 +3209,14 @@ public class S {
         }
 
         public Buffer prepend(float f) {
-            return prepend(String.valueOf(f));
+            // write after the content and the room needed to shift it
+            int scratch = count + DoubleFormat.MAX_CHARS;
+            ensureCapacityInternal(scratch + DoubleFormat.MAX_CHARS);
+            int len = DoubleFormat.write(f, value, scratch) - scratch;
+            System.arraycopy(value, 0, value, len, count);
+            System.arraycopy(value, scratch, value, 0, len);
+            count += len;
+            return this;
         }
 
         /**
@@ -3055,16 +3230,18 @@ public class S {
          * Appends the string representation of the {@code double}
          * argument to this sequence.
          * <p>
-         * The overall effect is exactly as if the argument were converted
-         * to a string by the method {@link String#valueOf(double)},
-         * and the characters of that string were then
-         * {@link #append(String) appended} to this character sequence.
+         * The chars are laid out the same way as {@link String#valueOf(double)}
+         * does, with the shortest digits that convert back to the argument,
+         * which on some values is shorter than the {@code String.valueOf}
+         * output of Java 8. No intermediate string is created.
          *
          * @param d a {@code double}.
          * @return a reference to this object.
          */
         public Buffer append(double d) {
-            return this.append(String.valueOf(d));
+            ensureCapacityInternal(count + DoubleFormat.MAX_CHARS);
+            count = DoubleFormat.write(d, value, count);
+            return this;
         }
 
         /**
@@ -3076,7 +3253,14 @@ public class S {
 
 
         public Buffer prepend(double d) {
-            return this.prepend(String.valueOf(d));
+            // write after the content and the room needed to shift it
+            int scratch = count + DoubleFormat.MAX_CHARS;
+            ensureCapacityInternal(scratch + DoubleFormat.MAX_CHARS);
+            int len = DoubleFormat.write(d, value, scratch) - scratch;
+            System.arraycopy(value, 0, value, len, count);
+            System.arraycopy(value, scratch, value, 0, len);
+            count += len;
+            return this;
         }
 
         /**
@@ -3816,6 +4000,102 @@ public class S {
             return retval;
         }
 
+        /**
+         * Returns the number of bytes of the UTF-8 encoding of this sequence
+         *
+         * @return the UTF-8 encoded length
+         */
+        public int utf8Length() {
+            return Utf8.encodedLength(value, 0, count);
+        }
+
+        /**
+         * Returns the UTF-8 encoding of this sequence without creating an
+         * intermediate {@code String}.
+         * <p>
+         * Like {@link #toString()} this method marks the buffer consumed
+         *
+         * @return the UTF-8 bytes
+         */
+        public byte[] getBytesUTF8() {
+            byte[] bytes = new byte[utf8Length()];
+            writeUtf8(bytes, 0);
+            return bytes;
+        }
+
+        /**
+         * Writes the UTF-8 encoding of this sequence into a byte array
+         * starting at {@code pos}. The array must have {@link #utf8Length()}
+         * bytes of room.
+         * <p>
+         * Like {@link #toString()} this method marks the buffer consumed
+         *
+         * @param dst the target byte array
+         * @param pos the start position
+         * @return the position after the last byte written
+         */
+        public int writeUtf8(byte[] dst, int pos) {
+            pos = Utf8.encode(value, 0, count, dst, pos);
+            consume();
+            return pos;
+        }
+
+        /**
+         * Writes the UTF-8 encoding of this sequence into a byte buffer at
+         * its current position.
+         * <p>
+         * Like {@link #toString()} this method marks the buffer consumed
+         *
+         * @param dst the target buffer
+         * @return this buffer
+         * @throws java.nio.BufferOverflowException if there is not enough room in {@code dst}
+         */
+        public Buffer writeUtf8(ByteBuffer dst) {
+            Utf8.encode(value, 0, count, dst);
+            return consume();
+        }
+
+        /**
+         * Writes the UTF-8 encoding of this sequence to an output stream.
+         * <p>
+         * Like {@link #toString()} this method marks the buffer consumed
+         *
+         * @param os the output stream
+         * @return this buffer
+         */
+        public Buffer writeUtf8(OutputStream os) {
+            Utf8.encode(value, 0, count, os);
+            return consume();
+        }
+
+        /**
+         * Appends the chars decoded from UTF-8 bytes in {@code src} from
+         * {@code from} (inclusive) to {@code to} (exclusive)
+         *
+         * @param src the UTF-8 bytes
+         * @param from the start index
+         * @param to the end index
+         * @return this buffer
+         */
+        public Buffer appendUtf8(byte[] src, int from, int to) {
+            ensureCapacityInternal(count + (to - from));
+            count = Utf8.decode(src, from, to, value, count);
+            return this;
+        }
+
+        /**
+         * Appends the chars decoded from the remaining UTF-8 bytes of a byte
+         * buffer. On return the position of the byte buffer is its limit
+         *
+         * @param src the UTF-8 bytes
+         * @return this buffer
+         */
+        public Buffer appendUtf8(ByteBuffer src) {
+            ensureCapacityInternal(count + src.remaining());
+            count = Utf8.decode(src, value, count);
+            return this;
+        }
+
         /**
          * Needed by {@code String} for the contentEquals method.
          */
@@ -21,7 +21,10 @@ package org.osgl.util;
  */
 
 import org.osgl.$;
+import org.osgl.util.algo.Algorithms;
+import org.osgl.util.algo.BoundedHeap;
 
+import java.util.Comparator;
 import java.util.EnumSet;
 import java.util.Enumeration;
 import java.util.Iterator;
@@ -180,6 +183,102 @@ extends TraversableBase<T> implements C.Sequence<T> {
         return head(n);
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public C.List<T> topK(int k) {
+        return topK(k, $.F.NATURAL_ORDER);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public C.List<T> topK(int k, Comparator<? super T> comparator) {
+        E.illegalArgumentIf(k < 0, "k shall not be negative: %s", k);
+        if (0 == k) {
+            return Nil.list();
+        }
+        if (is(C.Feature.PARALLEL)) {
+            Object[] a = copyToArray();
+            Comparator<Object> comp = $.cast(comparator);
+            return ImmutableList.of((T[]) Algorithms.ARRAY_TOP_K.parallelTopK(a, 0, a.length, k, comp));
+        }
+        BoundedHeap<T> heap = new BoundedHeap<T>(k, comparator);
+        for (T t : this) {
+            heap.offer(t);
+        }
+        return ImmutableList.of((T[]) heap.toSortedArray());
+    }
+
+    @Override
+    public T nthElement(int n) {
+        Comparator<T> comp = $.cast($.F.NATURAL_ORDER);
+        return nthElement(n, comp);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T nthElement(int n, Comparator<? super T> comparator) {
+        Object[] a = copyToArray();
+        if (n < 0 || n >= a.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        Comparator<Object> comp = $.cast(comparator);
+        return (T) Algorithms.ARRAY_INTRO_SELECT.select(a, 0, a.length, n, comp);
+    }
+
+    @Override
+    public C.Sequence<C.List<T>> batch(int size) {
+        return WindowedSeq.batch(this, size);
+    }
+
+    @Override
+    public C.Sequence<C.List<T>> window(int size, int step) {
+        return WindowedSeq.window(this, size, step);
+    }
+
+    @Override
+    public C.Sequence<C.List<T>> chunkBy($.Function<? super T, ?> classifier) {
+        return WindowedSeq.chunkBy(this, classifier);
+    }
+
+    @Override
+    public <U, K> C.Sequence<$.T2<T, U>> join(Iterable<? extends U> other, $.Function<? super T, ? extends K> keyFn, $.Function<? super U, ? extends K> otherKeyFn) {
+        return JoinSeq.join(this, other, keyFn, otherKeyFn, JoinSeq.<T, U>pair());
+    }
+
+    @Override
+    public <U, K, R> C.Sequence<R> join(Iterable<? extends U> other, $.Function<? super T, ? extends K> keyFn, $.Function<? super U, ? extends K> otherKeyFn, $.Func2<? super T, ? super U, ? extends R> combiner) {
+        return JoinSeq.join(this, other, keyFn, otherKeyFn, combiner);
+    }
+
+    @Override
+    public <U, K> C.Sequence<$.T2<T, U>> leftJoin(Iterable<? extends U> other, $.Function<? super T, ? extends K> keyFn, $.Function<? super U, ? extends K> otherKeyFn) {
+        return JoinSeq.leftJoin(this, other, keyFn, otherKeyFn, JoinSeq.<T, U>pair());
+    }
+
+    @Override
+    public <U, K, R> C.Sequence<R> leftJoin(Iterable<? extends U> other, $.Function<? super T, ? extends K> keyFn, $.Function<? super U, ? extends K> otherKeyFn, $.Func2<? super T, ? super U, ? extends R> combiner) {
+        return JoinSeq.leftJoin(this, other, keyFn, otherKeyFn, combiner);
+    }
+
+    @Override
+    public <U, K> C.Sequence<T> semiJoin(Iterable<? extends U> other, $.Function<? super T, ? extends K> keyFn, $.Function<? super U, ? extends K> otherKeyFn) {
+        return JoinSeq.semiJoin(this, other, keyFn, otherKeyFn);
+    }
+
+    @Override
+    public <U, K> C.Sequence<$.T2<T, U>> mergeJoin(Iterable<? extends U> other, $.Function<? super T, ? extends K> keyFn, $.Function<? super U, ? extends K> otherKeyFn, Comparator<? super K> keyComparator) {
+        return JoinSeq.mergeJoin(this, other, keyFn, otherKeyFn, keyComparator, JoinSeq.<T, U>pair());
+    }
+
+    @Override
+    public <U, K, R> C.Sequence<R> mergeJoin(Iterable<? extends U> other, $.Function<? super T, ? extends K> keyFn, $.Function<? super U, ? extends K> otherKeyFn, Comparator<? super K> keyComparator, $.Func2<? super T, ? super U, ? extends R> combiner) {
+        return JoinSeq.mergeJoin(this, other, keyFn, otherKeyFn, keyComparator, combiner);
+    }
+
+    private Object[] copyToArray() {
+        return new ListBuilder<T>(10).append(this).toArray();
+    }
+
     @Override
     public C.Sequence<T> takeWhile($.Function<? super T, Boolean> predicate) {
         return FilteredSeq.of(this, predicate, FilteredIterator.Type.WHILE);
@@ -275,18 +374,18 @@ extends TraversableBase<T> implements C.Sequence<T> {
 
     @Override
     public C.Sequence<T> filter($.Function<? super T, Boolean> predicate) {
-        return FilteredSeq.of(this, predicate);
+        return FusedSeq.of(this, FusedSeq.FILTER, predicate);
     }
 
     @Override
     public <R> C.Sequence<R> map($.Function<? super T, ? extends R> mapper) {
-        return MappedSeq.of(this, mapper);
+        return FusedSeq.of(this, FusedSeq.MAP, mapper);
     }
 
     @Override
     public <R> C.Sequence<R> flatMap($.Function<? super T, ? extends Iterable<? extends R>> mapper
     ) {
-        return FlatMappedSeq.of(this, mapper);
+        return FusedSeq.of(this, FusedSeq.FLAT_MAP, mapper);
     }
 
     @Override
@@ -26,6 +26,7 @@ import org.osgl.exception.NotAppliedException;
 import java.util.AbstractSet;
 import java.util.Collection;
 import java.util.EnumSet;
+import java.util.Map;
 
 public abstract class SetBase<T> extends AbstractSet<T> implements C.Set<T> {
 
@@ -123,22 +124,72 @@ public abstract class SetBase<T> extends AbstractSet<T> implements C.Set<T> {
 
     @Override
     public boolean allMatch($.Function<? super T, Boolean> predicate) {
-        return false;
+        return forEachWhile(predicate);
     }
 
     @Override
     public boolean anyMatch($.Function<? super T, Boolean> predicate) {
-        return false;
+        return !forEachWhile(new TraversableBase.Finder<T>(predicate));
     }
 
     @Override
     public boolean noneMatch($.Function<? super T, Boolean> predicate) {
-        return false;
+        return !anyMatch(predicate);
     }
 
     @Override
     public $.Option<T> findOne($.Function<? super T, Boolean> predicate) {
-        return null;
+        TraversableBase.Finder<T> finder = new TraversableBase.Finder<T>(predicate);
+        forEachWhile(finder);
+        return finder.result();
+    }
+
+    @Override
+    public boolean forEachWhile($.Function<? super T, Boolean> visitor) {
+        for (T t : this) {
+            try {
+                if (!visitor.apply(t)) {
+                    return false;
+                }
+            } catch (NotAppliedException e) {
+                // ignore
+            }
+        }
+        return true;
+    }
+
+
+    @Override
+    public BloomFilter<T> toBloomFilter(double fpp) {
+        return BloomFilter.<T>create(size(), fpp).putAll(this);
+    }
+
+    /**
+     * A set is distinct by definition, thus returns {@link #size()}
+     */
+    @Override
+    public long approxDistinct() {
+        return size();
+    }
+
+    @Override
+    public <K> Map<K, C.List<T>> groupBy($.Function<? super T, ? extends K> keyFn) {
+        return Grouping.groupBy(this, is(C.Feature.PARALLEL), keyFn);
+    }
+
+    @Override
+    public <K> ObjectIntMap<K> countBy($.Function<? super T, ? extends K> keyFn) {
+        return Grouping.countBy(this, is(C.Feature.PARALLEL), keyFn);
+    }
+
+    @Override
+    public <K> Map<K, T> groupingReduce($.Function<? super T, ? extends K> keyFn, T identity, $.Func2<T, T, T> combiner) {
+        return Grouping.groupingReduce(this, is(C.Feature.PARALLEL), keyFn, identity, combiner);
+    }
+
+    @Override
+    public $.T2<C.List<T>, C.List<T>> partition($.Function<? super T, Boolean> predicate) {
+        return Grouping.partition(this, is(C.Feature.PARALLEL), predicate);
     }
 
 
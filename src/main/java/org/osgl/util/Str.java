@@ -32,6 +32,8 @@ public class Str extends StrBase<Str> {
 
     public static final Str EMPTY_STR = new Str("");
 
+    private static final Interner<Str> POOL = new Interner<Str>(FastStr.STR_POOL_SIZE);
+
     @Override
     protected Class<Str> _impl() {
         return Str.class;
@@ -594,6 +596,17 @@ public class Str extends StrBase<Str> {
         return s.intern();
     }
 
+    /**
+     * Returns a Str equal to this one from a shared pool so that equal Str
+     * instances are likely to be the same object. See {@link FastStr#dedup()}
+     *
+     * @return the pooled Str equal to this Str
+     */
+    public Str dedup() {
+        if (isEmpty()) return EMPTY_STR;
+        return POOL.intern(this);
+    }
+
     // -- extensions
     @Override
     public Str afterFirst(Str s) {
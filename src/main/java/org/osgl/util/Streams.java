@@ -0,0 +1,325 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Bridges osgl collections to {@link Spliterator} and {@link Stream}.
+ *
+ * <p>The osgl collections override {@code spliterator()} and delegate
+ * to here, so a {@link RandomAccess random access} list and an
+ * {@link IntRange} are split by index, a {@link ListBuilder} covers the
+ * elements appended so far, and a lazy osgl sequence reports
+ * {@link Spliterator#ORDERED}/{@link Spliterator#IMMUTABLE} from its
+ * features and {@link Spliterator#SIZED} when the size is known. Thus
+ * {@code list.parallelStream()} and
+ * {@code StreamSupport.stream(list.spliterator(), true)} split the work
+ * without walking the iterator.</p>
+ */
+public enum Streams {
+    ;
+
+    /**
+     * Returns a sequential {@link Stream} of the iterable specified.
+     *
+     * @param iterable the iterable
+     * @param <T> the element type
+     * @return a stream of the elements in the iterable
+     */
+    public static <T> Stream<T> stream(Iterable<T> iterable) {
+        return StreamSupport.stream(iterable.spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel {@link Stream} of the iterable specified.
+     *
+     * @param iterable the iterable
+     * @param <T> the element type
+     * @return a parallel stream of the elements in the iterable
+     */
+    public static <T> Stream<T> parallelStream(Iterable<T> iterable) {
+        return StreamSupport.stream(iterable.spliterator(), true);
+    }
+
+    /**
+     * Returns a {@link Collector} that collects the elements of a stream
+     * into an immutable {@link C.List} in encounter order. Each thread of a
+     * parallel stream fills its own {@link ListBuilder} and the builders are
+     * concatenated in order.
+     *
+     * @param <T> the element type
+     * @return a collector to immutable list
+     */
+    public static <T> Collector<T, ?, C.List<T>> toList() {
+        return new CollectorImpl<T, ListBuilder<T>>(new Supplier<ListBuilder<T>>() {
+            @Override
+            public ListBuilder<T> get() {
+                return new ListBuilder<T>(10);
+            }
+        }, new BiConsumer<ListBuilder<T>, T>() {
+            @Override
+            public void accept(ListBuilder<T> builder, T t) {
+                builder.add(t);
+            }
+        }, new BinaryOperator<ListBuilder<T>>() {
+            @Override
+            public ListBuilder<T> apply(ListBuilder<T> left, ListBuilder<T> right) {
+                return left.append(right);
+            }
+        }, new Function<ListBuilder<T>, C.List<T>>() {
+            @Override
+            public C.List<T> apply(ListBuilder<T> builder) {
+                return builder.toList();
+            }
+        }, EnumSet.noneOf(Collector.Characteristics.class));
+    }
+
+    /**
+     * Returns a concurrent {@link Collector} that collects the elements of a
+     * stream into an immutable {@link C.List} with a single
+     * {@link ConcurrentListBuilder}, which does not need to merge partial
+     * results. The order of the elements is not specified.
+     *
+     * @param <T> the element type
+     * @return a concurrent collector to immutable list
+     */
+    public static <T> Collector<T, ?, C.List<T>> toListConcurrently() {
+        return new CollectorImpl<T, ConcurrentListBuilder<T>>(new Supplier<ConcurrentListBuilder<T>>() {
+            @Override
+            public ConcurrentListBuilder<T> get() {
+                return new ConcurrentListBuilder<T>();
+            }
+        }, new BiConsumer<ConcurrentListBuilder<T>, T>() {
+            @Override
+            public void accept(ConcurrentListBuilder<T> builder, T t) {
+                builder.add(t);
+            }
+        }, new BinaryOperator<ConcurrentListBuilder<T>>() {
+            @Override
+            public ConcurrentListBuilder<T> apply(ConcurrentListBuilder<T> left, ConcurrentListBuilder<T> right) {
+                left.newSegment().append(right.toList());
+                return left;
+            }
+        }, new Function<ConcurrentListBuilder<T>, C.List<T>>() {
+            @Override
+            public C.List<T> apply(ConcurrentListBuilder<T> builder) {
+                return builder.toList();
+            }
+        }, EnumSet.of(Collector.Characteristics.CONCURRENT, Collector.Characteristics.UNORDERED));
+    }
+
+    static <T> Spliterator<T> spliterator(ListBase<T> list) {
+        int characteristics = characteristics(list);
+        if (list instanceof RandomAccess) {
+            return new ListSpliterator<T>(list, 0, list.size(), characteristics);
+        }
+        return Spliterators.spliterator(list, characteristics);
+    }
+
+    static <T> Spliterator<T> spliterator(Object[] array, int fromIndex, int toIndex, C.Featured featured) {
+        return Spliterators.spliterator(array, fromIndex, toIndex, characteristics(featured));
+    }
+
+    /**
+     * The spliterator covers the elements in the builder at the time this
+     * method is called.
+     */
+    static <T> Spliterator<T> spliterator(ListBuilder<T> builder) {
+        return Spliterators.spliterator(builder.buf, 0, builder.size, Spliterator.ORDERED);
+    }
+
+    static <T> Spliterator<T> spliterator(TraversableBase<T> traversable) {
+        int characteristics = characteristics(traversable);
+        if (traversable.is(C.Feature.LIMITED)) {
+            try {
+                return Spliterators.spliterator(traversable.iterator(), traversable.size(), characteristics);
+            } catch (UnsupportedOperationException e) {
+                // size unknown
+            }
+        }
+        return Spliterators.spliteratorUnknownSize(traversable.iterator(), characteristics);
+    }
+
+    static Spliterator<Integer> spliterator(IntRange range) {
+        return new IntRangeSpliterator(range, 0, range.size(), characteristics(range));
+    }
+
+    private static int characteristics(C.Featured featured) {
+        int characteristics = 0;
+        if (featured.is(C.Feature.ORDERED)) {
+            characteristics |= Spliterator.ORDERED;
+        }
+        if (featured.is(C.Feature.IMMUTABLE)) {
+            characteristics |= Spliterator.IMMUTABLE;
+        }
+        return characteristics;
+    }
+
+    /**
+     * Split a random access structure by index. Reports
+     * {@link Spliterator#SIZED} and {@link Spliterator#SUBSIZED}
+     */
+    private static abstract class IndexedSpliterator<T> implements Spliterator<T> {
+        private int index;
+        private final int fence;
+        private final int characteristics;
+
+        IndexedSpliterator(int origin, int fence, int characteristics) {
+            this.index = origin;
+            this.fence = fence;
+            this.characteristics = characteristics | SIZED | SUBSIZED;
+        }
+
+        abstract T get(int index);
+
+        abstract IndexedSpliterator<T> slice(int origin, int fence);
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            E.NPE(action);
+            if (index < fence) {
+                action.accept(get(index++));
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            E.NPE(action);
+            int i = index, hi = fence;
+            index = hi;
+            for (; i < hi; ++i) {
+                action.accept(get(i));
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int lo = index, mid = (lo + fence) >>> 1;
+            if (lo >= mid) {
+                return null;
+            }
+            index = mid;
+            return slice(lo, mid);
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return characteristics;
+        }
+    }
+
+    private static class ListSpliterator<T> extends IndexedSpliterator<T> {
+        private final List<T> list;
+
+        ListSpliterator(List<T> list, int origin, int fence, int characteristics) {
+            super(origin, fence, characteristics);
+            this.list = list;
+        }
+
+        @Override
+        T get(int index) {
+            return list.get(index);
+        }
+
+        @Override
+        IndexedSpliterator<T> slice(int origin, int fence) {
+            return new ListSpliterator<T>(list, origin, fence, characteristics());
+        }
+    }
+
+    private static class IntRangeSpliterator extends IndexedSpliterator<Integer> {
+        private final IntRange range;
+
+        IntRangeSpliterator(IntRange range, int origin, int fence, int characteristics) {
+            super(origin, fence, characteristics);
+            this.range = range;
+        }
+
+        @Override
+        Integer get(int index) {
+            return range.get(index);
+        }
+
+        @Override
+        IndexedSpliterator<Integer> slice(int origin, int fence) {
+            return new IntRangeSpliterator(range, origin, fence, characteristics());
+        }
+    }
+
+    private static final class CollectorImpl<T, A> implements Collector<T, A, C.List<T>> {
+        private final Supplier<A> supplier;
+        private final BiConsumer<A, T> accumulator;
+        private final BinaryOperator<A> combiner;
+        private final Function<A, C.List<T>> finisher;
+        private final Set<Characteristics> characteristics;
+
+        CollectorImpl(Supplier<A> supplier, BiConsumer<A, T> accumulator, BinaryOperator<A> combiner,
+                      Function<A, C.List<T>> finisher, Set<Characteristics> characteristics) {
+            this.supplier = supplier;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+            this.finisher = finisher;
+            this.characteristics = Collections.unmodifiableSet(characteristics);
+        }
+
+        @Override
+        public Supplier<A> supplier() {
+            return supplier;
+        }
+
+        @Override
+        public BiConsumer<A, T> accumulator() {
+            return accumulator;
+        }
+
+        @Override
+        public BinaryOperator<A> combiner() {
+            return combiner;
+        }
+
+        @Override
+        public Function<A, C.List<T>> finisher() {
+            return finisher;
+        }
+
+        @Override
+        public Set<Characteristics> characteristics() {
+            return characteristics;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Splits a char sequence into tokens without copying chars per token.
+ *
+ * <p>A source other than a {@link FastStr} is copied once into a FastStr,
+ * in the compact Latin-1 form when all of its chars fit. A token is then
+ * returned as a {@link FastStr} view sharing the buffer of the source,
+ * or can be read as start/end offsets through a {@link Cursor} without
+ * creating any object per token. Tokens are separated by a char,
+ * a string literal or any char from a set. Unlike {@link String#split(String)}
+ * the separator is never a regular expression, and empty tokens, including
+ * the trailing ones, are kept unless {@link #omitEmpty()} is called.</p>
+ *
+ * <pre>
+ *     for (FastStr token : Tokenizer.of(payload, ',')) {
+ *         ...
+ *     }
+ *     Tokenizer.Cursor cursor = Tokenizer.of(payload, "\r\n").cursor();
+ *     while (cursor.next()) {
+ *         int start = cursor.start(), end = cursor.end();
+ *         ...
+ *     }
+ * </pre>
+ *
+ * <p>A Tokenizer is immutable and can be iterated many times, each
+ * iteration splits the source again lazily.</p>
+ */
+public final class Tokenizer implements Iterable<FastStr> {
+
+    private static final int CHAR = 0;
+    private static final int LITERAL = 1;
+    private static final int ANY_OF = 2;
+
+    private final FastStr source;
+    private final int kind;
+    private final char separator;
+    private final FastStr literal;
+    private final String separators;
+    private final boolean omitEmpty;
+
+    private Tokenizer(FastStr source, int kind, char separator, FastStr literal, String separators, boolean omitEmpty) {
+        this.source = source;
+        this.kind = kind;
+        this.separator = separator;
+        this.literal = literal;
+        this.separators = separators;
+        this.omitEmpty = omitEmpty;
+    }
+
+    /**
+     * Returns a tokenizer of the same source and separator that skips
+     * empty tokens, i.e. consecutive, leading and trailing separators
+     * do not produce tokens
+     *
+     * @return a tokenizer that omits empty tokens
+     */
+    public Tokenizer omitEmpty() {
+        return omitEmpty ? this : new Tokenizer(source, kind, separator, literal, separators, true);
+    }
+
+    /**
+     * Returns the source being split
+     *
+     * @return the source as a FastStr
+     */
+    public FastStr source() {
+        return source;
+    }
+
+    /**
+     * Returns a new cursor positioned before the first token
+     *
+     * @return the cursor
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    @Override
+    public Iterator<FastStr> iterator() {
+        final Cursor cursor = new Cursor();
+        return new ReadOnlyIterator<FastStr>() {
+            private boolean fetched;
+            private boolean hasNext;
+
+            @Override
+            public boolean hasNext() {
+                if (!fetched) {
+                    hasNext = cursor.next();
+                    fetched = true;
+                }
+                return hasNext;
+            }
+
+            @Override
+            public FastStr next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                fetched = false;
+                return cursor.token();
+            }
+        };
+    }
+
+    /**
+     * Returns the tokens as a lazy sequence. The source is split when
+     * the sequence is traversed
+     *
+     * @return a sequence of tokens
+     */
+    public C.Sequence<FastStr> seq() {
+        return C.seq(this);
+    }
+
+    /**
+     * Returns the tokens in an immutable list
+     *
+     * @return the list of tokens
+     */
+    public C.List<FastStr> toList() {
+        ListBuilder<FastStr> lb = ListBuilder.create();
+        Cursor cursor = new Cursor();
+        while (cursor.next()) {
+            lb.add(cursor.token());
+        }
+        return lb.toList();
+    }
+
+    /**
+     * Iterates through the tokens by their offsets in the source
+     */
+    public final class Cursor {
+        private final int len = source.length();
+        // where the next token starts, len + 1 when there is no more token
+        private int pos;
+        private int start = -1;
+        private int end = -1;
+
+        private Cursor() {
+        }
+
+        /**
+         * Move to the next token
+         *
+         * @return {@code true} if there is a next token
+         */
+        public boolean next() {
+            while (pos <= len) {
+                int found = find(pos);
+                start = pos;
+                if (found < 0) {
+                    end = len;
+                    pos = len + 1;
+                } else {
+                    end = found;
+                    pos = found + (kind == LITERAL ? literal.length() : 1);
+                }
+                if (!omitEmpty || end > start) {
+                    return true;
+                }
+            }
+            start = end = -1;
+            return false;
+        }
+
+        /**
+         * Returns the start offset (inclusive) of the current token in the source
+         *
+         * @return the start offset
+         */
+        public int start() {
+            return start;
+        }
+
+        /**
+         * Returns the end offset (exclusive) of the current token in the source
+         *
+         * @return the end offset
+         */
+        public int end() {
+            return end;
+        }
+
+        /**
+         * Returns the current token as a view of the source
+         *
+         * @return the current token
+         * @throws NoSuchElementException if the cursor is not on a token
+         */
+        public FastStr token() {
+            if (start < 0) {
+                throw new NoSuchElementException();
+            }
+            return source.subList(start, end);
+        }
+
+        private int find(int from) {
+            switch (kind) {
+                case CHAR:
+                    return source.indexOf(separator, from);
+                case LITERAL:
+                    return source.indexOf(literal, from);
+                default:
+                    FastStr source = Tokenizer.this.source;
+                    String separators = Tokenizer.this.separators;
+                    for (int i = from; i < len; ++i) {
+                        if (separators.indexOf(source.charAt(i)) >= 0) {
+                            return i;
+                        }
+                    }
+                    return -1;
+            }
+        }
+    }
+
+    /**
+     * Returns a tokenizer that splits the chars by a separator char
+     *
+     * @param chars     the chars to be split
+     * @param separator the separator char
+     * @return the tokenizer
+     */
+    public static Tokenizer of(CharSequence chars, char separator) {
+        return new Tokenizer(FastStr.of(chars), CHAR, separator, null, null, false);
+    }
+
+    /**
+     * Returns a tokenizer that splits the chars by a string literal
+     *
+     * @param chars     the chars to be split
+     * @param separator the separator literal
+     * @return the tokenizer
+     * @throws IllegalArgumentException if the separator is empty
+     */
+    public static Tokenizer of(CharSequence chars, String separator) {
+        E.illegalArgumentIf(S.isEmpty(separator), "separator must not be empty string or null");
+        if (separator.length() == 1) {
+            return of(chars, separator.charAt(0));
+        }
+        return new Tokenizer(FastStr.of(chars), LITERAL, '\0', FastStr.of(separator), null, false);
+    }
+
+    /**
+     * Returns a tokenizer that splits the chars by any of the separator chars
+     *
+     * @param chars      the chars to be split
+     * @param separators the separator chars
+     * @return the tokenizer
+     * @throws IllegalArgumentException if the separators is empty
+     */
+    public static Tokenizer anyOf(CharSequence chars, String separators) {
+        E.illegalArgumentIf(S.isEmpty(separators), "separators must not be empty string or null");
+        if (separators.length() == 1) {
+            return of(chars, separators.charAt(0));
+        }
+        return new Tokenizer(FastStr.of(chars), ANY_OF, '\0', null, separators, false);
+    }
+
+}
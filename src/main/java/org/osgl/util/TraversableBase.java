@@ -21,9 +21,13 @@ package org.osgl.util;
  */
 
 import org.osgl.$;
+import org.osgl.exception.NotAppliedException;
 
 import java.util.EnumSet;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.stream.Stream;
 
 /**
  * Provide default implementation to some {@link C.Traversable} interface
@@ -85,6 +89,30 @@ TraversableBase<T> extends FeaturedBase implements C.Traversable<T> {
         }
     }
 
+    public Spliterator<T> spliterator() {
+        return Streams.spliterator(this);
+    }
+
+    /**
+     * Returns a sequential {@link Stream} of this traversable
+     *
+     * @return a stream of the elements
+     * @see Streams#stream(Iterable)
+     */
+    public Stream<T> stream() {
+        return Streams.stream(this);
+    }
+
+    /**
+     * Returns a parallel {@link Stream} of this traversable
+     *
+     * @return a parallel stream of the elements
+     * @see Streams#parallelStream(Iterable)
+     */
+    public Stream<T> parallelStream() {
+        return Streams.parallelStream(this);
+    }
+
     @Override
     public C.Traversable<T> lazy() {
         setFeature(C.Feature.LAZY);
@@ -170,17 +198,44 @@ TraversableBase<T> extends FeaturedBase implements C.Traversable<T> {
      */
     @Override
     public $.Option<T> findOne($.Function<? super T, Boolean> predicate) {
-        for (T t : this) {
-            if (predicate.apply(t)) {
-                return $.some(t);
-            }
-        }
-        return $.none();
+        Finder<T> finder = new Finder<T>(predicate);
+        forEachWhile(finder);
+        return finder.result();
+    }
+
+    @Override
+    public BloomFilter<T> toBloomFilter(double fpp) {
+        return BloomFilter.<T>create(size(), fpp).putAll(this);
+    }
+
+    @Override
+    public long approxDistinct() {
+        return HyperLogLog.<T>create().addAll(this).cardinality();
+    }
+
+    @Override
+    public <K> Map<K, C.List<T>> groupBy($.Function<? super T, ? extends K> keyFn) {
+        return Grouping.groupBy(this, is(C.Feature.PARALLEL), keyFn);
+    }
+
+    @Override
+    public <K> ObjectIntMap<K> countBy($.Function<? super T, ? extends K> keyFn) {
+        return Grouping.countBy(this, is(C.Feature.PARALLEL), keyFn);
+    }
+
+    @Override
+    public <K> Map<K, T> groupingReduce($.Function<? super T, ? extends K> keyFn, T identity, $.Func2<T, T, T> combiner) {
+        return Grouping.groupingReduce(this, is(C.Feature.PARALLEL), keyFn, identity, combiner);
+    }
+
+    @Override
+    public $.T2<C.List<T>, C.List<T>> partition($.Function<? super T, Boolean> predicate) {
+        return Grouping.partition(this, is(C.Feature.PARALLEL), predicate);
     }
 
     @Override
     public boolean anyMatch($.Function<? super T, Boolean> predicate) {
-        return findOne(predicate).isDefined();
+        return !forEachWhile(new Finder<T>(predicate));
     }
 
     @Override
@@ -190,7 +245,21 @@ TraversableBase<T> extends FeaturedBase implements C.Traversable<T> {
 
     @Override
     public boolean allMatch($.Function<? super T, Boolean> predicate) {
-        return noneMatch($.F.negate(predicate));
+        return forEachWhile(predicate);
+    }
+
+    @Override
+    public boolean forEachWhile($.Function<? super T, Boolean> visitor) {
+        for (T t : this) {
+            try {
+                if (!visitor.apply(t)) {
+                    return false;
+                }
+            } catch (NotAppliedException e) {
+                // ignore
+            }
+        }
+        return true;
     }
 
     @Override
@@ -218,4 +287,34 @@ TraversableBase<T> extends FeaturedBase implements C.Traversable<T> {
     public C.Traversable<T> filter($.Function<? super T, Boolean> predicate) {
         return FilteredTrav.of(this, predicate);
     }
+
+    /**
+     * A {@link C.Traversable#forEachWhile(Osgl.Function) forEachWhile}
+     * visitor that stops at the first element matches the predicate
+     *
+     * @param <T> the element type
+     */
+    static final class Finder<T> extends $.F1<T, Boolean> {
+        private final $.Function<? super T, Boolean> predicate;
+        private T found;
+        private boolean defined;
+
+        Finder($.Function<? super T, Boolean> predicate) {
+            this.predicate = predicate;
+        }
+
+        @Override
+        public Boolean apply(T t) {
+            if (predicate.apply(t)) {
+                found = t;
+                defined = true;
+                return false;
+            }
+            return true;
+        }
+
+        $.Option<T> result() {
+            return defined ? $.some(found) : $.<T>none();
+        }
+    }
 }
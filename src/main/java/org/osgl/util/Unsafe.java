@@ -96,7 +96,11 @@ public enum Unsafe {
     }
 
     /**
-     * Get the char array buf from a FastStr instance
+     * Get the char array buf from a FastStr instance.
+     *
+     * A FastStr in the compact Latin-1 form is not backed by a char array,
+     * in which case a new char array of its chars is returned
+     *
      * @param s the FastStr instance
      * @return the char array buf of the FastStr instance
      */
@@ -104,7 +108,8 @@ public enum Unsafe {
     public static char[] bufOf(FastStr s) {
         if (null == s) return EMPTY_CHAR_ARRAY;
         try {
-            return (char[]) FASTSTR_BUF.get(s);
+            char[] buf = (char[]) FASTSTR_BUF.get(s);
+            return null != buf ? buf : s.unsafeChars();
         } catch (IllegalAccessException e) {
             throw E.unexpected(e);
         }
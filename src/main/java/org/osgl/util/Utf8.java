@@ -0,0 +1,435 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes chars to UTF-8 bytes and decodes UTF-8 bytes to chars directly
+ * between char arrays and byte arrays, {@link ByteBuffer}s or
+ * {@link OutputStream}s, without the intermediate {@code String} and
+ * byte array copies of {@link String#getBytes(java.nio.charset.Charset)}
+ * and {@link String#String(byte[], java.nio.charset.Charset)}.
+ *
+ * <p>The results are the same as the JDK UTF-8 charset: an unpaired
+ * surrogate is encoded as {@code '?'}, and a malformed byte sequence is
+ * decoded as {@code U+FFFD}.</p>
+ *
+ * <pre>
+ *     byte[] bytes = new byte[Utf8.encodedLength(chars, 0, len)];
+ *     Utf8.encode(chars, 0, len, bytes, 0);
+ * </pre>
+ *
+ * @see FastStr#writeUtf8(OutputStream)
+ * @see S.Buffer#writeUtf8(OutputStream)
+ */
+public enum Utf8 {
+    ;
+
+    // chars encoded per round when the target is not an array
+    private static final int CHUNK = 1024;
+
+    // room for CHUNK chars plus the low surrogate of a pair on the boundary
+    private static final ThreadLocal<byte[]> SCRATCH = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[CHUNK * 3 + 3];
+        }
+    };
+
+    private static final char REPLACEMENT = '\uFFFD';
+
+    /**
+     * Returns the number of bytes of the UTF-8 encoding of a char sequence
+     *
+     * @param s the char sequence
+     * @return the encoded length
+     */
+    public static int encodedLength(CharSequence s) {
+        int len = s.length();
+        int n = len;
+        for (int i = 0; i < len; ++i) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                n += 1;
+            } else if (!Character.isSurrogate(c)) {
+                n += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(s.charAt(i + 1))) {
+                // two chars to four bytes
+                n += 2;
+                i++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Returns the number of bytes of the UTF-8 encoding of chars in
+     * {@code src} from {@code from} (inclusive) to {@code to} (exclusive)
+     *
+     * @param src the chars
+     * @param from the start index
+     * @param to the end index
+     * @return the encoded length
+     */
+    public static int encodedLength(char[] src, int from, int to) {
+        int n = to - from;
+        int i = from;
+        while (i < to && src[i] < 0x80) {
+            i++;
+        }
+        for (; i < to; ++i) {
+            char c = src[i];
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                n += 1;
+            } else if (!Character.isSurrogate(c)) {
+                n += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < to && Character.isLowSurrogate(src[i + 1])) {
+                n += 2;
+                i++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Encodes chars in {@code src} from {@code from} (inclusive) to
+     * {@code to} (exclusive) into {@code dst} starting at {@code pos}.
+     * The caller must make sure {@code dst} has the room, either by
+     * {@link #encodedLength(char[], int, int)} or by three bytes per char
+     *
+     * @param src the chars
+     * @param from the start index
+     * @param to the end index
+     * @param dst the target byte array
+     * @param pos the start position in {@code dst}
+     * @return the position after the last byte written
+     */
+    public static int encode(char[] src, int from, int to, byte[] dst, int pos) {
+        int i = from;
+        int asciiEnd = Math.min(to, from + dst.length - pos);
+        while (i < asciiEnd) {
+            char c = src[i];
+            if (c >= 0x80) {
+                break;
+            }
+            dst[pos++] = (byte) c;
+            i++;
+        }
+        for (; i < to; ++i) {
+            char c = src[i];
+            if (c < 0x80) {
+                dst[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                dst[pos++] = (byte) (0xC0 | (c >> 6));
+                dst[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (!Character.isSurrogate(c)) {
+                dst[pos++] = (byte) (0xE0 | (c >> 12));
+                dst[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                dst[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < to && Character.isLowSurrogate(src[i + 1])) {
+                int cp = Character.toCodePoint(c, src[++i]);
+                dst[pos++] = (byte) (0xF0 | (cp >> 18));
+                dst[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                dst[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                dst[pos++] = (byte) (0x80 | (cp & 0x3F));
+            } else {
+                dst[pos++] = '?';
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Encodes chars in {@code src} from {@code from} (inclusive) to
+     * {@code to} (exclusive) into {@code dst} at its current position.
+     * Heap buffers are written through their backing array.
+     *
+     * @param src the chars
+     * @param from the start index
+     * @param to the end index
+     * @param dst the target buffer
+     * @throws BufferOverflowException if {@code dst} does not have the room,
+     *         in which case nothing is written
+     */
+    public static void encode(char[] src, int from, int to, ByteBuffer dst) {
+        int remaining = dst.remaining();
+        if (remaining < (to - from) * 3 && remaining < encodedLength(src, from, to)) {
+            throw new BufferOverflowException();
+        }
+        if (dst.hasArray()) {
+            int offset = dst.arrayOffset();
+            int end = encode(src, from, to, dst.array(), offset + dst.position());
+            dst.position(end - offset);
+            return;
+        }
+        byte[] scratch = SCRATCH.get();
+        while (from < to) {
+            int end = chunkEnd(src, from, to);
+            dst.put(scratch, 0, encode(src, from, end, scratch, 0));
+            from = end;
+        }
+    }
+
+    /**
+     * Encodes chars in {@code src} from {@code from} (inclusive) to
+     * {@code to} (exclusive) to an output stream. The bytes are written
+     * in chunks from a thread local scratch array.
+     *
+     * @param src the chars
+     * @param from the start index
+     * @param to the end index
+     * @param os the output stream
+     */
+    public static void encode(char[] src, int from, int to, OutputStream os) {
+        byte[] scratch = SCRATCH.get();
+        try {
+            while (from < to) {
+                int end = chunkEnd(src, from, to);
+                os.write(scratch, 0, encode(src, from, end, scratch, 0));
+                from = end;
+            }
+        } catch (IOException e) {
+            throw E.ioException(e);
+        }
+    }
+
+    /**
+     * Decodes UTF-8 bytes in {@code src} from {@code from} (inclusive) to
+     * {@code to} (exclusive) into {@code dst} starting at {@code pos}.
+     * A byte never decodes to more than one char, so {@code dst} needs
+     * at most {@code to - from} chars of room
+     *
+     * @param src the bytes
+     * @param from the start index
+     * @param to the end index
+     * @param dst the target char array
+     * @param pos the start position in {@code dst}
+     * @return the position after the last char written
+     */
+    public static int decode(byte[] src, int from, int to, char[] dst, int pos) {
+        int i = from;
+        while (i < to) {
+            byte b = src[i];
+            if (b < 0) {
+                break;
+            }
+            dst[pos++] = (char) b;
+            i++;
+        }
+        while (i < to) {
+            int b0 = src[i];
+            if (b0 >= 0) {
+                dst[pos++] = (char) b0;
+                i++;
+                continue;
+            }
+            b0 &= 0xFF;
+            if (b0 < 0xC2) {
+                // continuation byte or overlong lead byte
+                dst[pos++] = REPLACEMENT;
+                i++;
+            } else if (b0 < 0xE0) {
+                if (i + 1 < to && isContinuation(src[i + 1])) {
+                    dst[pos++] = (char) (((b0 & 0x1F) << 6) | (src[i + 1] & 0x3F));
+                    i += 2;
+                } else {
+                    dst[pos++] = REPLACEMENT;
+                    i++;
+                }
+            } else if (b0 < 0xF0) {
+                if (i + 1 == to || !inRange(src[i + 1], b0 == 0xE0 ? 0xA0 : 0x80, 0xBF)) {
+                    dst[pos++] = REPLACEMENT;
+                    i++;
+                } else if (i + 2 == to || !isContinuation(src[i + 2])) {
+                    dst[pos++] = REPLACEMENT;
+                    i += 2;
+                } else {
+                    char c = (char) (((b0 & 0x0F) << 12) | ((src[i + 1] & 0x3F) << 6) | (src[i + 2] & 0x3F));
+                    // an encoded surrogate is replaced as a whole, as the JDK does
+                    dst[pos++] = Character.isSurrogate(c) ? REPLACEMENT : c;
+                    i += 3;
+                }
+            } else if (b0 < 0xF5) {
+                int lo = b0 == 0xF0 ? 0x90 : 0x80;
+                int hi = b0 == 0xF4 ? 0x8F : 0xBF;
+                if (i + 1 == to || !inRange(src[i + 1], lo, hi)) {
+                    dst[pos++] = REPLACEMENT;
+                    i++;
+                } else if (i + 2 == to || !isContinuation(src[i + 2])) {
+                    dst[pos++] = REPLACEMENT;
+                    i += 2;
+                } else if (i + 3 == to || !isContinuation(src[i + 3])) {
+                    dst[pos++] = REPLACEMENT;
+                    i += 3;
+                } else {
+                    int cp = ((b0 & 0x07) << 18) | ((src[i + 1] & 0x3F) << 12)
+                            | ((src[i + 2] & 0x3F) << 6) | (src[i + 3] & 0x3F);
+                    dst[pos++] = Character.highSurrogate(cp);
+                    dst[pos++] = Character.lowSurrogate(cp);
+                    i += 4;
+                }
+            } else {
+                dst[pos++] = REPLACEMENT;
+                i++;
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Decodes the remaining UTF-8 bytes of {@code src} into {@code dst}
+     * starting at {@code pos}. On return the position of {@code src} is
+     * its limit. {@code dst} needs at most {@code src.remaining()} chars
+     * of room
+     *
+     * @param src the source buffer
+     * @param dst the target char array
+     * @param pos the start position in {@code dst}
+     * @return the position after the last char written
+     */
+    public static int decode(ByteBuffer src, char[] dst, int pos) {
+        if (src.hasArray()) {
+            int offset = src.arrayOffset();
+            pos = decode(src.array(), offset + src.position(), offset + src.limit(), dst, pos);
+            src.position(src.limit());
+            return pos;
+        }
+        byte[] scratch = SCRATCH.get();
+        while (src.hasRemaining()) {
+            int n = Math.min(scratch.length, src.remaining());
+            src.get(scratch, 0, n);
+            int end = n;
+            if (src.hasRemaining()) {
+                // leave a sequence split by the chunk boundary to the next round
+                int lead = n - 1;
+                while (lead > 0 && lead > n - 4 && isContinuation(scratch[lead])) {
+                    lead--;
+                }
+                int b0 = scratch[lead] & 0xFF;
+                if (b0 >= 0xC2 && b0 < 0xF5 && sequenceLength(b0) > n - lead) {
+                    end = lead;
+                    src.position(src.position() - (n - lead));
+                }
+            }
+            pos = decode(scratch, 0, end, dst, pos);
+        }
+        return pos;
+    }
+
+    /*
+     * Returns the number of bytes of the UTF-8 encoding of Latin-1 chars
+     */
+    static int encodedLengthLatin1(byte[] src, int from, int to) {
+        int n = to - from;
+        for (int i = from; i < to; ++i) {
+            if (src[i] < 0) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /*
+     * Encodes Latin-1 chars, see encode(char[], int, int, byte[], int)
+     */
+    static int encodeLatin1(byte[] src, int from, int to, byte[] dst, int pos) {
+        for (int i = from; i < to; ++i) {
+            byte b = src[i];
+            if (b >= 0) {
+                dst[pos++] = b;
+            } else {
+                dst[pos++] = (byte) (0xC0 | ((b & 0xFF) >> 6));
+                dst[pos++] = (byte) (0x80 | (b & 0x3F));
+            }
+        }
+        return pos;
+    }
+
+    static void encodeLatin1(byte[] src, int from, int to, ByteBuffer dst) {
+        int remaining = dst.remaining();
+        if (remaining < (to - from) * 2 && remaining < encodedLengthLatin1(src, from, to)) {
+            throw new BufferOverflowException();
+        }
+        if (dst.hasArray()) {
+            int offset = dst.arrayOffset();
+            int end = encodeLatin1(src, from, to, dst.array(), offset + dst.position());
+            dst.position(end - offset);
+            return;
+        }
+        byte[] scratch = SCRATCH.get();
+        while (from < to) {
+            int end = Math.min(to, from + CHUNK);
+            dst.put(scratch, 0, encodeLatin1(src, from, end, scratch, 0));
+            from = end;
+        }
+    }
+
+    static void encodeLatin1(byte[] src, int from, int to, OutputStream os) {
+        byte[] scratch = SCRATCH.get();
+        try {
+            while (from < to) {
+                int end = Math.min(to, from + CHUNK);
+                os.write(scratch, 0, encodeLatin1(src, from, end, scratch, 0));
+                from = end;
+            }
+        } catch (IOException e) {
+            throw E.ioException(e);
+        }
+    }
+
+    /*
+     * Returns the end of the next chunk to be encoded into the scratch,
+     * which never splits a surrogate pair
+     */
+    private static int chunkEnd(char[] src, int from, int to) {
+        int end = Math.min(to, from + CHUNK);
+        if (end < to && Character.isHighSurrogate(src[end - 1]) && Character.isLowSurrogate(src[end])) {
+            end++;
+        }
+        return end;
+    }
+
+    // the length of the sequence started by a lead byte in [0xC2, 0xF5)
+    private static int sequenceLength(int b0) {
+        return b0 < 0xE0 ? 2 : b0 < 0xF0 ? 3 : 4;
+    }
+
+    private static boolean isContinuation(byte b) {
+        return (b & 0xC0) == 0x80;
+    }
+
+    private static boolean inRange(byte b, int lo, int hi) {
+        int i = b & 0xFF;
+        return i >= lo && i <= hi;
+    }
+
+}
@@ -511,7 +511,7 @@ public class ValueObject implements Serializable {
 
     @Override
     public int hashCode() {
-        return $.hc(type().get(this));
+        return $.hc(type().<Object>get(this));
     }
 
     @Override
@@ -0,0 +1,268 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.$;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Iterator;
+
+/**
+ * A lazy sequence of immutable array backed chunks of a source sequence.
+ * Implements {@link C.Sequence#batch(int)},
+ * {@link C.Sequence#window(int, int)} and
+ * {@link C.Sequence#chunkBy(org.osgl.Osgl.Function)}.
+ *
+ * <p>Each traversal of this sequence traverses the source once. A chunk
+ * is never changed after it is returned. Overlapping sliding windows are
+ * views of a shared block array that holds a number of consecutive
+ * windows, so elements are copied once per block instead of once per
+ * window.</p>
+ */
+class WindowedSeq<T> extends SequenceBase<C.List<T>> {
+
+    /**
+     * The number of sliding windows sharing one block array
+     */
+    static final int WINDOWS_PER_BLOCK = 16;
+
+    private final Iterable<? extends T> source;
+    private final int size;
+    private final int step;
+    // whether the last window could have less than size elements
+    private final boolean partial;
+    private final $.Function<? super T, ?> classifier;
+
+    private WindowedSeq(Iterable<? extends T> source, int size, int step, boolean partial, $.Function<? super T, ?> classifier) {
+        this.source = source;
+        this.size = size;
+        this.step = step;
+        this.partial = partial;
+        this.classifier = classifier;
+    }
+
+    @Override
+    protected EnumSet<C.Feature> initFeatures() {
+        return EnumSet.of(C.Feature.LAZY, C.Feature.READONLY, C.Feature.ORDERED);
+    }
+
+    @Override
+    public int size() throws UnsupportedOperationException {
+        if (null != classifier) {
+            // make sure the source is limited
+            sourceSize();
+            int n = 0;
+            for (Iterator<?> itr = iterator(); itr.hasNext(); itr.next()) {
+                n++;
+            }
+            return n;
+        }
+        int n = sourceSize();
+        if (partial) {
+            return (n + size - 1) / size;
+        }
+        return n < size ? 0 : (n - size) / step + 1;
+    }
+
+    private int sourceSize() throws UnsupportedOperationException {
+        if (source instanceof Collection) {
+            return ((Collection<?>) source).size();
+        }
+        if (source instanceof C.Traversable) {
+            return ((C.Traversable<?>) source).size();
+        }
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<C.List<T>> iterator() {
+        Iterator<? extends T> itr = source.iterator();
+        if (null != classifier) {
+            return new ChunkByIterator<T>(itr, classifier);
+        }
+        if (step < size) {
+            return new SlidingIterator<T>(itr, size, step);
+        }
+        return new HoppingIterator<T>(itr, size, step, partial);
+    }
+
+    /**
+     * Windows that do not overlap. {@code step - size} elements are skipped
+     * between windows
+     */
+    private static class HoppingIterator<T> extends StatefulIterator<C.List<T>> {
+        private final Iterator<? extends T> itr;
+        private final int size;
+        private final int gap;
+        private final boolean partial;
+        private boolean started;
+
+        HoppingIterator(Iterator<? extends T> itr, int size, int step, boolean partial) {
+            this.itr = itr;
+            this.size = size;
+            this.gap = step - size;
+            this.partial = partial;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected $.Option<C.List<T>> getCurrent() {
+            Iterator<? extends T> itr = this.itr;
+            if (started) {
+                for (int i = 0; i < gap && itr.hasNext(); ++i) {
+                    itr.next();
+                }
+            }
+            started = true;
+            if (!itr.hasNext()) {
+                return $.none();
+            }
+            Object[] a = new Object[size];
+            int n = 0;
+            while (n < size && itr.hasNext()) {
+                a[n++] = itr.next();
+            }
+            if (n < size) {
+                if (!partial) {
+                    return $.none();
+                }
+                a = Arrays.copyOf(a, n);
+            }
+            return $.some(ImmutableList.of((T[]) a));
+        }
+    }
+
+    /**
+     * Overlapping windows as views of a shared block array
+     */
+    private static class SlidingIterator<T> extends StatefulIterator<C.List<T>> {
+        private final Iterator<? extends T> itr;
+        private final int size;
+        private final int step;
+        private Object[] block;
+        private C.List<T> blockList;
+        private int filled;
+        private int start;
+
+        SlidingIterator(Iterator<? extends T> itr, int size, int step) {
+            this.itr = itr;
+            this.size = size;
+            this.step = step;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected $.Option<C.List<T>> getCurrent() {
+            if (null == block || start + size > block.length) {
+                // elements before start are not part of any further window
+                Object[] newBlock = new Object[size + step * (WINDOWS_PER_BLOCK - 1)];
+                int carried = 0;
+                if (null != block && start < filled) {
+                    carried = filled - start;
+                    System.arraycopy(block, start, newBlock, 0, carried);
+                }
+                block = newBlock;
+                blockList = ImmutableList.of((T[]) newBlock);
+                filled = carried;
+                start = 0;
+            }
+            int end = start + size;
+            Object[] block = this.block;
+            Iterator<? extends T> itr = this.itr;
+            while (filled < end && itr.hasNext()) {
+                block[filled++] = itr.next();
+            }
+            if (filled < end) {
+                return $.none();
+            }
+            C.List<T> window = blockList.subList(start, end);
+            start += step;
+            return $.some(window);
+        }
+    }
+
+    /**
+     * Runs of consecutive elements that are mapped to the same value by
+     * the classifier
+     */
+    private static class ChunkByIterator<T> extends StatefulIterator<C.List<T>> {
+        private final Iterator<? extends T> itr;
+        private final $.Function<? super T, ?> classifier;
+        private boolean hasPending;
+        private T pending;
+        private Object pendingKey;
+
+        ChunkByIterator(Iterator<? extends T> itr, $.Function<? super T, ?> classifier) {
+            this.itr = itr;
+            this.classifier = classifier;
+        }
+
+        @Override
+        protected $.Option<C.List<T>> getCurrent() {
+            Iterator<? extends T> itr = this.itr;
+            if (!hasPending) {
+                if (!itr.hasNext()) {
+                    return $.none();
+                }
+                pending = itr.next();
+                pendingKey = classifier.apply(pending);
+            }
+            ListBuilder<T> chunk = new ListBuilder<T>(10);
+            chunk.append(pending);
+            Object key = pendingKey;
+            hasPending = false;
+            while (itr.hasNext()) {
+                T t = itr.next();
+                Object k = classifier.apply(t);
+                if (!$.eq(key, k)) {
+                    pending = t;
+                    pendingKey = k;
+                    hasPending = true;
+                    break;
+                }
+                chunk.append(t);
+            }
+            if (!hasPending) {
+                pending = null;
+                pendingKey = null;
+            }
+            return $.some(chunk.toList());
+        }
+    }
+
+    static <T> C.Sequence<C.List<T>> batch(Iterable<? extends T> source, int size) {
+        E.illegalArgumentIf(size < 1, "size shall be positive: %s", size);
+        return new WindowedSeq<T>(source, size, size, true, null);
+    }
+
+    static <T> C.Sequence<C.List<T>> window(Iterable<? extends T> source, int size, int step) {
+        E.illegalArgumentIf(size < 1, "size shall be positive: %s", size);
+        E.illegalArgumentIf(step < 1, "step shall be positive: %s", step);
+        return new WindowedSeq<T>(source, size, step, false, null);
+    }
+
+    static <T> C.Sequence<C.List<T>> chunkBy(Iterable<? extends T> source, $.Function<? super T, ?> classifier) {
+        E.NPE(classifier);
+        return new WindowedSeq<T>(source, 0, 0, true, classifier);
+    }
+}
@@ -21,10 +21,12 @@ package org.osgl.util;
  */
 
 import org.osgl.$;
+import org.osgl.exception.NotAppliedException;
 
 import java.util.EnumSet;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.RandomAccess;
 
 /**
  * Created with IntelliJ IDEA.
@@ -69,9 +71,62 @@ class ZippedList<A, B> extends ListBase<$.T2<A, B>> {
 
     @Override
     public $.T2<A, B> get(int index) {
+        if (defA.isDefined()) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException();
+            }
+            A va = index < a.size() ? a.get(index) : defA.get();
+            B vb = index < b.size() ? b.get(index) : defB.get();
+            return $.T2(va, vb);
+        }
         return $.T2(a.get(index), b.get(index));
     }
 
+    @Override
+    protected void forEachLeft(int from, int to, $.Function<? super $.T2<A, B>, ?> visitor) throws $.Break {
+        if (!randomAccess()) {
+            super.forEachLeft(from, to, visitor);
+            return;
+        }
+        for (int i = from; i < to; ++i) {
+            try {
+                visitor.apply(get(i));
+            } catch (NotAppliedException e) {
+                // ignore
+            }
+        }
+    }
+
+    @Override
+    protected void forEachRight(int from, int to, $.Function<? super $.T2<A, B>, ?> visitor) throws $.Break {
+        if (!randomAccess()) {
+            super.forEachRight(from, to, visitor);
+            return;
+        }
+        for (int i = to - 1; i >= from; --i) {
+            try {
+                visitor.apply(get(i));
+            } catch (NotAppliedException e) {
+                // ignore
+            }
+        }
+    }
+
+    @Override
+    protected void copyTo(int from, int to, Object[] dest, int destPos) {
+        if (!randomAccess()) {
+            super.copyTo(from, to, dest, destPos);
+            return;
+        }
+        for (int i = from; i < to; ++i) {
+            dest[destPos++] = get(i);
+        }
+    }
+
+    private boolean randomAccess() {
+        return a instanceof RandomAccess && b instanceof RandomAccess;
+    }
+
     @Override
     public ListIterator<$.T2<A, B>> listIterator(int index) {
         if (defA.isDefined()) {
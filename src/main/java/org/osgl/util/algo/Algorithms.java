@@ -49,4 +49,28 @@ public enum Algorithms {
     public static final <T> ArrayInsertionSortInplace<T> arrayInsertionSortInplace() {
         return ARRAY_INSERTION_SORT_INPLACE;
     }
+
+    @SuppressWarnings("rawtypes")
+    public static final ArrayTimSortInplace ARRAY_TIM_SORT_INPLACE = new ArrayTimSortInplace();
+    @SuppressWarnings("unchecked")
+    public static final <T> ArrayTimSortInplace<T> arrayTimSortInplace() {
+        return ARRAY_TIM_SORT_INPLACE;
+    }
+
+    @SuppressWarnings("rawtypes")
+    public static final ArrayParallelMergeSortInplace ARRAY_PARALLEL_MERGE_SORT_INPLACE = new ArrayParallelMergeSortInplace();
+    @SuppressWarnings("unchecked")
+    public static final <T> ArrayParallelMergeSortInplace<T> arrayParallelMergeSortInplace() {
+        return ARRAY_PARALLEL_MERGE_SORT_INPLACE;
+    }
+
+    public static final PrimitiveArrayRadixSort RADIX_SORT = new PrimitiveArrayRadixSort();
+
+    public static final PrimitiveArrayBinarySearch BRANCH_FREE_BINARY_SEARCH = new PrimitiveArrayBinarySearch();
+
+    public static final EytzingerLayout EYTZINGER_LAYOUT = new EytzingerLayout();
+
+    public static final ArrayIntroSelect ARRAY_INTRO_SELECT = new ArrayIntroSelect();
+
+    public static final ArrayTopK ARRAY_TOP_K = new ArrayTopK();
 }
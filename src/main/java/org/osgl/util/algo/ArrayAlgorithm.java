@@ -42,5 +42,11 @@ public interface ArrayAlgorithm extends Algorithm {
                 throw new IndexOutOfBoundsException();
             }
         }
+
+        public static void checkRange(int length, int from, int to) {
+            if (from < 0 || to > length || from > to) {
+                throw new IndexOutOfBoundsException();
+            }
+        }
     }
 }
@@ -0,0 +1,151 @@
+package org.osgl.util.algo;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.util.E;
+
+import java.util.Comparator;
+
+/**
+ * Selection of the n-th element in an array range, also known as
+ * {@code nth_element}.
+ *
+ * <p>The implementation is a quickselect with median of three pivots and
+ * three way partitioning, so ranges with lots of duplicates are handled in
+ * linear time. If the partitioning fails to shrink the range fast enough
+ * the remaining range is sorted with {@link ArrayTimSortInplace}, which
+ * bounds the worst case to {@code O(n log n)}.</p>
+ */
+public class ArrayIntroSelect implements ArrayAlgorithm {
+
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    /**
+     * Rearrange {@code a[from, to)} so that the element at {@code n} is the
+     * element that would be there if the range were sorted, all elements
+     * before it are not greater than it and all elements after it are not
+     * less than it
+     *
+     * @param a the array
+     * @param from the start index (inclusive)
+     * @param to the end index (exclusive)
+     * @param n the index of the element to be selected
+     * @param comp the comparator
+     * @param <T> the element type
+     * @return the element at index {@code n}
+     */
+    public <T> T select(T[] a, int from, int to, int n, Comparator<? super T> comp) {
+        Util.checkRange(a.length, from, to);
+        if (n < from || n >= to) {
+            throw new IndexOutOfBoundsException();
+        }
+        int lo = from, hi = to - 1;
+        int depthLimit = 2 * (32 - Integer.numberOfLeadingZeros(to - from));
+        while (hi > lo) {
+            if (hi - lo < INSERTION_SORT_THRESHOLD) {
+                insertionSort(a, lo, hi, comp);
+                break;
+            }
+            if (depthLimit-- == 0) {
+                ArrayTimSortInplace.sort(a, lo, hi + 1, comp, null, 0);
+                break;
+            }
+            T pivot = medianOfThree(a, lo, (lo + hi) >>> 1, hi, comp);
+            // a[lo, lt) < pivot, a[lt, i) == pivot, a(gt, hi] > pivot
+            int lt = lo, i = lo, gt = hi;
+            while (i <= gt) {
+                int c = comp.compare(a[i], pivot);
+                if (c < 0) {
+                    swap(a, lt++, i++);
+                } else if (c > 0) {
+                    swap(a, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            if (n < lt) {
+                hi = lt - 1;
+            } else if (n > gt) {
+                lo = gt + 1;
+            } else {
+                break;
+            }
+        }
+        return a[n];
+    }
+
+    /**
+     * Rearrange {@code a[from, to)} so that {@code a[from, from + k)}
+     * contains the {@code k} smallest elements in order. The order of the
+     * remaining elements is not specified
+     *
+     * @param a the array
+     * @param from the start index (inclusive)
+     * @param to the end index (exclusive)
+     * @param k the number of elements to be sorted
+     * @param comp the comparator
+     * @param <T> the element type
+     * @return the array
+     */
+    public <T> T[] partialSort(T[] a, int from, int to, int k, Comparator<? super T> comp) {
+        Util.checkRange(a.length, from, to);
+        E.illegalArgumentIf(k < 0, "k shall not be negative: %s", k);
+        if (k >= to - from) {
+            ArrayTimSortInplace.sort(a, from, to, comp, null, 0);
+        } else if (k > 0) {
+            select(a, from, to, from + k - 1, comp);
+            ArrayTimSortInplace.sort(a, from, from + k - 1, comp, null, 0);
+        }
+        return a;
+    }
+
+    private static <T> T medianOfThree(T[] a, int i, int j, int k, Comparator<? super T> comp) {
+        T x = a[i], y = a[j], z = a[k];
+        if (comp.compare(x, y) < 0) {
+            if (comp.compare(y, z) < 0) {
+                return y;
+            }
+            return comp.compare(x, z) < 0 ? z : x;
+        }
+        if (comp.compare(x, z) < 0) {
+            return x;
+        }
+        return comp.compare(y, z) < 0 ? z : y;
+    }
+
+    private static <T> void insertionSort(T[] a, int lo, int hi, Comparator<? super T> comp) {
+        for (int i = lo + 1; i <= hi; ++i) {
+            T t = a[i];
+            int j = i - 1;
+            while (j >= lo && comp.compare(a[j], t) > 0) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = t;
+        }
+    }
+
+    private static void swap(Object[] a, int i, int j) {
+        Object t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+}
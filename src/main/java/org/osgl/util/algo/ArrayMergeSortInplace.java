@@ -35,12 +35,7 @@ import java.util.Comparator;
 public class ArrayMergeSortInplace<T> extends ArraySortInplaceBase<T> implements ArraySort<T> {
 
     protected T[] sort0(T[] ts, int from, int to, Comparator<T> comp) {
-        if (to - from < 8) {
-            ArrayInsertionSortInplace<T> is = Algorithms.arrayInsertionSortInplace();
-            return is.sort0(ts, from, to, comp);
-        }
-        Object[] merged = ArrayMergeSort.mergeSort(ts, from, to, comp);
-        System.arraycopy(merged, 0, ts, from, to - from);
+        ArrayTimSortInplace.sort(ts, from, to, comp, null, 0);
         return ts;
     }
 
@@ -0,0 +1,145 @@
+package org.osgl.util.algo;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Comparator;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A stable in place parallel merge sort based on the fork/join framework.
+ *
+ * <p>The array is split into chunks which are sorted with
+ * {@link ArrayTimSortInplace} in parallel, then the sorted chunks are merged
+ * pairwise. Large merges are split again around a pivot found with binary
+ * search, so merging also runs in parallel. A single scratch array of the
+ * same length as the range to be sorted is allocated per sort and shared by
+ * all tasks.</p>
+ *
+ * <p>Ranges smaller than {@link #MIN_PARALLEL_SIZE} are sorted sequentially.</p>
+ */
+public class ArrayParallelMergeSortInplace<T> extends ArraySortInplaceBase<T> implements ArraySort<T> {
+
+    /**
+     * Ranges smaller than this are sorted in the calling thread
+     */
+    public static final int MIN_PARALLEL_SIZE = 1 << 13;
+
+    protected T[] sort0(T[] ts, int from, int to, Comparator<T> comp) {
+        int n = to - from;
+        int parallelism = ForkJoin.parallelism();
+        if (n < MIN_PARALLEL_SIZE || parallelism < 2) {
+            ArrayTimSortInplace.sort(ts, from, to, comp, null, 0);
+            return ts;
+        }
+        int grain = Math.max(n / (parallelism << 2), MIN_PARALLEL_SIZE);
+        ForkJoin.invoke(new Sorter<T>(ts, new Object[n], from, from, to, grain, comp));
+        return ts;
+    }
+
+    /**
+     * Sort {@code a[lo, hi)} in place. {@code w[lo - base, hi - base)} is
+     * used as the scratch buffer
+     */
+    private static final class Sorter<T> extends RecursiveAction {
+        private final T[] a;
+        private final Object[] w;
+        private final int base, lo, hi, grain;
+        private final Comparator<? super T> comp;
+
+        Sorter(T[] a, Object[] w, int base, int lo, int hi, int grain, Comparator<? super T> comp) {
+            this.a = a;
+            this.w = w;
+            this.base = base;
+            this.lo = lo;
+            this.hi = hi;
+            this.grain = grain;
+            this.comp = comp;
+        }
+
+        @Override
+        protected void compute() {
+            int n = hi - lo;
+            if (n <= grain) {
+                ArrayTimSortInplace.sort(a, lo, hi, comp, w, lo - base);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new Sorter<T>(a, w, base, lo, mid, grain, comp),
+                    new Sorter<T>(a, w, base, mid, hi, grain, comp));
+            if (comp.compare(a[mid], a[mid - 1]) >= 0) {
+                // already in order
+                return;
+            }
+            new Merger<T>(a, w, lo, mid, mid, hi, lo - base, grain, comp).invoke();
+            System.arraycopy(w, lo - base, a, lo, n);
+        }
+
+        private static final long serialVersionUID = 7453195843580018650L;
+    }
+
+    /**
+     * Stable merge of {@code a[lo1, hi1)} and {@code a[lo2, hi2)} into
+     * {@code w} starting from {@code dst}
+     */
+    private static final class Merger<T> extends RecursiveAction {
+        private final T[] a;
+        private final Object[] w;
+        private final int lo1, hi1, lo2, hi2, dst, grain;
+        private final Comparator<? super T> comp;
+
+        Merger(T[] a, Object[] w, int lo1, int hi1, int lo2, int hi2, int dst, int grain, Comparator<? super T> comp) {
+            this.a = a;
+            this.w = w;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dst = dst;
+            this.grain = grain;
+            this.comp = comp;
+        }
+
+        @Override
+        protected void compute() {
+            int len1 = hi1 - lo1, len2 = hi2 - lo2;
+            if (len1 + len2 <= grain || len1 == 0 || len2 == 0) {
+                ArrayTimSortInplace.merge(a, lo1, hi1, lo2, hi2, w, dst, comp);
+                return;
+            }
+            int m1, m2;
+            if (len1 >= len2) {
+                // right elements equal to the pivot go after it
+                m1 = (lo1 + hi1) >>> 1;
+                m2 = ArrayTimSortInplace.lowerBound(a, lo2, hi2, a[m1], comp);
+            } else {
+                // left elements equal to the pivot go before it
+                m2 = (lo2 + hi2) >>> 1;
+                m1 = ArrayTimSortInplace.upperBound(a, lo1, hi1, a[m2], comp);
+            }
+            int split = dst + (m1 - lo1) + (m2 - lo2);
+            invokeAll(new Merger<T>(a, w, lo1, m1, lo2, m2, dst, grain, comp),
+                    new Merger<T>(a, w, m1, hi1, m2, hi2, split, grain, comp));
+        }
+
+        private static final long serialVersionUID = -5735794176712277923L;
+    }
+
+}
@@ -0,0 +1,342 @@
+package org.osgl.util.algo;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Comparator;
+
+/**
+ * A stable in place sort modeled after TimSort.
+ *
+ * <p>The sort finds natural ascending (or strictly descending) runs in the
+ * array, extends short runs with binary insertion sort and merges runs as
+ * they are pushed onto a run stack. Merges copy the smaller of the two runs
+ * into a single scratch buffer which is allocated once per sort and reused
+ * by all merges, so the garbage produced by a sort is bounded by half of
+ * the number of elements sorted.</p>
+ */
+public class ArrayTimSortInplace<T> extends ArraySortInplaceBase<T> implements ArraySort<T> {
+
+    /**
+     * Arrays shorter than this are sorted with binary insertion sort
+     */
+    static final int MIN_MERGE = 32;
+
+    protected T[] sort0(T[] ts, int from, int to, Comparator<T> comp) {
+        sort(ts, from, to, comp, null, 0);
+        return ts;
+    }
+
+    /**
+     * Sort a range of the array.
+     *
+     * @param a the array
+     * @param lo the start index (inclusive)
+     * @param hi the end index (exclusive)
+     * @param comp the comparator
+     * @param work the scratch buffer, or {@code null} if the buffer shall be
+     *             allocated on demand. If specified it must have at least
+     *             {@code (hi - lo) / 2 + 1} slots starting from {@code workBase}
+     * @param workBase the start index of the scratch buffer
+     */
+    static <T> void sort(T[] a, int lo, int hi, Comparator<? super T> comp, Object[] work, int workBase) {
+        int remaining = hi - lo;
+        if (remaining < 2) {
+            return;
+        }
+        if (remaining < MIN_MERGE) {
+            int initRunLen = countRunAndMakeAscending(a, lo, hi, comp);
+            binarySort(a, lo, hi, lo + initRunLen, comp);
+            return;
+        }
+        Sorter<T> sorter = new Sorter<T>(a, comp, remaining, work, workBase);
+        int minRun = minRunLength(remaining);
+        do {
+            int runLen = countRunAndMakeAscending(a, lo, hi, comp);
+            if (runLen < minRun) {
+                int force = remaining <= minRun ? remaining : minRun;
+                binarySort(a, lo, lo + force, lo + runLen, comp);
+                runLen = force;
+            }
+            sorter.pushRun(lo, runLen);
+            sorter.mergeCollapse();
+            lo += runLen;
+            remaining -= runLen;
+        } while (remaining != 0);
+        sorter.mergeForceCollapse();
+    }
+
+    /**
+     * Merge two adjacent sorted ranges {@code [lo, mid)} and {@code [mid, hi)}
+     * of {@code src} into {@code dst} starting at {@code dstLo}. The merge is
+     * stable: elements of the left range go first when they are equal to
+     * elements of the right range.
+     */
+    static <T> void merge(T[] src, int lo1, int hi1, int lo2, int hi2, Object[] dst, int dstLo, Comparator<? super T> comp) {
+        int i = lo1, j = lo2, k = dstLo;
+        while (i < hi1 && j < hi2) {
+            T l = src[i], r = src[j];
+            if (comp.compare(r, l) < 0) {
+                dst[k++] = r;
+                j++;
+            } else {
+                dst[k++] = l;
+                i++;
+            }
+        }
+        if (i < hi1) {
+            System.arraycopy(src, i, dst, k, hi1 - i);
+        } else if (j < hi2) {
+            System.arraycopy(src, j, dst, k, hi2 - j);
+        }
+    }
+
+    /**
+     * Returns the index of the first element in {@code [lo, hi)} that is
+     * not less than the key
+     */
+    static <T> int lowerBound(T[] a, int lo, int hi, T key, Comparator<? super T> comp) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comp.compare(a[mid], key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns the index of the first element in {@code [lo, hi)} that is
+     * greater than the key
+     */
+    static <T> int upperBound(T[] a, int lo, int hi, T key, Comparator<? super T> comp) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comp.compare(key, a[mid]) < 0) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    private static <T> void binarySort(T[] a, int lo, int hi, int start, Comparator<? super T> comp) {
+        if (start == lo) {
+            start++;
+        }
+        for (; start < hi; start++) {
+            T pivot = a[start];
+            int left = upperBound(a, lo, start, pivot, comp);
+            int n = start - left;
+            if (n == 1) {
+                a[left + 1] = a[left];
+            } else if (n > 1) {
+                System.arraycopy(a, left, a, left + 1, n);
+            }
+            a[left] = pivot;
+        }
+    }
+
+    private static <T> int countRunAndMakeAscending(T[] a, int lo, int hi, Comparator<? super T> comp) {
+        int runHi = lo + 1;
+        if (runHi == hi) {
+            return 1;
+        }
+        if (comp.compare(a[runHi++], a[lo]) < 0) {
+            while (runHi < hi && comp.compare(a[runHi], a[runHi - 1]) < 0) {
+                runHi++;
+            }
+            reverseRange(a, lo, runHi);
+        } else {
+            while (runHi < hi && comp.compare(a[runHi], a[runHi - 1]) >= 0) {
+                runHi++;
+            }
+        }
+        return runHi - lo;
+    }
+
+    private static void reverseRange(Object[] a, int lo, int hi) {
+        hi--;
+        while (lo < hi) {
+            Object t = a[lo];
+            a[lo++] = a[hi];
+            a[hi--] = t;
+        }
+    }
+
+    private static int minRunLength(int n) {
+        int r = 0;
+        while (n >= MIN_MERGE) {
+            r |= (n & 1);
+            n >>= 1;
+        }
+        return n + r;
+    }
+
+    /**
+     * Keeps the run stack and the scratch buffer of a single sort
+     */
+    private static final class Sorter<T> {
+        private final T[] a;
+        private final Comparator<? super T> comp;
+        private final int workSize;
+        private Object[] work;
+        private int workBase;
+
+        private int stackSize;
+        private final int[] runBase;
+        private final int[] runLen;
+
+        Sorter(T[] a, Comparator<? super T> comp, int len, Object[] work, int workBase) {
+            this.a = a;
+            this.comp = comp;
+            this.workSize = (len >>> 1) + 1;
+            this.work = work;
+            this.workBase = workBase;
+            int stackLen = len < 120 ? 5 : len < 1542 ? 10 : len < 119151 ? 24 : 49;
+            runBase = new int[stackLen];
+            runLen = new int[stackLen];
+        }
+
+        void pushRun(int base, int len) {
+            runBase[stackSize] = base;
+            runLen[stackSize] = len;
+            stackSize++;
+        }
+
+        /**
+         * Merge runs on the stack until the stack invariants are
+         * re-established:
+         * <ol>
+         *     <li>runLen[i - 3] &gt; runLen[i - 2] + runLen[i - 1]</li>
+         *     <li>runLen[i - 2] &gt; runLen[i - 1]</li>
+         * </ol>
+         */
+        void mergeCollapse() {
+            int[] runLen = this.runLen;
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1]
+                        || n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1]) {
+                    if (runLen[n - 1] < runLen[n + 1]) {
+                        n--;
+                    }
+                } else if (runLen[n] > runLen[n + 1]) {
+                    break;
+                }
+                mergeAt(n);
+            }
+        }
+
+        void mergeForceCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] < runLen[n + 1]) {
+                    n--;
+                }
+                mergeAt(n);
+            }
+        }
+
+        private void mergeAt(int i) {
+            int base1 = runBase[i];
+            int len1 = runLen[i];
+            int base2 = runBase[i + 1];
+            int len2 = runLen[i + 1];
+
+            runLen[i] = len1 + len2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLen[i + 1] = runLen[i + 2];
+            }
+            stackSize--;
+
+            T[] a = this.a;
+            // elements in run1 not greater than the first element of run2 are in place already
+            int k = upperBound(a, base1, base1 + len1, a[base2], comp);
+            len1 -= k - base1;
+            base1 = k;
+            if (len1 == 0) {
+                return;
+            }
+            // elements in run2 not less than the last element of run1 are in place already
+            len2 = lowerBound(a, base2, base2 + len2, a[base1 + len1 - 1], comp) - base2;
+            if (len2 == 0) {
+                return;
+            }
+            if (len1 <= len2) {
+                mergeLo(base1, len1, base2, len2);
+            } else {
+                mergeHi(base1, len1, base2, len2);
+            }
+        }
+
+        private Object[] work() {
+            if (null == work) {
+                work = new Object[workSize];
+                workBase = 0;
+            }
+            return work;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void mergeLo(int base1, int len1, int base2, int len2) {
+            T[] a = this.a;
+            Object[] tmp = work();
+            int t = workBase, tEnd = workBase + len1;
+            System.arraycopy(a, base1, tmp, t, len1);
+            int dest = base1, j = base2, end2 = base2 + len2;
+            Comparator<? super T> comp = this.comp;
+            while (t < tEnd && j < end2) {
+                if (comp.compare(a[j], (T) tmp[t]) < 0) {
+                    a[dest++] = a[j++];
+                } else {
+                    a[dest++] = (T) tmp[t++];
+                }
+            }
+            if (t < tEnd) {
+                System.arraycopy(tmp, t, a, dest, tEnd - t);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void mergeHi(int base1, int len1, int base2, int len2) {
+            T[] a = this.a;
+            Object[] tmp = work();
+            System.arraycopy(a, base2, tmp, workBase, len2);
+            int i = base1 + len1 - 1, t = workBase + len2 - 1, dest = base2 + len2 - 1;
+            Comparator<? super T> comp = this.comp;
+            while (i >= base1 && t >= workBase) {
+                if (comp.compare((T) tmp[t], a[i]) < 0) {
+                    a[dest--] = a[i--];
+                } else {
+                    a[dest--] = (T) tmp[t--];
+                }
+            }
+            if (t >= workBase) {
+                System.arraycopy(tmp, workBase, a, dest - (t - workBase), t - workBase + 1);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,120 @@
+package org.osgl.util.algo;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Comparator;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Find the {@code k} smallest elements of an array range with a
+ * {@link BoundedHeap} without modifying the array.
+ *
+ * <p>{@link #topK(Object[], int, int, int, Comparator)} runs in
+ * {@code O(n log k)} time and {@code O(k)} extra memory.
+ * {@link #parallelTopK(Object[], int, int, int, Comparator)} splits the
+ * range into chunks, collects a heap per chunk on the fork/join pool and
+ * merges the heaps pairwise. Ranges smaller than {@link #MIN_PARALLEL_SIZE}
+ * are processed in the calling thread.</p>
+ */
+public class ArrayTopK implements ArrayAlgorithm {
+
+    /**
+     * Ranges smaller than this are processed in the calling thread
+     */
+    public static final int MIN_PARALLEL_SIZE = 1 << 13;
+
+    /**
+     * Returns the {@code k} smallest elements in {@code a[from, to)}
+     *
+     * @param a the array
+     * @param from the start index (inclusive)
+     * @param to the end index (exclusive)
+     * @param k the number of elements to be returned
+     * @param comp the comparator
+     * @param <T> the element type
+     * @return a new array of at most {@code k} elements sorted by the comparator
+     */
+    public <T> Object[] topK(T[] a, int from, int to, int k, Comparator<? super T> comp) {
+        Util.checkRange(a.length, from, to);
+        return heap(a, from, to, Math.min(k, to - from), comp).toSortedArray();
+    }
+
+    /**
+     * Parallel version of {@link #topK(Object[], int, int, int, Comparator)}
+     *
+     * @param a the array
+     * @param from the start index (inclusive)
+     * @param to the end index (exclusive)
+     * @param k the number of elements to be returned
+     * @param comp the comparator
+     * @param <T> the element type
+     * @return a new array of at most {@code k} elements sorted by the comparator
+     */
+    public <T> Object[] parallelTopK(T[] a, int from, int to, int k, Comparator<? super T> comp) {
+        Util.checkRange(a.length, from, to);
+        int n = to - from;
+        int parallelism = ForkJoin.parallelism();
+        if (n < MIN_PARALLEL_SIZE || parallelism < 2) {
+            return heap(a, from, to, Math.min(k, n), comp).toSortedArray();
+        }
+        int grain = Math.max(n / (parallelism << 2), Math.max(MIN_PARALLEL_SIZE >> 2, k));
+        return ForkJoin.invoke(new Collector<T>(a, from, to, Math.min(k, n), grain, comp)).toSortedArray();
+    }
+
+    private static <T> BoundedHeap<T> heap(T[] a, int from, int to, int capacity, Comparator<? super T> comp) {
+        BoundedHeap<T> heap = new BoundedHeap<T>(capacity, comp);
+        for (int i = from; i < to; ++i) {
+            heap.offer(a[i]);
+        }
+        return heap;
+    }
+
+    private static final class Collector<T> extends RecursiveTask<BoundedHeap<T>> {
+        private final T[] a;
+        private final int lo, hi, capacity, grain;
+        private final Comparator<? super T> comp;
+
+        Collector(T[] a, int lo, int hi, int capacity, int grain, Comparator<? super T> comp) {
+            this.a = a;
+            this.lo = lo;
+            this.hi = hi;
+            this.capacity = capacity;
+            this.grain = grain;
+            this.comp = comp;
+        }
+
+        @Override
+        protected BoundedHeap<T> compute() {
+            if (hi - lo <= grain) {
+                return heap(a, lo, hi, capacity, comp);
+            }
+            int mid = (lo + hi) >>> 1;
+            Collector<T> right = new Collector<T>(a, mid, hi, capacity, grain, comp);
+            right.fork();
+            BoundedHeap<T> left = new Collector<T>(a, lo, mid, capacity, grain, comp).compute();
+            // left holds the earlier elements, so equal elements from the
+            // left chunk win over those from the right chunk
+            return left.merge(right.join());
+        }
+
+        private static final long serialVersionUID = 9010576208039190829L;
+    }
+}
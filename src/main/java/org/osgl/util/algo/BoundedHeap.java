@@ -0,0 +1,170 @@
+package org.osgl.util.algo;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.util.E;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * A heap that keeps at most {@code capacity} elements that come first in
+ * the order specified by the comparator.
+ *
+ * <p>The heap is a max heap, i.e. the root is the greatest element kept.
+ * When the heap is full an element offered is dropped unless it is less
+ * than the root, in which case it replaces the root. Offering {@code n}
+ * elements to a heap of capacity {@code k} takes {@code O(n log k)}
+ * time and {@code O(min(n, k))} memory, as the backing array grows with
+ * the elements kept rather than being allocated for {@code k} up front.
+ * When elements are equal the one offered first is kept.</p>
+ *
+ * @param <T> the element type
+ */
+public class BoundedHeap<T> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Object[] heap;
+    private final int capacity;
+    private final Comparator<? super T> comp;
+    private int size;
+
+    public BoundedHeap(int capacity, Comparator<? super T> comp) {
+        E.illegalArgumentIf(capacity < 0, "capacity shall not be negative: %s", capacity);
+        E.NPE(comp);
+        this.heap = new Object[Math.min(capacity, INITIAL_CAPACITY)];
+        this.capacity = capacity;
+        this.comp = comp;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the greatest element kept in the heap, or {@code null} if
+     * the heap is empty
+     *
+     * @return the root of the heap
+     */
+    @SuppressWarnings("unchecked")
+    public T peek() {
+        return 0 == size ? null : (T) heap[0];
+    }
+
+    /**
+     * Offer an element to the heap
+     *
+     * @param t the element
+     * @return {@code true} if the element is kept in the heap
+     */
+    @SuppressWarnings("unchecked")
+    public boolean offer(T t) {
+        if (size < capacity) {
+            if (size == heap.length) {
+                grow();
+            }
+            siftUp(size++, t);
+            return true;
+        }
+        Object[] heap = this.heap;
+        if (size == 0 || comp.compare(t, (T) heap[0]) >= 0) {
+            return false;
+        }
+        siftDown(0, t);
+        return true;
+    }
+
+    /**
+     * Offer all elements of another heap to this heap
+     *
+     * @param other the other heap
+     * @return this heap
+     */
+    @SuppressWarnings("unchecked")
+    public BoundedHeap<T> merge(BoundedHeap<? extends T> other) {
+        Object[] data = other.heap;
+        for (int i = 0, n = other.size; i < n; ++i) {
+            offer((T) data[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Returns the elements kept in the heap sorted by the comparator
+     *
+     * @return a new array of the elements in order
+     */
+    @SuppressWarnings("unchecked")
+    public Object[] toSortedArray() {
+        Object[] a = Arrays.copyOf(heap, size);
+        ArrayTimSortInplace.sort(a, 0, size, (Comparator<Object>) comp, null, 0);
+        return a;
+    }
+
+    private void grow() {
+        int len = heap.length;
+        int newLen = len > (capacity >> 1) ? capacity : Math.max(len << 1, INITIAL_CAPACITY);
+        heap = Arrays.copyOf(heap, newLen);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void siftUp(int k, T t) {
+        Object[] heap = this.heap;
+        Comparator<? super T> comp = this.comp;
+        while (k > 0) {
+            int parent = (k - 1) >>> 1;
+            Object p = heap[parent];
+            if (comp.compare(t, (T) p) <= 0) {
+                break;
+            }
+            heap[k] = p;
+            k = parent;
+        }
+        heap[k] = t;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void siftDown(int k, T t) {
+        Object[] heap = this.heap;
+        Comparator<? super T> comp = this.comp;
+        int half = size >>> 1;
+        while (k < half) {
+            int child = (k << 1) + 1;
+            Object c = heap[child];
+            int right = child + 1;
+            if (right < size && comp.compare((T) c, (T) heap[right]) < 0) {
+                c = heap[child = right];
+            }
+            if (comp.compare(t, (T) c) >= 0) {
+                break;
+            }
+            heap[k] = c;
+            k = child;
+        }
+        heap[k] = t;
+    }
+}
@@ -0,0 +1,248 @@
+package org.osgl.util.algo;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Build and search the Eytzinger (breadth first) layout of sorted
+ * {@code int}, {@code long}, {@code double} and {@code char} arrays.
+ *
+ * <p>In the Eytzinger layout the sorted elements are stored as an implicit
+ * binary search tree: the root is at index {@code 1} and the children of
+ * the node at {@code k} are at {@code 2k} and {@code 2k + 1}. Index
+ * {@code 0} is not used. The first levels of the tree are packed into a few
+ * cache lines, and the search path moves forward in memory, which makes the
+ * search more cache friendly than the binary search on the sorted array
+ * when the array is much bigger than the CPU cache.</p>
+ *
+ * <p>Search methods return the position in the layout array, use
+ * {@code layout[pos]} to read the element found.</p>
+ */
+public class EytzingerLayout implements ArrayAlgorithm {
+
+    /**
+     * Returns the Eytzinger layout of a sorted array
+     *
+     * @param sorted the sorted array
+     * @return an array of {@code sorted.length + 1} elements in Eytzinger layout
+     */
+    public int[] layout(int[] sorted) {
+        int[] layout = new int[sorted.length + 1];
+        fill(sorted, layout, 0, 1);
+        return layout;
+    }
+
+    /**
+     * Returns the position in the layout of the first element not less
+     * than the key, or {@code 0} if all elements are less than the key
+     *
+     * @param layout the array in Eytzinger layout
+     * @param key the key
+     * @return the position of the lower bound
+     */
+    public int lowerBound(int[] layout, int key) {
+        int n = layout.length;
+        int k = 1;
+        while (k < n) {
+            k = (k << 1) + (layout[k] < key ? 1 : 0);
+        }
+        // drop the trailing right turns and the last left turn
+        return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+    }
+
+    /**
+     * Returns the position in the layout of the key or {@code -1} if
+     * not found
+     *
+     * @param layout the array in Eytzinger layout
+     * @param key the key
+     * @return the position of the key
+     */
+    public int search(int[] layout, int key) {
+        int k = lowerBound(layout, key);
+        return k != 0 && layout[k] == key ? k : -1;
+    }
+
+    private static int fill(int[] sorted, int[] layout, int i, int k) {
+        if (k < layout.length) {
+            i = fill(sorted, layout, i, k << 1);
+            layout[k] = sorted[i++];
+            i = fill(sorted, layout, i, (k << 1) + 1);
+        }
+        return i;
+    }
+
+    /**
+     * Returns the Eytzinger layout of a sorted array
+     *
+     * @param sorted the sorted array
+     * @return an array of {@code sorted.length + 1} elements in Eytzinger layout
+     */
+    public long[] layout(long[] sorted) {
+        long[] layout = new long[sorted.length + 1];
+        fill(sorted, layout, 0, 1);
+        return layout;
+    }
+
+    /**
+     * Returns the position in the layout of the first element not less
+     * than the key, or {@code 0} if all elements are less than the key
+     *
+     * @param layout the array in Eytzinger layout
+     * @param key the key
+     * @return the position of the lower bound
+     */
+    public int lowerBound(long[] layout, long key) {
+        int n = layout.length;
+        int k = 1;
+        while (k < n) {
+            k = (k << 1) + (layout[k] < key ? 1 : 0);
+        }
+        // drop the trailing right turns and the last left turn
+        return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+    }
+
+    /**
+     * Returns the position in the layout of the key or {@code -1} if
+     * not found
+     *
+     * @param layout the array in Eytzinger layout
+     * @param key the key
+     * @return the position of the key
+     */
+    public int search(long[] layout, long key) {
+        int k = lowerBound(layout, key);
+        return k != 0 && layout[k] == key ? k : -1;
+    }
+
+    private static int fill(long[] sorted, long[] layout, int i, int k) {
+        if (k < layout.length) {
+            i = fill(sorted, layout, i, k << 1);
+            layout[k] = sorted[i++];
+            i = fill(sorted, layout, i, (k << 1) + 1);
+        }
+        return i;
+    }
+
+    /**
+     * Returns the Eytzinger layout of a sorted array
+     *
+     * @param sorted the sorted array
+     * @return an array of {@code sorted.length + 1} elements in Eytzinger layout
+     */
+    public double[] layout(double[] sorted) {
+        double[] layout = new double[sorted.length + 1];
+        fill(sorted, layout, 0, 1);
+        return layout;
+    }
+
+    /**
+     * Returns the position in the layout of the first element not less
+     * than the key, or {@code 0} if all elements are less than the key
+     *
+     * @param layout the array in Eytzinger layout
+     * @param key the key
+     * @return the position of the lower bound
+     */
+    public int lowerBound(double[] layout, double key) {
+        int n = layout.length;
+        int k = 1;
+        while (k < n) {
+            k = (k << 1) + (layout[k] < key ? 1 : 0);
+        }
+        // drop the trailing right turns and the last left turn
+        return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+    }
+
+    /**
+     * Returns the position in the layout of the key or {@code -1} if
+     * not found
+     *
+     * @param layout the array in Eytzinger layout
+     * @param key the key
+     * @return the position of the key
+     */
+    public int search(double[] layout, double key) {
+        int k = lowerBound(layout, key);
+        return k != 0 && layout[k] == key ? k : -1;
+    }
+
+    private static int fill(double[] sorted, double[] layout, int i, int k) {
+        if (k < layout.length) {
+            i = fill(sorted, layout, i, k << 1);
+            layout[k] = sorted[i++];
+            i = fill(sorted, layout, i, (k << 1) + 1);
+        }
+        return i;
+    }
+
+    /**
+     * Returns the Eytzinger layout of a sorted array
+     *
+     * @param sorted the sorted array
+     * @return an array of {@code sorted.length + 1} elements in Eytzinger layout
+     */
+    public char[] layout(char[] sorted) {
+        char[] layout = new char[sorted.length + 1];
+        fill(sorted, layout, 0, 1);
+        return layout;
+    }
+
+    /**
+     * Returns the position in the layout of the first element not less
+     * than the key, or {@code 0} if all elements are less than the key
+     *
+     * @param layout the array in Eytzinger layout
+     * @param key the key
+     * @return the position of the lower bound
+     */
+    public int lowerBound(char[] layout, char key) {
+        int n = layout.length;
+        int k = 1;
+        while (k < n) {
+            k = (k << 1) + (layout[k] < key ? 1 : 0);
+        }
+        // drop the trailing right turns and the last left turn
+        return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+    }
+
+    /**
+     * Returns the position in the layout of the key or {@code -1} if
+     * not found
+     *
+     * @param layout the array in Eytzinger layout
+     * @param key the key
+     * @return the position of the key
+     */
+    public int search(char[] layout, char key) {
+        int k = lowerBound(layout, key);
+        return k != 0 && layout[k] == key ? k : -1;
+    }
+
+    private static int fill(char[] sorted, char[] layout, int i, int k) {
+        if (k < layout.length) {
+            i = fill(sorted, layout, i, k << 1);
+            layout[k] = sorted[i++];
+            i = fill(sorted, layout, i, (k << 1) + 1);
+        }
+        return i;
+    }
+
+}
@@ -0,0 +1,146 @@
+package org.osgl.util.algo;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Branch free binary search on sorted {@code int}, {@code long},
+ * {@code double} and {@code char} arrays.
+ *
+ * <p>The search loop always runs {@code log2(n)} iterations and only
+ * updates the base index with a conditional expression, which the JIT
+ * compiles to a conditional move instead of an unpredictable branch.</p>
+ *
+ * <p>The {@code search} methods return the same result as
+ * {@link java.util.Arrays#binarySearch(int[], int, int, int)} and its peers
+ * when the key is found once or not found. If the range contains multiple
+ * keys, the index of the first one is returned. The double version compares
+ * with the {@code <} operator thus {@code -0.0} is equal to {@code 0.0} and
+ * {@code NaN} is not supported.</p>
+ */
+public class PrimitiveArrayBinarySearch implements ArrayAlgorithm {
+
+    /**
+     * Returns the index of the first element in the range that is not less
+     * than the key, or {@code to} if all elements are less than the key
+     *
+     * @param a the sorted array
+     * @param from the start index (inclusive)
+     * @param to the end index (exclusive)
+     * @param key the key
+     * @return the lower bound of the key
+     */
+    public int lowerBound(int[] a, int from, int to, int key) {
+        Util.checkRange(a.length, from, to);
+        int n = to - from;
+        if (n == 0) {
+            return from;
+        }
+        int base = from;
+        while (n > 1) {
+            int half = n >>> 1;
+            base = a[base + half - 1] < key ? base + half : base;
+            n -= half;
+        }
+        return a[base] < key ? base + 1 : base;
+    }
+
+    public int search(int[] a, int key) {
+        return search(a, 0, a.length, key);
+    }
+
+    public int search(int[] a, int from, int to, int key) {
+        int i = lowerBound(a, from, to, key);
+        return i < to && a[i] == key ? i : -(i + 1);
+    }
+
+    public int lowerBound(long[] a, int from, int to, long key) {
+        Util.checkRange(a.length, from, to);
+        int n = to - from;
+        if (n == 0) {
+            return from;
+        }
+        int base = from;
+        while (n > 1) {
+            int half = n >>> 1;
+            base = a[base + half - 1] < key ? base + half : base;
+            n -= half;
+        }
+        return a[base] < key ? base + 1 : base;
+    }
+
+    public int search(long[] a, long key) {
+        return search(a, 0, a.length, key);
+    }
+
+    public int search(long[] a, int from, int to, long key) {
+        int i = lowerBound(a, from, to, key);
+        return i < to && a[i] == key ? i : -(i + 1);
+    }
+
+    public int lowerBound(double[] a, int from, int to, double key) {
+        Util.checkRange(a.length, from, to);
+        int n = to - from;
+        if (n == 0) {
+            return from;
+        }
+        int base = from;
+        while (n > 1) {
+            int half = n >>> 1;
+            base = a[base + half - 1] < key ? base + half : base;
+            n -= half;
+        }
+        return a[base] < key ? base + 1 : base;
+    }
+
+    public int search(double[] a, double key) {
+        return search(a, 0, a.length, key);
+    }
+
+    public int search(double[] a, int from, int to, double key) {
+        int i = lowerBound(a, from, to, key);
+        return i < to && a[i] == key ? i : -(i + 1);
+    }
+
+    public int lowerBound(char[] a, int from, int to, char key) {
+        Util.checkRange(a.length, from, to);
+        int n = to - from;
+        if (n == 0) {
+            return from;
+        }
+        int base = from;
+        while (n > 1) {
+            int half = n >>> 1;
+            base = a[base + half - 1] < key ? base + half : base;
+            n -= half;
+        }
+        return a[base] < key ? base + 1 : base;
+    }
+
+    public int search(char[] a, char key) {
+        return search(a, 0, a.length, key);
+    }
+
+    public int search(char[] a, int from, int to, char key) {
+        int i = lowerBound(a, from, to, key);
+        return i < to && a[i] == key ? i : -(i + 1);
+    }
+
+}
@@ -0,0 +1,218 @@
+package org.osgl.util.algo;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Arrays;
+
+/**
+ * LSD radix sort on {@code int}, {@code long}, {@code double} and
+ * {@code char} arrays.
+ *
+ * <p>Keys are sorted one byte at a time from the least significant byte.
+ * Histograms of all digits are collected in a single pass, and passes in
+ * which all keys share the same digit are skipped. One scratch array of
+ * the range length is allocated per sort.</p>
+ *
+ * <p>{@code double} values are sorted in the same order as
+ * {@link Arrays#sort(double[])}: {@code -0.0} goes before {@code 0.0}
+ * and {@code NaN} goes last.</p>
+ *
+ * <p>Ranges shorter than {@link #MIN_RADIX_SIZE} are sorted with
+ * {@link Arrays#sort(int[], int, int)} and its peers.</p>
+ */
+public class PrimitiveArrayRadixSort implements ArrayAlgorithm {
+
+    /**
+     * Ranges shorter than this are sorted with comparison sort
+     */
+    public static final int MIN_RADIX_SIZE = 1 << 10;
+
+    private static final int RADIX = 256;
+
+    public void sort(int[] a) {
+        sort(a, 0, a.length);
+    }
+
+    public void sort(int[] a, int from, int to) {
+        Util.checkRange(a.length, from, to);
+        int n = to - from;
+        if (n < MIN_RADIX_SIZE) {
+            Arrays.sort(a, from, to);
+            return;
+        }
+        int[] count = new int[4 * RADIX];
+        for (int i = from; i < to; ++i) {
+            int v = a[i];
+            count[v & 0xFF]++;
+            count[RADIX + ((v >>> 8) & 0xFF)]++;
+            count[2 * RADIX + ((v >>> 16) & 0xFF)]++;
+            count[3 * RADIX + ((v >>> 24) ^ 0x80)]++;
+        }
+        int[] src = a, dst = new int[n];
+        int srcOff = from, dstOff = 0;
+        for (int pass = 0; pass < 4; ++pass) {
+            int base = pass * RADIX;
+            int shift = pass << 3;
+            int flip = pass == 3 ? 0x80 : 0;
+            if (count[base + (((src[srcOff] >>> shift) & 0xFF) ^ flip)] == n) {
+                continue;
+            }
+            offsets(count, base);
+            for (int i = srcOff, end = srcOff + n; i < end; ++i) {
+                int v = src[i];
+                dst[dstOff + count[base + (((v >>> shift) & 0xFF) ^ flip)]++] = v;
+            }
+            int[] t = src; src = dst; dst = t;
+            int o = srcOff; srcOff = dstOff; dstOff = o;
+        }
+        if (src != a) {
+            System.arraycopy(src, srcOff, a, from, n);
+        }
+    }
+
+    public void sort(long[] a) {
+        sort(a, 0, a.length);
+    }
+
+    public void sort(long[] a, int from, int to) {
+        Util.checkRange(a.length, from, to);
+        if (to - from < MIN_RADIX_SIZE) {
+            Arrays.sort(a, from, to);
+            return;
+        }
+        sortKeys(a, from, to, true);
+    }
+
+    public void sort(double[] a) {
+        sort(a, 0, a.length);
+    }
+
+    public void sort(double[] a, int from, int to) {
+        Util.checkRange(a.length, from, to);
+        int n = to - from;
+        if (n < MIN_RADIX_SIZE) {
+            Arrays.sort(a, from, to);
+            return;
+        }
+        long[] keys = new long[n];
+        for (int i = 0; i < n; ++i) {
+            long bits = Double.doubleToLongBits(a[from + i]);
+            // flip all bits of negative numbers and the sign bit of positive numbers
+            keys[i] = bits ^ ((bits >> 63) | Long.MIN_VALUE);
+        }
+        sortKeys(keys, 0, n, false);
+        for (int i = 0; i < n; ++i) {
+            long key = keys[i];
+            long bits = key ^ ((~key >> 63) | Long.MIN_VALUE);
+            a[from + i] = Double.longBitsToDouble(bits);
+        }
+    }
+
+    public void sort(char[] a) {
+        sort(a, 0, a.length);
+    }
+
+    public void sort(char[] a, int from, int to) {
+        Util.checkRange(a.length, from, to);
+        int n = to - from;
+        if (n < MIN_RADIX_SIZE) {
+            Arrays.sort(a, from, to);
+            return;
+        }
+        int[] count = new int[2 * RADIX];
+        for (int i = from; i < to; ++i) {
+            char c = a[i];
+            count[c & 0xFF]++;
+            count[RADIX + (c >>> 8)]++;
+        }
+        char[] src = a, dst = new char[n];
+        int srcOff = from, dstOff = 0;
+        for (int pass = 0; pass < 2; ++pass) {
+            int base = pass * RADIX;
+            int shift = pass << 3;
+            if (count[base + ((src[srcOff] >>> shift) & 0xFF)] == n) {
+                continue;
+            }
+            offsets(count, base);
+            for (int i = srcOff, end = srcOff + n; i < end; ++i) {
+                char c = src[i];
+                dst[dstOff + count[base + ((c >>> shift) & 0xFF)]++] = c;
+            }
+            char[] t = src; src = dst; dst = t;
+            int o = srcOff; srcOff = dstOff; dstOff = o;
+        }
+        if (src != a) {
+            System.arraycopy(src, srcOff, a, from, n);
+        }
+    }
+
+    /**
+     * Sort long keys
+     *
+     * @param signed {@code true} if keys are signed, otherwise keys
+     *               are compared as unsigned numbers
+     */
+    private static void sortKeys(long[] a, int from, int to, boolean signed) {
+        int n = to - from;
+        int[] count = new int[8 * RADIX];
+        int topFlip = signed ? 0x80 : 0;
+        for (int i = from; i < to; ++i) {
+            long v = a[i];
+            for (int pass = 0; pass < 7; ++pass) {
+                count[pass * RADIX + (int) ((v >>> (pass << 3)) & 0xFF)]++;
+            }
+            count[7 * RADIX + ((int) (v >>> 56) ^ topFlip)]++;
+        }
+        long[] src = a, dst = new long[n];
+        int srcOff = from, dstOff = 0;
+        for (int pass = 0; pass < 8; ++pass) {
+            int base = pass * RADIX;
+            int shift = pass << 3;
+            int flip = pass == 7 ? topFlip : 0;
+            if (count[base + ((int) ((src[srcOff] >>> shift) & 0xFF) ^ flip)] == n) {
+                continue;
+            }
+            offsets(count, base);
+            for (int i = srcOff, end = srcOff + n; i < end; ++i) {
+                long v = src[i];
+                dst[dstOff + count[base + ((int) ((v >>> shift) & 0xFF) ^ flip)]++] = v;
+            }
+            long[] t = src; src = dst; dst = t;
+            int o = srcOff; srcOff = dstOff; dstOff = o;
+        }
+        if (src != a) {
+            System.arraycopy(src, srcOff, a, from, n);
+        }
+    }
+
+    /**
+     * Turn the histogram of a digit into start offsets
+     */
+    private static void offsets(int[] count, int base) {
+        int sum = 0;
+        for (int d = base, end = base + RADIX; d < end; ++d) {
+            int c = count[d];
+            count[d] = sum;
+            sum += c;
+        }
+    }
+
+}
@@ -0,0 +1,115 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+import org.osgl.$;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+public class ChunkedSeqTest extends SequenceTestBase {
+
+    @Override
+    protected C.Sequence<Integer> prepareData(final int... ia) {
+        return C.lazySeq(Arrays.asList($.asObject(ia)));
+    }
+
+    @Override
+    protected C.Sequence<Integer> prepareEmptyData() {
+        return C.lazySeq(C.<Integer>list());
+    }
+
+    @Override
+    protected <T> C.Sequence<T> prepareTypedData(T... ta) {
+        return C.lazySeq(Arrays.asList(ta));
+    }
+
+    private static final $.F2<Integer, Integer, Integer> SUM = new $.F2<Integer, Integer, Integer>() {
+        @Override
+        public Integer apply(Integer a, Integer b) {
+            return a + b;
+        }
+    };
+
+    private static Iterator<Integer> naturals() {
+        return new Iterator<Integer>() {
+            int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                return i++;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Test
+    public void memoisingSeqCanBeTraversedManyTimes() {
+        C.Sequence<Integer> seq = C.lazySeq(C.range(0, 100).iterator());
+        eq(C.range(0, 100).reduceLeft(0, SUM), seq.reduceLeft(0, SUM));
+        eq(C.range(0, 100).reduceLeft(0, SUM), seq.reduceLeft(0, SUM));
+        yes(seq.is(C.Feature.IMMUTABLE));
+    }
+
+    @Test
+    public void tailShallCrossChunkBoundaries() {
+        C.Sequence<Integer> seq = C.lazySeq(naturals());
+        for (int i = 0; i < ChunkedSeq.CHUNK_SIZE * 3; ++i) {
+            eq(i, seq.head());
+            seq = seq.tail();
+        }
+        eq(ChunkedSeq.CHUNK_SIZE * 3, seq.first());
+    }
+
+    @Test
+    public void infiniteSource() {
+        eq(C.list(0, 1, 2, 3, 4), C.newList(C.lazySeq(naturals()).take(5)));
+        eq(C.list(0, 1, 2), C.newList(C.streamingSeq(naturals()).take(3)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void streamingSeqCanBeTraversedOnce() {
+        C.Sequence<Integer> seq = C.streamingSeq(C.range(0, 100).iterator());
+        no(seq.isEmpty());
+        no(seq.is(C.Feature.IMMUTABLE));
+        eq(4950, seq.reduceLeft(0, SUM));
+        seq.iterator();
+    }
+
+    @Test
+    public void rangeIterator() {
+        Iterator<Integer> itr = C.range(0, 3).iterator();
+        eq(0, itr.next());
+        eq(1, itr.next());
+        eq(2, itr.next());
+        no(itr.hasNext());
+    }
+}
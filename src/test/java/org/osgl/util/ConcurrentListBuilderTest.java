@@ -0,0 +1,92 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+public class ConcurrentListBuilderTest extends UtilTestBase {
+
+    @Test
+    public void collectFromManyThreads() throws Exception {
+        final ConcurrentListBuilder<Integer> builder = new ConcurrentListBuilder<Integer>();
+        final int threads = 4, perThread = 10000;
+        final CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; ++t) {
+            final int base = t * perThread;
+            new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < perThread; ++i) {
+                        builder.add(base + i);
+                    }
+                    done.countDown();
+                }
+            }.start();
+        }
+        done.await();
+        eq(threads * perThread, builder.size());
+        eq(threads, builder.threadSegments());
+        C.List<Integer> list = builder.toList();
+        eq(0, builder.threadSegments());
+        yes(list.is(C.Feature.IMMUTABLE));
+        eq(C.range(0, threads * perThread), list.sorted());
+    }
+
+    @Test
+    public void segmentsKeepCreationOrder() {
+        ConcurrentListBuilder<Integer> builder = new ConcurrentListBuilder<Integer>();
+        ListBuilder<Integer> s1 = builder.newSegment();
+        ListBuilder<Integer> s2 = builder.newSegment();
+        ListBuilder<Integer> s3 = builder.newSegment();
+        s3.append(5, 6);
+        s1.append(1, 2);
+        s2.append(3, 4);
+        eq(C.list(1, 2, 3, 4, 5, 6), builder.toList());
+    }
+
+    @Test
+    public void singleSegmentAndEmptyBuilder() {
+        ConcurrentListBuilder<Integer> builder = new ConcurrentListBuilder<Integer>();
+        builder.newSegment();
+        builder.add(1).add(2);
+        eq(C.list(1, 2), builder.toList());
+        yes(new ConcurrentListBuilder<Integer>().toList().isEmpty());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void builderIsConsumedByToList() {
+        ConcurrentListBuilder<Integer> builder = new ConcurrentListBuilder<Integer>();
+        builder.add(1);
+        builder.toList();
+        builder.add(2);
+    }
+
+    @Test
+    public void streamCollectors() {
+        C.List<Integer> source = C.newList(C.range(0, 100000));
+        C.List<Integer> ordered = Streams.parallelStream(source).collect(Streams.<Integer>toList());
+        eq(C.range(0, 100000), ordered);
+        C.List<Integer> unordered = Streams.parallelStream(source).collect(Streams.<Integer>toListConcurrently());
+        eq(C.range(0, 100000), unordered.sorted());
+    }
+}
@@ -115,4 +115,72 @@ public class FastStrTest extends StrTestBase<FastStr> {
         no(s2.equals(s1));
     }
 
+    @Test
+    public void testLatin1Storage() {
+        FastStr fs = FastStr.of("key=value; caf\u00e9");
+        yes(fs.isLatin1());
+        FastStr slice = fs.afterFirst('=').beforeFirst(';');
+        yes(slice.isLatin1());
+        ceq("value", slice);
+        eq('v', slice.charAt(0));
+        eq(2, slice.indexOf('l'));
+        eq(-1, slice.indexOf('\u4e2d'));
+        yes(fs.append(FastStr.of("!")).isLatin1());
+        yes(fs.reverse().isLatin1());
+        ceq("\u00e9fac ;eulav=yek", fs.reverse());
+        no(FastStr.of("\u4e2d\u6587").isLatin1());
+        no(FastStr.unsafeOf("abc").isLatin1());
+        yes(FastStr.of("ab".getBytes(), "ISO-8859-1").isLatin1());
+    }
+
+    @Test
+    public void testUnsafeBufOfLatin1() {
+        FastStr fs = FastStr.of("key=caf\u00e9").afterFirst('=');
+        yes(fs.isLatin1());
+        char[] buf = Unsafe.bufOf(fs);
+        eq("caf\u00e9", new String(buf));
+        char[] wide = "\u4e2d\u6587".toCharArray();
+        same(wide, Unsafe.bufOf(FastStr.unsafeOf(wide)));
+    }
+
+    @Test
+    public void testLatin1Widening() {
+        FastStr fs = FastStr.of("abc");
+        FastStr wide = fs.append("\u4e2d");
+        no(wide.isLatin1());
+        ceq("abc\u4e2d", wide);
+        FastStr replaced = fs.replace('b', '\u4e2d');
+        no(replaced.isLatin1());
+        ceq("a\u4e2dc", replaced);
+        yes(fs.replace('b', '\u00e9').isLatin1());
+        FastStr capped = FastStr.of("\u00ffes").capFirst();
+        no(capped.isLatin1());
+        ceq("\u0178es", capped);
+        yes(FastStr.of("abc\u4e2d").substr(0, 3).append(fs).isLatin1());
+    }
+
+    @Test
+    public void testMixedStorageComparison() {
+        FastStr compact = FastStr.of("hello world");
+        FastStr wide = FastStr.unsafeOf("xhello world".toCharArray(), 1, 12);
+        yes(compact.isLatin1());
+        no(wide.isLatin1());
+        eq(compact, wide);
+        eq(wide, compact);
+        eq(compact.hashCode(), wide.hashCode());
+        eq("hello world".hashCode(), compact.hashCode());
+        eq(0, compact.compareTo(wide));
+        eq(6, compact.indexOf(FastStr.unsafeOf("world")));
+        eq(6, wide.indexOf(FastStr.of("world")));
+        eq(-1, compact.indexOf(FastStr.of("w\u00f6rld")));
+        eq(9, compact.lastIndexOf("l"));
+        yes(compact.startsWith(FastStr.unsafeOf("hell")));
+        yes(wide.endsWith(FastStr.of("rld")));
+        eq(3, compact.count("l", false));
+        eq(2, FastStr.of("aaa").count("aa", true));
+        eq(1, FastStr.of("aaa").count("aa", false));
+        eq("hello", compact.substring(0, 5));
+        ceq("world", FastStr.of("  world ").trim());
+    }
+
 }
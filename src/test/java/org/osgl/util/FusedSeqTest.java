@@ -0,0 +1,99 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Before;
+import org.junit.Test;
+import org.osgl.$;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class FusedSeqTest extends UtilTestBase {
+
+    private C.Sequence<Integer> seq;
+
+    private $.F1<Integer, Integer> twice = new $.F1<Integer, Integer>() {
+        @Override
+        public Integer apply(Integer integer) {
+            return integer * 2;
+        }
+    };
+
+    private $.F1<Integer, Iterable<Integer>> repeat = new $.F1<Integer, Iterable<Integer>>() {
+        @Override
+        public Iterable<Integer> apply(Integer integer) {
+            return integer % 3 == 0 ? null : Arrays.asList(integer, integer);
+        }
+    };
+
+    private $.F2<Integer, Integer, Integer> plus = new $.F2<Integer, Integer, Integer>() {
+        @Override
+        public Integer apply(Integer a, Integer b) {
+            return a + b;
+        }
+    };
+
+    @Before
+    public void setup() {
+        seq = C.seq((Iterable<Integer>) Arrays.asList(1, 2, 3, 4, 5, 6));
+    }
+
+    @Test
+    public void stagesShallBeFused() {
+        C.Sequence<Integer> fused = seq.lazy().map(twice).filter(N.F.gt(4)).map(twice);
+        yes(fused instanceof FusedSeq);
+        eq(seqOf(12, 16, 20, 24), fused);
+    }
+
+    @Test
+    public void flatMapShallBeExpandedInPlace() {
+        C.Sequence<Integer> fused = seq.flatMap(repeat).map(twice);
+        eq(seqOf(2, 2, 4, 4, 8, 8, 10, 10), fused);
+        eq(8, fused.size());
+    }
+
+    @Test
+    public void forEachShallVisitAllElements() {
+        final List<Integer> visited = new ArrayList<Integer>();
+        seq.filter(N.F.IS_EVEN).flatMap(repeat).forEach(C.F.addTo(visited));
+        eq(Arrays.asList(2, 2, 4, 4), visited);
+    }
+
+    @Test
+    public void reduce() {
+        eq(42, seq.map(twice).reduce(0, plus));
+        eq(42, seq.map(twice).reduce(plus).get());
+        no(seq.filter(N.F.gt(100)).reduce(plus).isDefined());
+    }
+
+    @Test
+    public void collectToList() {
+        C.List<Integer> list = C.list(seq.filter(N.F.IS_ODD).map(twice));
+        eq(C.list(2, 6, 10), list);
+        ListBuilder<Integer> lb = ListBuilder.create();
+        lb.append(0);
+        lb.append(seq.filter(N.F.IS_ODD));
+        eq(C.list(0, 1, 3, 5), lb.toList());
+    }
+
+}
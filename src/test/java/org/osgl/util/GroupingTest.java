@@ -0,0 +1,110 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import org.junit.Test;
+import org.osgl.$;
+
+import java.util.Map;
+
+public class GroupingTest extends UtilTestBase {
+
+    private static final $.Function<Integer, Integer> MOD_3 = new $.Transformer<Integer, Integer>() {
+        @Override
+        public Integer transform(Integer i) {
+            return i % 3;
+        }
+    };
+
+    private static final $.Func2<Integer, Integer, Integer> SUM = new $.Func2<Integer, Integer, Integer>() {
+        @Override
+        public Integer apply(Integer a, Integer b) {
+            return a + b;
+        }
+    };
+
+    private static final $.Predicate<Integer> EVEN = new $.Predicate<Integer>() {
+        @Override
+        public boolean test(Integer i) {
+            return i % 2 == 0;
+        }
+    };
+
+    @Test
+    public void groupByKeepsEncounterOrder() {
+        C.List<Integer> list = C.list(4, 1, 2, 7, 5, 3, 6);
+        Map<Integer, C.List<Integer>> groups = list.groupBy(MOD_3);
+        eq(C.list(1, 2, 0), C.list(groups.keySet()));
+        eq(C.list(4, 1, 7), groups.get(1));
+        eq(C.list(2, 5), groups.get(2));
+        eq(C.list(3, 6), groups.get(0));
+    }
+
+    @Test
+    public void countByAndGroupingReduce() {
+        C.Sequence<Integer> seq = seqOf(1, 2, 3, 4, 5, 6, 7);
+        ObjectIntMap<Integer> counts = seq.countBy(MOD_3);
+        eq(3, counts.get(1));
+        eq(2, counts.get(2));
+        eq(2, counts.get(0));
+        Map<Integer, Integer> sums = seqOf(1, 2, 3, 4, 5, 6, 7).groupingReduce(MOD_3, 0, SUM);
+        eq(12, sums.get(1));
+        eq(7, sums.get(2));
+        eq(9, sums.get(0));
+        yes(C.<Integer>list().groupBy(MOD_3).isEmpty());
+    }
+
+    @Test
+    public void partition() {
+        $.T2<C.List<Integer>, C.List<Integer>> pair = C.setOf(1, 2, 3, 4).partition(EVEN);
+        eq(C.list(2, 4), pair._1);
+        eq(C.list(1, 3), pair._2);
+    }
+
+    @Test
+    public void parallelMatchesSequential() {
+        int n = Grouping.MIN_PARALLEL_SIZE * 4 + 17;
+        Integer[] data = new Integer[n];
+        for (int i = 0; i < n; ++i) {
+            data[i] = (i * 7919) % 1013;
+        }
+        C.List<Integer> parallel = C.listOf(data).parallel();
+        C.List<Integer> sequential = C.listOf(data).sequential();
+        yes(parallel.is(C.Feature.PARALLEL));
+        eq(sequential.groupBy(MOD_3), parallel.groupBy(MOD_3));
+        eq(C.list(sequential.groupBy(MOD_3).keySet()), C.list(parallel.groupBy(MOD_3).keySet()));
+        eq(sequential.countBy(MOD_3), parallel.countBy(MOD_3));
+        eq(sequential.groupingReduce(MOD_3, 0, SUM), parallel.groupingReduce(MOD_3, 0, SUM));
+        eq(sequential.partition(EVEN), parallel.partition(EVEN));
+        eq(n, parallel.countBy(MOD_3).get(0) + parallel.countBy(MOD_3).get(1) + parallel.countBy(MOD_3).get(2));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void nullKeyIsNotAllowed() {
+        C.list(1, 2).groupBy(new $.Transformer<Integer, Object>() {
+            @Override
+            public Object transform(Integer integer) {
+                return null;
+            }
+        });
+    }
+}
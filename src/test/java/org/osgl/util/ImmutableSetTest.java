@@ -0,0 +1,97 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+import org.osgl.$;
+import org.osgl.exception.UnsupportedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public class ImmutableSetTest extends UtilTestBase {
+
+    @Test
+    public void smallSetShallRemoveDuplicates() {
+        C.Set<String> set = C.set("a", "b", "a", "c", null, "b");
+        eq(4, set.size());
+        yes(set.contains("a"));
+        yes(set.contains(null));
+        no(set.contains("d"));
+        eq(Arrays.asList("a", "b", "c", null), Arrays.asList(set.toArray()));
+        yes(set.is(C.Feature.IMMUTABLE));
+    }
+
+    @Test
+    public void largeSetShallMatchHashSet() {
+        Set<Integer> expected = new HashSet<Integer>();
+        Integer[] data = new Integer[1000];
+        for (int i = 0; i < data.length; ++i) {
+            data[i] = i % 300;
+            expected.add(data[i]);
+        }
+        C.Set<Integer> set = C.setOf(data);
+        eq(expected.size(), set.size());
+        eq(expected, set);
+        eq(expected.hashCode(), set.hashCode());
+        for (int i = -10; i < 310; ++i) {
+            eq(expected.contains(i), set.contains(i));
+        }
+        eq(0, data[300]);
+    }
+
+    @Test
+    public void setShallRebuildIndexOnDeserialization() throws Exception {
+        C.Set<MapTest.Month> months = C.setOf(MapTest.Month.values());
+        C.Set<MapTest.Month> copy = MapTest.copy(months);
+        eq(months, copy);
+        for (MapTest.Month month : MapTest.Month.values()) {
+            yes(copy.contains(month));
+        }
+        MapTest.SaltedKey[] keys = new MapTest.SaltedKey[100];
+        for (int i = 0; i < keys.length; ++i) {
+            keys[i] = new MapTest.SaltedKey(i);
+        }
+        C.Set<MapTest.SaltedKey> set = C.setOf(keys);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new ObjectOutputStream(baos).writeObject(set);
+        MapTest.SaltedKey.salt = 7;
+        try {
+            set = $.cast(new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray())).readObject());
+            for (int i = 0; i < keys.length; ++i) {
+                yes(set.contains(new MapTest.SaltedKey(i)));
+            }
+        } finally {
+            MapTest.SaltedKey.salt = 0;
+        }
+    }
+
+    @Test(expected = UnsupportedException.class)
+    public void setShallBeImmutable() {
+        C.set(C.list(1, 2, 3)).add(4);
+    }
+
+}
@@ -0,0 +1,110 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class InternerTest extends UtilTestBase {
+
+    @Test
+    public void testInternReturnsPooledInstance() {
+        Interner<FastStr> pool = new Interner<FastStr>(64);
+        FastStr a = FastStr.of("content-type");
+        FastStr b = FastStr.of("content-type");
+        same(a, pool.intern(a));
+        same(a, pool.intern(b));
+        isNull(pool.intern(null));
+        eq(64, pool.capacity());
+        pool.clear();
+        same(b, pool.intern(b));
+    }
+
+    @Test
+    public void testPoolIsBounded() {
+        Interner<Integer> pool = new Interner<Integer>(5);
+        eq(8, pool.capacity());
+        for (int i = 0; i < 10000; ++i) {
+            eq(i, (int) pool.intern(i));
+        }
+    }
+
+    @Test
+    public void testFastStrDedup() {
+        FastStr header = FastStr.of("Accept: text/html\r\nAccept: text/xml");
+        FastStr k1 = header.substr(0, 6);
+        FastStr k2 = header.substr(19, 25);
+        eq("Accept", k2.toString());
+        FastStr pooled = k1.dedup();
+        same(pooled, k2.dedup());
+        same(pooled, FastStr.unsafeOf("Accept").dedup());
+        // the pooled instance is copied out of the header buffer
+        no(pooled == k1);
+        eq(k1, pooled);
+        same(FastStr.EMPTY_STR, header.substr(3, 3).dedup());
+    }
+
+    @Test
+    public void testStrAndKeywordDedup() {
+        Str s = Str.of("id").dedup();
+        same(s, Str.of("id").dedup());
+        Keyword k = Keyword.of("userId").dedup();
+        same(k, Keyword.of("user_id").dedup());
+        eq(Keyword.of("UserId"), k);
+        eq("user_id", k.underscore());
+    }
+
+    @Test
+    public void testConcurrentIntern() throws Exception {
+        final Interner<FastStr> pool = new Interner<FastStr>(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<FastStr[]>> futures = new ArrayList<Future<FastStr[]>>();
+            for (int t = 0; t < 4; ++t) {
+                futures.add(executor.submit(new Callable<FastStr[]>() {
+                    @Override
+                    public FastStr[] call() {
+                        FastStr[] result = new FastStr[100];
+                        for (int i = 0; i < 100; ++i) {
+                            result[i] = pool.intern(FastStr.of("key" + i));
+                        }
+                        return result;
+                    }
+                }));
+            }
+            for (int i = 0; i < 100; ++i) {
+                FastStr expected = pool.intern(FastStr.of("key" + i));
+                for (Future<FastStr[]> future : futures) {
+                    eq(expected, future.get()[i]);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import org.junit.Test;
+import org.osgl.$;
+
+public class JoinTest extends UtilTestBase {
+
+    private static final $.Function<String, Character> FIRST_CHAR = new $.Transformer<String, Character>() {
+        @Override
+        public Character transform(String s) {
+            return s.isEmpty() ? null : s.charAt(0);
+        }
+    };
+
+    private static final $.Function<Character, Character> IDENTITY = $.F.identity();
+
+    private static final $.Func2<String, Character, String> CONCAT = new $.Func2<String, Character, String>() {
+        @Override
+        public String apply(String s, Character c) {
+            return s + ":" + c;
+        }
+    };
+
+    @Test
+    public void innerJoinStreamsTheLargerSide() {
+        C.List<String> words = C.list("apple", "banana", "avocado", "cherry", "");
+        C.List<Character> initials = C.list('a', 'c', 'd', 'a');
+        // initials is the smaller side, so words are streamed
+        eq(C.list("apple:a", "apple:a", "avocado:a", "avocado:a", "cherry:c"),
+                C.list(words.join(initials, FIRST_CHAR, IDENTITY, CONCAT)));
+        $.T2<String, Character> first = words.join(initials, FIRST_CHAR, IDENTITY).first();
+        eq("apple", first._1);
+        eq('a', first._2);
+        // words is the larger side, so initials are streamed
+        C.Sequence<$.T2<Character, String>> reversed = initials.join(words, IDENTITY, FIRST_CHAR);
+        eq(5, reversed.size());
+        eq('a', reversed.first()._1);
+        eq("apple", reversed.first()._2);
+    }
+
+    @Test
+    public void leftJoinKeepsUnmatched() {
+        C.Sequence<String> words = seqOf("apple", "banana", "cherry");
+        eq(C.list("apple:a", "banana:null", "cherry:c"),
+                C.list(words.leftJoin(C.list('c', 'a'), FIRST_CHAR, IDENTITY, CONCAT)));
+        isNull(seqOf("banana").leftJoin(C.list('a'), FIRST_CHAR, IDENTITY).first()._2);
+    }
+
+    @Test
+    public void semiJoin() {
+        C.List<String> words = C.list("apple", "banana", "avocado", "cherry");
+        eq(C.list("apple", "avocado", "cherry"), C.list(words.semiJoin(C.list('a', 'a', 'c'), FIRST_CHAR, IDENTITY)));
+        yes(words.semiJoin(C.<Character>list(), FIRST_CHAR, IDENTITY).isEmpty());
+    }
+
+    @Test
+    public void joinIsLazy() {
+        final int[] calls = {0};
+        $.Function<Character, Character> counting = new $.Transformer<Character, Character>() {
+            @Override
+            public Character transform(Character c) {
+                calls[0]++;
+                return c;
+            }
+        };
+        C.Sequence<$.T2<String, Character>> joined = seqOf("apple").join(C.list('a'), FIRST_CHAR, counting);
+        eq(0, calls[0]);
+        eq("apple", joined.first()._1);
+        eq(1, calls[0]);
+    }
+
+    @Test
+    public void mergeJoinWithDuplicatesOnBothSides() {
+        C.List<String> words = C.list("apple", "avocado", "banana", "cherry", "citrus", "date");
+        C.List<Character> initials = C.list('a', 'a', 'c', 'd', 'e');
+        eq(C.list("apple:a", "apple:a", "avocado:a", "avocado:a", "cherry:c", "citrus:c", "date:d"),
+                C.list(words.mergeJoin(initials, FIRST_CHAR, IDENTITY, null, CONCAT)));
+        eq(C.list(words.join(initials, FIRST_CHAR, IDENTITY)), C.list(words.mergeJoin(initials, FIRST_CHAR, IDENTITY, null)));
+        yes(words.mergeJoin(C.list('x'), FIRST_CHAR, IDENTITY, null).isEmpty());
+    }
+
+    @Test
+    public void largeJoinMatchesNestedLoop() {
+        int n = 2000;
+        C.List<Integer> left = C.newList();
+        C.List<Integer> right = C.newList();
+        for (int i = 0; i < n; ++i) {
+            left.add(i);
+            right.add(i * 3 % n);
+        }
+        $.Function<Integer, Integer> mod7 = new $.Transformer<Integer, Integer>() {
+            @Override
+            public Integer transform(Integer i) {
+                return i % 7;
+            }
+        };
+        int expected = 0;
+        for (int l : left) {
+            for (int r : right) {
+                if (l % 7 == r % 7) {
+                    expected++;
+                }
+            }
+        }
+        eq(expected, left.join(right, mod7, mod7).size());
+    }
+}
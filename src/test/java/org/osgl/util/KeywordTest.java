@@ -82,4 +82,31 @@ public class KeywordTest extends OsglToolTestBase {
         eq(C.listOf("camel", "case"), keyword.tokens());
     }
 
+    @Test
+    public void testParsedKeywordIsCached() {
+        keyword = Keyword.of("Content-Type");
+        same(keyword, Keyword.of("Content-Type"));
+        same(keyword, Keyword.of(new StringBuilder("Content-Type")));
+        same(keyword, Keyword.of(FastStr.of("xContent-Type").substr(1)));
+        eq(keyword, new Keyword("content_type"));
+        eq(keyword.hashCode(), new Keyword("content_type").hashCode());
+    }
+
+    @Test
+    public void testStyleRenderingIsMemoised() {
+        keyword = Keyword.of("memoisedRendering");
+        String dashed = keyword.dashed();
+        eq("memoised-rendering", dashed);
+        same(dashed, keyword.dashed());
+        same(keyword.camelCase(), keyword.toString(Keyword.Style.CAMEL_CASE));
+        yes(keyword.compareTo(Keyword.of("nextKeyword")) < 0);
+        eq(0, keyword.compareTo(new Keyword("memoised rendering")));
+    }
+
+    @Test
+    public void testNonAsciiCharIsNotSeparator() {
+        keyword = Keyword.of("caf\u00e9 au lait");
+        eq(C.listOf("caf\u00e9", "au", "lait"), keyword.tokens());
+    }
+
 }
@@ -0,0 +1,147 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import org.junit.Test;
+import org.osgl.$;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.RandomAccess;
+
+/**
+ * Verify list views iterate through their backing store without
+ * creating iterators
+ */
+public class ListViewIterationTest extends UtilTestBase {
+
+    /**
+     * A lazy random access list that fails on any iterator creation
+     */
+    private static class NoIteratorList extends ListBase<Integer> implements RandomAccess {
+        private final Integer[] data;
+
+        NoIteratorList(Integer... data) {
+            this.data = data;
+        }
+
+        @Override
+        protected EnumSet<C.Feature> initFeatures() {
+            return EnumSet.of(C.Feature.LAZY, C.Feature.READONLY, C.Feature.LIMITED, C.Feature.RANDOM_ACCESS);
+        }
+
+        @Override
+        public Integer get(int index) {
+            return data[index];
+        }
+
+        @Override
+        public int size() {
+            return data.length;
+        }
+
+        @Override
+        public ListIterator<Integer> listIterator(int index) {
+            throw new AssertionError("iterator shall not be created");
+        }
+    }
+
+    private static final $.Function<Integer, Integer> DOUBLE = new $.Transformer<Integer, Integer>() {
+        @Override
+        public Integer transform(Integer i) {
+            return i * 2;
+        }
+    };
+
+    private static List<Object> collectLeft(C.List<?> list) {
+        final List<Object> result = new ArrayList<Object>();
+        list.acceptLeft(new $.Visitor<Object>() {
+            @Override
+            public void visit(Object o) {
+                result.add(o);
+            }
+        });
+        return result;
+    }
+
+    private static List<Object> collectRight(C.List<?> list) {
+        final List<Object> result = new ArrayList<Object>();
+        list.acceptRight(new $.Visitor<Object>() {
+            @Override
+            public void visit(Object o) {
+                result.add(o);
+            }
+        });
+        return result;
+    }
+
+    private static void verify(C.List<?> view, Object... expected) {
+        List<Object> left = C.listOf(expected);
+        eq(left, collectLeft(view));
+        eq(C.listOf(expected).reverse(), collectRight(view));
+        eq(left, C.listOf(view.toArray()));
+        eq(left, new ListBuilder<Object>(1).append(view).toList());
+    }
+
+    @Test
+    public void views() {
+        C.List<Integer> list = new NoIteratorList(1, 2, 3, 4);
+        verify(list, 1, 2, 3, 4);
+        verify(list.map(DOUBLE), 2, 4, 6, 8);
+        verify(list.reverse(), 4, 3, 2, 1);
+        verify(list.append(new NoIteratorList(5, 6)), 1, 2, 3, 4, 5, 6);
+        verify(list.subList(1, 3), 2, 3);
+        verify(list.reverse().map(DOUBLE), 8, 6, 4, 2);
+        verify(list.append(new NoIteratorList(5, 6)).reverse(), 6, 5, 4, 3, 2, 1);
+    }
+
+    @Test
+    public void ranges() {
+        ListBase<Integer> composite = (ListBase<Integer>) new NoIteratorList(1, 2, 3).append(new NoIteratorList(4, 5));
+        Object[] a = new Object[4];
+        composite.copyTo(1, 4, a, 1);
+        eq(C.list(null, 2, 3, 4), C.listOf(a));
+        ListBase<Integer> reversed = (ListBase<Integer>) composite.reverse();
+        reversed.copyTo(0, 2, a, 0);
+        eq(5, a[0]);
+        eq(4, a[1]);
+        final List<Integer> visited = new ArrayList<Integer>();
+        reversed.forEachLeft(1, 4, new $.Visitor<Integer>() {
+            @Override
+            public void visit(Integer i) {
+                visited.add(i);
+            }
+        });
+        eq(C.list(4, 3, 2), visited);
+    }
+
+    @Test
+    public void zippedList() {
+        C.List<$.T2<Integer, String>> zipped = C.list(1, 2, 3).zip((List<String>) C.list("a", "b"));
+        verify(zipped, $.T2(1, "a"), $.T2(2, "b"));
+        C.List<$.T2<Integer, String>> zippedAll = C.list(1, 2, 3).zipAll((List<String>) C.list("a", "b"), 0, "z");
+        verify(zippedAll, $.T2(1, "a"), $.T2(2, "b"), $.T2(3, "z"));
+        eq($.T2(3, "z"), zippedAll.get(2));
+    }
+}
@@ -24,6 +24,7 @@ import org.junit.Test;
 import org.osgl.OsglToolTestBase;
 
 import java.io.*;
+import java.util.HashMap;
 import java.util.Map;
 
 public class MapTest extends OsglToolTestBase {
@@ -39,4 +40,103 @@ public class MapTest extends OsglToolTestBase {
         Map map2 = (Map)ois.readObject();
         eq(map, map2);
     }
+
+    @Test
+    public void testReadOnlyMap() {
+        Map<String, Integer> map = C.map("a", 1, "b", 2, "a", 3, "c");
+        eq(3, map.size());
+        eq(3, map.get("a"));
+        eq(2, map.get("b"));
+        yes(map.containsKey("c"));
+        isNull(map.get("c"));
+        no(map.containsKey("d"));
+        Map<String, Integer> expected = new HashMap<String, Integer>();
+        expected.put("a", 3);
+        expected.put("b", 2);
+        expected.put("c", null);
+        eq(expected, map);
+        eq(expected.hashCode(), map.hashCode());
+    }
+
+    @Test
+    public void testLargeReadOnlyMap() {
+        Map<Integer, String> source = new HashMap<Integer, String>();
+        for (int i = 0; i < 1000; ++i) {
+            source.put(i, "v" + i);
+        }
+        Map<Integer, String> map = C.newMap(source).readOnly(true);
+        eq(source, map);
+        for (int i = 0; i < 1000; ++i) {
+            eq("v" + i, map.get(i));
+        }
+        isNull(map.get(1000));
+    }
+
+    enum Month {
+        JAN, FEB, MAR, APR, MAY, JUN, JUL, AUG, SEP, OCT, NOV, DEC
+    }
+
+    /**
+     * A key whose hash code can be changed to simulate a JVM where
+     * identity hash codes differ from those at serialization time
+     */
+    static class SaltedKey implements Serializable {
+        static int salt;
+        final int id;
+
+        SaltedKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof SaltedKey && ((SaltedKey) obj).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id * 31 + salt;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T copy(T obj) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new ObjectOutputStream(baos).writeObject(obj);
+        return (T) new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray())).readObject();
+    }
+
+    @Test
+    public void testSerializeReadOnlyMapWithEnumKeys() throws Exception {
+        Map<Month, Integer> source = new HashMap<Month, Integer>();
+        for (Month month : Month.values()) {
+            source.put(month, month.ordinal());
+        }
+        Map<Month, Integer> map = copy(C.newMap(source).readOnly(true));
+        eq(source, map);
+        for (Month month : Month.values()) {
+            eq(month.ordinal(), map.get(month));
+        }
+    }
+
+    @Test
+    public void testSerializeReadOnlyMapRebuildsIndex() throws Exception {
+        Map<SaltedKey, Integer> source = new HashMap<SaltedKey, Integer>();
+        for (int i = 0; i < 100; ++i) {
+            source.put(new SaltedKey(i), i);
+        }
+        Map<SaltedKey, Integer> map = C.newMap(source).readOnly(true);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new ObjectOutputStream(baos).writeObject(map);
+        SaltedKey.salt = 7;
+        try {
+            map = (Map) new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray())).readObject();
+            for (int i = 0; i < 100; ++i) {
+                yes(map.containsKey(new SaltedKey(i)));
+                eq(i, map.get(new SaltedKey(i)));
+            }
+        } finally {
+            SaltedKey.salt = 0;
+        }
+    }
 }
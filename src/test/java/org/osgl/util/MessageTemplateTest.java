@@ -0,0 +1,106 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import org.junit.Test;
+import org.osgl.$;
+import org.osgl.exception.UnexpectedException;
+
+import java.util.Date;
+import java.util.MissingFormatArgumentException;
+import java.util.UnknownFormatConversionException;
+
+public class MessageTemplateTest extends UtilTestBase {
+
+    private static void verify(String template, Object... args) {
+        eq(String.format(template, args), MessageTemplate.compile(template).render(args));
+        eq(String.format(template, args), S.fmt(template, args));
+    }
+
+    @Test
+    public void testPlainConversions() {
+        verify("hello %s", "world");
+        verify("%s-%s:%s", 1, null, 'c');
+        verify("no conversion");
+        verify("");
+        verify("100%% of %s%n", "tests");
+    }
+
+    @Test
+    public void testSpecifiers() {
+        verify("[%5d|%-5s|%.2f|%x|%S]", 42, "ab", 3.14159, 255, "up");
+        verify("%,d items at %08.3f", 1234567, 2.5);
+        verify("%b %c %o %e %5%", true, 'x', 8, 12345.678);
+        verify("%tY", new Date(0));
+    }
+
+    @Test
+    public void testIndexedArguments() {
+        verify("%2$s %1$s %<s", "a", "b");
+    }
+
+    @Test
+    public void testCachedTemplate() {
+        same(MessageTemplate.of("cached %s"), MessageTemplate.of("cached %s"));
+        eq("cached %s", MessageTemplate.of("cached %s").toString());
+        eq("[x]", MessageTemplate.of("[%s]").appendTo(S.newBuffer(), "x").toString());
+    }
+
+    @Test(expected = MissingFormatArgumentException.class)
+    public void testMissingArgument() {
+        MessageTemplate.compile("%s and %s").render("one");
+    }
+
+    @Test(expected = UnknownFormatConversionException.class)
+    public void testInvalidSpecifier() {
+        MessageTemplate.compile("broken %").render("x");
+    }
+
+    @Test
+    public void testLazyMessageNotRenderedWhenPassed() {
+        final int[] calls = {0};
+        $.Func0<String> message = new $.F0<String>() {
+            @Override
+            public String apply() {
+                calls[0]++;
+                return "bad %s value";
+            }
+        };
+        E.illegalArgumentIf(false, message);
+        E.illegalStateIf(false, message);
+        E.invalidArgIf(false, message);
+        eq(0, calls[0]);
+        try {
+            E.illegalArgumentIf(true, message);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            eq("bad %s value", e.getMessage());
+        }
+        try {
+            E.unexpectedIf(true, message);
+            fail("UnexpectedException expected");
+        } catch (UnexpectedException e) {
+            eq("bad %s value", e.getMessage());
+        }
+        eq(2, calls[0]);
+    }
+}
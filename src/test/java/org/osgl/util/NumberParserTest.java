@@ -0,0 +1,169 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import org.junit.Test;
+
+import java.util.Random;
+
+public class NumberParserTest extends UtilTestBase {
+
+    private NumberParser parser = new NumberParser();
+
+    private void verifyFailure(NumberParser.Error error, int index) {
+        yes(parser.failed());
+        eq(error, parser.error());
+        eq(index, parser.errorIndex());
+    }
+
+    @Test
+    public void testParseInt() {
+        eq(0, parser.parseInt("0"));
+        eq(-123, parser.parseInt("-123"));
+        eq(45, parser.parseInt("+45"));
+        eq(Integer.MAX_VALUE, parser.parseInt(String.valueOf(Integer.MAX_VALUE)));
+        eq(Integer.MIN_VALUE, parser.parseInt(String.valueOf(Integer.MIN_VALUE)));
+        no(parser.failed());
+        eq(NumberParser.Error.NONE, parser.error());
+        eq(-1, parser.errorIndex());
+
+        eq(0, parser.parseInt("2147483648"));
+        verifyFailure(NumberParser.Error.OVERFLOW, 9);
+        parser.parseInt("12a4");
+        verifyFailure(NumberParser.Error.INVALID_CHAR, 2);
+        parser.parseInt("");
+        verifyFailure(NumberParser.Error.EMPTY, 0);
+        parser.parseInt("-");
+        verifyFailure(NumberParser.Error.EMPTY, 0);
+
+        eq(42, parser.parseInt("42"));
+        no(parser.failed());
+    }
+
+    @Test
+    public void testParseLong() {
+        eq(Long.MAX_VALUE, parser.parseLong(String.valueOf(Long.MAX_VALUE)));
+        eq(Long.MIN_VALUE, parser.parseLong(String.valueOf(Long.MIN_VALUE)));
+        eq(2147483648L, parser.parseLong("2147483648"));
+        parser.parseLong("9223372036854775808");
+        verifyFailure(NumberParser.Error.OVERFLOW, 18);
+        Random r = new Random(7);
+        for (int i = 0; i < 1000; ++i) {
+            long l = r.nextLong() >> r.nextInt(64);
+            eq(l, parser.parseLong(String.valueOf(l)));
+        }
+    }
+
+    @Test
+    public void testParseRanges() {
+        String s = "id=12,price=-3.25,qty=7";
+        eq(12, parser.parseInt(s, 3, 5));
+        eq(-3.25d, parser.parseDouble(s, 12, 17));
+        char[] chars = s.toCharArray();
+        eq(12L, parser.parseLong(chars, 3, 5));
+        eq(7, parser.parseInt(chars, 22, 23));
+        byte[] bytes = s.getBytes(Charsets.ISO_8859_1);
+        eq(-3.25d, parser.parseDouble(bytes, 12, 17));
+        eq(7, parser.parseInt(bytes, 22, 23));
+        parser.parseInt(bytes, 0, 5);
+        verifyFailure(NumberParser.Error.INVALID_CHAR, 0);
+        FastStr fs = FastStr.of(s).substr(12);
+        eq(-3.25d, parser.parseDouble(fs, 0, 5));
+    }
+
+    @Test
+    public void testParseDouble() {
+        String[] samples = {
+                "0", "-0", "0.0", "1", "1.", ".5", "-12.5e-3", "1E10", "3.141592653589793",
+                "0.1", "0.3", "123456789012345678901234567890", "1e23", "2.2250738585072014E-308",
+                "4.9E-324", "1.7976931348623157E308", "0.000001234", "9007199254740993", "1e-400"
+        };
+        for (String s : samples) {
+            double d = parser.parseDouble(s);
+            no(parser.failed());
+            eq(Double.doubleToLongBits(Double.parseDouble(s)), Double.doubleToLongBits(d));
+        }
+        yes(Double.isNaN(parser.parseDouble("NaN")));
+        eq(Double.NEGATIVE_INFINITY, parser.parseDouble("-Infinity"));
+        Random r = new Random(11);
+        for (int i = 0; i < 1000; ++i) {
+            double d = Double.longBitsToDouble(r.nextLong());
+            if (Double.isNaN(d) || Double.isInfinite(d)) {
+                continue;
+            }
+            eq(d, parser.parseDouble(Double.toString(d)));
+        }
+
+        parser.parseDouble("1.2.3");
+        verifyFailure(NumberParser.Error.INVALID_CHAR, 3);
+        parser.parseDouble("1e");
+        verifyFailure(NumberParser.Error.INVALID_CHAR, 2);
+        parser.parseDouble("Inf");
+        verifyFailure(NumberParser.Error.INVALID_CHAR, 3);
+        parser.parseDouble(".");
+        verifyFailure(NumberParser.Error.INVALID_CHAR, 0);
+        parser.parseDouble("1e400");
+        verifyFailure(NumberParser.Error.OVERFLOW, 0);
+    }
+
+    @Test
+    public void testAppendDouble() {
+        double[] samples = {
+                0.0, -0.0, 1.0, -1.5, 0.1, 0.001, 9.999E-4, 1234567.0, 1.0E7, 1.0E-5, 123.456,
+                Double.MAX_VALUE, Double.MIN_VALUE, Double.MIN_NORMAL, Double.NaN,
+                Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY
+        };
+        for (double d : samples) {
+            eq(String.valueOf(d), S.buffer().append(d).toString());
+        }
+        // Java 8 prints 9.999999999999999E22 and 1.9999999999999998E23
+        eq("1.0E23", S.buffer().append(1e23).toString());
+        eq("2.0E23", S.buffer().append(2e23).toString());
+        Random r = new Random(13);
+        for (int i = 0; i < 1000; ++i) {
+            double d = Double.longBitsToDouble(r.nextLong());
+            String s = S.buffer().append(d).toString();
+            eq(Double.doubleToLongBits(d), Double.doubleToLongBits(Double.parseDouble(s)));
+            yes(s.length() <= String.valueOf(d).length());
+        }
+        eq("x-2.5y", S.buffer("y").prepend(-2.5d).prepend('x').toString());
+    }
+
+    @Test
+    public void testAppendFloat() {
+        float[] samples = {0.0f, -0.0f, 1.0f, 0.1f, 0.3f, 1.0E7f, 1.0E-3f, Float.MAX_VALUE, Float.MIN_VALUE, Float.NaN};
+        for (float f : samples) {
+            eq(String.valueOf(f), S.buffer().append(f).toString());
+        }
+        // Java 8 prints 1.17549435E-38
+        eq("1.1754944E-38", S.buffer().append(Float.MIN_NORMAL).toString());
+        Random r = new Random(17);
+        for (int i = 0; i < 1000; ++i) {
+            float f = Float.intBitsToFloat(r.nextInt());
+            String s = S.buffer().append(f).toString();
+            eq(Float.floatToIntBits(f), Float.floatToIntBits(Float.parseFloat(s)));
+            yes(s.length() <= String.valueOf(f).length());
+        }
+        eq("0.5ab", S.buffer("ab").prepend(0.5f).toString());
+    }
+
+}
@@ -0,0 +1,191 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import org.junit.Test;
+import org.osgl.$;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class PrimitiveMapTest extends UtilTestBase {
+
+    private static final int N = 20000;
+
+    @Test
+    public void intMapShallMatchHashMap() {
+        Random r = new Random(1);
+        IntMap<String> map = C.newIntMap(4);
+        Map<Integer, String> expected = new HashMap<Integer, String>();
+        for (int i = 0; i < N; ++i) {
+            int key = r.nextInt(N / 4) - N / 8;
+            if (r.nextInt(3) == 0) {
+                eq(expected.remove(key), map.remove(key));
+            } else {
+                String value = "v" + i;
+                eq(expected.put(key, value), map.put(key, value));
+            }
+        }
+        eq(expected.size(), map.size());
+        for (Map.Entry<Integer, String> entry : expected.entrySet()) {
+            yes(map.containsKey(entry.getKey()));
+            eq(entry.getValue(), map.get(entry.getKey()));
+        }
+        final Map<Integer, String> visited = new HashMap<Integer, String>();
+        map.forEach(new IntMap.Visitor<String>() {
+            @Override
+            public void visit(int key, String value) {
+                visited.put(key, value);
+            }
+        });
+        eq(expected, visited);
+        visited.clear();
+        IntMap.Cursor<String> cursor = map.cursor();
+        while (cursor.next()) {
+            visited.put(cursor.key(), cursor.value());
+        }
+        eq(expected, visited);
+    }
+
+    @Test
+    public void zeroKey() {
+        IntMap<String> map = new IntMap<String>();
+        isNull(map.get(0));
+        no(map.containsKey(0));
+        map.put(0, "zero");
+        eq("zero", map.get(0));
+        eq(1, map.size());
+        eq(1, map.keys().length);
+        eq("zero", map.remove(0));
+        yes(map.isEmpty());
+    }
+
+    @Test
+    public void longMap() {
+        LongMap<String> map = new LongMap<String>();
+        for (long i = 0; i < N; ++i) {
+            map.put(i << 33, "v" + i);
+        }
+        eq(N, map.size());
+        eq("v7", map.get(7L << 33));
+        isNull(map.get(7L));
+        eq("v7", map.remove(7L << 33));
+        no(map.containsKey(7L << 33));
+        eq(N - 1, map.size());
+    }
+
+    @Test
+    public void objectIntMapShallMatchHashMap() {
+        Random r = new Random(2);
+        ObjectIntMap<String> map = C.newObjectIntMap(0);
+        Map<String, Integer> expected = new HashMap<String, Integer>();
+        for (int i = 0; i < N; ++i) {
+            String key = "k" + r.nextInt(N / 4);
+            if (r.nextInt(3) == 0) {
+                Integer old = expected.remove(key);
+                eq(null == old ? 0 : old, map.remove(key));
+            } else {
+                Integer old = expected.put(key, i);
+                eq(null == old ? 0 : old, map.put(key, i));
+            }
+        }
+        eq(expected.size(), map.size());
+        ObjectIntMap.Cursor<String> cursor = map.cursor();
+        int n = 0;
+        while (cursor.next()) {
+            eq(expected.get(cursor.key()), cursor.value());
+            n++;
+        }
+        eq(expected.size(), n);
+    }
+
+    @Test
+    public void objectIntMapShallRehashOnDeserialization() throws Exception {
+        ObjectIntMap<MapTest.Month> months = new ObjectIntMap<MapTest.Month>();
+        for (MapTest.Month month : MapTest.Month.values()) {
+            months.put(month, month.ordinal());
+        }
+        ObjectIntMap<MapTest.Month> copy = MapTest.copy(months);
+        eq(months, copy);
+        for (MapTest.Month month : MapTest.Month.values()) {
+            eq(month.ordinal(), copy.get(month, -1));
+        }
+        ObjectIntMap<MapTest.SaltedKey> map = new ObjectIntMap<MapTest.SaltedKey>();
+        for (int i = 0; i < 100; ++i) {
+            map.put(new MapTest.SaltedKey(i), i);
+        }
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new ObjectOutputStream(baos).writeObject(map);
+        MapTest.SaltedKey.salt = 7;
+        try {
+            map = $.cast(new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray())).readObject());
+            eq(100, map.size());
+            for (int i = 0; i < 100; ++i) {
+                eq(i, map.get(new MapTest.SaltedKey(i), -1));
+            }
+            map.put(new MapTest.SaltedKey(100), 100);
+            eq(101, map.size());
+        } finally {
+            MapTest.SaltedKey.salt = 0;
+        }
+    }
+
+    @Test
+    public void addTo() {
+        ObjectIntMap<String> counter = new ObjectIntMap<String>();
+        for (String s : "a b a c a b".split(" ")) {
+            counter.addTo(s, 1);
+        }
+        eq(3, counter.get("a"));
+        eq(2, counter.get("b"));
+        eq(1, counter.get("c"));
+        eq(-1, counter.get("d", -1));
+
+        IntIntMap histogram = C.newIntIntMap(4);
+        for (int i = 0; i < 100; ++i) {
+            histogram.addTo(i % 10, i);
+        }
+        eq(10, histogram.size());
+        eq(450, histogram.get(0));
+        eq(540, histogram.get(9));
+    }
+
+    @Test
+    public void equalsAndHashCode() {
+        IntIntMap m1 = new IntIntMap();
+        IntIntMap m2 = new IntIntMap(1000);
+        for (int i = 0; i < 100; ++i) {
+            m1.put(i, i * i);
+            m2.put(99 - i, (99 - i) * (99 - i));
+        }
+        eq(m1, m2);
+        eq(m1.hashCode(), m2.hashCode());
+        m2.put(5, 0);
+        ne(m1, m2);
+    }
+
+}
@@ -0,0 +1,152 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.Random;
+
+public class RopeTest extends UtilTestBase {
+
+    private static String piece(Random r) {
+        int len = r.nextInt(4) == 0 ? r.nextInt(400) : r.nextInt(20);
+        char[] chars = new char[len];
+        for (int i = 0; i < len; ++i) {
+            chars[i] = (char) (r.nextInt(8) == 0 ? '\u4e00' + r.nextInt(100) : 'a' + r.nextInt(26));
+        }
+        return new String(chars);
+    }
+
+    @Test
+    public void testConcatAndCharAt() {
+        Random r = new Random(5);
+        Rope rope = Rope.EMPTY;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 2000; ++i) {
+            String s = piece(r);
+            if (r.nextBoolean()) {
+                rope = rope.concat(s);
+                sb.append(s);
+            } else {
+                rope = Rope.of(s).concat(rope);
+                sb.insert(0, s);
+            }
+            eq(sb.length(), rope.length());
+        }
+        String expected = sb.toString();
+        for (int i = 0; i < 1000; ++i) {
+            int index = r.nextInt(expected.length());
+            eq(expected.charAt(index), rope.charAt(index));
+        }
+        eq(expected, rope.toString());
+    }
+
+    @Test
+    public void testBalanced() {
+        Rope rope = Rope.EMPTY;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20000; ++i) {
+            String s = "item-" + i + ":" + S.times("x", Rope.SHORT) + ";";
+            rope = rope.concat(s);
+            sb.append(s);
+        }
+        // an AVL tree of n leaves is at most 1.45 log2(n) deep
+        yes(rope.depth() <= 1.45 * Math.log(20000) / Math.log(2) + 2);
+        eq(sb.length(), rope.length());
+        String expected = sb.toString();
+        Random r = new Random(7);
+        for (int i = 0; i < 1000; ++i) {
+            int index = r.nextInt(expected.length());
+            eq(expected.charAt(index), rope.charAt(index));
+        }
+        eq(expected, rope.toString());
+    }
+
+    @Test
+    public void testShortPiecesAreMerged() {
+        Rope rope = Rope.EMPTY;
+        for (int i = 0; i < 1000; ++i) {
+            rope = rope.concat("x");
+        }
+        eq(1000, rope.length());
+        yes(rope.depth() <= 5);
+        eq(S.times("x", 1000), rope.toString());
+    }
+
+    @Test
+    public void testSubSequence() {
+        Random r = new Random(9);
+        Rope rope = Rope.EMPTY;
+        for (int i = 0; i < 500; ++i) {
+            rope = rope.concat(piece(r));
+        }
+        String expected = rope.toString();
+        for (int i = 0; i < 300; ++i) {
+            int start = r.nextInt(expected.length());
+            int end = start + r.nextInt(expected.length() - start + 1);
+            eq(expected.substring(start, end), rope.subSequence(start, end).toString());
+            Rope sub = rebuild(r, expected).subSequence(start, end);
+            eq(expected.substring(start, end), sub.toString());
+        }
+        same(Rope.EMPTY, rope.subSequence(3, 3));
+    }
+
+    // builds the content again as a rope not yet flattened
+    private static Rope rebuild(Random r, String s) {
+        Rope rope = Rope.EMPTY;
+        int i = 0;
+        while (i < s.length()) {
+            int end = Math.min(s.length(), i + 1 + r.nextInt(300));
+            rope = rope.concat(s.substring(i, end));
+            i = end;
+        }
+        return rope;
+    }
+
+    @Test
+    public void testInterop() {
+        FastStr fs = FastStr.of("fast str");
+        S.Buffer buffer = S.buffer("buffer");
+        Rope rope = Rope.of(fs).concat(" + ").concat(buffer).concat(Rope.of(" + string"));
+        eq("buffer", buffer.toString());
+        eq("fast str + buffer + string", rope.toString());
+        eq("[fast str + buffer + string]", S.buffer("[").append(rope).append(']').toString());
+        StringWriter writer = new StringWriter();
+        rope.writeTo(writer);
+        eq("fast str + buffer + string", writer.toString());
+        eq(FastStr.of("fast str + buffer + string"), rope.toFastStr());
+        yes(Rope.of("caf\u00e9").toFastStr().isLatin1());
+    }
+
+    @Test
+    public void testEqualsAndHashCode() {
+        Rope a = Rope.of("hello").concat(", ").concat(S.times("world", 50));
+        Rope b = Rope.of("hel").concat("lo, " + S.times("world", 50));
+        eq(a, b);
+        eq(a.hashCode(), b.hashCode());
+        eq(a.toString().hashCode(), a.hashCode());
+        no(a.equals(b.concat("!")));
+        no(a.equals(a.toString()));
+    }
+
+}
@@ -48,6 +48,48 @@ public class SBufferTest extends OsglToolTestBase {
         notSame(sb, sb2);
     }
 
+    @Test
+    public void itShallReuseNestedBuffers() {
+        int depth = S.bufferDepth();
+        S.Buffer outer = S.buffer("outer");
+        S.Buffer inner = S.buffer("inner");
+        notSame(outer, inner);
+        eq(depth + 2, S.bufferDepth());
+        eq("inner", inner.toString());
+        S.Buffer reused = S.buffer();
+        same(inner, reused);
+        eq(depth + 2, S.bufferDepth());
+        reused.toString();
+        eq("outer", outer.toString());
+        eq(depth, S.bufferDepth());
+    }
+
+    @Test
+    public void itShallNotRetainLargeBuffers() {
+        S.Buffer sb = S.buffer();
+        for (int i = 0; i < 10000; ++i) {
+            sb.append('x');
+        }
+        sb.toString();
+        S.Buffer sb2 = S.buffer();
+        same(sb, sb2);
+        yes(sb2.capacity() < 10000);
+        sb2.toString();
+    }
+
+    @Test
+    public void itShallAllocateWhenAllBuffersAreInUse() {
+        int depth = S.bufferDepth();
+        S.Buffer[] buffers = new S.Buffer[20];
+        for (int i = 0; i < buffers.length; ++i) {
+            buffers[i] = S.buffer(i);
+        }
+        for (int i = 0; i < buffers.length; ++i) {
+            eq(String.valueOf(i), buffers[i].toString());
+        }
+        yes(S.bufferDepth() <= depth);
+    }
+
     @Test
     public void testPrepend() {
         S.Buffer sb = S.newBuffer("abc");
@@ -0,0 +1,150 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import org.junit.Test;
+import org.osgl.$;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Verify {@link C.Traversable#forEachWhile($.Function)} and the search
+ * operations built on it stop at the first decisive element
+ */
+public class ShortCircuitTest extends UtilTestBase {
+
+    /**
+     * Records every element visited and stops once the element equals the stop value
+     */
+    private static class StopAt extends $.F1<Integer, Boolean> {
+        private final int stop;
+        final List<Integer> visited = new ArrayList<Integer>();
+
+        StopAt(int stop) {
+            this.stop = stop;
+        }
+
+        @Override
+        public Boolean apply(Integer i) {
+            visited.add(i);
+            return i != stop;
+        }
+    }
+
+    private static final $.Predicate<Integer> GT_3 = new $.Predicate<Integer>() {
+        @Override
+        public boolean test(Integer i) {
+            return i > 3;
+        }
+    };
+
+    private static void verifyStop(C.Traversable<Integer> t) {
+        StopAt visitor = new StopAt(3);
+        no(t.forEachWhile(visitor));
+        eq(C.list(1, 2, 3), visitor.visited);
+        visitor = new StopAt(-1);
+        yes(t.forEachWhile(visitor));
+        eq(5, visitor.visited.size());
+    }
+
+    private static void verifySearch(C.Traversable<Integer> t) {
+        eq(4, t.findOne(GT_3).get());
+        no(t.findOne(N.F.gt(5)).isDefined());
+        yes(t.anyMatch(GT_3));
+        no(t.anyMatch(N.F.gt(5)));
+        yes(t.allMatch(N.F.gt(0)));
+        no(t.allMatch(GT_3));
+        yes(t.noneMatch(N.F.gt(5)));
+        no(t.noneMatch(GT_3));
+    }
+
+    @Test
+    public void testLists() {
+        C.List<Integer> list = C.list(1, 2, 3, 4, 5);
+        verifyStop(list);
+        verifySearch(list);
+        C.List<Integer> padded = C.list(0, 1, 2, 3, 4, 5, 6);
+        verifyStop(padded.subList(1, 6));
+        verifySearch(padded.subList(1, 6));
+        C.List<Integer> mapped = C.list(0, 1, 2, 3, 4).map(new $.F1<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer i) {
+                return i + 1;
+            }
+        });
+        verifyStop(mapped);
+        verifySearch(mapped);
+        C.List<Integer> composite = C.list(1, 2).append(C.list(3, 4, 5));
+        verifyStop(composite);
+        verifySearch(composite);
+        C.List<Integer> delegating = C.newList(1, 2, 3, 4, 5);
+        verifyStop(delegating);
+        verifySearch(delegating);
+        C.List<Integer> reversed = C.list(5, 4, 3, 2, 1).lazy().reverse();
+        verifyStop(reversed);
+        verifySearch(reversed);
+        C.List<Integer> linked = C.wrap(new LinkedList<Integer>(Arrays.asList(5, 4, 3, 2, 1))).lazy().reverse();
+        verifyStop(linked);
+        verifySearch(linked);
+        eq(3, C.list(1, 2, 3).lazy().reverse().findOne(N.F.gt(1)).get());
+    }
+
+    @Test
+    public void testSets() {
+        C.Set<Integer> set = C.newSet(Arrays.asList(1, 2, 3, 4, 5));
+        verifySearch(set);
+        verifySearch(C.set((Collection<Integer>) Arrays.asList(1, 2, 3, 4, 5)));
+        C.SortedSet<Integer> sorted = C.sortedSetOf(5, 4, 3, 2, 1);
+        verifyStop(sorted);
+        verifySearch(sorted);
+    }
+
+    @Test
+    public void testSequences() {
+        C.Sequence<Integer> fused = C.seq((Iterable<Integer>) Arrays.asList(1, 2, 3, 4, 5));
+        verifyStop(fused);
+        verifySearch(fused);
+        C.Sequence<Integer> flat = C.seq((Iterable<Integer>) Arrays.asList(1, 3, 5)).flatMap(new $.F1<Integer, Iterable<Integer>>() {
+            @Override
+            public Iterable<Integer> apply(Integer i) {
+                return i < 5 ? C.list(i, i + 1) : C.list(i);
+            }
+        });
+        verifyStop(flat);
+        C.Sequence<Integer> lazy = C.lazySeq(Arrays.asList(1, 2, 3, 4, 5));
+        verifyStop(lazy);
+        verifySearch(lazy);
+    }
+
+    @Test
+    public void testInfiniteSequence() {
+        C.Sequence<Integer> naturals = C.lazySeq(C.range(1, Integer.MAX_VALUE).iterator());
+        StopAt visitor = new StopAt(3);
+        no(naturals.forEachWhile(visitor));
+        eq(C.list(1, 2, 3), visitor.visited);
+        eq(4, naturals.findOne(GT_3).get());
+    }
+}
@@ -0,0 +1,157 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+public class SketchTest extends UtilTestBase {
+
+    @Test
+    public void bloomFilterHasNoFalseNegative() {
+        BloomFilter<String> filter = BloomFilter.create(10000, 0.01);
+        for (int i = 0; i < 10000; ++i) {
+            filter.put("key" + i);
+        }
+        for (int i = 0; i < 10000; ++i) {
+            yes(filter.mightContain("key" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 10000; i < 20000; ++i) {
+            if (filter.mightContain("key" + i)) {
+                falsePositives++;
+            }
+        }
+        yes(falsePositives < 200);
+        yes(filter.expectedFpp() < 0.02);
+    }
+
+    @Test
+    public void bloomFilterMergeAndSerialization() {
+        BloomFilter<Integer> f1 = BloomFilter.create(1000, 0.01);
+        BloomFilter<Integer> f2 = BloomFilter.concurrent(1000, 0.01);
+        for (int i = 0; i < 500; ++i) {
+            f1.put(i);
+            f2.put(i + 500);
+        }
+        f1.merge(f2);
+        BloomFilter<Integer> copy = BloomFilter.fromByteArray(f1.toByteArray(), true);
+        yes(copy.isConcurrent());
+        eq(f1.bitSize(), copy.bitSize());
+        eq(f1.hashCount(), copy.hashCount());
+        for (int i = 0; i < 1000; ++i) {
+            yes(copy.mightContain(i));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void bloomFilterShallRejectIncompatibleMerge() {
+        BloomFilter.<String>create(1000, 0.01).merge(BloomFilter.<String>create(100000, 0.01));
+    }
+
+    @Test
+    public void countMinSketchNeverUnderestimates() {
+        CountMinSketch<String> sketch = CountMinSketch.create(0.001, 0.99);
+        for (int i = 0; i < 1000; ++i) {
+            sketch.add("key" + i, i % 10 + 1);
+        }
+        long total = 0;
+        for (int i = 0; i < 1000; ++i) {
+            long real = i % 10 + 1;
+            total += real;
+            long estimate = sketch.estimate("key" + i);
+            yes(estimate >= real);
+            yes(estimate <= real + 0.001 * 2 * 5500 + 1);
+        }
+        eq(total, sketch.size());
+        CountMinSketch<String> copy = CountMinSketch.fromByteArray(sketch.toByteArray());
+        copy.merge(sketch);
+        eq(2 * total, copy.size());
+        eq(2 * sketch.estimate("key1"), copy.estimate("key1"));
+    }
+
+    @Test
+    public void hyperLogLogEstimatesCardinality() {
+        HyperLogLog<Integer> hll = HyperLogLog.create();
+        for (int i = 0; i < 100000; ++i) {
+            hll.add(i);
+            hll.add(i);
+        }
+        long estimate = hll.cardinality();
+        yes(Math.abs(estimate - 100000) < 100000 * hll.relativeError() * 4);
+
+        HyperLogLog<Integer> small = HyperLogLog.create(10);
+        for (int i = 0; i < 100; ++i) {
+            small.add(i);
+        }
+        yes(Math.abs(small.cardinality() - 100) <= 5);
+        eq(0L, HyperLogLog.create().cardinality());
+    }
+
+    @Test
+    public void hyperLogLogMergeAndSerialization() {
+        HyperLogLog<String> h1 = HyperLogLog.create(12);
+        HyperLogLog<String> h2 = HyperLogLog.create(12);
+        for (int i = 0; i < 20000; ++i) {
+            h1.add("a" + i);
+            h2.add("b" + i);
+        }
+        HyperLogLog<String> copy = HyperLogLog.fromByteArray(h1.toByteArray());
+        eq(h1.cardinality(), copy.cardinality());
+        long union = copy.merge(h2).cardinality();
+        yes(Math.abs(union - 40000) < 40000 * copy.relativeError() * 4);
+    }
+
+    @Test
+    public void concurrentHyperLogLog() throws Exception {
+        final HyperLogLog<Integer> hll = HyperLogLog.concurrent();
+        final int threads = 4;
+        final CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; ++t) {
+            final int base = t * 25000;
+            new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 25000; ++i) {
+                        hll.add(base + i);
+                    }
+                    done.countDown();
+                }
+            }.start();
+        }
+        done.await();
+        yes(Math.abs(hll.cardinality() - 100000) < 100000 * hll.relativeError() * 4);
+    }
+
+    @Test
+    public void traversableIntegration() {
+        C.List<Integer> l = C.newList();
+        for (int i = 0; i < 1000; ++i) {
+            l.add(i % 100);
+        }
+        BloomFilter<Integer> filter = l.toBloomFilter(0.01);
+        yes(filter.mightContain(42));
+        yes(Math.abs(l.approxDistinct() - 100) <= 3);
+        eq(100L, C.set(l).approxDistinct());
+        yes(Math.abs(C.range(0, 1000).approxDistinct() - 1000) < 50);
+    }
+}
@@ -0,0 +1,136 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import org.junit.Test;
+import org.osgl.$;
+import org.osgl.exception.UnsupportedException;
+
+import java.util.*;
+
+public class SortedSetTest extends UtilTestBase {
+
+    @Test
+    public void elementsAreSortedAndDistinct() {
+        C.SortedSet<Integer> set = C.sortedSetOf(5, 3, 9, 3, 1, 5);
+        eq(C.list(1, 3, 5, 9), C.list(set));
+        eq(4, set.size());
+        eq(1, set.first());
+        eq(9, set.last());
+        yes(set.contains(3));
+        no(set.contains(4));
+        no(set.contains("3"));
+        yes(set.is(C.Feature.SORTED));
+        eq(new TreeSet<Integer>(Arrays.asList(1, 3, 5, 9)), set);
+    }
+
+    @Test
+    public void rangeViews() {
+        C.SortedSet<Integer> set = C.sortedSetOf(1, 3, 5, 7, 9, 11);
+        eq(C.list(1, 3, 5), C.list(set.headSet(6)));
+        eq(C.list(7, 9, 11), C.list(set.tailSet(7)));
+        C.SortedSet<Integer> sub = set.subSet(3, 10);
+        eq(C.list(3, 5, 7, 9), C.list(sub));
+        eq(C.list(5, 7), C.list(sub.subSet(4, 8)));
+        no(sub.contains(1));
+        no(sub.contains(11));
+        yes(set.headSet(0).isEmpty());
+        yes(set.subSet(4, 5).isEmpty());
+        eq(C.list(3), C.list(sub.headSet(5)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void subSetWithInvertedBounds() {
+        C.sortedSetOf(1, 2, 3).subSet(3, 1);
+    }
+
+    @Test
+    public void comparatorIsKept() {
+        Comparator<Integer> reverse = $.F.reverseOrder();
+        C.SortedSet<Integer> set = C.sortedSet(C.list(1, 4, 2, 8), reverse);
+        eq(C.list(8, 4, 2, 1), C.list(set));
+        eq(C.list(8, 4), C.list(set.headSet(3)));
+        TreeSet<Integer> treeSet = new TreeSet<Integer>(reverse);
+        treeSet.addAll(Arrays.asList(3, 2, 1));
+        C.SortedSet<Integer> copy = C.sortedSet(treeSet);
+        same(reverse, copy.comparator());
+        eq(C.list(3, 2, 1), C.list(copy));
+    }
+
+    @Test
+    public void unionAndIntersection() {
+        C.SortedSet<Integer> a = C.sortedSetOf(1, 3, 5, 7, 9);
+        C.SortedSet<Integer> b = C.sortedSetOf(2, 3, 4, 9, 10);
+        eq(C.list(1, 2, 3, 4, 5, 7, 9, 10), C.list(a.union(b)));
+        eq(C.list(3, 9), C.list(a.intersection(b)));
+        eq(C.list(3, 5), C.list(a.subSet(2, 6).union(b.subSet(3, 4))));
+        yes(a.intersection(C.sortedSetOf(2, 4)).isEmpty());
+        TreeSet<Integer> reversed = new TreeSet<Integer>($.F.<Integer>reverseOrder());
+        reversed.addAll(Arrays.asList(0, 5, 6));
+        eq(C.list(0, 1, 3, 5, 6, 7, 9), C.list(a.union(reversed)));
+        eq(C.list(5), C.list(a.intersection(reversed)));
+    }
+
+    @Test(expected = UnsupportedException.class)
+    public void setIsImmutable() {
+        C.sortedSetOf(1, 2).add(3);
+    }
+
+    @Test
+    public void sortedMap() {
+        Map<String, Integer> source = new HashMap<String, Integer>();
+        source.put("c", 3);
+        source.put("a", 1);
+        source.put("d", 4);
+        source.put("b", 2);
+        C.SortedMap<String, Integer> map = C.sortedMap(source);
+        eq(C.list("a", "b", "c", "d"), C.list(map.keySet()));
+        eq(C.list(1, 2, 3, 4), C.list(map.values()));
+        eq(3, map.get("c"));
+        isNull(map.get("e"));
+        isNull(map.get(1));
+        eq(source, map);
+        eq("a", map.firstKey());
+        eq("d", map.lastKey());
+        C.SortedMap<String, Integer> sub = map.subMap("b", "d");
+        eq(2, sub.size());
+        eq(C.list(2, 3), C.list(sub.values()));
+        isNull(sub.get("a"));
+        eq(C.list("c", "d"), C.list(map.tailMap("c").keySet()));
+        eq(C.list("a"), C.list(map.headMap("b").keySet()));
+        Iterator<Map.Entry<String, Integer>> itr = sub.entrySet().iterator();
+        Map.Entry<String, Integer> entry = itr.next();
+        eq("b", entry.getKey());
+        eq(2, entry.getValue());
+    }
+
+    @Test
+    public void readOnlySortedMapKeepsOrder() {
+        TreeMap<String, Integer> source = new TreeMap<String, Integer>();
+        source.put("y", 2);
+        source.put("x", 1);
+        source.put("z", 3);
+        C.Map<String, Integer> map = C.newMap(source).readOnly(true);
+        eq(C.list("x", "y", "z"), C.list(map.keySet()));
+        eq(2, map.get("y"));
+    }
+}
@@ -0,0 +1,103 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+public class StreamsTest extends UtilTestBase {
+
+    private static final int SIZE = 10000;
+
+    @Test
+    public void immutableListSpliteratorShallBeSized() {
+        C.List<Integer> list = C.list(1, 2, 3, 4, 5);
+        Spliterator<Integer> sp = list.spliterator();
+        yes(sp.hasCharacteristics(Spliterator.SIZED));
+        yes(sp.hasCharacteristics(Spliterator.SUBSIZED));
+        yes(sp.hasCharacteristics(Spliterator.ORDERED));
+        eq(5L, sp.estimateSize());
+        Spliterator<Integer> prefix = sp.trySplit();
+        eq(5L, prefix.estimateSize() + sp.estimateSize());
+    }
+
+    @Test
+    public void parallelStreamOfImmutableList() {
+        C.List<Integer> list = C.newList();
+        for (int i = 0; i < SIZE; ++i) {
+            list.add(i);
+        }
+        list = C.list(list);
+        List<Integer> result = list.parallelStream().collect(Collectors.<Integer>toList());
+        eq(list, result);
+    }
+
+    @Test
+    public void streamSupportShallSplitByIndex() {
+        ListBuilder<Integer> lb = ListBuilder.create();
+        for (int i = 0; i < SIZE; ++i) {
+            lb.add(i);
+        }
+        C.List<Integer> list = lb.toList();
+        Spliterator<Integer> sp = list.spliterator();
+        Spliterator<Integer> prefix = sp.trySplit();
+        eq((long) SIZE / 2, prefix.getExactSizeIfKnown());
+        eq((long) SIZE / 2, sp.getExactSizeIfKnown());
+        eq(list, StreamSupport.stream(list.spliterator(), true).collect(Collectors.<Integer>toList()));
+    }
+
+    @Test
+    public void listBuilderSpliterator() {
+        ListBuilder<String> lb = ListBuilder.create();
+        lb.append("a", "b", "c");
+        Spliterator<String> sp = lb.spliterator();
+        eq(3L, sp.getExactSizeIfKnown());
+        eq(Arrays.asList("a", "b", "c"), lb.stream().collect(Collectors.<String>toList()));
+    }
+
+    @Test
+    public void intRangeSpliteratorShallSplitByIndex() {
+        IntRange range = IntRange.of(0, SIZE);
+        Spliterator<Integer> sp = range.spliterator();
+        eq((long) SIZE, sp.getExactSizeIfKnown());
+        Spliterator<Integer> prefix = sp.trySplit();
+        eq((long) SIZE / 2, prefix.getExactSizeIfKnown());
+        long sum = 0;
+        for (Integer i : range.parallelStream().collect(Collectors.<Integer>toList())) {
+            sum += i;
+        }
+        eq((long) SIZE * (SIZE - 1) / 2, sum);
+    }
+
+    @Test
+    public void lazySeqStream() {
+        C.Sequence<Integer> seq = C.seq((Iterable<Integer>) Arrays.asList(1, 2, 3)).lazy();
+        List<Integer> result = Streams.stream(seq).collect(Collectors.<Integer>toList());
+        eq(Arrays.asList(1, 2, 3), result);
+    }
+
+}
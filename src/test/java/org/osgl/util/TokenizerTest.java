@@ -0,0 +1,116 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import org.junit.Test;
+import org.osgl.$;
+
+import java.util.NoSuchElementException;
+
+public class TokenizerTest extends UtilTestBase {
+
+    private static C.List<String> strings(Iterable<FastStr> tokens) {
+        C.List<String> list = C.newList();
+        for (FastStr token : tokens) {
+            list.add(token.toString());
+        }
+        return list;
+    }
+
+    @Test
+    public void testCharSeparator() {
+        eq(C.list("a", "", "b", ""), strings(Tokenizer.of("a,,b,", ',')));
+        eq(C.list("a", "b"), strings(Tokenizer.of("a,,b,", ',').omitEmpty()));
+        eq(C.list(""), strings(Tokenizer.of("", ',')));
+        eq(C.<String>list(), strings(Tokenizer.of("", ',').omitEmpty()));
+        eq(C.list("abc"), strings(Tokenizer.of("abc", ',')));
+    }
+
+    @Test
+    public void testLiteralSeparator() {
+        String s = "abc**12345**abxyd****9$$#sdd";
+        eq(C.list("abc", "12345", "abxyd", "", "9$$#sdd"), strings(Tokenizer.of(s, "**")));
+        eq(S.fastSplit(s, "**"), strings(Tokenizer.of(s, "**").omitEmpty()));
+        eq(C.list("a", "b"), strings(Tokenizer.of("a.b", ".")));
+    }
+
+    @Test
+    public void testAnyOfSeparators() {
+        eq(C.list("k1", "v1", "k2", "v2"), strings(Tokenizer.anyOf("k1=v1;k2=v2", "=;")));
+        eq(C.list("a", "b", "c"), strings(Tokenizer.anyOf(" a \tb\n c ", " \t\n").omitEmpty()));
+    }
+
+    @Test
+    public void testTokensShareSourceBuffer() {
+        char[] buf = "key:value".toCharArray();
+        FastStr source = FastStr.unsafeOf(buf);
+        C.List<FastStr> tokens = Tokenizer.of(source, ':').toList();
+        eq(2, tokens.size());
+        buf[0] = 'K';
+        eq("Key", tokens.get(0).toString());
+        for (FastStr token : Tokenizer.of("caf\u00e9,bar", ',')) {
+            yes(token.isLatin1());
+        }
+    }
+
+    @Test
+    public void testCursor() {
+        Tokenizer.Cursor cursor = Tokenizer.of("ab||cde", "||").cursor();
+        yes(cursor.next());
+        eq(0, cursor.start());
+        eq(2, cursor.end());
+        yes(cursor.next());
+        eq(4, cursor.start());
+        eq(7, cursor.end());
+        eq("cde", cursor.token().toString());
+        no(cursor.next());
+        eq(-1, cursor.start());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testCursorBeforeFirstToken() {
+        Tokenizer.of("a", ',').cursor().token();
+    }
+
+    @Test
+    public void testLazySequence() {
+        C.Sequence<FastStr> tokens = FastStr.of("1,2,3,4").tokens(',');
+        eq(10, (int) tokens.map(new $.F1<FastStr, Integer>() {
+            @Override
+            public Integer apply(FastStr s) {
+                return Integer.parseInt(s.toString());
+            }
+        }).reduce(0, new $.F2<Integer, Integer, Integer>() {
+            @Override
+            public Integer apply(Integer a, Integer b) {
+                return a + b;
+            }
+        }));
+        eq("3", tokens.drop(2).first().toString());
+        eq(C.list("x", "y"), strings(FastStr.of("x->y").tokens("->")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyLiteral() {
+        Tokenizer.of("abc", "");
+    }
+}
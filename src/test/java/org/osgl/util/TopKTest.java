@@ -0,0 +1,101 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+import org.osgl.$;
+
+import java.util.Comparator;
+
+public class TopKTest extends UtilTestBase {
+
+    private static final Comparator<Integer> REVERSED = $.F.reverseOrder();
+
+    private C.List<Integer> list(int n) {
+        C.List<Integer> l = C.newSizedList(n);
+        for (int i = 0; i < n; ++i) {
+            l.add((i * 7919) % n);
+        }
+        return l;
+    }
+
+    @Test
+    public void topKOnList() {
+        C.List<Integer> l = list(1000);
+        eq(C.list(0, 1, 2), l.topK(3));
+        eq(C.list(999, 998), l.topK(2, REVERSED));
+        eq(l.sorted(), l.topK(2000));
+        yes(l.topK(0).isEmpty());
+        yes(l.topK(3).is(C.Feature.IMMUTABLE));
+    }
+
+    @Test
+    public void topKOnParallelList() {
+        C.List<Integer> l = list(50000);
+        eq(l.sorted(REVERSED).take(100), l.parallel().topK(100, REVERSED));
+        eq(l.sorted().take(100), C.listOf(l.toArray(new Integer[0])).topK(100));
+    }
+
+    @Test
+    public void topKOnSequence() {
+        C.Sequence<Integer> seq = C.seq(list(1000));
+        eq(C.list(0, 1, 2), seq.topK(3));
+        eq(C.list(999), seq.parallel().topK(1, REVERSED));
+        yes(C.seq(C.<Integer>list()).topK(3).isEmpty());
+    }
+
+    @Test
+    public void topKShallNotAllocateForHugeK() {
+        C.List<Integer> l = list(1000);
+        eq(l.sorted(), C.seq(l).topK(Integer.MAX_VALUE));
+        eq(l.sorted(REVERSED), C.seq(l).parallel().topK(Integer.MAX_VALUE, REVERSED));
+        eq(l.sorted(), l.topK(Integer.MAX_VALUE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void topKShallRejectNegativeK() {
+        list(10).topK(-1);
+    }
+
+    @Test
+    public void nthElement() {
+        C.List<Integer> l = list(1001);
+        eq(500, l.nthElement(500));
+        eq(990, l.nthElement(10, REVERSED));
+        eq(500, C.seq(l).nthElement(500));
+        eq(list(1001), l);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void nthElementShallRejectIndexOutOfRange() {
+        list(10).nthElement(10);
+    }
+
+    @Test
+    public void partialSorted() {
+        C.List<Integer> l = list(1000);
+        C.List<Integer> partial = l.partialSorted(10);
+        eq(l.sorted().take(10), partial.take(10));
+        eq(l.sorted(), partial.sorted());
+        partial.add(-1);
+        eq(list(1000), l);
+    }
+}
@@ -0,0 +1,182 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+public class Utf8Test extends UtilTestBase {
+
+    // ASCII, Latin-1, CJK and a surrogate pair
+    private static final String MIXED = "abc \u00e9\u00ff \u4e2d\u6587 \ud83d\ude00";
+
+    private static byte[] utf8(String s) {
+        return s.getBytes(Charsets.UTF_8);
+    }
+
+    @Test
+    public void testEncodedLength() {
+        for (String s : new String[]{"", "abc", "\u00e9t\u00e9", MIXED, "\ud83d", "a\udc00\ud800b"}) {
+            eq(utf8(s).length, Utf8.encodedLength(s));
+            eq(utf8(s).length, Utf8.encodedLength(s.toCharArray(), 0, s.length()));
+            eq(utf8(s).length, FastStr.of(s).utf8Length());
+            S.Buffer buffer = S.buffer(s);
+            eq(utf8(s).length, buffer.utf8Length());
+            buffer.toString();
+        }
+    }
+
+    @Test
+    public void testEncodeRoundTrip() {
+        Random r = new Random(3);
+        for (int i = 0; i < 500; ++i) {
+            char[] chars = new char[r.nextInt(64)];
+            for (int j = 0; j < chars.length; ++j) {
+                chars[j] = (char) (r.nextBoolean() ? r.nextInt(0x80) : r.nextInt(0x10000));
+            }
+            String s = new String(chars);
+            byte[] expected = utf8(s);
+            byte[] bytes = new byte[Utf8.encodedLength(chars, 0, chars.length)];
+            eq(expected.length, Utf8.encode(chars, 0, chars.length, bytes, 0));
+            yes(Arrays.equals(expected, bytes));
+            char[] decoded = new char[bytes.length];
+            int len = Utf8.decode(bytes, 0, bytes.length, decoded, 0);
+            eq(new String(bytes, Charsets.UTF_8), new String(decoded, 0, len));
+        }
+    }
+
+    @Test
+    public void testMalformedInput() {
+        byte[] bytes = {'a', (byte) 0xC3, 'b', (byte) 0xED, (byte) 0xA0, (byte) 0x80, (byte) 0xF0, (byte) 0x9F, 'c', (byte) 0xE2, (byte) 0x82};
+        char[] chars = new char[bytes.length];
+        int len = Utf8.decode(bytes, 0, bytes.length, chars, 0);
+        eq(new String(bytes, Charsets.UTF_8), new String(chars, 0, len));
+    }
+
+    @Test
+    public void testByteBuffers() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 500; ++i) {
+            sb.append(MIXED);
+        }
+        String s = sb.toString();
+        byte[] expected = utf8(s);
+        for (ByteBuffer buffer : new ByteBuffer[]{ByteBuffer.allocate(expected.length + 2), ByteBuffer.allocateDirect(expected.length + 2)}) {
+            buffer.put((byte) '[');
+            FastStr.of(s).writeUtf8(buffer);
+            buffer.put((byte) ']');
+            buffer.flip();
+            eq(expected.length + 2, buffer.remaining());
+            eq('[' + s + ']', FastStr.ofUtf8(buffer).toString());
+            eq(buffer.limit(), buffer.position());
+            buffer.rewind();
+            eq('[' + s + ']', S.buffer().appendUtf8(buffer).toString());
+        }
+        ByteBuffer small = ByteBuffer.allocateDirect(4);
+        S.Buffer sb2 = S.buffer(MIXED);
+        try {
+            sb2.writeUtf8(small);
+            fail("BufferOverflowException expected");
+        } catch (BufferOverflowException e) {
+            eq(0, small.position());
+        }
+        eq(MIXED, sb2.toString());
+    }
+
+    @Test
+    public void testChunkBoundaries() {
+        // a lone high surrogate followed by a pair, across the 1024 char chunk boundary
+        char[] chars = new char[1100];
+        Arrays.fill(chars, 'a');
+        "\ud83d\ud83d\ude00".getChars(0, 3, chars, 1023);
+        byte[] expected = utf8(new String(chars));
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        Utf8.encode(chars, 0, chars.length, os);
+        yes(Arrays.equals(expected, os.toByteArray()));
+        ByteBuffer direct = ByteBuffer.allocateDirect(expected.length);
+        Utf8.encode(chars, 0, chars.length, direct);
+        eq(direct.capacity(), direct.position());
+        direct.flip();
+        char[] decoded = new char[expected.length];
+        eq(new String(expected, Charsets.UTF_8), new String(decoded, 0, Utf8.decode(direct, decoded, 0)));
+
+        // continuation bytes right before the 3075 byte chunk boundary
+        byte[] bytes = new byte[4000];
+        Arrays.fill(bytes, (byte) 'a');
+        bytes[3070] = (byte) 0xE1;
+        Arrays.fill(bytes, 3071, 3075, (byte) 0x80);
+        verifyDirectDecode(bytes);
+
+        Random r = new Random(7);
+        for (int i = 0; i < 200; ++i) {
+            bytes = new byte[3000 + r.nextInt(400)];
+            for (int j = 0; j < bytes.length; ++j) {
+                bytes[j] = (byte) (r.nextInt(4) == 0 ? r.nextInt(256) : 0x80 + r.nextInt(0x40));
+            }
+            verifyDirectDecode(bytes);
+        }
+    }
+
+    private static void verifyDirectDecode(byte[] bytes) {
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        char[] chars = new char[bytes.length];
+        eq(new String(bytes, Charsets.UTF_8), new String(chars, 0, Utf8.decode(direct, chars, 0)));
+        eq(direct.limit(), direct.position());
+    }
+
+    @Test
+    public void testFastStr() {
+        eq(MIXED, FastStr.ofUtf8(utf8(MIXED)).toString());
+        FastStr ascii = FastStr.ofUtf8(utf8("ascii only"));
+        yes(ascii.isLatin1());
+        yes(FastStr.ofUtf8(utf8("caf\u00e9")).isLatin1());
+        eq("b\u00e9", FastStr.ofUtf8(utf8("ab\u00e9c"), 1, 4).toString());
+        FastStr latin1 = FastStr.of("x caf\u00e9 y").substr(2, 6);
+        yes(Arrays.equals(utf8("caf\u00e9"), latin1.getBytesUTF8()));
+        yes(Arrays.equals(utf8(MIXED), FastStr.of(MIXED).getBytesUTF8()));
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        latin1.writeUtf8(os);
+        FastStr.of(MIXED).writeUtf8(os);
+        yes(Arrays.equals(utf8("caf\u00e9" + MIXED), os.toByteArray()));
+    }
+
+    @Test
+    public void testBuffer() {
+        S.Buffer buffer = S.buffer(MIXED);
+        byte[] bytes = new byte[buffer.utf8Length() + 1];
+        eq(bytes.length, buffer.writeUtf8(bytes, 1));
+        yes(buffer.consumed());
+        yes(Arrays.equals(utf8(MIXED), Arrays.copyOfRange(bytes, 1, bytes.length)));
+        yes(Arrays.equals(utf8(MIXED), S.buffer(MIXED).getBytesUTF8()));
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        S.buffer(MIXED).writeUtf8(os);
+        yes(Arrays.equals(utf8(MIXED), os.toByteArray()));
+        eq("x" + MIXED, S.buffer("x").appendUtf8(bytes, 1, bytes.length).toString());
+    }
+
+}
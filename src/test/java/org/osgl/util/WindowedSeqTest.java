@@ -0,0 +1,98 @@
+package org.osgl.util;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+import org.osgl.$;
+
+public class WindowedSeqTest extends UtilTestBase {
+
+    private static final $.Predicate<Integer> IS_ODD = new $.Predicate<Integer>() {
+        @Override
+        public boolean test(Integer integer) {
+            return integer % 2 != 0;
+        }
+    };
+
+    @Test
+    public void batch() {
+        C.List<Integer> l = C.list(1, 2, 3, 4, 5);
+        eq(C.list(C.list(1, 2), C.list(3, 4), C.list(5)), C.newList(l.batch(2)));
+        eq(1, l.batch(5).size());
+        eq(l, l.batch(5).first());
+        eq(l, l.batch(10).first());
+        eq(3, l.batch(2).size());
+        yes(C.<Integer>list().batch(3).isEmpty());
+        yes(l.batch(2).first().is(C.Feature.IMMUTABLE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void batchShallRejectNonPositiveSize() {
+        C.list(1, 2).batch(0);
+    }
+
+    @Test
+    public void batchOnLazySequence() {
+        C.Sequence<C.List<Integer>> batches = seqOf(1, 2, 3, 4, 5, 6, 7).batch(3);
+        eq(C.list(C.list(1, 2, 3), C.list(4, 5, 6), C.list(7)), C.newList(batches));
+    }
+
+    @Test
+    public void slidingWindow() {
+        C.List<Integer> l = C.list(1, 2, 3, 4, 5);
+        eq(C.list(C.list(1, 2, 3), C.list(2, 3, 4), C.list(3, 4, 5)), C.newList(l.window(3, 1)));
+        eq(3, l.window(3, 1).size());
+        eq(C.list(C.list(1, 2, 3), C.list(3, 4, 5)), C.newList(l.window(3, 2)));
+        yes(l.window(6, 1).isEmpty());
+    }
+
+    @Test
+    public void slidingWindowAcrossBlocks() {
+        C.Sequence<Integer> seq = C.range(0, 1000);
+        int i = 0;
+        for (C.List<Integer> w : seq.window(10, 3)) {
+            eq(10, w.size());
+            for (int j = 0; j < 10; ++j) {
+                eq(i * 3 + j, w.get(j));
+            }
+            i++;
+        }
+        eq((1000 - 10) / 3 + 1, i);
+    }
+
+    @Test
+    public void tumblingAndHoppingWindow() {
+        C.List<Integer> l = C.list(1, 2, 3, 4, 5);
+        eq(C.list(C.list(1, 2), C.list(3, 4)), C.newList(l.window(2, 2)));
+        eq(C.list(C.list(1), C.list(3), C.list(5)), C.newList(l.window(1, 2)));
+        eq(C.list(C.list(1, 2), C.list(4, 5)), C.newList(l.window(2, 3)));
+    }
+
+    @Test
+    public void chunkBy() {
+        C.List<Integer> l = C.list(1, 3, 2, 4, 5);
+        eq(C.list(C.list(1, 3), C.list(2, 4), C.list(5)), C.newList(l.chunkBy(IS_ODD)));
+        eq(3, l.chunkBy(IS_ODD).size());
+        yes(C.<Integer>list().chunkBy(IS_ODD).isEmpty());
+        eq(1, l.chunkBy($.F.<Integer>yes()).size());
+        eq(l, l.chunkBy($.F.<Integer>yes()).first());
+    }
+}
@@ -0,0 +1,132 @@
+package org.osgl.util.algo;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+import org.osgl.$;
+import org.osgl.OsglToolTestBase;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+public class ArraySelectTest extends OsglToolTestBase {
+
+    private static final Comparator<Integer> NATURAL = $.F.naturalOrder();
+
+    private static Integer[] randomArray(int n, int range, long seed) {
+        Random r = new Random(seed);
+        Integer[] a = new Integer[n];
+        for (int i = 0; i < n; ++i) {
+            a[i] = r.nextInt(range);
+        }
+        return a;
+    }
+
+    private static Integer[] sortedCopy(Integer[] a) {
+        Integer[] copy = a.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    @Test
+    public void selectShallFindTheNthElement() {
+        ArrayIntroSelect select = Algorithms.ARRAY_INTRO_SELECT;
+        for (int n : new int[]{1, 2, 15, 16, 17, 100, 10000}) {
+            for (int range : new int[]{1, 3, n * 10}) {
+                Integer[] a = randomArray(n, range, n + range);
+                Integer[] sorted = sortedCopy(a);
+                for (int i : new int[]{0, n / 2, n - 1}) {
+                    Integer[] b = a.clone();
+                    eq(sorted[i], select.select(b, 0, n, i, NATURAL));
+                    for (int j = 0; j < i; ++j) {
+                        yes(b[j] <= b[i]);
+                    }
+                    for (int j = i + 1; j < n; ++j) {
+                        yes(b[j] >= b[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void selectShallHandleSortedAndReversedInput() {
+        int n = 50000;
+        Integer[] a = new Integer[n];
+        for (int i = 0; i < n; ++i) {
+            a[i] = i;
+        }
+        eq(12345, Algorithms.ARRAY_INTRO_SELECT.select(a.clone(), 0, n, 12345, NATURAL));
+        Comparator<Integer> reversed = $.F.reverseOrder();
+        eq(n - 1 - 12345, Algorithms.ARRAY_INTRO_SELECT.select(a.clone(), 0, n, 12345, reversed));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void selectShallRejectIndexOutOfRange() {
+        Algorithms.ARRAY_INTRO_SELECT.select(new Integer[]{1, 2, 3}, 0, 2, 2, NATURAL);
+    }
+
+    @Test
+    public void partialSortShallSortThePrefix() {
+        Integer[] a = randomArray(1000, 100, 1);
+        Integer[] sorted = sortedCopy(a);
+        for (int k : new int[]{0, 1, 10, 999, 1000, 2000}) {
+            Integer[] b = Algorithms.ARRAY_INTRO_SELECT.partialSort(a.clone(), 0, a.length, k, NATURAL);
+            int m = Math.min(k, a.length);
+            eq(Arrays.asList(sorted).subList(0, m), Arrays.asList(b).subList(0, m));
+            eq(sorted, sortedCopy(b));
+        }
+    }
+
+    @Test
+    public void boundedHeapShallKeepTheSmallestElements() {
+        BoundedHeap<Integer> heap = new BoundedHeap<Integer>(3, NATURAL);
+        for (int i : new int[]{5, 1, 4, 2, 3, 0}) {
+            heap.offer(i);
+        }
+        eq(3, heap.size());
+        eq(2, heap.peek());
+        BoundedHeap<Integer> other = new BoundedHeap<Integer>(2, NATURAL);
+        other.offer(-1);
+        other.offer(7);
+        heap.merge(other);
+        yes(Arrays.equals(new Object[]{-1, 0, 1}, heap.toSortedArray()));
+        BoundedHeap<Integer> empty = new BoundedHeap<Integer>(0, NATURAL);
+        no(empty.offer(1));
+        isNull(empty.peek());
+    }
+
+    @Test
+    public void topKShallMatchSortAndTake() {
+        ArrayTopK topK = Algorithms.ARRAY_TOP_K;
+        for (int n : new int[]{0, 1, 100, ArrayTopK.MIN_PARALLEL_SIZE * 4}) {
+            Integer[] a = randomArray(n, Math.max(1, n / 3), n);
+            Integer[] sorted = sortedCopy(a);
+            for (int k : new int[]{0, 1, 100, n + 1}) {
+                int m = Math.min(k, n);
+                Object[] expected = Arrays.copyOf(sorted, m, Object[].class);
+                yes(Arrays.equals(expected, topK.topK(a, 0, n, k, NATURAL)));
+                yes(Arrays.equals(expected, topK.parallelTopK(a, 0, n, k, NATURAL)));
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.osgl.util.algo;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+import org.osgl.OsglToolTestBase;
+import org.osgl.util.C;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+public class ArraySortTest extends OsglToolTestBase {
+
+    private static class Item {
+        final int key;
+        final int seq;
+
+        Item(int key, int seq) {
+            this.key = key;
+            this.seq = seq;
+        }
+    }
+
+    private static final Comparator<Item> BY_KEY = new Comparator<Item>() {
+        @Override
+        public int compare(Item o1, Item o2) {
+            return o1.key < o2.key ? -1 : o1.key == o2.key ? 0 : 1;
+        }
+    };
+
+    private static Item[] items(int n, int range, long seed) {
+        Random r = new Random(seed);
+        Item[] items = new Item[n];
+        for (int i = 0; i < n; ++i) {
+            items[i] = new Item(r.nextInt(range), i);
+        }
+        return items;
+    }
+
+    private void verifyStable(Item[] sorted, int from, int to) {
+        for (int i = from + 1; i < to; ++i) {
+            Item prev = sorted[i - 1], cur = sorted[i];
+            yes(prev.key < cur.key || prev.key == cur.key && prev.seq < cur.seq);
+        }
+    }
+
+    @Test
+    public void timSortShallBeStable() {
+        for (int n : new int[]{0, 1, 2, 31, 32, 33, 1000, 50000}) {
+            Item[] items = items(n, Math.max(1, n / 10), n);
+            if (n > 0) {
+                Algorithms.<Item>arrayTimSortInplace().sort(items, 0, n, BY_KEY);
+            }
+            verifyStable(items, 0, n);
+        }
+    }
+
+    @Test
+    public void timSortShallHandleRuns() {
+        Integer[] a = new Integer[10000];
+        for (int i = 0; i < a.length; ++i) {
+            // ascending and descending runs of different length
+            a[i] = (i / 700) % 2 == 0 ? i : -i;
+        }
+        Integer[] expected = a.clone();
+        Arrays.sort(expected);
+        Algorithms.<Integer>arrayTimSortInplace().sort(a, 0, a.length, null);
+        eq(Arrays.asList(expected), Arrays.asList(a));
+    }
+
+    @Test
+    public void timSortShallSortSubRange() {
+        Integer[] a = {9, 8, 7, 6, 5, 4, 3, 2, 1};
+        Algorithms.<Integer>arrayTimSortInplace().sort(a, 2, 7, null);
+        eq(Arrays.asList(9, 8, 3, 4, 5, 6, 7, 2, 1), Arrays.asList(a));
+    }
+
+    @Test
+    public void parallelMergeSortShallBeStable() {
+        int n = ArrayParallelMergeSortInplace.MIN_PARALLEL_SIZE * 20 + 17;
+        Item[] items = items(n, 1000, 7);
+        Algorithms.<Item>arrayParallelMergeSortInplace().sort(items, 0, n, BY_KEY);
+        verifyStable(items, 0, n);
+    }
+
+    @Test
+    public void mergeSortShallReturnSortedCopy() {
+        Integer[] a = {5, 1, 4, 2, 3};
+        Integer[] sorted = new ArrayMergeSort<Integer>().sort(a, 0, a.length, null);
+        eq(Arrays.asList(1, 2, 3, 4, 5), Arrays.asList(sorted));
+        eq(Arrays.asList(5, 1, 4, 2, 3), Arrays.asList(a));
+    }
+
+    @Test
+    public void parallelListSorted() {
+        Random r = new Random(3);
+        C.List<Integer> list = C.newSizedList(100000);
+        for (int i = 0; i < 100000; ++i) {
+            list.add(r.nextInt());
+        }
+        C.List<Integer> sorted = list.parallel().sorted();
+        Integer[] expected = list.toArray(new Integer[list.size()]);
+        Arrays.sort(expected);
+        eq(Arrays.asList(expected), sorted);
+        eq(sorted, list.sorted());
+    }
+
+}
@@ -0,0 +1,138 @@
+package org.osgl.util.algo;
+
+/*-
+ * #%L
+ * Java Tool
+ * %%
+ * Copyright (C) 2014 - 2017 OSGL (Open Source General Library)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+import org.osgl.OsglToolTestBase;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class PrimitiveArrayAlgorithmTest extends OsglToolTestBase {
+
+    private static final int N = 5000;
+
+    private Random r = new Random(1);
+
+    @Test
+    public void radixSortInt() {
+        int[] a = new int[N];
+        for (int i = 0; i < N; ++i) {
+            a[i] = r.nextInt();
+        }
+        a[0] = Integer.MIN_VALUE;
+        a[1] = Integer.MAX_VALUE;
+        int[] expected = a.clone();
+        Arrays.sort(expected, 10, N - 10);
+        Algorithms.RADIX_SORT.sort(a, 10, N - 10);
+        yes(Arrays.equals(expected, a));
+    }
+
+    @Test
+    public void radixSortLong() {
+        long[] a = new long[N];
+        for (int i = 0; i < N; ++i) {
+            a[i] = r.nextLong();
+        }
+        long[] expected = a.clone();
+        Arrays.sort(expected);
+        Algorithms.RADIX_SORT.sort(a);
+        yes(Arrays.equals(expected, a));
+    }
+
+    @Test
+    public void radixSortDouble() {
+        double[] a = new double[N];
+        for (int i = 0; i < N; ++i) {
+            a[i] = r.nextGaussian() * 1e6;
+        }
+        a[0] = -0.0;
+        a[1] = 0.0;
+        a[2] = Double.NaN;
+        a[3] = Double.NEGATIVE_INFINITY;
+        a[4] = Double.POSITIVE_INFINITY;
+        double[] expected = a.clone();
+        Arrays.sort(expected);
+        Algorithms.RADIX_SORT.sort(a);
+        yes(Arrays.equals(expected, a));
+    }
+
+    @Test
+    public void radixSortChar() {
+        char[] a = new char[N];
+        for (int i = 0; i < N; ++i) {
+            a[i] = (char) r.nextInt(Character.MAX_VALUE + 1);
+        }
+        char[] expected = a.clone();
+        Arrays.sort(expected);
+        Algorithms.RADIX_SORT.sort(a);
+        yes(Arrays.equals(expected, a));
+    }
+
+    @Test
+    public void radixSortShallSkipConstantDigits() {
+        int[] a = new int[N];
+        for (int i = 0; i < N; ++i) {
+            a[i] = (N - i) << 8;
+        }
+        int[] expected = a.clone();
+        Arrays.sort(expected);
+        Algorithms.RADIX_SORT.sort(a);
+        yes(Arrays.equals(expected, a));
+    }
+
+    @Test
+    public void branchFreeBinarySearch() {
+        PrimitiveArrayBinarySearch search = Algorithms.BRANCH_FREE_BINARY_SEARCH;
+        int[] a = {1, 3, 5, 7, 9, 11, 13};
+        for (int key = 0; key < 15; ++key) {
+            eq(Arrays.binarySearch(a, key), search.search(a, key));
+        }
+        eq(-1, search.search(new int[0], 5));
+        eq(1, search.search(new int[]{1, 2, 2, 2, 3}, 2));
+        eq(2, search.search(new long[]{1L, 5L, 10L}, 10L));
+        eq(-2, search.search(new double[]{1.0, 5.0}, 3.0));
+        eq(-4, search.search(new char[]{'a', 'b', 'c'}, 'z'));
+    }
+
+    @Test
+    public void eytzingerSearch() {
+        EytzingerLayout eytzinger = Algorithms.EYTZINGER_LAYOUT;
+        for (int n = 0; n < 40; ++n) {
+            int[] sorted = new int[n];
+            for (int i = 0; i < n; ++i) {
+                sorted[i] = i * 2;
+            }
+            int[] layout = eytzinger.layout(sorted);
+            for (int key = -1; key <= n * 2; ++key) {
+                int pos = eytzinger.lowerBound(layout, key);
+                int expected = Algorithms.BRANCH_FREE_BINARY_SEARCH.lowerBound(sorted, 0, n, key);
+                if (expected == n) {
+                    eq(0, pos);
+                } else {
+                    eq(sorted[expected], layout[pos]);
+                }
+                eq(key % 2 == 0 && key >= 0 && key < n * 2, eytzinger.search(layout, key) > 0);
+            }
+        }
+    }
+
+}